@@ -14,6 +14,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.inject.servlet.ServletModule;
 
 import org.eclipse.che.api.core.cors.CheCorsFilter;
+import org.eclipse.che.api.core.rest.CompressionFilter;
 import org.eclipse.che.filters.WsAgentEnvironmentInitializationFilter;
 import org.eclipse.che.inject.DynaModule;
 import org.everrest.guice.servlet.GuiceEverrestServlet;
@@ -28,6 +29,7 @@ public class WsAgentServletModule extends ServletModule {
 
         filter("/*").through(CheCorsFilter.class);
         filter("/ext/*").through(WsAgentEnvironmentInitializationFilter.class);
+        filterRegex("^/ext((?!(/(ws|eventbus)($|/.*)))/.*)").through(CompressionFilter.class);
 
         serveRegex("^/ext((?!(/(ws|eventbus)($|/.*)))/.*)").with(GuiceEverrestServlet.class);
 
@@ -48,6 +48,7 @@ public class WsMasterServletModule extends ServletModule {
         filter("/*").through(CorsFilter.class, corsFilterParams);
 
         filter("/api/*").through(org.eclipse.che.api.local.filters.WsMasterEnvironmentInitializationFilter.class);
+        filterRegex("^/api((?!(/(ws|eventbus)($|/.*)))/.*)").through(org.eclipse.che.api.core.rest.CompressionFilter.class);
         serveRegex("^/api((?!(/(ws|eventbus)($|/.*)))/.*)").with(org.eclipse.che.api.local.CheGuiceEverrestServlet.class);
         install(new org.eclipse.che.swagger.deploy.BasicSwaggerConfigurationModule());
     }
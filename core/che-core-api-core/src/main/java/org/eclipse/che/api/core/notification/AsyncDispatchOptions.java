@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * Options of asynchronous delivery of events to subscriber, see {@link EventService#subscribe(EventSubscriber, Class,
+ * AsyncDispatchOptions)}. Usage example:
+ * <pre>
+ *     bus.subscribe(subscriber, MyEvent.class, AsyncDispatchOptions.builder()
+ *                                                                  .setQueueCapacity(100)
+ *                                                                  .setOverflowPolicy(OverflowPolicy.COALESCE)
+ *                                                                  .setCoalescingKey(event -&gt; ((MyEvent)event).getId())
+ *                                                                  .build());
+ * </pre>
+ *
+ * @author agent
+ */
+public final class AsyncDispatchOptions {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    /** What to do with event when queue of subscriber is full. */
+    public enum OverflowPolicy {
+        /** Publisher waits until subscriber takes event from the queue. */
+        BLOCK,
+        /** The oldest event in the queue is dropped. */
+        DROP_OLDEST,
+        /**
+         * Event replaces queued event with the same coalescing key, event that has no queued pair is handled as with {@link #BLOCK}
+         * policy. Events are coalesced even if queue is not full.
+         */
+        COALESCE
+    }
+
+    public static AsyncDispatchOptionsBuilder builder() {
+        return new AsyncDispatchOptionsBuilder();
+    }
+
+    private final int                      queueCapacity;
+    private final OverflowPolicy           overflowPolicy;
+    private final Function<Object, Object> coalescingKey;
+    private final ExecutorService          executor;
+
+    private AsyncDispatchOptions(int queueCapacity,
+                                 OverflowPolicy overflowPolicy,
+                                 Function<Object, Object> coalescingKey,
+                                 ExecutorService executor) {
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.coalescingKey = coalescingKey;
+        this.executor = executor;
+    }
+
+    /** Max number of events queued for subscriber. */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /** Function that gets coalescing key of event, {@code null} key means that event may not be coalesced. */
+    public Function<Object, Object> getCoalescingKey() {
+        return coalescingKey;
+    }
+
+    /**
+     * Executor that delivers events to subscriber. Events are delivered one by one in order they are queued even if executor has
+     * many threads. If executor is not set, single thread executor is created for subscriber and is shut down when subscriber is
+     * unsubscribed.
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public static class AsyncDispatchOptionsBuilder {
+        private int                      queueCapacity  = DEFAULT_QUEUE_CAPACITY;
+        private OverflowPolicy           overflowPolicy = OverflowPolicy.BLOCK;
+        private Function<Object, Object> coalescingKey;
+        private ExecutorService          executor;
+
+        public AsyncDispatchOptions build() {
+            if (overflowPolicy == OverflowPolicy.COALESCE && coalescingKey == null) {
+                throw new IllegalArgumentException("Coalescing key is required for " + OverflowPolicy.COALESCE + " overflow policy");
+            }
+            return new AsyncDispatchOptions(queueCapacity, overflowPolicy, coalescingKey, executor);
+        }
+
+        public AsyncDispatchOptionsBuilder setQueueCapacity(int queueCapacity) {
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("Queue capacity must be positive");
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public AsyncDispatchOptionsBuilder setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        public AsyncDispatchOptionsBuilder setCoalescingKey(Function<Object, Object> coalescingKey) {
+            this.coalescingKey = coalescingKey;
+            return this;
+        }
+
+        public AsyncDispatchOptionsBuilder setExecutor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+    }
+}
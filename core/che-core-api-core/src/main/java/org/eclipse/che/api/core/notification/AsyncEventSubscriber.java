@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static org.eclipse.che.api.core.notification.AsyncDispatchOptions.OverflowPolicy.COALESCE;
+import static org.eclipse.che.api.core.notification.AsyncDispatchOptions.OverflowPolicy.DROP_OLDEST;
+
+/**
+ * Subscriber that puts events in bounded queue and delivers them to wrapped subscriber with executor. Events are delivered one by
+ * one in order they are queued.
+ *
+ * @author agent
+ */
+class AsyncEventSubscriber implements EventSubscriber<Object> {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncEventSubscriber.class);
+
+    /** Max number of events that are delivered by single task, rest of events are delivered by next task to share executor fairly. */
+    private static final int MAX_EVENTS_PER_TASK = 64;
+
+    private final EventSubscriber<Object>  subscriber;
+    private final Class<?>                 eventType;
+    private final AsyncDispatchOptions     options;
+    private final Function<Object, Object> coalescingKey;
+    private final ExecutorService          executor;
+    private final boolean                  ownExecutor;
+    private final Deque<Envelope>          queue;
+    private final Map<Object, Envelope>    queuedByKey;
+    private final ReentrantLock            lock;
+    private final Condition                notFull;
+    private final Runnable                 deliveryTask;
+
+    private volatile boolean stopped;
+
+    private boolean delivering;
+    private int     maxQueueDepth;
+    private long    delivered;
+    private long    dropped;
+    private long    coalesced;
+    private long    totalLatencyNanos;
+    private long    maxLatencyNanos;
+
+    @SuppressWarnings("unchecked")
+    AsyncEventSubscriber(EventSubscriber<?> subscriber, Class<?> eventType, AsyncDispatchOptions options) {
+        this.subscriber = (EventSubscriber<Object>)subscriber;
+        this.eventType = eventType;
+        this.options = options;
+        this.coalescingKey = options.getOverflowPolicy() == COALESCE ? options.getCoalescingKey() : null;
+        if (options.getExecutor() == null) {
+            executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("EventService-" + eventType.getSimpleName())
+                                                                                   .setDaemon(true)
+                                                                                   .build());
+            ownExecutor = true;
+        } else {
+            executor = options.getExecutor();
+            ownExecutor = false;
+        }
+        queue = new ArrayDeque<>();
+        queuedByKey = new HashMap<>();
+        lock = new ReentrantLock();
+        notFull = lock.newCondition();
+        deliveryTask = this::deliver;
+    }
+
+    EventSubscriber<?> getSubscriber() {
+        return subscriber;
+    }
+
+    Class<?> getEventType() {
+        return eventType;
+    }
+
+    @Override
+    public void onEvent(Object event) {
+        final Object key = coalescingKey == null ? null : coalescingKey.apply(event);
+        boolean startDelivery = false;
+        lock.lock();
+        try {
+            if (key != null) {
+                final Envelope queued = queuedByKey.get(key);
+                if (queued != null) {
+                    // keep position in the queue and publication time of replaced event
+                    queued.event = event;
+                    coalesced++;
+                    return;
+                }
+            }
+            while (queue.size() >= options.getQueueCapacity()) {
+                if (options.getOverflowPolicy() == DROP_OLDEST) {
+                    final Envelope oldest = queue.pollFirst();
+                    if (oldest.key != null) {
+                        queuedByKey.remove(oldest.key);
+                    }
+                    dropped++;
+                } else {
+                    notFull.await();
+                }
+            }
+            final Envelope envelope = new Envelope(event, key, System.nanoTime());
+            queue.addLast(envelope);
+            if (key != null) {
+                queuedByKey.put(key, envelope);
+            }
+            maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+            if (!delivering) {
+                delivering = true;
+                startDelivery = true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while waiting for space in queue of {}, event {} is dropped", subscriber, event);
+        } finally {
+            lock.unlock();
+        }
+        if (startDelivery) {
+            submitDelivery();
+        }
+    }
+
+    /** Gets snapshot of metrics of this subscriber. */
+    SubscriberMetrics getMetrics() {
+        lock.lock();
+        try {
+            return new SubscriberMetrics(queue.size(), maxQueueDepth, delivered, dropped, coalesced, totalLatencyNanos, maxLatencyNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Stops delivery of events. Events that are not delivered yet are dropped. */
+    void stop() {
+        stopped = true;
+        lock.lock();
+        try {
+            dropped += queue.size();
+            queue.clear();
+            queuedByKey.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (ownExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    private void submitDelivery() {
+        try {
+            executor.execute(deliveryTask);
+        } catch (RejectedExecutionException e) {
+            if (stopped) {
+                // executor is shut down by stop(), events are dropped anyway
+                LOG.debug("Unable deliver events to {}, subscriber is stopped", subscriber);
+            } else {
+                LOG.error(String.format("Unable deliver events to %s. %s", subscriber, e.getMessage()), e);
+            }
+            lock.lock();
+            try {
+                dropped += queue.size();
+                queue.clear();
+                queuedByKey.clear();
+                delivering = false;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void deliver() {
+        boolean done = false;
+        try {
+            done = deliverBatch();
+        } finally {
+            if (!done) {
+                // delivery is interrupted by Error, continue with the rest of queue or let next published event start new delivery
+                final boolean hasMore;
+                lock.lock();
+                try {
+                    hasMore = !queue.isEmpty();
+                    delivering = hasMore;
+                } finally {
+                    lock.unlock();
+                }
+                if (hasMore) {
+                    submitDelivery();
+                }
+            }
+        }
+    }
+
+    /** Delivers events until queue is empty or batch limit is reached, returns {@code true} if delivery is finished or rescheduled. */
+    private boolean deliverBatch() {
+        for (int i = 0; i < MAX_EVENTS_PER_TASK; i++) {
+            final Envelope envelope;
+            lock.lock();
+            try {
+                envelope = queue.pollFirst();
+                if (envelope == null) {
+                    delivering = false;
+                    return true;
+                }
+                if (envelope.key != null) {
+                    queuedByKey.remove(envelope.key);
+                }
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                LOG.debug("Publish event {} for {}", envelope.event, subscriber);
+                subscriber.onEvent(envelope.event);
+            } catch (RuntimeException e) {
+                LOG.error(e.getMessage(), e);
+            }
+            final long latency = System.nanoTime() - envelope.published;
+            lock.lock();
+            try {
+                delivered++;
+                totalLatencyNanos += latency;
+                maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+            } finally {
+                lock.unlock();
+            }
+        }
+        submitDelivery();
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncEventSubscriber{" + subscriber + '}';
+    }
+
+    private static class Envelope {
+        final Object key;
+        final long   published;
+
+        Object event;
+
+        Envelope(Object event, Object key, long published) {
+            this.event = event;
+            this.key = key;
+            this.published = published;
+        }
+    }
+}
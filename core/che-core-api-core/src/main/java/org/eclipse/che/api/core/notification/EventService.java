@@ -40,6 +40,9 @@ import java.util.concurrent.CopyOnWriteArraySet;
  *     });
  *     bus.publish(new MyEvent());
  * </pre>
+ * By default subscribers are invoked in the thread that publishes event. Slow subscriber may be subscribed with
+ * {@link #subscribe(EventSubscriber, Class, AsyncDispatchOptions)}, in this case events are put in bounded queue of subscriber
+ * and delivered to it asynchronously.
  *
  * @author andrew00x
  */
@@ -51,12 +54,14 @@ public class EventService {
     private static final int CACHE_MASK = CACHE_NUM - 1;
     private static final int SEG_SIZE   = 32;
 
-    private final LoadingCache<Class<?>, Set<Class<?>>>[]       typeCache;
-    private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+    private final LoadingCache<Class<?>, Set<Class<?>>>[]                 typeCache;
+    private final ConcurrentMap<Class<?>, Set<EventSubscriber>>           subscribersByEventType;
+    private final ConcurrentMap<EventSubscriber<?>, AsyncEventSubscriber> asyncSubscribers;
 
     @SuppressWarnings("unchecked")
     public EventService() {
         subscribersByEventType = new ConcurrentHashMap<>();
+        asyncSubscribers = new ConcurrentHashMap<>();
         typeCache = new LoadingCache[CACHE_NUM];
         for (int i = 0; i < CACHE_NUM; i++) {
             typeCache[i] = CacheBuilder.newBuilder().concurrencyLevel(SEG_SIZE).build(
@@ -134,6 +139,39 @@ public class EventService {
         doSubscribe(subscriber, eventType);
     }
 
+    /**
+     * Subscribe to an event with asynchronous delivery. Published events are put in bounded queue of the subscriber and are
+     * delivered to it with executor, so publisher is not blocked by slow subscriber unless queue is full and overflow policy is
+     * {@link AsyncDispatchOptions.OverflowPolicy#BLOCK BLOCK}.
+     *
+     * @param subscriber The subscriber to call when an event is published.
+     * @param eventType The event to subscribe to.
+     * @param options Options of asynchronous delivery.
+     * @see #getMetrics(EventSubscriber)
+     */
+    public <T> void subscribe(EventSubscriber<? extends T> subscriber, Class<T> eventType, AsyncDispatchOptions options) {
+        final AsyncEventSubscriber asyncSubscriber = new AsyncEventSubscriber(subscriber, eventType, options);
+        final AsyncEventSubscriber replaced = asyncSubscribers.put(subscriber, asyncSubscriber);
+        if (replaced != null) {
+            doUnsubscribe(replaced, replaced.getEventType());
+            replaced.stop();
+        }
+        doSubscribe(asyncSubscriber, eventType);
+    }
+
+    /**
+     * Gets metrics of subscriber that receives events asynchronously.
+     *
+     * @param subscriber
+     *         event subscriber
+     * @return metrics of subscriber or {@code null} if subscriber is not subscribed with
+     * {@link #subscribe(EventSubscriber, Class, AsyncDispatchOptions)}
+     */
+    public SubscriberMetrics getMetrics(EventSubscriber<?> subscriber) {
+        final AsyncEventSubscriber asyncSubscriber = asyncSubscribers.get(subscriber);
+        return asyncSubscriber == null ? null : asyncSubscriber.getMetrics();
+    }
+
     private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
         Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
         if (entries == null) {
@@ -153,7 +191,16 @@ public class EventService {
      *         event subscriber
      */
     public void unsubscribe(EventSubscriber<?> subscriber) {
-        final Class<?> eventType = getEventType(subscriber);
+        final AsyncEventSubscriber asyncSubscriber = asyncSubscribers.remove(subscriber);
+        if (asyncSubscriber != null) {
+            doUnsubscribe(asyncSubscriber, asyncSubscriber.getEventType());
+            asyncSubscriber.stop();
+        } else {
+            doUnsubscribe(subscriber, getEventType(subscriber));
+        }
+    }
+
+    private void doUnsubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
         final Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
         if (entries != null && !entries.isEmpty()) {
             boolean changed = entries.remove(subscriber);
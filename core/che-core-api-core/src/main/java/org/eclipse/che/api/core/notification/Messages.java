@@ -25,6 +25,10 @@ import org.everrest.websockets.message.RestOutputMessage;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.MediaType;
@@ -55,8 +59,45 @@ class Messages {
         return message;
     }
 
-    static Object restoreEventFromBroadcastMessage(RestOutputMessage message) throws Exception {
-        return fromJson(message.getBody());
+    /** Creates single message that contains all {@code events} as JSON array. */
+    static ChannelBroadcastMessage broadcastMessage(String channel, List<Object> events) throws Exception {
+        final StringBuilder body = new StringBuilder().append('[');
+        for (Object event : events) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append(toJson(event));
+        }
+        final ChannelBroadcastMessage message = new ChannelBroadcastMessage();
+        message.setBody(body.append(']').toString());
+        message.setChannel(channel);
+        return message;
+    }
+
+    /** Restores events from message that contains either single event or JSON array of events. */
+    static List<Object> restoreEventsFromBroadcastMessage(RestOutputMessage message) throws Exception {
+        final String body = message.getBody();
+        if (body == null || body.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final JsonParser parser = new JsonParser();
+        parser.parse(new StringReader(body));
+        final JsonValue node = parser.getJsonObject();
+        final List<Object> events = new ArrayList<>();
+        if (node.isArray()) {
+            for (Iterator<JsonValue> elements = node.getElements(); elements.hasNext(); ) {
+                final Object event = fromJson(elements.next());
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+        } else {
+            final Object event = fromJson(node);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
     }
 
     static Object restoreEventFromClientMessage(String message) throws Exception {
@@ -81,7 +122,10 @@ class Messages {
         }
         final JsonParser parser = new JsonParser();
         parser.parse(new StringReader(json));
-        final JsonValue node = parser.getJsonObject();
+        return fromJson(parser.getJsonObject());
+    }
+
+    private static Object fromJson(JsonValue node) throws Exception {
         final JsonValue typeNode = node.getElement("$type");
         final String type;
         if (typeNode == null || (type = typeNode.getStringValue()) == null) {
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+/**
+ * Snapshot of metrics of subscriber that receives events asynchronously.
+ *
+ * @author agent
+ */
+public final class SubscriberMetrics {
+    private final int  queueDepth;
+    private final int  maxQueueDepth;
+    private final long delivered;
+    private final long dropped;
+    private final long coalesced;
+    private final long totalLatencyNanos;
+    private final long maxLatencyNanos;
+
+    SubscriberMetrics(int queueDepth,
+                      int maxQueueDepth,
+                      long delivered,
+                      long dropped,
+                      long coalesced,
+                      long totalLatencyNanos,
+                      long maxLatencyNanos) {
+        this.queueDepth = queueDepth;
+        this.maxQueueDepth = maxQueueDepth;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.coalesced = coalesced;
+        this.totalLatencyNanos = totalLatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    /** Number of events that are waiting for delivery. */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /** Max number of events that were waiting for delivery at the same time. */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /** Number of events delivered to subscriber. */
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /** Number of events dropped because of overflow of queue. */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /** Number of events replaced in queue by newer events with the same coalescing key. */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /** Average time in milliseconds from publishing of event till the end of its processing by subscriber. */
+    public double getAverageLatencyMillis() {
+        return delivered == 0 ? 0 : totalLatencyNanos / 1e6 / delivered;
+    }
+
+    /** Max time in milliseconds from publishing of event till the end of its processing by subscriber. */
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return "SubscriberMetrics{" +
+               "queueDepth=" + queueDepth +
+               ", maxQueueDepth=" + maxQueueDepth +
+               ", delivered=" + delivered +
+               ", dropped=" + dropped +
+               ", coalesced=" + coalesced +
+               ", averageLatencyMillis=" + getAverageLatencyMillis() +
+               ", maxLatencyMillis=" + getMaxLatencyMillis() +
+               '}';
+    }
+}
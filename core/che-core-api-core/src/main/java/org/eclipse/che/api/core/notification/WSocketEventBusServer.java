@@ -10,21 +10,38 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.notification;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.everrest.websockets.WSConnectionContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.eclipse.che.commons.annotation.Nullable;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.core.MediaType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
+ * Propagates events to websocket channels.
+ * <p>
+ * If batch window is set, events of the same channel that are published within the window are sent as single message which body
+ * is JSON array of events. Batch is sent earlier if it reaches max size. Single event in batch is sent as usual message.
+ *
  * @author andrew00x
  */
 @Singleton
@@ -35,13 +52,42 @@ public final class WSocketEventBusServer {
     private final EventService                 eventService;
     private final ServerEventPropagationPolicy policy;
     private final AtomicBoolean                start;
+    private final long                         batchWindow;
+    private final int                          batchMaxSize;
+    private final ConcurrentMap<String, Batch> batches;
+    private final EventSubscriber<Object>      propagator;
+
+    private ScheduledExecutorService flusher;
 
-    @Inject
     public WSocketEventBusServer(EventService eventService, @Nullable ServerEventPropagationPolicy policy) {
+        this(eventService, policy, 0, 1);
+    }
+
+    /**
+     * @param batchWindow
+     *         time in milliseconds within that events of the same channel are collected in single message, if 0 or less each event
+     *         is sent immediately as separate message
+     * @param batchMaxSize
+     *         max number of events in single message
+     */
+    @Inject
+    public WSocketEventBusServer(EventService eventService,
+                                 @Nullable ServerEventPropagationPolicy policy,
+                                 @Named("notification.server.batch_window_ms") long batchWindow,
+                                 @Named("notification.server.batch_max_size") int batchMaxSize) {
         this.eventService = eventService;
         this.policy = policy;
+        this.batchWindow = batchWindow;
+        this.batchMaxSize = Math.max(batchMaxSize, 1);
 
         start = new AtomicBoolean(false);
+        batches = new ConcurrentHashMap<>();
+        propagator = new EventSubscriber<Object>() {
+            @Override
+            public void onEvent(Object event) {
+                propagate(event);
+            }
+        };
     }
 
     @POST
@@ -61,12 +107,23 @@ public final class WSocketEventBusServer {
     void start() {
         if (start.compareAndSet(false, true)) {
             if (policy != null) {
-                eventService.subscribe(new EventSubscriber<Object>() {
-                    @Override
-                    public void onEvent(Object event) {
-                        propagate(event);
-                    }
-                });
+                if (batchWindow > 0) {
+                    flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("WSocketEventBusServer")
+                                                                                                   .setDaemon(true)
+                                                                                                   .build());
+                }
+                eventService.subscribe(propagator);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (start.compareAndSet(true, false) && policy != null) {
+            eventService.unsubscribe(propagator);
+            if (flusher != null) {
+                flusher.shutdownNow();
+                batches.keySet().forEach(this::flush);
             }
         }
     }
@@ -74,7 +131,65 @@ public final class WSocketEventBusServer {
     protected void propagate(Object event) {
         if (policy.shouldPropagated(event)) {
             try {
-                WSConnectionContext.sendMessage(Messages.broadcastMessage(resolveChannelName(event), event));
+                final String channel = resolveChannelName(event);
+                if (flusher == null) {
+                    WSConnectionContext.sendMessage(Messages.broadcastMessage(channel, event));
+                } else {
+                    addToBatch(channel, event);
+                }
+            } catch (Exception e) {
+                LOG.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    private void addToBatch(String channel, Object event) {
+        Batch batch = batches.get(channel);
+        if (batch == null) {
+            final Batch newBatch = new Batch();
+            batch = batches.putIfAbsent(channel, newBatch);
+            if (batch == null) {
+                batch = newBatch;
+            }
+        }
+        final int size;
+        synchronized (batch) {
+            batch.events.add(event);
+            size = batch.events.size();
+        }
+        if (size >= batchMaxSize) {
+            flush(channel);
+        } else if (size == 1) {
+            try {
+                flusher.schedule(() -> flush(channel), batchWindow, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // event is being propagated while server is stopped
+                flush(channel);
+            }
+        }
+    }
+
+    private void flush(String channel) {
+        final Batch batch = batches.get(channel);
+        if (batch == null) {
+            return;
+        }
+        // batches of channel are sent one by one to keep order of events
+        synchronized (batch.sendLock) {
+            final List<Object> events;
+            synchronized (batch) {
+                if (batch.events.isEmpty()) {
+                    return;
+                }
+                events = batch.events;
+                batch.events = new ArrayList<>();
+            }
+            try {
+                if (events.size() == 1) {
+                    WSConnectionContext.sendMessage(Messages.broadcastMessage(channel, events.get(0)));
+                } else {
+                    WSConnectionContext.sendMessage(Messages.broadcastMessage(channel, events));
+                }
             } catch (Exception e) {
                 LOG.error(e.getMessage(), e);
             }
@@ -88,4 +203,10 @@ public final class WSocketEventBusServer {
         }
         return eventOrigin.value();
     }
+
+    private static class Batch {
+        final Object sendLock = new Object();
+
+        List<Object> events = new ArrayList<>();
+    }
 }
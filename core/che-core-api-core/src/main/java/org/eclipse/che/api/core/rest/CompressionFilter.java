@@ -0,0 +1,592 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.CountingOutputStream;
+import com.google.inject.Singleton;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.google.common.base.MoreObjects.firstNonNull;
+
+/**
+ * Compresses responses with {@code gzip} or {@code deflate} content coding if client accepts it. Response is buffered until it
+ * reaches {@link #MIN_SIZE_PARAMETER} bytes, smaller responses are sent as is with known length. Bigger responses are compressed
+ * on the fly, so response body is never kept in memory entirely. Only textual content types (text, JSON, XML, JavaScript) are
+ * compressed. Responses that already have {@code Content-Encoding} and partial responses are not touched.
+ * <p>
+ * ETag of compressed response gets suffix with name of coding, e.g. {@code "abc"} becomes {@code "abc-gzip"}, because compressed and
+ * identity representations are not byte-equal. The suffix is removed from {@code If-None-Match}, {@code If-Match} and {@code If-Range}
+ * headers of requests, so resources see their own tags.
+ * <p>
+ * Filter counts bytes written by application and bytes sent to client for compressed responses, the counters are registered in platform
+ * MBean server, see {@link CompressionFilterMXBean}.
+ *
+ * @author agent
+ */
+@Singleton
+public class CompressionFilter implements Filter, CompressionFilterMXBean {
+    private static final Logger LOG = LoggerFactory.getLogger(CompressionFilter.class);
+
+    /** Name of init parameter that sets min size of response in bytes that should be compressed. */
+    public static final String MIN_SIZE_PARAMETER = "compression.minSize";
+    /** Name of init parameter that sets compression level, see {@link Deflater#setLevel(int)}. */
+    public static final String LEVEL_PARAMETER    = "compression.level";
+
+    static final int DEFAULT_MIN_SIZE = 1024;
+
+    private static final String GZIP    = "gzip";
+    private static final String DEFLATE = "deflate";
+
+    private static final Pattern     CODING_SUFFIX       = Pattern.compile("-(" + GZIP + '|' + DEFLATE + ")\"");
+    private static final Set<String> CONDITIONAL_HEADERS = ImmutableSet.of("if-none-match", "if-match", "if-range");
+
+    private final AtomicLong uncompressedBytes   = new AtomicLong();
+    private final AtomicLong compressedBytes     = new AtomicLong();
+    private final AtomicLong compressedResponses = new AtomicLong();
+
+    private int        minSize = DEFAULT_MIN_SIZE;
+    private int        level   = Deflater.DEFAULT_COMPRESSION;
+    private ObjectName objectName;
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        try {
+            minSize = Integer.parseInt(firstNonNull(filterConfig.getInitParameter(MIN_SIZE_PARAMETER), String.valueOf(DEFAULT_MIN_SIZE)));
+            level = Integer.parseInt(firstNonNull(filterConfig.getInitParameter(LEVEL_PARAMETER),
+                                                  String.valueOf(Deflater.DEFAULT_COMPRESSION)));
+        } catch (NumberFormatException e) {
+            throw new ServletException("Invalid configuration of compression filter. " + e.getMessage(), e);
+        }
+        registerMBean(filterConfig);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final HttpServletRequest httpRequest = (HttpServletRequest)request;
+        final HttpServletResponse httpResponse = (HttpServletResponse)response;
+        final String encoding = selectEncoding(httpRequest.getHeader("Accept-Encoding"));
+        if (encoding == null || "HEAD".equals(httpRequest.getMethod()) || httpRequest.getHeader("Upgrade") != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        httpResponse.addHeader("Vary", "Accept-Encoding");
+        final EntityTagRequest tagRequest = new EntityTagRequest(httpRequest);
+        final CompressingResponse compressingResponse = new CompressingResponse(httpResponse, encoding, tagRequest);
+        boolean completed = false;
+        try {
+            chain.doFilter(tagRequest, compressingResponse);
+            completed = true;
+        } finally {
+            if (completed) {
+                compressingResponse.finish();
+            } else {
+                compressingResponse.abort();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                LOG.warn("Unable unregister {}: {}", objectName, e.getMessage());
+            }
+        }
+        LOG.debug("Compressed {} responses, {} bytes sent instead of {}",
+                  compressedResponses.get(), compressedBytes.get(), uncompressedBytes.get());
+    }
+
+    @Override
+    public long getUncompressedBytes() {
+        return uncompressedBytes.get();
+    }
+
+    @Override
+    public long getCompressedBytes() {
+        return compressedBytes.get();
+    }
+
+    @Override
+    public long getSavedBytes() {
+        return uncompressedBytes.get() - compressedBytes.get();
+    }
+
+    @Override
+    public long getCompressedResponses() {
+        return compressedResponses.get();
+    }
+
+    private void registerMBean(FilterConfig filterConfig) {
+        final ServletContext servletContext = filterConfig.getServletContext();
+        final String context = servletContext == null ? "" : servletContext.getContextPath();
+        try {
+            objectName = new ObjectName("org.eclipse.che:type=CompressionFilter,context=" + ObjectName.quote(context));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (JMException e) {
+            LOG.warn("Unable register metrics of compression filter: {}", e.getMessage());
+            objectName = null;
+        }
+    }
+
+    /**
+     * Selects content coding from value of {@code Accept-Encoding} header. Prefers {@code gzip} to {@code deflate}, codings with zero
+     * quality are never selected.
+     *
+     * @return selected coding or {@code null} if client doesn't accept any of supported codings
+     */
+    static String selectEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean gzip = false;
+        boolean deflate = false;
+        for (String item : acceptEncoding.split(",")) {
+            final String[] parts = item.split(";");
+            final String coding = parts[0].trim().toLowerCase(Locale.ENGLISH);
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                final String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        accepted = Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        accepted = false;
+                    }
+                }
+            }
+            if (GZIP.equals(coding) || "x-gzip".equals(coding) || "*".equals(coding)) {
+                gzip |= accepted;
+            } else if (DEFLATE.equals(coding)) {
+                deflate |= accepted;
+            }
+        }
+        return gzip ? GZIP : deflate ? DEFLATE : null;
+    }
+
+    /** Adds suffix with name of coding to entity tag, e.g. {@code "abc"} becomes {@code "abc-gzip"}. */
+    static String addCodingSuffix(String entityTag, String encoding) {
+        if (entityTag.endsWith("\"")) {
+            return entityTag.substring(0, entityTag.length() - 1) + '-' + encoding + '"';
+        }
+        return entityTag;
+    }
+
+    /** Removes suffixes added with {@link #addCodingSuffix(String, String)} from list of entity tags. */
+    static String removeCodingSuffixes(String entityTags) {
+        return CODING_SUFFIX.matcher(entityTags).replaceAll("\"");
+    }
+
+    static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        final String type = contentType.toLowerCase(Locale.ENGLISH);
+        return type.startsWith("text/")
+               || type.startsWith("application/json")
+               || type.startsWith("application/javascript")
+               || type.startsWith("application/xml")
+               || type.contains("+json")
+               || type.contains("+xml");
+    }
+
+    /** Removes coding suffixes from entity tags in conditional headers of request. */
+    private static class EntityTagRequest extends HttpServletRequestWrapper {
+        private boolean suffixRemoved;
+
+        EntityTagRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return removeSuffixes(name, super.getHeader(name));
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            final Enumeration<String> values = super.getHeaders(name);
+            if (values == null || !CONDITIONAL_HEADERS.contains(name.toLowerCase(Locale.ENGLISH))) {
+                return values;
+            }
+            final List<String> result = new ArrayList<>();
+            while (values.hasMoreElements()) {
+                result.add(removeSuffixes(name, values.nextElement()));
+            }
+            return Collections.enumeration(result);
+        }
+
+        private String removeSuffixes(String name, String value) {
+            if (value == null || !CONDITIONAL_HEADERS.contains(name.toLowerCase(Locale.ENGLISH))) {
+                return value;
+            }
+            final String result = removeCodingSuffixes(value);
+            if (!result.equals(value)) {
+                suffixRemoved = true;
+            }
+            return result;
+        }
+    }
+
+    private class CompressingResponse extends HttpServletResponseWrapper {
+        private final String           encoding;
+        private final EntityTagRequest request;
+
+        private CompressingOutputStream output;
+        private PrintWriter             writer;
+        private long                    contentLength = -1;
+
+        CompressingResponse(HttpServletResponse response, String encoding, EntityTagRequest request) {
+            super(response);
+            this.encoding = encoding;
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called for this response");
+            }
+            if (output == null) {
+                output = new CompressingOutputStream(this);
+            }
+            return output;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (output != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called for this response");
+                }
+                output = new CompressingOutputStream(this);
+                writer = new PrintWriter(new OutputStreamWriter(output, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            contentLength = len;
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            contentLength = len;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                contentLength = value == null ? -1 : Long.parseLong(value);
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                contentLength = value == null ? -1 : Long.parseLong(value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            } else if (output != null) {
+                output.flush();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            resetOutput();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            resetOutput();
+        }
+
+        private void resetOutput() {
+            if (output != null) {
+                output.reset();
+            }
+            contentLength = -1;
+        }
+
+        /** Decides whether response should be compressed. Called when size of response body exceeds threshold. */
+        boolean shouldCompress() {
+            final int status = getStatus();
+            return status != SC_NO_CONTENT
+                   && status != SC_NOT_MODIFIED
+                   && status != SC_PARTIAL_CONTENT
+                   && !containsHeader("Content-Range")
+                   && !containsHeader("Content-Encoding")
+                   && isCompressible(getContentType());
+        }
+
+        void finish() throws IOException {
+            if (getStatus() == SC_NOT_MODIFIED && request.suffixRemoved) {
+                // Client has compressed representation, send back the tag it knows.
+                addCodingSuffixToEntityTag();
+            }
+            if (writer != null) {
+                writer.close();
+            } else if (output != null) {
+                output.close();
+            } else if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+        }
+
+        /* Releases compressor if processing of request failed, buffered data is discarded and left to container error handling. */
+        void abort() {
+            if (output != null) {
+                output.abort();
+            }
+        }
+
+        private void addCodingSuffixToEntityTag() {
+            final String entityTag = getHeader("ETag");
+            if (entityTag != null) {
+                super.setHeader("ETag", addCodingSuffix(entityTag, encoding));
+            }
+        }
+
+        void sendUncompressed(byte[] bytes, int len) throws IOException {
+            super.setContentLengthLong(len);
+            if (len > 0) {
+                getResponse().getOutputStream().write(bytes, 0, len);
+            }
+        }
+
+        OutputStream startUncompressed() throws IOException {
+            if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+            return getResponse().getOutputStream();
+        }
+
+        CountingOutputStream startCompressed() throws IOException {
+            super.setHeader("Content-Encoding", encoding);
+            addCodingSuffixToEntityTag();
+            return new CountingOutputStream(getResponse().getOutputStream());
+        }
+
+        DeflaterOutputStream createCompressor(OutputStream out) throws IOException {
+            if (GZIP.equals(encoding)) {
+                return new LevelGZIPOutputStream(out, level);
+            }
+            return new EndingDeflaterOutputStream(out, level);
+        }
+    }
+
+    /**
+     * Buffers beginning of response body to decide whether it should be compressed. Once decision is made all data is written
+     * directly to compressor or to origin stream.
+     */
+    private class CompressingOutputStream extends ServletOutputStream {
+        private final CompressingResponse response;
+
+        private ByteArrayOutputStream buffer;
+        private OutputStream          out;
+        private CountingOutputStream  counter;
+        private long                  written;
+        private boolean               closed;
+
+        CompressingOutputStream(CompressingResponse response) {
+            this.response = response;
+            this.buffer = new ByteArrayOutputStream(Math.min(minSize, 8192) + 1);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            written += len;
+            if (out == null) {
+                if (buffer.size() + len <= minSize
+                    || (response.contentLength >= 0 && response.contentLength <= minSize)) {
+                    buffer.write(b, off, len);
+                    return;
+                }
+                start(true);
+            }
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (closed) {
+                return;
+            }
+            if (out == null && buffer.size() > 0) {
+                // Caller wants to send data now, e.g. streaming of logs, compress only if enough data is already collected.
+                start(buffer.size() >= minSize);
+            }
+            if (out != null) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (out == null) {
+                response.sendUncompressed(buffer.toByteArray(), buffer.size());
+                buffer = null;
+                return;
+            }
+            out.close();
+            if (counter != null) {
+                uncompressedBytes.addAndGet(written);
+                compressedBytes.addAndGet(counter.getCount());
+                compressedResponses.incrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return response.getResponse().getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                response.getResponse().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+        void abort() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer = null;
+            if (out instanceof DeflaterOutputStream) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    LOG.debug("Unable close compressor: {}", e.getMessage());
+                }
+            }
+        }
+
+        void reset() {
+            if (out == null) {
+                buffer.reset();
+                written = 0;
+            }
+        }
+
+        /**
+         * @param large
+         *         {@code true} if size of response body exceeds threshold
+         */
+        private void start(boolean large) throws IOException {
+            if (large && response.shouldCompress()) {
+                counter = response.startCompressed();
+                out = response.createCompressor(counter);
+            } else {
+                out = response.startUncompressed();
+            }
+            buffer.writeTo(out);
+            buffer = null;
+        }
+    }
+
+    private static class LevelGZIPOutputStream extends GZIPOutputStream {
+        LevelGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out, true);
+            def.setLevel(level);
+        }
+    }
+
+    /** Unlike {@link DeflaterOutputStream} ends {@link Deflater} when stream is closed, so native memory is released immediately. */
+    private static class EndingDeflaterOutputStream extends DeflaterOutputStream {
+        EndingDeflaterOutputStream(OutputStream out, int level) {
+            super(out, new Deflater(level), true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                def.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+/**
+ * Metrics of {@link CompressionFilter}. Registered in platform MBean server with name
+ * {@code org.eclipse.che:type=CompressionFilter,context="<context path>"}.
+ *
+ * @author agent
+ */
+public interface CompressionFilterMXBean {
+    /** Gets number of bytes written by application in responses that were compressed. */
+    long getUncompressedBytes();
+
+    /** Gets number of bytes sent to clients in compressed responses. */
+    long getCompressedBytes();
+
+    /** Gets number of bytes saved by compression. */
+    long getSavedBytes();
+
+    /** Gets number of compressed responses. */
+    long getCompressedResponses();
+}
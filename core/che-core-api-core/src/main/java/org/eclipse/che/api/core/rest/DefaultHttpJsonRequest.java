@@ -11,6 +11,7 @@
 package org.eclipse.che.api.core.rest;
 
 import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.core.ConflictException;
@@ -38,15 +39,23 @@ import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -57,6 +66,10 @@ import static java.util.Objects.requireNonNull;
  * <p>The instance of this request is reusable, which means that
  * it is possible to call {@link #request()} method more than one time per instance
  *
+ * <p>Connections are not closed after reading of response, so {@link HttpURLConnection} may reuse them for next requests to
+ * the same host (HTTP keep-alive). Number of idle connections kept per host is limited by "http.maxConnections" system property.
+ * Asynchronous requests are performed in bounded thread pool shared by all instances.
+ *
  * @author Yevhenii Voevodin
  * @see DefaultHttpJsonRequestFactory
  */
@@ -64,6 +77,7 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
 
     private static final int      DEFAULT_QUERY_PARAMS_LIST_SIZE = 5;
     private static final Object[] EMPTY_ARRAY                    = new Object[0];
+    private static final int      ASYNC_POOL_SIZE                = 20;
 
     private final String url;
 
@@ -155,11 +169,17 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
         return doRequest(timeout, url, method, body, queryParams, authorizationHeaderValue);
     }
 
+    @Override
+    public CompletableFuture<HttpJsonResponse> requestAsync() {
+        return requestAsync(AsyncExecutorHolder.EXECUTOR);
+    }
+
     /**
      * Makes this request using {@link HttpURLConnection}.
      *
      * <p>Uses {@link HttpHeaders#AUTHORIZATION} header with value from {@link EnvironmentContext}.
      * <br>uses {@link HttpHeaders#ACCEPT} header with "application/json" value.
+     * <br>Accepts gzip encoded response.
      * <br>Encodes query parameters in "UTF-8".
      *
      * @param timeout
@@ -219,17 +239,20 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
         final HttpURLConnection conn = (HttpURLConnection)new URL(url).openConnection();
         conn.setConnectTimeout(timeout > 0 ? timeout : 60000);
         conn.setReadTimeout(timeout > 0 ? timeout : 60000);
+        // connection is released for reuse only when response is read completely
+        boolean responseConsumed = false;
         try {
             conn.setRequestMethod(method);
             //drop a hint for server side that we want to receive application/json
             conn.addRequestProperty(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
+            conn.addRequestProperty(HttpHeaders.ACCEPT_ENCODING, "gzip");
             if (!isNullOrEmpty(authorizationHeaderValue)) {
                 conn.setRequestProperty(HttpHeaders.AUTHORIZATION, authorizationHeaderValue);
             } else if (authToken != null) {
                 conn.setRequestProperty(HttpHeaders.AUTHORIZATION, authToken);
             }
             if (body != null) {
-                conn.addRequestProperty(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+                conn.addRequestProperty(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON + ";charset=UTF-8");
                 conn.setDoOutput(true);
 
                 if (HttpMethod.DELETE.equals(method)) { //to avoid jdk bug described here http://bugs.java.com/view_bug.do?bug_id=7157360
@@ -237,8 +260,8 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                     conn.setRequestProperty("X-HTTP-Method-Override", HttpMethod.DELETE);
                 }
 
-                try (OutputStream output = conn.getOutputStream()) {
-                    output.write(DtoFactory.getInstance().toJson(body).getBytes());
+                try (Writer output = new OutputStreamWriter(conn.getOutputStream(), UTF_8)) {
+                    DtoFactory.getInstance().toJson(body, output);
                 }
             }
 
@@ -248,10 +271,8 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                 if (in == null) {
                     in = conn.getInputStream();
                 }
-                final String str;
-                try (Reader reader = new InputStreamReader(in)) {
-                    str = CharStreams.toString(reader);
-                }
+                final String str = readBody(conn, in);
+                responseConsumed = true;
                 final String contentType = conn.getContentType();
                 if (contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON)) {
                     final ServiceError serviceError = DtoFactory.getInstance().createDtoFromJson(str, ServiceError.class);
@@ -281,11 +302,24 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                 throw new IOException(conn.getResponseMessage());
             }
 
-            try (Reader reader = new InputStreamReader(conn.getInputStream())) {
-                return new DefaultHttpJsonResponse(CharStreams.toString(reader), responseCode);
-            }
+            final DefaultHttpJsonResponse response = new DefaultHttpJsonResponse(readBody(conn, conn.getInputStream()), responseCode);
+            responseConsumed = true;
+            return response;
         } finally {
-            conn.disconnect();
+            if (!responseConsumed) {
+                // state of connection is unknown, do not let it be reused
+                conn.disconnect();
+            }
+        }
+    }
+
+    /** Reads whole response body and closes the stream, that makes underlying connection available for next requests. */
+    private String readBody(HttpURLConnection conn, InputStream in) throws IOException {
+        // stream of connection is closed even if gzip header can't be read
+        try (InputStream body = in;
+             Reader reader = new InputStreamReader("gzip".equalsIgnoreCase(conn.getContentEncoding()) ? new GZIPInputStream(body) : body,
+                                                   UTF_8)) {
+            return CharStreams.toString(reader);
         }
     }
 
@@ -297,6 +331,23 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
         return null;
     }
 
+    private static class AsyncExecutorHolder {
+        static final ExecutorService EXECUTOR;
+
+        static {
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(ASYNC_POOL_SIZE,
+                                                                       ASYNC_POOL_SIZE,
+                                                                       60L,
+                                                                       TimeUnit.SECONDS,
+                                                                       new LinkedBlockingQueue<>(),
+                                                                       new ThreadFactoryBuilder().setNameFormat("HttpJsonRequest-%d")
+                                                                                                 .setDaemon(true)
+                                                                                                 .build());
+            executor.allowCoreThreadTimeOut(true);
+            EXECUTOR = executor;
+        }
+    }
+
     @Override
     public String toString() {
         return "DefaultHttpJsonRequest{" +
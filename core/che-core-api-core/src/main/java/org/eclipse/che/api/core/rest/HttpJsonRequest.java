@@ -19,6 +19,7 @@ import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.UnauthorizedException;
 import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
 import org.eclipse.che.dto.server.JsonSerializable;
 
 import javax.validation.constraints.NotNull;
@@ -27,6 +28,9 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Defines simple set of methods for requesting json objects.
@@ -177,6 +181,40 @@ public interface HttpJsonRequest {
                                       ConflictException,
                                       BadRequestException;
 
+    /**
+     * Makes this request asynchronously with executor provided by implementation.
+     * Default implementation uses {@link ForkJoinPool#commonPool()}, implementations should override
+     * this method and use own executor because requests block threads while waiting for response.
+     *
+     * @return future which is completed with {@link HttpJsonResponse} or with any exception {@link #request()} throws
+     * @see #requestAsync(Executor)
+     */
+    default CompletableFuture<HttpJsonResponse> requestAsync() {
+        return requestAsync(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Makes this request asynchronously in thread of the given {@code executor}.
+     * Current {@link EnvironmentContext#getCurrent() context} is used for authorization of request
+     * the same as with {@link #request()} method. This request must not be modified until returned future is completed.
+     *
+     * @param executor
+     *         executor that makes request
+     * @return future which is completed with {@link HttpJsonResponse} or with any exception {@link #request()} throws
+     */
+    default CompletableFuture<HttpJsonResponse> requestAsync(@NotNull Executor executor) {
+        Objects.requireNonNull(executor, "Required non-null executor");
+        final CompletableFuture<HttpJsonResponse> future = new CompletableFuture<>();
+        executor.execute(ThreadLocalPropagateContext.wrap((Runnable)() -> {
+            try {
+                future.complete(request());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }));
+        return future;
+    }
+
     /**
      * Uses {@link HttpMethod#GET} as a request method.
      *
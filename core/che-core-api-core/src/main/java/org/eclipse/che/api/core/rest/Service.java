@@ -25,6 +25,9 @@ import org.eclipse.che.api.core.rest.shared.dto.RequestBodyDescriptor;
 import org.eclipse.che.api.core.rest.shared.dto.ServiceDescriptor;
 import org.eclipse.che.api.core.util.PagingUtil;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.everrest.ETagResponseFilter;
+import org.everrest.core.ApplicationContext;
+import org.everrest.core.impl.ApplicationContextImpl;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.CookieParam;
@@ -37,8 +40,11 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 import java.lang.annotation.Annotation;
@@ -79,6 +85,27 @@ public abstract class Service {
         return DtoFactory.getInstance().createDto(ServiceDescriptor.class);
     }
 
+    /**
+     * Answers conditional request before response entity is built. Method that is able to get version of requested data
+     * cheaper than the data itself (modification stamp, revision of registry, etc.) should call this method before building
+     * response. If client has current version of data the request is completed with status 304 (Not Modified), otherwise
+     * {@code version} is used as ETag of response instead of hash of response entity, see {@link ETagResponseFilter}.
+     *
+     * @param version
+     *         version of requested data
+     * @throws WebApplicationException
+     *         with 304 (Not Modified) response if client has current version of data
+     */
+    protected void checkNotModified(String version) {
+        final ApplicationContext context = ApplicationContextImpl.getCurrent();
+        final EntityTag entityTag = new EntityTag(version);
+        final Response.ResponseBuilder notModified = context.getRequest().evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            throw new WebApplicationException(notModified.tag(entityTag).build());
+        }
+        context.getAttributes().put(ETagResponseFilter.VERSION_TAG_ATTRIBUTE, entityTag);
+    }
+
     /**
      * Generates link header value based on given {@code page}
      * and uri returned by {@code uriInfo.getRequestUri()}.
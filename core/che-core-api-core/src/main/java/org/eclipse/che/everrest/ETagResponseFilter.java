@@ -10,11 +10,13 @@
  *******************************************************************************/
 package org.eclipse.che.everrest;
 
+import com.google.common.hash.Funnels;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 
+import org.eclipse.che.dto.server.DtoFactory;
 import org.eclipse.che.dto.server.JsonSerializable;
 import org.everrest.core.ApplicationContext;
 import org.everrest.core.Filter;
@@ -24,10 +26,14 @@ import org.everrest.core.impl.ApplicationContextImpl;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.List;
 
@@ -39,12 +45,18 @@ import static org.eclipse.che.everrest.ETagResponseFilter.EntityType.UNKNOWN;
  * Filter implementing {@link org.everrest.core.ResponseFilter} in order to generate ETag for clients that want to use conditional
  * requests.
  * It is applying on GET method and JSON content type only.
+ * <p>
+ * ETag set by resource itself or declared with {@link org.eclipse.che.api.core.rest.Service#checkNotModified(String)} is kept, hash
+ * of response entity is calculated only if resource doesn't provide version of response.
  *
  * @author Florent Benoit
  */
 @Filter
 public class ETagResponseFilter implements ResponseFilter {
 
+    /** Name of attribute of {@link ApplicationContext} that contains {@link EntityTag} declared by resource as version of response. */
+    public static final String VERSION_TAG_ATTRIBUTE = ETagResponseFilter.class.getName() + ".versionTag";
+
     public enum EntityType {
         JSON_SERIALIZABLE,
         STRING,
@@ -81,6 +93,18 @@ public class ETagResponseFilter implements ResponseFilter {
             return;
         }
 
+        // resource has set ETag itself, keep it
+        if (containerResponse.getHttpHeaders().getFirst(HttpHeaders.ETAG) != null) {
+            return;
+        }
+
+        // resource has declared version of response, no need to hash entity
+        final Object versionTag = applicationContext.getAttributes().get(VERSION_TAG_ATTRIBUTE);
+        if (versionTag instanceof EntityTag) {
+            containerResponse.setResponse(Response.fromResponse(containerResponse.getResponse()).tag((EntityTag)versionTag).build());
+            return;
+        }
+
         // calculate hash with MD5
         HashFunction hashFunction = Hashing.md5();
         Hasher hasher = hashFunction.newHasher();
@@ -140,35 +164,20 @@ public class ETagResponseFilter implements ResponseFilter {
             // unknown entity type, cannot perform hash
             return false;
         }
-        // add hash if all is OK
-        try {
-            hasher.putString(getJson(entity, entityType), Charset.defaultCharset());
-        } catch (RuntimeException e) {
+        // add hash if all is OK, JSON is written to the hasher directly without building string
+        try (Writer writer = new OutputStreamWriter(Funnels.asOutputStream(hasher), Charset.defaultCharset())) {
+            if (entityType == JSON_SERIALIZABLE) {
+                DtoFactory.getInstance().toJson(entity, writer);
+            } else {
+                writer.write((String)entity);
+            }
+        } catch (IOException | RuntimeException e) {
             return false;
         }
         return true;
     }
 
 
-    /**
-     * Helper method to retrieving the JSON content based on the entity type
-     *
-     * @param entity
-     *         the object to analyze
-     * @return the JSON string or null if it's an unknown type
-     */
-    protected String getJson(Object entity, EntityType entityType) {
-        switch (entityType) {
-            case JSON_SERIALIZABLE:
-                return ((JsonSerializable)entity).toJson();
-            case STRING:
-                return (String)entity;
-            default:
-                return null;
-        }
-    }
-
-
     /**
      * Helper method for getting the type of the JSON entity
      *
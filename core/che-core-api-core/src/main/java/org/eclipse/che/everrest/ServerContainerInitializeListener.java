@@ -37,6 +37,7 @@ import javax.websocket.Decoder;
 import javax.websocket.DeploymentException;
 import javax.websocket.EncodeException;
 import javax.websocket.Encoder;
+import javax.websocket.Extension;
 import javax.websocket.HandshakeResponse;
 import javax.websocket.server.HandshakeRequest;
 import javax.websocket.server.ServerContainer;
@@ -50,6 +51,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static java.util.stream.Collectors.toList;
 import static javax.websocket.server.ServerEndpointConfig.Builder.create;
 import static javax.websocket.server.ServerEndpointConfig.Configurator;
 
@@ -65,6 +67,10 @@ public class ServerContainerInitializeListener implements ServletContextListener
     public static final String EVERREST_CONFIG_ATTRIBUTE    = EverrestConfiguration.class.getName();
     public static final String EXECUTOR_ATTRIBUTE           = "everrest.Executor";
     public static final String SECURITY_CONTEXT             = SecurityContext.class.getName();
+    /** Name of context parameter that enables or disables compression of websocket messages, enabled by default. */
+    public static final String WEBSOCKET_COMPRESSION        = "org.eclipse.che.websocket.compression";
+
+    private static final String PERMESSAGE_DEFLATE = "permessage-deflate";
 
     private static final AtomicLong sequence = new AtomicLong(1);
 
@@ -75,6 +81,7 @@ public class ServerContainerInitializeListener implements ServletContextListener
     private String                      websocketContext;
     private String                      websocketEndPoint;
     private String                      eventBusEndPoint;
+    private boolean                     websocketCompression;
 
     @Override
     public final void contextInitialized(ServletContextEvent sce) {
@@ -82,6 +89,8 @@ public class ServerContainerInitializeListener implements ServletContextListener
         websocketContext = MoreObjects.firstNonNull(servletContext.getInitParameter("org.everrest.websocket.context"), "");
         websocketEndPoint = MoreObjects.firstNonNull(servletContext.getInitParameter("org.eclipse.che.websocket.endpoint"), "");
         eventBusEndPoint = MoreObjects.firstNonNull(servletContext.getInitParameter("org.eclipse.che.eventbus.endpoint"), "");
+        websocketCompression = Boolean.parseBoolean(MoreObjects.firstNonNull(servletContext.getInitParameter(WEBSOCKET_COMPRESSION),
+                                                                             "true"));
         webApplicationDeclaredRoles = new WebApplicationDeclaredRoles(servletContext);
         everrestConfiguration = (EverrestConfiguration)servletContext.getAttribute(EVERREST_CONFIG_ATTRIBUTE);
         if (everrestConfiguration == null) {
@@ -153,6 +162,18 @@ public class ServerContainerInitializeListener implements ServletContextListener
                 sec.getUserProperties().put(SECURITY_CONTEXT, createSecurityContext(request));
                 sec.getUserProperties().put(ENVIRONMENT_CONTEXT, EnvironmentContext.getCurrent());
             }
+
+            @Override
+            public List<Extension> getNegotiatedExtensions(List<Extension> installed, List<Extension> requested) {
+                // Container compresses messages with permessage-deflate (RFC 7692) if client offers it and container supports it.
+                final List<Extension> negotiated = super.getNegotiatedExtensions(installed, requested);
+                if (websocketCompression) {
+                    return negotiated;
+                }
+                return negotiated.stream()
+                                 .filter(extension -> !PERMESSAGE_DEFLATE.equals(extension.getName()))
+                                 .collect(toList());
+            }
         };
     }
 
@@ -15,8 +15,15 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.che.api.core.notification.AsyncDispatchOptions.OverflowPolicy.COALESCE;
+import static org.eclipse.che.api.core.notification.AsyncDispatchOptions.OverflowPolicy.DROP_OLDEST;
 
 /**
  * @author andrew00x
@@ -157,4 +164,121 @@ public class EventServiceTest {
         bus.publish(new Event());
         Assert.assertEquals(events.size(), 0);
     }
+
+    @Test
+    public void testAsyncSubscriberDoesNotBlockPublisher() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch delivered = new CountDownLatch(2);
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        final EventSubscriber<String> slow = event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+            delivered.countDown();
+        };
+        bus.subscribe(slow, String.class, AsyncDispatchOptions.builder().build());
+
+        bus.publish("a");
+        bus.publish("b");
+        Assert.assertTrue(events.isEmpty());
+
+        release.countDown();
+        Assert.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(events, Arrays.asList("a", "b"));
+        Assert.assertEquals(bus.getMetrics(slow).getDelivered(), 2);
+        bus.unsubscribe(slow);
+        Assert.assertNull(bus.getMetrics(slow));
+    }
+
+    @Test
+    public void testAsyncSubscriberCoalescesEventsWithTheSameKey() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch firstReceived = new CountDownLatch(1);
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        final EventSubscriber<String> slow = event -> {
+            firstReceived.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+        };
+        bus.subscribe(slow, String.class, AsyncDispatchOptions.builder()
+                                                              .setOverflowPolicy(COALESCE)
+                                                              .setCoalescingKey(event -> ((String)event).substring(0, 1))
+                                                              .build());
+
+        bus.publish("a0");
+        Assert.assertTrue(firstReceived.await(5, TimeUnit.SECONDS));
+        bus.publish("a1");
+        bus.publish("b1");
+        bus.publish("a2");
+        release.countDown();
+
+        waitForDelivery(events, 3);
+        Assert.assertEquals(events, Arrays.asList("a0", "a2", "b1"));
+    }
+
+    @Test
+    public void testAsyncSubscriberDropsOldestEventsWhenQueueIsFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch firstReceived = new CountDownLatch(1);
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        final EventSubscriber<String> slow = event -> {
+            firstReceived.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+        };
+        bus.subscribe(slow, String.class, AsyncDispatchOptions.builder()
+                                                              .setQueueCapacity(2)
+                                                              .setOverflowPolicy(DROP_OLDEST)
+                                                              .build());
+
+        bus.publish("0");
+        Assert.assertTrue(firstReceived.await(5, TimeUnit.SECONDS));
+        bus.publish("1");
+        bus.publish("2");
+        bus.publish("3");
+        Assert.assertEquals(bus.getMetrics(slow).getDropped(), 1);
+        Assert.assertEquals(bus.getMetrics(slow).getQueueDepth(), 2);
+        release.countDown();
+
+        waitForDelivery(events, 3);
+        Assert.assertEquals(events, Arrays.asList("0", "2", "3"));
+    }
+
+    @Test
+    public void testAsyncSubscriberContinuesDeliveryAfterError() throws Exception {
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        final EventSubscriber<String> failing = event -> {
+            if ("error".equals(event)) {
+                throw new AssertionError("expected");
+            }
+            events.add(event);
+        };
+        bus.subscribe(failing, String.class, AsyncDispatchOptions.builder().build());
+
+        bus.publish("error");
+        bus.publish("a");
+        waitForDelivery(events, 1);
+        bus.publish("b");
+
+        waitForDelivery(events, 2);
+        Assert.assertEquals(events, Arrays.asList("a", "b"));
+    }
+
+    private static void waitForDelivery(List<String> events, int expected) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (events.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
 }
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+import org.everrest.websockets.message.ChannelBroadcastMessage;
+import org.everrest.websockets.message.RestOutputMessage;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author agent
+ */
+public class MessagesTest {
+
+    @Test
+    public void testRestoreSingleEvent() throws Exception {
+        final ChannelBroadcastMessage broadcast = Messages.broadcastMessage("channel", new Event("a"));
+
+        final List<Object> events = Messages.restoreEventsFromBroadcastMessage(toOutputMessage(broadcast));
+        Assert.assertEquals(events.size(), 1);
+        Assert.assertEquals(((Event)events.get(0)).getData(), "a");
+    }
+
+    @Test
+    public void testRestoreBatchOfEvents() throws Exception {
+        final ChannelBroadcastMessage broadcast = Messages.broadcastMessage("channel", Arrays.<Object>asList(new Event("a"), new Event("b")));
+
+        Assert.assertEquals(broadcast.getChannel(), "channel");
+        final List<Object> events = Messages.restoreEventsFromBroadcastMessage(toOutputMessage(broadcast));
+        Assert.assertEquals(events.size(), 2);
+        Assert.assertEquals(((Event)events.get(0)).getData(), "a");
+        Assert.assertEquals(((Event)events.get(1)).getData(), "b");
+    }
+
+    private static RestOutputMessage toOutputMessage(ChannelBroadcastMessage broadcast) {
+        final RestOutputMessage message = new RestOutputMessage();
+        message.setBody(broadcast.getBody());
+        return message;
+    }
+
+    public static class Event {
+        private String data;
+
+        public Event() {
+        }
+
+        Event(String data) {
+            this.data = data;
+        }
+
+        public String getData() {
+            return data;
+        }
+
+        public void setData(String data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.common.io.ByteStreams;
+
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author agent
+ */
+public class CompressionFilterTest {
+    private CompressionFilter     filter;
+    private HttpServletRequest    request;
+    private HttpServletResponse   response;
+    private ByteArrayOutputStream sent;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        filter = new CompressionFilter();
+        filter.init(mock(FilterConfig.class));
+
+        request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip, deflate");
+
+        sent = new ByteArrayOutputStream();
+        response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(200);
+        when(response.getContentType()).thenReturn("application/json");
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                sent.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        });
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        filter.destroy();
+    }
+
+    @Test
+    public void compressesLargeResponse() throws Exception {
+        final byte[] body = largeBody();
+
+        filter.doFilter(request, response, writing(body));
+
+        verify(response).setHeader("Content-Encoding", "gzip");
+        verify(response).addHeader("Vary", "Accept-Encoding");
+        assertEquals(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(sent.toByteArray()))), body);
+        assertEquals(filter.getUncompressedBytes(), body.length);
+        assertEquals(filter.getCompressedBytes(), sent.size());
+        assertTrue(filter.getCompressedBytes() < filter.getUncompressedBytes());
+    }
+
+    @Test
+    public void sendsSmallResponseAsIs() throws Exception {
+        final byte[] body = "{\"name\":\"value\"}".getBytes(UTF_8);
+
+        filter.doFilter(request, response, writing(body));
+
+        verify(response, never()).setHeader(eq("Content-Encoding"), any());
+        verify(response).setContentLengthLong(body.length);
+        assertEquals(sent.toByteArray(), body);
+        assertEquals(filter.getCompressedResponses(), 0);
+    }
+
+    @Test
+    public void doesNotCompressBinaryResponse() throws Exception {
+        when(response.getContentType()).thenReturn("application/zip");
+        final byte[] body = largeBody();
+
+        filter.doFilter(request, response, writing(body));
+
+        verify(response, never()).setHeader(eq("Content-Encoding"), any());
+        assertEquals(sent.toByteArray(), body);
+    }
+
+    @Test
+    public void doesNotCompressIfClientDoesNotAcceptIt() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn(null);
+        final byte[] body = largeBody();
+
+        filter.doFilter(request, response, writing(body));
+
+        verify(response, never()).setHeader(eq("Content-Encoding"), any());
+        verify(response, never()).setContentLengthLong(anyLong());
+        assertEquals(sent.toByteArray(), body);
+    }
+
+    @Test
+    public void doesNotCompressPartialResponse() throws Exception {
+        when(response.getStatus()).thenReturn(206);
+        final byte[] body = largeBody();
+
+        filter.doFilter(request, response, writing(body));
+
+        verify(response, never()).setHeader(eq("Content-Encoding"), any());
+        assertEquals(sent.toByteArray(), body);
+    }
+
+    @Test
+    public void doesNotCompressResponseWithContentRange() throws Exception {
+        when(response.containsHeader("Content-Range")).thenReturn(true);
+        final byte[] body = largeBody();
+
+        filter.doFilter(request, response, writing(body));
+
+        verify(response, never()).setHeader(eq("Content-Encoding"), any());
+        assertEquals(sent.toByteArray(), body);
+    }
+
+    @Test
+    public void addsCodingSuffixToEntityTagOfCompressedResponse() throws Exception {
+        when(response.getHeader("ETag")).thenReturn("\"abc\"");
+
+        filter.doFilter(request, response, writing(largeBody()));
+
+        verify(response).setHeader("ETag", "\"abc-gzip\"");
+    }
+
+    @Test
+    public void removesCodingSuffixFromConditionalHeadersOfRequest() throws Exception {
+        when(request.getHeader("If-None-Match")).thenReturn("\"abc-gzip\", W/\"def-deflate\"");
+        final FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request, response, chain);
+
+        final ArgumentCaptor<HttpServletRequest> captor = ArgumentCaptor.forClass(HttpServletRequest.class);
+        verify(chain).doFilter(captor.capture(), any());
+        assertEquals(captor.getValue().getHeader("If-None-Match"), "\"abc\", W/\"def\"");
+    }
+
+    @Test
+    public void compressesWithDeflateIfClientDoesNotAcceptGzip() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("deflate");
+        final byte[] body = largeBody();
+
+        filter.doFilter(request, response, writing(body));
+
+        verify(response).setHeader("Content-Encoding", "deflate");
+        assertEquals(ByteStreams.toByteArray(new InflaterInputStream(new ByteArrayInputStream(sent.toByteArray()))), body);
+    }
+
+    @Test
+    public void doesNotSendBufferedResponseIfRequestProcessingFailed() throws Exception {
+        final FilterChain chain = mock(FilterChain.class);
+        doAnswer(invocation -> {
+            ((ServletResponse)invocation.getArguments()[1]).getOutputStream().write(new byte[]{1, 2, 3});
+            throw new ServletException("failed");
+        }).when(chain).doFilter(any(), any());
+
+        try {
+            filter.doFilter(request, response, chain);
+            fail("ServletException expected");
+        } catch (ServletException expected) {
+        }
+
+        assertEquals(sent.size(), 0);
+        verify(response, never()).setContentLengthLong(anyLong());
+    }
+
+    @Test
+    public void selectsEncodingAcceptedByClient() {
+        assertEquals(CompressionFilter.selectEncoding("gzip, deflate, br"), "gzip");
+        assertEquals(CompressionFilter.selectEncoding("deflate"), "deflate");
+        assertEquals(CompressionFilter.selectEncoding("gzip;q=0, deflate;q=0.5"), "deflate");
+        assertNull(CompressionFilter.selectEncoding("identity"));
+        assertNull(CompressionFilter.selectEncoding(null));
+    }
+
+    private static FilterChain writing(byte[] body) throws Exception {
+        final FilterChain chain = mock(FilterChain.class);
+        doAnswer(invocation -> {
+            final ServletResponse response = (ServletResponse)invocation.getArguments()[1];
+            response.getOutputStream().write(body);
+            return null;
+        }).when(chain).doFilter(any(), any());
+        return chain;
+    }
+
+    private static byte[] largeBody() {
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"file").append(i).append(".java\",\"type\":\"file\"}");
+        }
+        return json.append(']').toString().getBytes(UTF_8);
+    }
+}
@@ -45,6 +45,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
@@ -59,6 +60,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 /**
  * Tests of {@link DefaultHttpJsonRequest}.
@@ -260,6 +262,25 @@ public class DefaultHttpJsonRequestTest {
         assertEquals(request.request().asString(), TestService.JSON_OBJECT);
     }
 
+    @Test
+    public void shouldMakeRequestAsynchronously(ITestContext ctx) throws Exception {
+        final HttpJsonResponse response = new DefaultHttpJsonRequest(getUrl(ctx) + "/application-json").useGetMethod()
+                                                                                                        .requestAsync()
+                                                                                                        .get();
+
+        assertEquals(response.asString(), TestService.JSON_OBJECT);
+    }
+
+    @Test
+    public void shouldCompleteAsynchronousRequestExceptionallyWhenResponseCodeIs404(ITestContext ctx) throws Exception {
+        try {
+            new DefaultHttpJsonRequest(getUrl(ctx) + "/404/response-code-test").useGetMethod().requestAsync().get();
+            fail("Request should fail with NotFoundException");
+        } catch (ExecutionException x) {
+            assertTrue(x.getCause() instanceof NotFoundException);
+        }
+    }
+
     @Test
     public void shouldEncodeRequestUrlInDefaultHttpJsonRequestAndDecodeInService(ITestContext ctx) throws Exception {
         final String base = getUrl(ctx) + "/decode";
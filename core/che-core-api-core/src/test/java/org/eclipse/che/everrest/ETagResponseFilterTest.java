@@ -11,6 +11,7 @@
 package org.eclipse.che.everrest;
 
 import org.eclipse.che.api.core.rest.ApiExceptionMapper;
+import org.eclipse.che.api.core.rest.Service;
 import org.everrest.core.impl.ApplicationContextImpl;
 import org.everrest.core.impl.ApplicationProviderBinder;
 import org.everrest.core.impl.ContainerRequest;
@@ -38,6 +39,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.Response.Status.NOT_MODIFIED;
@@ -94,6 +96,23 @@ public class ETagResponseFilterTest {
 
     }
 
+    /**
+     * Dummy JAX-RS service that declares version of response
+     */
+    @Path("/versioned")
+    public static class MyVersionedService extends Service {
+
+        static final AtomicInteger invocations = new AtomicInteger();
+
+        @GET
+        @Produces(APPLICATION_JSON)
+        public List<String> getMembers() {
+            checkNotModified("v1");
+            invocations.incrementAndGet();
+            return Arrays.asList("a", "b", "c");
+        }
+    }
+
     /**
      * Resource Launcher
      */
@@ -108,6 +127,8 @@ public class ETagResponseFilterTest {
         //set up launcher
         final ResourceBinderImpl resources = new ResourceBinderImpl();
         resources.addResource(MyJaxRSService.class, null);
+        resources.addResource(MyVersionedService.class, null);
+        MyVersionedService.invocations.set(0);
         final DependencySupplierImpl dependencies = new DependencySupplierImpl();
         final ApplicationProviderBinder binder = new ApplicationProviderBinder();
         binder.addExceptionMapper(ApiExceptionMapper.class);
@@ -221,4 +242,35 @@ public class ETagResponseFilterTest {
         Assert.assertNull(response.getEntity());
     }
 
+    /**
+     * Check if version declared by resource is used as ETag instead of hash of entity
+     */
+    @Test
+    public void useVersionDeclaredByResource() throws Exception {
+
+        final ContainerResponse response = resourceLauncher.service(HttpMethod.GET, BASE_URI + "/versioned", BASE_URI, null, null, null);
+        assertEquals(response.getStatus(), OK.getStatusCode());
+        Assert.assertEquals(response.getEntity(), Arrays.asList("a", "b", "c"));
+        // Check etag
+        List<Object> headerTags = response.getHttpHeaders().get("ETag");
+        Assert.assertNotNull(headerTags);
+        Assert.assertEquals(headerTags.size(), 1);
+        Assert.assertEquals(headerTags.get(0), new EntityTag("v1"));
+    }
+
+    /**
+     * Check if ETag matching version declared by resource is redirecting to NOT_MODIFIED without building of entity
+     */
+    @Test
+    public void versionedEntityTestWithEtag() throws Exception {
+
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("If-None-Match", Collections.singletonList(new EntityTag("v1").toString()));
+
+        final ContainerResponse response = resourceLauncher.service(HttpMethod.GET, BASE_URI + "/versioned", BASE_URI, headers, null, null);
+        assertEquals(response.getStatus(), NOT_MODIFIED.getStatusCode());
+        // check null body
+        Assert.assertNull(response.getEntity());
+        assertEquals(MyVersionedService.invocations.get(), 0);
+    }
 }
@@ -48,7 +48,7 @@ abstract class DtoImpl {
         this.dtoInterface = dtoInterface;
         this.implClassName = dtoInterface.getSimpleName() + "Impl";
         this.compactJson = DtoTemplate.implementsInterface(dtoInterface, CompactJsonDto.class);
-        this.dtoMethods = ImmutableList.copyOf(calcDtoMethods());
+        this.dtoMethods = ImmutableList.copyOf(dtoInterface.getMethods());
     }
 
     protected boolean isCompactJson() {
@@ -341,26 +341,22 @@ abstract class DtoImpl {
         return (Class<?>)((type instanceof ParameterizedType) ? ((ParameterizedType)type).getRawType() : type);
     }
 
-    /**
-     * Returns public methods specified in DTO interface.
-     * <p/>
-     * <p>For compact DTO (see {@link org.eclipse.che.dto.shared.CompactJsonDto}) methods are ordered corresponding to {@link
-     * org.eclipse.che.dto.shared.SerializationIndex} annotation.
-     * <p/>
-     * <p>Gaps in index sequence are filled with {@code null}s.
-     */
+    /** Returns public methods specified in DTO interface. */
     protected List<Method> getDtoMethods() {
         return dtoMethods;
     }
 
-    private Method[] calcDtoMethods() {
-        if (!compactJson) {
-            return dtoInterface.getMethods();
-        }
-
+    /**
+     * Orders getters of compact DTO (see {@link org.eclipse.che.dto.shared.CompactJsonDto}) corresponding to {@link
+     * org.eclipse.che.dto.shared.SerializationIndex} annotation, so position of getter in the returned list is position of its value in
+     * serialized form.
+     * <p/>
+     * <p>Gaps in index sequence are filled with {@code null}s.
+     */
+    protected List<Method> orderBySerializationIndex(List<Method> getters) {
         Map<Integer, Method> methodsMap = new HashMap<>();
         int maxIndex = 0;
-        for (Method method : dtoInterface.getMethods()) {
+        for (Method method : getters) {
             SerializationIndex serializationIndex = method.getAnnotation(SerializationIndex.class);
             Preconditions.checkNotNull(serializationIndex, "Serialization index is not specified for %s in %s",
                                        method.getName(), dtoInterface.getSimpleName());
@@ -379,17 +375,17 @@ abstract class DtoImpl {
             methodsMap.put(index, method);
         }
 
-        Method[] result = new Method[maxIndex];
+        List<Method> result = new ArrayList<>(maxIndex);
         for (int index = 0; index < maxIndex; index++) {
-            result[index] = methodsMap.get(index + 1);
+            result.add(methodsMap.get(index + 1));
         }
 
         return result;
     }
 
-    protected boolean isLastMethod(Method method) {
+    protected boolean isLastMethod(Method method, List<Method> methods) {
         Preconditions.checkNotNull(method);
-        return method == dtoMethods.get(dtoMethods.size() - 1);
+        return method == methods.get(methods.size() - 1);
     }
 
     /**
@@ -12,6 +12,7 @@ package org.eclipse.che.dto.generator;
 
 import org.eclipse.che.dto.server.JsonSerializable;
 import org.eclipse.che.dto.shared.DelegateRule;
+import org.eclipse.che.dto.shared.CompactJsonDto;
 import org.eclipse.che.dto.shared.DTOImpl;
 import org.eclipse.che.dto.shared.DelegateTo;
 import org.eclipse.che.dto.shared.JsonArray;
@@ -63,7 +64,7 @@ public class DtoImplClientTemplate extends DtoImpl {
         }
         // equals, hashCode, serialization and copy constructor
         emitEqualsAndHashCode(methods, builder);
-        emitSerializer(methods, builder);
+        emitSerializer(isCompactJson() ? orderBySerializationIndex(methods) : methods, builder);
         emitDeserializer(methods, builder);
         emitDeserializerShortcut(builder);
         emitCopyConstructor(methods, builder);
@@ -260,15 +261,19 @@ public class DtoImplClientTemplate extends DtoImpl {
     }
 
     private void emitSerializer(List<Method> getters, StringBuilder builder) {
-        builder.append("    public JSONObject toJsonObject() {\n");
+        // Root of compact JSON is array
+        final String resultType = isCompactJson() ? "JSONArray" : "JSONObject";
+        final String toJsonMethod = getToJsonMethodName(getDtoInterface());
+        builder.append("    public ").append(resultType).append(" ").append(toJsonMethod).append("() {\n");
         // The default toJsonElement() returns JSONs for unsafe use thus 'any' properties should be copied
-        builder.append("      return toJsonObjectInt(true);\n");
+        builder.append("      return ").append(toJsonMethod).append("Int(true);\n");
         builder.append("    }\n");
-        builder.append("    public JSONObject toJsonObjectInt(boolean ").append(COPY_JSONS_PARAM).append(") {\n");
+        builder.append("    public ").append(resultType).append(" ").append(toJsonMethod).append("Int(boolean ").append(COPY_JSONS_PARAM)
+               .append(") {\n");
         if (isCompactJson()) {
             builder.append("      JSONArray result = new JSONArray();\n");
             for (Method method : getters) {
-                emitSerializeFieldForMethodCompact(method, builder);
+                emitSerializeFieldForMethodCompact(method, getters, builder);
             }
         } else {
             builder.append("      JSONObject result = new JSONObject();\n");
@@ -281,7 +286,7 @@ public class DtoImplClientTemplate extends DtoImpl {
         builder.append("\n");
         builder.append("    @Override\n");
         builder.append("    public String toJson() {\n");
-        builder.append("      return toJsonObjectInt(false).toString();\n");
+        builder.append("      return ").append(toJsonMethod).append("Int(false).toString();\n");
         builder.append("    }\n");
         builder.append("\n");
         builder.append("    @Override\n");
@@ -306,9 +311,9 @@ public class DtoImplClientTemplate extends DtoImpl {
         builder.append(");\n");
     }
 
-    private void emitSerializeFieldForMethodCompact(Method getter, StringBuilder builder) {
+    private void emitSerializeFieldForMethodCompact(Method getter, List<Method> getters, StringBuilder builder) {
         if (getter == null) {
-            builder.append("      result.set(0, JSONNull.getInstance());\n");
+            builder.append("      result.set(result.size(), JSONNull.getInstance());\n");
             return;
         }
         final String jsonFieldName = getFieldNameFromGetterName(getter.getName());
@@ -317,7 +322,7 @@ public class DtoImplClientTemplate extends DtoImpl {
         builder.append("\n");
         List<Type> expandedTypes = expandType(getter.getGenericReturnType());
         emitSerializerImpl(expandedTypes, 0, builder, getJavaFieldName(getter.getName()), fieldNameOut, baseIndentation);
-        if (isLastMethod(getter)) {
+        if (isLastMethod(getter, getters)) {
             if (isList(getRawClass(expandedTypes.get(0)))) {
                 builder.append("      if (").append(fieldNameOut).append(".size() != 0) {\n");
                 builder.append("        result.set(result.size(), ").append(fieldNameOut).append(");\n");
@@ -325,7 +330,12 @@ public class DtoImplClientTemplate extends DtoImpl {
                 return;
             }
         }
-        builder.append("      result.add(").append(fieldNameOut).append(");\n");
+        builder.append("      result.set(result.size(), ").append(fieldNameOut).append(");\n");
+    }
+
+    /** Gets name of generated method that serializes implementation of {@code dto}, compact DTOs are serialized to JSON array. */
+    private String getToJsonMethodName(Class<?> dto) {
+        return DtoTemplate.implementsInterface(dto, CompactJsonDto.class) ? "toJsonArray" : "toJsonObject";
     }
 
     /**
@@ -375,7 +385,7 @@ public class DtoImplClientTemplate extends DtoImpl {
         } else if (getEnclosingTemplate().isDtoInterface(rawClass)) {
             builder.append(i).append("JSONValue ").append(outVar).append(" = ").append(depth == 0 ? "this." + inVar : inVar).append(
                     " == null ? JSONNull.getInstance() : ((").append(getImplNameForDto((Class<?>)expandedTypes.get(depth))).append(")")
-                   .append(inVar).append(").toJsonObject();\n");
+                   .append(inVar).append(").").append(getToJsonMethodName(rawClass)).append("();\n");
         } else if (rawClass.equals(String.class)) {
             builder.append(i).append("JSONValue ").append(outVar).append(" = (").append(depth == 0 ? "this." + inVar : inVar).append(
                     " == null) ? JSONNull.getInstance() : new JSONString(").append(depth == 0 ? "this." + inVar : inVar).append(");\n");
@@ -407,7 +417,8 @@ public class DtoImplClientTemplate extends DtoImpl {
             if (dtoImplementation != null) {
                 builder.append(i).append("JSONValue ").append(outVar).append(" = ").append(depth == 0 ? "this." + inVar : inVar).append(
                         " == null ? JSONNull.getInstance() : ((").append(dtoImplementation.getCanonicalName()).append(")")
-                       .append(depth == 0 ? "this." + inVar : inVar).append(").toJsonObject();\n");
+                       .append(depth == 0 ? "this." + inVar : inVar).append(").").append(getToJsonMethodName(rawClass))
+                       .append("();\n");
             } else {
                 throw new IllegalArgumentException("Unable to generate client implementation for DTO interface " +
                                                    getDtoInterface().getCanonicalName() + ". Type " + rawClass +
@@ -454,6 +465,7 @@ public class DtoImplClientTemplate extends DtoImpl {
         builder.append("      }\n\n");
         builder.append("      ").append(getImplClassName()).append(" dto = new ").append(getImplClassName()).append("();\n");
         if (isCompactJson()) {
+            builder.append("      JSONArray json = jsonValue.isArray();\n");
             for (Method method : getters) {
                 emitDeserializeFieldForMethodCompact(method, builder);
             }
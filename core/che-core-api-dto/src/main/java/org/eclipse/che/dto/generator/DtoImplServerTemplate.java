@@ -69,7 +69,7 @@ public class DtoImplServerTemplate extends DtoImpl {
         }
         // equals, hashCode, serialization and copy constructor
         emitEqualsAndHashCode(methods, builder);
-        emitSerializer(methods, builder);
+        emitSerializer(isCompactJson() ? orderBySerializationIndex(methods) : methods, builder);
         emitDeserializer(methods, builder);
         emitDeserializerShortcut(builder);
         emitCopyConstructor(methods, builder);
@@ -288,7 +288,7 @@ public class DtoImplServerTemplate extends DtoImpl {
         if (isCompactJson()) {
             builder.append("      JsonArray result = new JsonArray();\n");
             for (Method method : getters) {
-                emitSerializeFieldForMethodCompact(method, builder);
+                emitSerializeFieldForMethodCompact(method, getters, builder);
             }
         } else {
             builder.append("      JsonObject result = new JsonObject();\n");
@@ -305,6 +305,7 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("      return gson.toJson(toJsonElementInt(false));\n");
         builder.append("    }\n");
         builder.append("\n");
+        emitStreamingSerializer(getters, builder);
         builder.append("    @Override\n");
         builder.append("    public String toString() {\n");
         builder.append("      return toJson();\n");
@@ -326,7 +327,7 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append(");\n");
     }
 
-    private void emitSerializeFieldForMethodCompact(Method getter, StringBuilder builder) {
+    private void emitSerializeFieldForMethodCompact(Method getter, List<Method> getters, StringBuilder builder) {
         if (getter == null) {
             builder.append("      result.add(JsonNull.INSTANCE);\n");
             return;
@@ -337,7 +338,7 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("\n");
         List<Type> expandedTypes = expandType(getter.getGenericReturnType());
         emitSerializerImpl(expandedTypes, 0, builder, getJavaFieldName(getter.getName()), fieldNameOut, baseIndentation);
-        if (isLastMethod(getter)) {
+        if (isLastMethod(getter, getters)) {
             if (isList(getRawClass(expandedTypes.get(0)))) {
                 builder.append("      if (").append(fieldNameOut).append(".size() != 0) {\n");
                 builder.append("        result.add(").append(fieldNameOut).append(");\n");
@@ -451,6 +452,158 @@ public class DtoImplServerTemplate extends DtoImpl {
         }
     }
 
+    /** Generates method that writes JSON directly to JsonWriter, the output is the same as output of toJson() method. */
+    private void emitStreamingSerializer(List<Method> getters, StringBuilder builder) {
+        builder.append("    @Override\n");
+        builder.append("    public void toJson(com.google.gson.stream.JsonWriter writer) throws java.io.IOException {\n");
+        if (isCompactJson()) {
+            builder.append("      writer.beginArray();\n");
+            for (Method method : getters) {
+                emitStreamingSerializeFieldForMethodCompact(method, getters, builder);
+            }
+            builder.append("      writer.endArray();\n");
+        } else {
+            builder.append("      writer.beginObject();\n");
+            for (Method getter : getters) {
+                emitStreamingSerializeFieldForMethod(getter, builder);
+            }
+            builder.append("      writer.endObject();\n");
+        }
+        builder.append("    }\n");
+        builder.append("\n");
+    }
+
+    private void emitStreamingSerializeFieldForMethod(Method getter, StringBuilder builder) {
+        final String jsonFieldName = getJsonFieldName(getter);
+        final String baseIndentation = "      ";
+        builder.append("\n");
+        builder.append("      writer.name(").append(quoteStringLiteral(jsonFieldName)).append(");\n");
+        List<Type> expandedTypes = expandType(getter.getGenericReturnType());
+        emitStreamingSerializerImpl(expandedTypes, 0, builder, getJavaFieldName(getter.getName()), baseIndentation);
+    }
+
+    private void emitStreamingSerializeFieldForMethodCompact(Method getter, List<Method> getters, StringBuilder builder) {
+        if (getter == null) {
+            builder.append("      writer.nullValue();\n");
+            return;
+        }
+        final String fieldName = getJavaFieldName(getter.getName());
+        final String baseIndentation = "      ";
+        builder.append("\n");
+        List<Type> expandedTypes = expandType(getter.getGenericReturnType());
+        if (isLastMethod(getter, getters) && isList(getRawClass(expandedTypes.get(0)))) {
+            // Empty list at the end of compact JSON is omitted, see emitSerializeFieldForMethodCompact()
+            builder.append("      this.").append(getEnsureName(fieldName)).append("();\n");
+            builder.append("      if (!this.").append(fieldName).append(".isEmpty()) {\n");
+            emitStreamingSerializerImpl(expandedTypes, 0, builder, fieldName, baseIndentation + "  ");
+            builder.append("      }\n");
+            return;
+        }
+        emitStreamingSerializerImpl(expandedTypes, 0, builder, fieldName, baseIndentation);
+    }
+
+    /**
+     * Produces code to write the type with the given variable name to JsonWriter.
+     *
+     * @param expandedTypes
+     *         the type and its generic (and its generic (..)) expanded into a list, @see {@link #expandType(java.lang.reflect.Type)}
+     * @param depth
+     *         the depth (in the generics) for this recursive call. This can be used to index into {@code expandedTypes}
+     * @param inVar
+     *         the java type that will be the input for serialization
+     * @param i
+     *         indentation string
+     */
+    private void emitStreamingSerializerImpl(List<Type> expandedTypes, int depth, StringBuilder builder, String inVar, String i) {
+        Type type = expandedTypes.get(depth);
+        String in = depth == 0 ? "this." + inVar : inVar;
+        String childInVar = inVar + "_";
+        String entryVar = "entry" + depth;
+        Class<?> rawClass = getRawClass(type);
+        if (isList(rawClass)) {
+            String childInTypeName = getImplName(expandedTypes.get(depth + 1), false);
+            if (depth == 0) {
+                builder.append(i).append("this.").append(getEnsureName(inVar)).append("();\n");
+            }
+            builder.append(i).append("writer.beginArray();\n");
+            builder.append(i).append("for (").append(childInTypeName).append(" ").append(childInVar).append(" : ").append(in)
+                   .append(") {\n");
+            emitStreamingSerializerImpl(expandedTypes, depth + 1, builder, childInVar, i + "  ");
+            builder.append(i).append("}\n");
+            builder.append(i).append("writer.endArray();\n");
+        } else if (isMap(rawClass)) {
+            String childInTypeName = getImplName(expandedTypes.get(depth + 1), false);
+            if (depth == 0) {
+                builder.append(i).append("this.").append(getEnsureName(inVar)).append("();\n");
+            }
+            builder.append(i).append("writer.beginObject();\n");
+            builder.append(i).append("for (java.util.Map.Entry<String, ").append(childInTypeName).append("> ").append(entryVar)
+                   .append(" : ").append(in).append(".entrySet()) {\n");
+            builder.append(i).append("  writer.name(").append(entryVar).append(".getKey());\n");
+            builder.append(i).append("  ").append(childInTypeName).append(" ").append(childInVar).append(" = ").append(entryVar)
+                   .append(".getValue();\n");
+            emitStreamingSerializerImpl(expandedTypes, depth + 1, builder, childInVar, i + "  ");
+            builder.append(i).append("}\n");
+            builder.append(i).append("writer.endObject();\n");
+        } else if (rawClass.isEnum()) {
+            builder.append(i).append("if (").append(in).append(" == null) {\n");
+            builder.append(i).append("  writer.nullValue();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  writer.value(").append(in).append(".name());\n");
+            builder.append(i).append("}\n");
+        } else if (getEnclosingTemplate().isDtoInterface(rawClass)) {
+            emitStreamingSerializeDto(getImplNameForDto((Class<?>)expandedTypes.get(depth)), in, builder, i);
+        } else if (rawClass.equals(String.class)) {
+            builder.append(i).append("writer.value(").append(in).append(");\n");
+        } else if (rawClass == boolean.class) {
+            builder.append(i).append("writer.value(").append(in).append(");\n");
+        } else if (rawClass == int.class
+                   || rawClass == long.class
+                   || rawClass == double.class
+                   || rawClass == float.class
+                   || rawClass == short.class
+                   || rawClass == byte.class) {
+            // Box value to get the same text representation as JsonPrimitive has, e.g. for float
+            builder.append(i).append("writer.value((Number)").append(in).append(");\n");
+        } else if (rawClass == Boolean.class) {
+            builder.append(i).append("if (").append(in).append(" == null) {\n");
+            builder.append(i).append("  writer.nullValue();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  writer.value(").append(in).append(".booleanValue());\n");
+            builder.append(i).append("}\n");
+        } else if (rawClass == Integer.class
+                   || rawClass == Long.class
+                   || rawClass == Double.class
+                   || rawClass == Float.class
+                   || rawClass == Short.class
+                   || rawClass == Byte.class) {
+            builder.append(i).append("writer.value(").append(in).append(");\n");
+        } else if (isAny(rawClass)) {
+            builder.append(i).append("if (").append(in).append(" instanceof JsonElement) {\n");
+            builder.append(i).append("  gson.toJson((JsonElement)").append(in).append(", writer);\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  writer.nullValue();\n");
+            builder.append(i).append("}\n");
+        } else {
+            final Class<?> dtoImplementation = getEnclosingTemplate().getDtoImplementation(rawClass);
+            if (dtoImplementation != null) {
+                emitStreamingSerializeDto(dtoImplementation.getCanonicalName(), in, builder, i);
+            } else {
+                throw new IllegalArgumentException("Unable to generate server implementation for DTO interface " +
+                                                   getDtoInterface().getCanonicalName() + ". Type " + rawClass +
+                                                   " is not allowed to use in DTO interface.");
+            }
+        }
+    }
+
+    private void emitStreamingSerializeDto(String implClassName, String in, StringBuilder builder, String i) {
+        builder.append(i).append("if (").append(in).append(" == null) {\n");
+        builder.append(i).append("  writer.nullValue();\n");
+        builder.append(i).append("} else {\n");
+        builder.append(i).append("  ((").append(implClassName).append(")").append(in).append(").toJson(writer);\n");
+        builder.append(i).append("}\n");
+    }
+
     /** Generates a static factory method that creates a new instance based on a JsonElement. */
     private void emitDeserializer(List<Method> getters, StringBuilder builder) {
         // The default fromJsonElement(json) works in unsafe mode and clones the JSON's for 'any' properties
@@ -13,9 +13,11 @@
 // limitations under the License.
 package org.eclipse.che.dto.server;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
 
 /** An entity that may serialize itself to JSON. */
 public interface JsonSerializable extends Serializable {
@@ -25,4 +27,13 @@ public interface JsonSerializable extends Serializable {
 
     /** Serializes DTO to JSON object. */
     JsonElement toJsonElement();
+
+    /**
+     * Writes DTO in JSON format to the {@code writer}. Generated DTOs write their fields directly without building intermediate
+     * {@link JsonElement} tree. Implementations which serialize {@code null} values must override this method since default
+     * implementation skips them as generated DTOs do.
+     */
+    default void toJson(JsonWriter writer) throws IOException {
+        JsonSerializableGson.GSON.toJson(toJsonElement(), writer);
+    }
 }
\ No newline at end of file
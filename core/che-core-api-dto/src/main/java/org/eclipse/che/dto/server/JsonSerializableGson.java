@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Holds {@link Gson} used by default implementation of {@link JsonSerializable#toJson(com.google.gson.stream.JsonWriter)}.
+ *
+ * @author agent
+ */
+final class JsonSerializableGson {
+    /** The same settings as generated DTOs use in their {@code toJson()} method. */
+    static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    private JsonSerializableGson() {
+    }
+}
@@ -16,6 +16,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 
+import org.eclipse.che.dto.definitions.CompactDto;
 import org.eclipse.che.dto.definitions.ComplicatedDto;
 import org.eclipse.che.dto.definitions.DTOHierarchy;
 import org.eclipse.che.dto.definitions.DtoWithAny;
@@ -26,9 +27,12 @@ import org.eclipse.che.dto.definitions.model.Model;
 import org.eclipse.che.dto.definitions.model.ModelComponentDto;
 import org.eclipse.che.dto.definitions.model.ModelDto;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonArrayImpl;
+import org.eclipse.che.dto.server.JsonStringMapImpl;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -279,6 +283,62 @@ public class ServerDtoTest {
         assertEquals(arrayOfArrayOfEnum.get(2).getAsString(), ComplicatedDto.SimpleEnum.THREE.name());
     }
 
+    @Test
+    public void shouldWriteTheSameJsonToWriterAsToString() throws Exception {
+        SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withName("Something \"quoted\" <b>").withId(1);
+        Map<String, SimpleDto> mapDtos = new HashMap<>();
+        mapDtos.put("a", simpleDto);
+        mapDtos.put("b", null);
+        ComplicatedDto complicatedDto = dtoFactory.createDto(ComplicatedDto.class)
+                                                  .withStrings(asList("Something 1", null))
+                                                  .withSimpleEnum(ComplicatedDto.SimpleEnum.TWO)
+                                                  .withMap(mapDtos)
+                                                  .withSimpleDtos(asList(simpleDto, null))
+                                                  .withArrayOfArrayOfEnum(asList(asList(ComplicatedDto.SimpleEnum.ONE)));
+        DtoWithAny dtoWithAny = dtoFactory.createDto(DtoWithAny.class).withStuff(createTestValueForAny())
+                                          .withObjects(createListTestValueForAny());
+
+        JsonArrayImpl<SimpleDto> arrayOfDtos = new JsonArrayImpl<>(asList(simpleDto, null));
+        JsonStringMapImpl<SimpleDto> mapOfDtos = new JsonStringMapImpl<>(mapDtos);
+
+        for (Object dto : asList(simpleDto, complicatedDto, dtoWithAny, arrayOfDtos, mapOfDtos)) {
+            StringWriter writer = new StringWriter();
+            dtoFactory.toJson(dto, writer);
+            assertEquals(writer.toString(), dtoFactory.toJson(dto));
+        }
+        assertTrue(dtoFactory.toJson(arrayOfDtos).endsWith(",null]"));
+        assertTrue(dtoFactory.toJson(mapOfDtos).contains("\"b\":null"));
+    }
+
+    @Test
+    public void shouldSerializeCompactDtoToArrayOrderedBySerializationIndex() throws Exception {
+        CompactDto dto = dtoFactory.createDto(CompactDto.class).withName("name").withId(7).withStrings(asList("a", "b"));
+
+        assertEquals(dtoFactory.toJson(dto), "[\"name\",null,7,[\"a\",\"b\"]]");
+        StringWriter writer = new StringWriter();
+        dtoFactory.toJson(dto, writer);
+        assertEquals(writer.toString(), dtoFactory.toJson(dto));
+    }
+
+    @Test
+    public void shouldOmitTrailingEmptyListOfCompactDto() throws Exception {
+        CompactDto dto = dtoFactory.createDto(CompactDto.class).withName("name").withId(7);
+
+        assertEquals(dtoFactory.toJson(dto), "[\"name\",null,7]");
+        StringWriter writer = new StringWriter();
+        dtoFactory.toJson(dto, writer);
+        assertEquals(writer.toString(), dtoFactory.toJson(dto));
+    }
+
+    @Test
+    public void shouldDeserializeCompactDto() throws Exception {
+        CompactDto dto = dtoFactory.createDtoFromJson("[\"name\",null,7,[\"a\",\"b\"]]", CompactDto.class);
+
+        assertEquals(dto.getName(), "name");
+        assertEquals(dto.getId(), 7);
+        assertEquals(dto.getStrings(), asList("a", "b"));
+    }
+
     @Test
     public void testComplicatedDtoDeserializer() throws Exception {
         final String fooString = "Something";
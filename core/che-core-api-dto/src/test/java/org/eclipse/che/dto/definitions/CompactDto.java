@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.definitions;
+
+import org.eclipse.che.dto.shared.CompactJsonDto;
+import org.eclipse.che.dto.shared.DTO;
+import org.eclipse.che.dto.shared.SerializationIndex;
+
+import java.util.List;
+
+/**
+ * DTO for testing that the {@link org.eclipse.che.dto.generator.DtoGenerator}
+ * correctly generates server implementations for compact DTO interface.
+ * Index 2 is not used intentionally.
+ *
+ * @author agent
+ */
+@DTO
+public interface CompactDto extends CompactJsonDto {
+    @SerializationIndex(3)
+    int getId();
+
+    CompactDto withId(int id);
+
+    @SerializationIndex(1)
+    String getName();
+
+    CompactDto withName(String name);
+
+    @SerializationIndex(4)
+    List<String> getStrings();
+
+    CompactDto withStrings(List<String> strings);
+}
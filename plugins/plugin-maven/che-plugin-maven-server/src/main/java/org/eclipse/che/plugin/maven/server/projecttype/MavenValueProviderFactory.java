@@ -48,6 +48,7 @@ import static org.eclipse.che.plugin.maven.shared.MavenAttributes.VERSION;
  * @author Evgen Vidolob
  */
 public class MavenValueProviderFactory implements ValueProviderFactory {
+    private static final List<String> DEPENDENCIES = Collections.singletonList("pom.xml");
 
     protected Model readModel(FolderEntry projectFolder) throws ValueStorageException, ServerException, ForbiddenException, IOException {
         FileEntry pomFile = (FileEntry)projectFolder.getChild("pom.xml");
@@ -66,19 +67,34 @@ public class MavenValueProviderFactory implements ValueProviderFactory {
         return new MavenValueProvider(projectFolder);
     }
 
+    @Override
+    public List<String> getDependencies() {
+        return DEPENDENCIES;
+    }
+
     protected class MavenValueProvider extends ReadonlyValueProvider {
 
         protected FolderEntry projectFolder;
 
+        private Model model;
+
         protected MavenValueProvider(FolderEntry projectFolder) {
             this.projectFolder = projectFolder;
         }
 
+        /** Reads pom.xml once for all attributes requested from this provider. */
+        private Model getModel() throws ValueStorageException, ServerException, ForbiddenException, IOException {
+            if (model == null) {
+                model = readModel(projectFolder);
+            }
+            return model;
+        }
+
         @Override
         public List<String> getValues(String attributeName) throws ValueStorageException {
             try {
                 String value = "";
-                final Model model = readModel(projectFolder);
+                final Model model = getModel();
                 if (attributeName.equals(ARTIFACT_ID)) {
                     value = model.getArtifactId();
                 } else if (attributeName.equals(GROUP_ID)) {
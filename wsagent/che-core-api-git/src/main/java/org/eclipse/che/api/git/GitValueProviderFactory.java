@@ -23,8 +23,11 @@ import org.eclipse.che.api.project.server.type.ValueProviderFactory;
 import org.eclipse.che.api.project.server.type.ValueStorageException;
 
 import javax.inject.Singleton;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.eclipse.che.api.git.GitProjectType.GIT_CURRENT_BRANCH_NAME;
@@ -37,6 +40,8 @@ import static org.eclipse.che.dto.server.DtoFactory.newDto;
  */
 @Singleton
 public class GitValueProviderFactory implements ValueProviderFactory {
+    /** Current branch is stored in HEAD and remotes are stored in config of repository. */
+    private static final List<String> DEPENDENCIES = Arrays.asList(".git/HEAD", ".git/config");
 
     @Inject
     private GitConnectionFactory gitConnectionFactory;
@@ -44,37 +49,47 @@ public class GitValueProviderFactory implements ValueProviderFactory {
     @Override
     public ValueProvider newInstance(final FolderEntry folder) {
         return new ReadonlyValueProvider() {
+            private Map<String, List<String>> values;
+
             @Override
             public List<String> getValues(String attributeName) throws ValueStorageException {
                 if (folder == null) {
                     return Collections.emptyList();
                 }
-                try (GitConnection gitConnection = gitConnectionFactory.getConnection(resolveLocalPath(folder))) {
-                    //check whether the folder belongs to git repository
-                    if (!gitConnection.isInsideWorkTree()) {
-                        return Collections.emptyList();
-                    }
-
-                    switch (attributeName) {
-                        case VCS_PROVIDER_NAME:
-                            return Collections.singletonList("git");
-                        case GIT_CURRENT_BRANCH_NAME:
-                            return Collections.singletonList(gitConnection.status(StatusFormat.LONG).getBranchName());
-                        case GIT_REPOSITORY_REMOTES:
-                            return gitConnection.remoteList(newDto(RemoteListRequest.class))
-                                                .stream()
-                                                .map(Remote::getUrl)
-                                                .collect(Collectors.toList());
-                        default:
-                            return Collections.emptyList();
-                    }
-                } catch (ApiException e) {
-                    throw new ValueStorageException(e.getMessage());
+                if (values == null) {
+                    values = readValues(folder);
                 }
+                return values.getOrDefault(attributeName, Collections.emptyList());
             }
         };
     }
 
+    @Override
+    public List<String> getDependencies() {
+        return DEPENDENCIES;
+    }
+
+    /** Reads all git attributes of folder with single connection. */
+    private Map<String, List<String>> readValues(FolderEntry folder) throws ValueStorageException {
+        try (GitConnection gitConnection = gitConnectionFactory.getConnection(resolveLocalPath(folder))) {
+            //check whether the folder belongs to git repository
+            if (!gitConnection.isInsideWorkTree()) {
+                return Collections.emptyMap();
+            }
+
+            final Map<String, List<String>> values = new HashMap<>();
+            values.put(VCS_PROVIDER_NAME, Collections.singletonList("git"));
+            values.put(GIT_CURRENT_BRANCH_NAME, Collections.singletonList(gitConnection.status(StatusFormat.LONG).getBranchName()));
+            values.put(GIT_REPOSITORY_REMOTES, gitConnection.remoteList(newDto(RemoteListRequest.class))
+                                                            .stream()
+                                                            .map(Remote::getUrl)
+                                                            .collect(Collectors.toList()));
+            return values;
+        } catch (ApiException e) {
+            throw new ValueStorageException(e.getMessage());
+        }
+    }
+
     private String resolveLocalPath(FolderEntry folder) throws ApiException {
         return folder.getVirtualFile().toIoFile().getAbsolutePath();
     }
@@ -30,4 +30,21 @@ public interface TreeElement {
     void setChildren(List<TreeElement> children);
 
     TreeElement withChildren(List<TreeElement> children);
+
+    /**
+     * Cursor for getting next page of children if not all children of folder are included in {@link #getChildren()}, {@code null} if
+     * there are no more children.
+     */
+    String getNextCursor();
+
+    void setNextCursor(String nextCursor);
+
+    TreeElement withNextCursor(String nextCursor);
+
+    /** Tag of folder's sub-tree, it is changed when any item in the sub-tree is added, removed or modified. */
+    String getEtag();
+
+    void setEtag(String etag);
+
+    TreeElement withEtag(String etag);
 }
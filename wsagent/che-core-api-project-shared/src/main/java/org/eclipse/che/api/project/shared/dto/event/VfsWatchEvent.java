@@ -11,27 +11,35 @@
 package org.eclipse.che.api.project.shared.dto.event;
 
 import org.eclipse.che.api.core.notification.EventOrigin;
+import org.eclipse.che.dto.shared.CompactJsonDto;
 import org.eclipse.che.dto.shared.DTO;
+import org.eclipse.che.dto.shared.SerializationIndex;
 
 /**
+ * Event about change of file or folder in virtual file system. Events are sent to clients in big amounts so they are serialized to
+ * compact JSON: {@code ["/project/file.txt","MODIFIED",true]}.
+ *
  * @author gazarenkov
  */
 @EventOrigin("vfs")
 @DTO
-public interface VfsWatchEvent {
+public interface VfsWatchEvent extends CompactJsonDto {
 
     String VFS_CHANNEL = "vfs";
 
+    @SerializationIndex(1)
     String getPath();
 
     VfsWatchEvent withPath(String path);
 
 
+    @SerializationIndex(2)
     FileWatcherEventType getType();
 
     VfsWatchEvent withType(FileWatcherEventType type);
 
 
+    @SerializationIndex(3)
     boolean isFile();
 
     VfsWatchEvent withFile(boolean isFile);
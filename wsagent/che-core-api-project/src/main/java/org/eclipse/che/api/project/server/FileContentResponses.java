@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.impl.file.FileContentSnapshot;
+import org.eclipse.che.api.vfs.impl.file.LocalVirtualFile;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Builds responses that send content of file. Supports conditional requests with ETag derived from modification date and length of
+ * file and single byte range requests.
+ *
+ * @author agent
+ */
+class FileContentResponses {
+    static final String ACCEPT_RANGES = "Accept-Ranges";
+    static final String CONTENT_RANGE = "Content-Range";
+    static final String RANGE         = "Range";
+    static final String IF_RANGE      = "If-Range";
+
+    private static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+
+    private static final int REQUESTED_RANGE_NOT_SATISFIABLE = 416;
+    private static final int PARTIAL_CONTENT                 = 206;
+
+    private FileContentResponses() {
+    }
+
+    /**
+     * Creates response builder for content of {@code file}.
+     *
+     * @param file
+     *         file
+     * @param mediaType
+     *         media type of content
+     * @param request
+     *         current request, used for evaluation of preconditions
+     * @param range
+     *         value of 'Range' header, may be {@code null}
+     * @param ifRange
+     *         value of 'If-Range' header, may be {@code null}
+     */
+    static Response.ResponseBuilder content(VirtualFile file, String mediaType, Request request, String range, String ifRange)
+            throws ForbiddenException, ServerException {
+        // Length and modification date of local file are read under the same lock as its content is opened, so ETag always matches
+        // content that is sent even if file is updated concurrently. Snapshot is closed when entity is written.
+        final FileContentSnapshot snapshot = file instanceof LocalVirtualFile ? ((LocalVirtualFile)file).openContentSnapshot() : null;
+        boolean streamed = false;
+        try {
+            final long length = snapshot == null ? file.getLength() : snapshot.getLength();
+            final long lastModificationDate = snapshot == null ? file.getLastModificationDate() : snapshot.getLastModificationDate();
+            final Date lastModified = new Date(lastModificationDate);
+            final EntityTag entityTag = entityTag(lastModificationDate, length);
+
+            final Response.ResponseBuilder preconditionsFailed = request.evaluatePreconditions(lastModified, entityTag);
+            if (preconditionsFailed != null) {
+                return preconditionsFailed.tag(entityTag).lastModified(lastModified);
+            }
+
+            long offset = 0;
+            long count = length;
+            Response.ResponseBuilder builder = Response.ok();
+            final long[] byteRange = range == null || !ifRangeMatches(ifRange, entityTag, lastModified) ? null : parseRange(range, length);
+            if (byteRange != null) {
+                if (byteRange.length == 0) {
+                    return Response.status(REQUESTED_RANGE_NOT_SATISFIABLE)
+                                   .header(CONTENT_RANGE, "bytes */" + length)
+                                   .tag(entityTag)
+                                   .lastModified(lastModified);
+                }
+                offset = byteRange[0];
+                count = byteRange[1] - byteRange[0] + 1;
+                builder = Response.status(PARTIAL_CONTENT)
+                                  .header(CONTENT_RANGE, String.format("bytes %d-%d/%d", byteRange[0], byteRange[1], length));
+            }
+
+            builder.entity(streamContent(file, snapshot, offset, count))
+                   .type(mediaType)
+                   .tag(entityTag)
+                   .lastModified(lastModified)
+                   .header(ACCEPT_RANGES, "bytes")
+                   .header(HttpHeaders.CONTENT_LENGTH, Long.toString(count));
+            streamed = true;
+            return builder;
+        } finally {
+            if (snapshot != null && !streamed) {
+                closeQuietly(snapshot);
+            }
+        }
+    }
+
+    static EntityTag entityTag(long lastModified, long length) {
+        return new EntityTag(Long.toHexString(lastModified) + '-' + Long.toHexString(length));
+    }
+
+    /**
+     * Parses value of 'Range' header. Only single range of bytes is supported.
+     *
+     * @return {@code null} if header is malformed or contains more than one range, in this case whole content must be sent; empty
+     * array if range is not satisfiable; array with first and last (inclusive) positions of range otherwise
+     */
+    static long[] parseRange(String range, long length) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        final String spec = range.substring("bytes=".length()).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        final long first;
+        final long last;
+        try {
+            if (dash == 0) {
+                // suffix range, e.g. 'bytes=-500' means last 500 bytes
+                final long suffixLength = Long.parseLong(spec.substring(1));
+                if (suffixLength == 0) {
+                    return new long[0];
+                }
+                first = Math.max(0, length - suffixLength);
+                last = length - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, dash));
+                last = dash == spec.length() - 1 ? length - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (first < 0 || first > last || first >= length) {
+            return first >= length ? new long[0] : null;
+        }
+        return new long[]{first, last};
+    }
+
+    private static boolean ifRangeMatches(String ifRange, EntityTag entityTag, Date lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            try {
+                return EntityTag.valueOf(ifRange).equals(entityTag);
+            } catch (IllegalArgumentException e) {
+                // malformed entity tag, send whole content
+                return false;
+            }
+        }
+        // HTTP dates have precision of seconds
+        final Date date = parseHttpDate(ifRange);
+        return date != null && date.getTime() / 1000 == lastModified.getTime() / 1000;
+    }
+
+    private static Date parseHttpDate(String value) {
+        try {
+            final SimpleDateFormat format = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
+            format.setTimeZone(TimeZone.getTimeZone("GMT"));
+            return format.parse(value);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private static StreamingOutput streamContent(VirtualFile file, FileContentSnapshot snapshot, long offset, long count) {
+        if (snapshot != null) {
+            return output -> {
+                try (FileContentSnapshot content = snapshot) {
+                    content.transferTo(offset, count, Channels.newChannel(output));
+                }
+            };
+        }
+        return output -> {
+            try (InputStream content = file.getContent()) {
+                ByteStreams.skipFully(content, offset);
+                ByteStreams.copy(ByteStreams.limit(content, count), output);
+            } catch (ForbiddenException | ServerException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        };
+    }
+
+    private static void closeQuietly(FileContentSnapshot snapshot) {
+        try {
+            snapshot.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -19,7 +19,6 @@ import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.UnauthorizedException;
 import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.core.model.project.SourceStorage;
-import org.eclipse.che.api.core.model.project.type.ProjectType;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.util.LineConsumerFactory;
 import org.eclipse.che.api.project.server.handlers.CreateProjectHandler;
@@ -45,6 +44,7 @@ import org.eclipse.che.api.vfs.impl.file.FileWatcherNotificationHandler;
 import org.eclipse.che.api.vfs.impl.file.FileWatcherNotificationListener;
 import org.eclipse.che.api.vfs.search.Searcher;
 import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,8 +59,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Facade for all project related operations.
@@ -80,7 +83,9 @@ public final class ProjectManager {
     private final FileTreeWatcher                fileWatcher;
     private final FileWatcherNotificationHandler fileWatchNotifier;
     private final ExecutorService                executor;
+    private final ExecutorService                resolveExecutor;
     private final WorkspaceProjectsSyncer        workspaceProjectsHolder;
+    private final ProjectTypeResolutionCache     resolutionCache;
 
     @Inject
     public ProjectManager(VirtualFileSystemProvider vfsProvider,
@@ -101,10 +106,15 @@ public final class ProjectManager {
         this.fileWatchNotifier = fileWatcherNotificationHandler;
         this.fileWatcher = fileTreeWatcher;
         this.workspaceProjectsHolder = workspaceProjectsHolder;
+        this.resolutionCache = new ProjectTypeResolutionCache();
 
         executor = Executors.newFixedThreadPool(1 + Runtime.getRuntime().availableProcessors(),
                                                 new ThreadFactoryBuilder().setNameFormat("ProjectService-IndexingThread-")
                                                                           .setDaemon(true).build());
+        // Separate pool for resolving of project types, caller waits for them and they must not queue behind reindexing of projects.
+        resolveExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                                                       new ThreadFactoryBuilder().setNameFormat("ProjectService-ResolveThread-%d")
+                                                                                 .setDaemon(true).build());
     }
 
     @PostConstruct
@@ -119,18 +129,27 @@ public final class ProjectManager {
                                                .withType(eventType));
             }
         };
+        FileWatcherNotificationListener resolutionCacheInvalidator = new FileWatcherNotificationListener(VirtualFileFilter.ACCEPT_ALL) {
+            @Override
+            public void onFileWatcherEvent(VirtualFile virtualFile, FileWatcherEventType eventType) {
+                resolutionCache.invalidate(virtualFile.getPath());
+            }
+        };
         fileWatchNotifier.addNotificationListener(defaultListener);
+        fileWatchNotifier.addNotificationListener(resolutionCacheInvalidator);
         try {
             fileWatcher.startup();
         } catch (IOException e) {
             LOG.error(e.getMessage(), e);
             fileWatchNotifier.removeNotificationListener(defaultListener);
+            fileWatchNotifier.removeNotificationListener(resolutionCacheInvalidator);
         }
     }
 
     @PreDestroy
     void stop() {
         executor.shutdownNow();
+        resolveExecutor.shutdownNow();
     }
 
     public FolderEntry getProjectsRoot() throws ServerException {
@@ -292,7 +311,8 @@ public final class ProjectManager {
 
         final RegisteredProject project = projectRegistry.putProject(newConfig, baseFolder, true, false);
 
-        workspaceProjectsHolder.sync(projectRegistry);
+        // clients often update many projects one by one, e.g. modules of just imported project
+        workspaceProjectsHolder.scheduleSync(projectRegistry);
 
         projectRegistry.fireInitHandlers(project);
 
@@ -369,25 +389,47 @@ public final class ProjectManager {
             throw new NotFoundException("Folder not found: " + path);
         }
 
-        return projectType.resolveSources(baseFolder);
+        return resolutionCache.resolve(projectType, baseFolder);
     }
 
     // ProjectSuggestion
     public List<ProjectTypeResolution> resolveSources(String path, boolean transientOnly) throws ServerException, NotFoundException {
-        final List<ProjectTypeResolution> resolutions = new ArrayList<>();
+        final FolderEntry baseFolder = asFolder(path);
 
-        for (ProjectType type : projectTypeRegistry.getProjectTypes(ProjectTypeRegistry.CHILD_TO_PARENT_COMPARATOR)) {
+        if (baseFolder == null) {
+            throw new NotFoundException("Folder not found: " + path);
+        }
+
+        final long stamp = resolutionCache.stamp(baseFolder);
+        // Project types are independent of each other, resolve them in parallel but keep order of types in result.
+        final List<Future<ProjectTypeResolution>> futures = new ArrayList<>();
+        for (ProjectTypeDef type : projectTypeRegistry.getProjectTypes(ProjectTypeRegistry.CHILD_TO_PARENT_COMPARATOR)) {
             if (transientOnly && type.isPersisted()) {
                 continue;
             }
 
+            final Callable<ProjectTypeResolution> resolve = () -> resolutionCache.resolve(type, baseFolder, stamp);
+            futures.add(resolveExecutor.submit(ThreadLocalPropagateContext.wrap(resolve)));
+        }
+
+        final List<ProjectTypeResolution> resolutions = new ArrayList<>();
+        for (Future<ProjectTypeResolution> future : futures) {
             try {
-                final ProjectTypeResolution resolution = estimateProject(path, type.getId());
+                final ProjectTypeResolution resolution = future.get();
                 if (resolution.matched()) {
                     resolutions.add(resolution);
                 }
-            } catch (ValueStorageException e) {
-                LOG.warn(e.getLocalizedMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new ServerException("Interrupted while resolving project types of " + path);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof ValueStorageException) {
+                    LOG.warn(cause.getLocalizedMessage(), cause);
+                } else {
+                    throw new ServerException(cause.getLocalizedMessage(), cause);
+                }
             }
         }
 
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.vfs.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trie of project paths. Each node of trie is a segment of path. Lookup of projects under the path and lookup of project that owns
+ * the path take time proportional to depth of path instead of number of registered projects.
+ * <p>
+ * Lookups do not block, modifications are serialized.
+ *
+ * @author agent
+ */
+class ProjectPathTrie {
+    private final Node root = new Node(null, null);
+
+    /** Adds or replaces project registered under the {@code path}. */
+    synchronized void put(Path path, RegisteredProject project) {
+        Node node = root;
+        for (String element : path.elements()) {
+            Node child = node.children.get(element);
+            if (child == null) {
+                child = new Node(node, element);
+                node.children.put(element, child);
+            }
+            node = child;
+        }
+        node.project = project;
+    }
+
+    /**
+     * Removes project registered under the {@code path}.
+     *
+     * @return removed project or {@code null} if there is no project registered under the {@code path}
+     */
+    synchronized RegisteredProject remove(Path path) {
+        final Node node = find(path);
+        if (node == null) {
+            return null;
+        }
+        final RegisteredProject removed = node.project;
+        node.project = null;
+        prune(node);
+        return removed;
+    }
+
+    /** Gets project registered under the {@code path}. */
+    RegisteredProject get(Path path) {
+        final Node node = find(path);
+        return node == null ? null : node.project;
+    }
+
+    /** Gets project registered under the {@code path} or the nearest project registered under any of parents of {@code path}. */
+    RegisteredProject getOwner(Path path) {
+        Node node = root;
+        RegisteredProject owner = root.project;
+        for (String element : path.elements()) {
+            node = node.children.get(element);
+            if (node == null) {
+                break;
+            }
+            if (node.project != null) {
+                owner = node.project;
+            }
+        }
+        return owner;
+    }
+
+    /** Gets all projects registered under the {@code path} at any depth. Project registered exactly under the {@code path} is excluded. */
+    List<RegisteredProject> getDescendants(Path path) {
+        final List<RegisteredProject> descendants = new ArrayList<>();
+        final Node node = find(path);
+        if (node != null) {
+            collect(node, descendants);
+        }
+        return descendants;
+    }
+
+    private void collect(Node node, List<RegisteredProject> descendants) {
+        for (Node child : node.children.values()) {
+            final RegisteredProject project = child.project;
+            if (project != null) {
+                descendants.add(project);
+            }
+            collect(child, descendants);
+        }
+    }
+
+    private Node find(Path path) {
+        Node node = root;
+        for (String element : path.elements()) {
+            node = node.children.get(element);
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    /* Removes nodes that have neither project nor children. */
+    private void prune(Node node) {
+        while (node.parent != null && node.project == null && node.children.isEmpty()) {
+            node.parent.children.remove(node.name);
+            node = node.parent;
+        }
+    }
+
+    private static class Node {
+        final Node              parent;
+        final String            name;
+        final Map<String, Node> children;
+
+        volatile RegisteredProject project;
+
+        Node(Node parent, String name) {
+            this.parent = parent;
+            this.name = name;
+            this.children = new ConcurrentHashMap<>();
+        }
+    }
+}
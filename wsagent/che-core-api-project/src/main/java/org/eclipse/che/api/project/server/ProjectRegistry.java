@@ -49,6 +49,8 @@ public class ProjectRegistry {
     private static final Logger LOG = LoggerFactory.getLogger(ProjectRegistry.class);
 
     private final Map<String, RegisteredProject> projects;
+    private final ProjectPathTrie                projectTrie;
+    private final ProvidedValuesCache            providedValues;
     private final WorkspaceProjectsSyncer        workspaceHolder;
     private final VirtualFileSystem              vfs;
     private final ProjectTypeRegistry            projectTypeRegistry;
@@ -66,6 +68,8 @@ public class ProjectRegistry {
                            EventService eventService) throws ServerException {
         this.eventService = eventService;
         this.projects = new ConcurrentHashMap<>();
+        this.projectTrie = new ProjectPathTrie();
+        this.providedValues = new ProvidedValuesCache();
         this.workspaceHolder = workspaceHolder;
         this.vfs = vfsProvider.getVirtualFileSystem();
         this.projectTypeRegistry = projectTypeRegistry;
@@ -134,12 +138,10 @@ public class ProjectRegistry {
 
         initUnconfiguredFolders();
 
-        final Path root = Path.of(absolutizePath(parentPath));
-
-        return projects.keySet()
-                       .stream()
-                       .filter(key -> Path.of(key).isChild(root))
-                       .collect(Collectors.toList());
+        return projectTrie.getDescendants(Path.of(absolutizePath(parentPath)))
+                          .stream()
+                          .map(RegisteredProject::getPath)
+                          .collect(Collectors.toList());
     }
 
     /**
@@ -150,23 +152,10 @@ public class ProjectRegistry {
     public RegisteredProject getParentProject(String path) {
         checkInitializationState();
 
-        // return this if a project
-        if (getProject(path) != null) {
-            return getProject(path);
-        }
-
-        // otherwise try to find matched parent
-        Path test;
-        while ((test = Path.of(path).getParent()) != null) {
-            final RegisteredProject project = projects.get(test.toString());
-            if (project != null) {
-                return project;
-            }
-
-            path = test.toString();
-        }
+        initUnconfiguredFolders();
 
-        return null;
+        // project registered under this path or the nearest of its parents
+        return projectTrie.getOwner(Path.of(absolutizePath(path)));
     }
 
     /**
@@ -192,8 +181,10 @@ public class ProjectRegistry {
                                                           ConflictException,
                                                           NotFoundException {
 
-        final RegisteredProject project = new RegisteredProject(folder, config, updated, detected, this.projectTypeRegistry);
+        final RegisteredProject project = new RegisteredProject(folder, config, updated, detected, this.projectTypeRegistry,
+                                                                this.providedValues);
         projects.put(project.getPath(), project);
+        projectTrie.put(Path.of(project.getPath()), project);
 
         return project;
     }
@@ -208,13 +199,19 @@ public class ProjectRegistry {
     void removeProjects(String path) throws ServerException {
 
         List<RegisteredProject> removed = new ArrayList<>();
-        Optional.ofNullable(projects.remove(path)).ifPresent(removed::add);
-        getProjects(path).forEach(p -> Optional.ofNullable(projects.remove(p))
+        Optional.ofNullable(removeProject(path)).ifPresent(removed::add);
+        getProjects(path).forEach(p -> Optional.ofNullable(removeProject(p))
                                                .ifPresent(removed::add));
+        providedValues.invalidate(Path.of(path));
 
         removed.forEach(registeredProject -> eventService.publish(new ProjectDeletedEvent(registeredProject.getPath())));
     }
 
+    private RegisteredProject removeProject(String path) {
+        projectTrie.remove(Path.of(path));
+        return projects.remove(path);
+    }
+
     /*  ------------------------------------------ */
     /*   to use from extension                     */
     /*  ------------------------------------------ */
@@ -333,7 +330,7 @@ public class ProjectRegistry {
             newMixins.remove(type);
         } else if (newType.equals(type)) {
             if (project.isDetected()) {
-                projects.remove(project.getPath());
+                removeProject(project.getPath());
                 return null;
             }
 
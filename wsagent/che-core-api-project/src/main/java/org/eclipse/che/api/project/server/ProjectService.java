@@ -36,6 +36,7 @@ import org.eclipse.che.api.project.server.type.ProjectTypeResolution;
 import org.eclipse.che.api.project.shared.dto.CopyOptions;
 import org.eclipse.che.api.project.shared.dto.ItemReference;
 import org.eclipse.che.api.project.shared.dto.MoveOptions;
+import org.eclipse.che.api.project.shared.dto.SearchResultDto;
 import org.eclipse.che.api.project.shared.dto.SourceEstimation;
 import org.eclipse.che.api.project.shared.dto.TreeElement;
 import org.eclipse.che.api.vfs.VirtualFile;
@@ -58,28 +59,33 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static javax.ws.rs.HttpMethod.DELETE;
 import static javax.ws.rs.HttpMethod.GET;
 import static javax.ws.rs.HttpMethod.PUT;
@@ -448,12 +454,15 @@ public class ProjectService extends Service {
     @GET
     @Path("/file/{path:.*}")
     public Response getFile(@ApiParam(value = "Path to a file", required = true)
-                            @PathParam("path") String path) throws IOException, NotFoundException, ForbiddenException, ServerException {
+                            @PathParam("path") String path,
+                            @HeaderParam(FileContentResponses.RANGE) String range,
+                            @HeaderParam(FileContentResponses.IF_RANGE) String ifRange,
+                            @Context Request request) throws IOException, NotFoundException, ForbiddenException, ServerException {
         final FileEntry file = projectManager.asFile(path);
         if (file == null) {
             throw new NotFoundException("File not found for " + path);
         }
-        return Response.ok().entity(file.getInputStream()).type(TIKA.detect(file.getName())).build();
+        return FileContentResponses.content(file.getVirtualFile(), TIKA.detect(file.getName()), request, range, ifRange).build();
     }
 
     @PUT
@@ -690,8 +699,8 @@ public class ProjectService extends Service {
                    @ApiResponse(code = 403, message = "User not authorized to call this operation"),
                    @ApiResponse(code = 404, message = "Not found"),
                    @ApiResponse(code = 500, message = "Internal Server Error")})
-    public InputStream exportZip(@ApiParam(value = "Path to resource to be exported")
-                                 @PathParam("path") String path) throws NotFoundException, ForbiddenException, ServerException {
+    public Response exportZip(@ApiParam(value = "Path to resource to be exported")
+                              @PathParam("path") String path) throws NotFoundException, ForbiddenException, ServerException {
 
         final FolderEntry folder = projectManager.asFolder(path);
 
@@ -699,14 +708,26 @@ public class ProjectService extends Service {
             throw new NotFoundException("Folder not found " + path);
         }
 
-        return folder.getVirtualFile().zip();
+        // Archive is written directly to the response while folder is traversed.
+        final VirtualFile virtualFile = folder.getVirtualFile();
+        final StreamingOutput archive = output -> {
+            try {
+                virtualFile.zip(output);
+            } catch (ForbiddenException | ServerException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        };
+        return Response.ok(archive, ExtMediaType.APPLICATION_ZIP).build();
     }
 
     @GET
     @Path("/export/file/{path:.*}")
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
     public Response exportFile(@ApiParam(value = "Path to resource to be imported")
-                               @PathParam("path") String path) throws NotFoundException, ForbiddenException, ServerException {
+                               @PathParam("path") String path,
+                               @HeaderParam(FileContentResponses.RANGE) String range,
+                               @HeaderParam(FileContentResponses.IF_RANGE) String ifRange,
+                               @Context Request request) throws NotFoundException, ForbiddenException, ServerException {
 
         final FileEntry file = projectManager.asFile(path);
 
@@ -716,11 +737,9 @@ public class ProjectService extends Service {
 
         final VirtualFile virtualFile = file.getVirtualFile();
 
-        return Response.ok(virtualFile.getContent(), TIKA.detect(virtualFile.getName()))
-                       .lastModified(new Date(virtualFile.getLastModificationDate()))
-                       .header(HttpHeaders.CONTENT_LENGTH, Long.toString(virtualFile.getLength()))
-                       .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + virtualFile.getName() + '"')
-                       .build();
+        return FileContentResponses.content(virtualFile, TIKA.detect(virtualFile.getName()), request, range, ifRange)
+                                   .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + virtualFile.getName() + '"')
+                                   .build();
     }
 
     @GET
@@ -761,25 +780,86 @@ public class ProjectService extends Service {
     @Path("/tree/{parent:.*}")
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(value = "Get project tree",
-                  notes = "Get project tree. Depth is specified in a query parameter",
+                  notes = "Get project tree. Depth is specified in a query parameter. Response has ETag of the tree, if tree is not " +
+                          "changed since it was got with tag sent in 'If-None-Match' header then status 304 is returned",
                   response = TreeElement.class)
     @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 304, message = "Tree is not modified"),
                    @ApiResponse(code = 403, message = "User not authorized to call this operation"),
                    @ApiResponse(code = 404, message = "Not found"),
                    @ApiResponse(code = 500, message = "Internal Server Error")})
-    public TreeElement getTree(@ApiParam(value = "Path to resource. Can be project or its folders", required = true)
-                               @PathParam("parent") String path,
-                               @ApiParam(value = "Tree depth. This parameter can be dropped. If not specified ?depth=1 is used by default")
-                               @DefaultValue("1") @QueryParam("depth") int depth,
-                               @ApiParam(value = "include children files (in addition to children folders). This parameter can be dropped" +
-                                                 ". If not specified ?includeFiles=false is used by default")
-                               @DefaultValue("false") @QueryParam("includeFiles") boolean includeFiles) throws NotFoundException,
-                                                                                                               ForbiddenException,
-                                                                                                               ServerException {
+    public Response getTree(@ApiParam(value = "Path to resource. Can be project or its folders", required = true)
+                            @PathParam("parent") String path,
+                            @ApiParam(value = "Tree depth. This parameter can be dropped. If not specified ?depth=1 is used by default")
+                            @DefaultValue("1") @QueryParam("depth") int depth,
+                            @ApiParam(value = "include children files (in addition to children folders). This parameter can be dropped" +
+                                              ". If not specified ?includeFiles=false is used by default")
+                            @DefaultValue("false") @QueryParam("includeFiles") boolean includeFiles,
+                            @ApiParam(value = "Maximum children of each folder in the tree. If this parameter is dropped, there are no limits")
+                            @DefaultValue("-1") @QueryParam("maxItems") int maxItems,
+                            @ApiParam(value = "Cursor of the first page of children of requested folder, see 'nextCursor' of tree element")
+                            @QueryParam("cursor") String cursor,
+                            @Context Request request) throws NotFoundException,
+                                                             ForbiddenException,
+                                                             ServerException {
         final FolderEntry folder = projectManager.asFolder(path);
 
-        return newDto(TreeElement.class).withNode(injectFolderLinks(asDto(folder)))
-                                        .withChildren(getTree(folder, depth, includeFiles));
+        if (folder == null) {
+            throw new NotFoundException("Folder not found " + path);
+        }
+
+        final ProjectTreeBuilder treeBuilder = newTreeBuilder(includeFiles, maxItems);
+        final EntityTag entityTag = new EntityTag(treeBuilder.tag(folder, depth, cursor));
+        final Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified.tag(entityTag).build();
+        }
+
+        return Response.ok(treeBuilder.build(folder, depth, cursor), MediaType.APPLICATION_JSON)
+                       .tag(entityTag)
+                       .build();
+    }
+
+    @GET
+    @Path("/trees")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get few project trees",
+                  notes = "Get trees of few folders at once. Tag of each tree may be sent together with path, " +
+                          "tree that is not changed since it was got with this tag is not included in response",
+                  response = TreeElement.class,
+                  responseContainer = "List")
+    @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 403, message = "User not authorized to call this operation"),
+                   @ApiResponse(code = 404, message = "Not found"),
+                   @ApiResponse(code = 500, message = "Internal Server Error")})
+    public List<TreeElement> getTrees(@ApiParam(value = "Paths to resources. Can be projects or its folders", required = true)
+                                      @QueryParam("path") List<String> paths,
+                                      @ApiParam(value = "Known tags of trees, N-th tag corresponds to N-th path, empty tag means unknown tag")
+                                      @QueryParam("etag") List<String> etags,
+                                      @ApiParam(value = "Tree depth. This parameter can be dropped. If not specified ?depth=1 is used by default")
+                                      @DefaultValue("1") @QueryParam("depth") int depth,
+                                      @ApiParam(value = "include children files (in addition to children folders). This parameter can be " +
+                                                        "dropped. If not specified ?includeFiles=false is used by default")
+                                      @DefaultValue("false") @QueryParam("includeFiles") boolean includeFiles,
+                                      @ApiParam(value = "Maximum children of each folder in the trees. If this parameter is dropped, " +
+                                                        "there are no limits")
+                                      @DefaultValue("-1") @QueryParam("maxItems") int maxItems) throws NotFoundException,
+                                                                                                       ForbiddenException,
+                                                                                                       ServerException {
+        final ProjectTreeBuilder treeBuilder = newTreeBuilder(includeFiles, maxItems);
+        final List<TreeElement> trees = new ArrayList<>(paths.size());
+        for (int i = 0; i < paths.size(); i++) {
+            final String path = paths.get(i);
+            final FolderEntry folder = projectManager.asFolder(path);
+            if (folder == null) {
+                throw new NotFoundException("Folder not found " + path);
+            }
+            final String knownTag = i < etags.size() ? etags.get(i) : null;
+            if (isNullOrEmpty(knownTag) || !knownTag.equals(treeBuilder.tag(folder, depth, null))) {
+                trees.add(treeBuilder.build(folder, depth, null));
+            }
+        }
+        return trees;
     }
 
     @GET
@@ -826,6 +906,8 @@ public class ProjectService extends Service {
                                       @QueryParam("name") String name,
                                       @ApiParam(value = "Search keywords")
                                       @QueryParam("text") String text,
+                                      @ApiParam(value = "Regular expression that should match content of resource")
+                                      @QueryParam("regex") String regex,
                                       @ApiParam(value = "Maximum items to display. If this parameter is dropped, there are no limits")
                                       @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
                                       @ApiParam(value = "Skip count")
@@ -833,6 +915,75 @@ public class ProjectService extends Service {
                                                                                      ForbiddenException,
                                                                                      ConflictException,
                                                                                      ServerException {
+        final List<SearchResultEntry> searchResultEntries = doSearch(path, name, text, regex, maxItems, skipCount, false);
+        final List<ItemReference> items = new ArrayList<>(searchResultEntries.size());
+        final FolderEntry root = projectManager.getProjectsRoot();
+
+        for (SearchResultEntry searchResultEntry : searchResultEntries) {
+            final VirtualFileEntry child = root.getChild(searchResultEntry.getFilePath());
+
+            if (child != null && child.isFile()) {
+                items.add(injectFileLinks(asDto((FileEntry)child)));
+            }
+        }
+
+        return items;
+    }
+
+    @GET
+    @Path("/search-occurrences/{path:.*}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Search for text occurrences",
+                  notes = "Search for resources applying a number of search filters as query parameters. Each found resource contains " +
+                          "line numbers, column ranges and content of lines where searched text occurs",
+                  response = SearchResultDto.class,
+                  responseContainer = "List")
+    @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 403, message = "User not authorized to call this operation"),
+                   @ApiResponse(code = 404, message = "Not found"),
+                   @ApiResponse(code = 409, message = "Conflict error"),
+                   @ApiResponse(code = 500, message = "Internal Server Error")})
+    public List<SearchResultDto> searchOccurrences(@ApiParam(value = "Path to resource, i.e. where to search?", required = true)
+                                                   @PathParam("path") String path,
+                                                   @ApiParam(value = "Resource name")
+                                                   @QueryParam("name") String name,
+                                                   @ApiParam(value = "Search keywords")
+                                                   @QueryParam("text") String text,
+                                                   @ApiParam(value = "Regular expression that should match content of resource")
+                                                   @QueryParam("regex") String regex,
+                                                   @ApiParam(value = "Maximum items to display. If this parameter is dropped, there are no limits")
+                                                   @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
+                                                   @ApiParam(value = "Skip count")
+                                                   @QueryParam("skipCount") int skipCount) throws NotFoundException,
+                                                                                                  ForbiddenException,
+                                                                                                  ConflictException,
+                                                                                                  ServerException {
+        final List<SearchResultEntry> searchResultEntries = doSearch(path, name, text, regex, maxItems, skipCount, true);
+        final List<SearchResultDto> results = new ArrayList<>(searchResultEntries.size());
+        final FolderEntry root = projectManager.getProjectsRoot();
+
+        for (SearchResultEntry searchResultEntry : searchResultEntries) {
+            final VirtualFileEntry child = root.getChild(searchResultEntry.getFilePath());
+
+            if (child != null && child.isFile()) {
+                results.add(newDto(SearchResultDto.class).withItemReference(injectFileLinks(asDto((FileEntry)child)))
+                                                         .withSearchOccurrences(searchResultEntry.getOccurrences()
+                                                                                                 .stream()
+                                                                                                 .map(DtoConverter::asDto)
+                                                                                                 .collect(Collectors.toList())));
+            }
+        }
+
+        return results;
+    }
+
+    private List<SearchResultEntry> doSearch(String path,
+                                             String name,
+                                             String text,
+                                             String regex,
+                                             int maxItems,
+                                             int skipCount,
+                                             boolean includePositions) throws ConflictException, ServerException {
         final Searcher searcher;
         try {
             searcher = projectManager.getSearcher();
@@ -849,23 +1000,13 @@ public class ProjectService extends Service {
                 .setPath(path.startsWith("/") ? path : ('/' + path))
                 .setName(name)
                 .setText(text)
+                .setRegex(regex)
                 .setMaxItems(maxItems)
-                .setSkipCount(skipCount);
+                .setSkipCount(skipCount)
+                .setIncludePositions(includePositions);
 
         final SearchResult result = searcher.search(expr);
-        final List<SearchResultEntry> searchResultEntries = result.getResults();
-        final List<ItemReference> items = new ArrayList<>(searchResultEntries.size());
-        final FolderEntry root = projectManager.getProjectsRoot();
-
-        for (SearchResultEntry searchResultEntry : searchResultEntries) {
-            final VirtualFileEntry child = root.getChild(searchResultEntry.getFilePath());
-
-            if (child != null && child.isFile()) {
-                items.add(injectFileLinks(asDto((FileEntry)child)));
-            }
-        }
-
-        return items;
+        return result.getResults();
     }
 
     private void logProjectCreatedEvent(@NotNull String projectName, @NotNull String projectType) {
@@ -896,33 +1037,11 @@ public class ProjectService extends Service {
         return virtualFile;
     }
 
-    private List<TreeElement> getTree(FolderEntry folder,
-                                      int depth,
-                                      boolean includeFiles) throws ServerException, NotFoundException {
-        if (depth == 0) {
-            return null;
-        }
-
-        final List<? extends VirtualFileEntry> children;
-
-        if (includeFiles) {
-            children = folder.getChildFoldersFiles();
-        } else {
-            children = folder.getChildFolders();
-        }
-
-        final List<TreeElement> nodes = new ArrayList<>(children.size());
-        for (VirtualFileEntry child : children) {
-            if (child.isFolder()) {
-                nodes.add(newDto(TreeElement.class)
-                                  .withNode(injectFolderLinks(asDto((FolderEntry)child)))
-                                  .withChildren(getTree((FolderEntry)child, depth - 1, includeFiles)));
-            } else {
-                nodes.add(newDto(TreeElement.class).withNode(injectFileLinks(asDto((FileEntry)child))));
-            }
-        }
-
-        return nodes;
+    private ProjectTreeBuilder newTreeBuilder(boolean includeFiles, int maxItems) {
+        return new ProjectTreeBuilder(folder -> injectFolderLinks(asDto(folder)),
+                                      file -> injectFileLinks(asDto(file)),
+                                      includeFiles,
+                                      maxItems);
     }
 
     /* --------------------------------------------------------------------------- */
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.project.shared.dto.ItemReference;
+import org.eclipse.che.api.project.shared.dto.TreeElement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+
+/**
+ * Builds tree of folder. Number of children of each folder in the tree may be limited, in this case the tree contains cursor for
+ * getting next page of children. Each folder in the tree has tag that is calculated over names, types and modification dates of its
+ * items, so client may check whether sub-tree is changed without transferring it.
+ * <p>
+ * Listings of folders are remembered by the builder, so tag may be calculated before building of the tree without reading folders
+ * twice. Instance of this class is supposed to be used for single request.
+ *
+ * @author agent
+ */
+class ProjectTreeBuilder {
+    private static final String FOLDER_CURSOR_PREFIX = "d:";
+    private static final String FILE_CURSOR_PREFIX   = "f:";
+
+    private final Function<FolderEntry, ItemReference> folderConverter;
+    private final Function<FileEntry, ItemReference>   fileConverter;
+    private final boolean                              includeFiles;
+    private final int                                  maxItems;
+    private final Map<String, Page>                    pages;
+    private final Map<String, String>                  tags;
+
+    /**
+     * @param folderConverter
+     *         converts folder to item of tree
+     * @param fileConverter
+     *         converts file to item of tree
+     * @param includeFiles
+     *         include files in the tree in addition to folders
+     * @param maxItems
+     *         max number of children of each folder, if less than 1 all children are included in the tree
+     */
+    ProjectTreeBuilder(Function<FolderEntry, ItemReference> folderConverter,
+                       Function<FileEntry, ItemReference> fileConverter,
+                       boolean includeFiles,
+                       int maxItems) {
+        this.folderConverter = folderConverter;
+        this.fileConverter = fileConverter;
+        this.includeFiles = includeFiles;
+        this.maxItems = maxItems;
+        this.pages = new HashMap<>();
+        this.tags = new HashMap<>();
+    }
+
+    /**
+     * Calculates tag of sub-tree of {@code folder}.
+     *
+     * @param folder
+     *         root of sub-tree
+     * @param depth
+     *         depth of sub-tree
+     * @param cursor
+     *         cursor of first page of children of {@code folder}, may be {@code null}
+     */
+    String tag(FolderEntry folder, int depth, String cursor) throws ServerException {
+        final String key = key(folder, depth, cursor);
+        String tag = tags.get(key);
+        if (tag == null) {
+            final Hasher hasher = Hashing.md5().newHasher();
+            hasher.putString(folder.getPath().toString(), UTF_8)
+                  .putBoolean(folder.isProject())
+                  .putLong(folder.getModified());
+            if (depth != 0) {
+                final Page page = page(folder, cursor);
+                for (VirtualFileEntry child : page.children) {
+                    hasher.putString(child.getName(), UTF_8)
+                          .putLong(child.getModified());
+                    if (child.isFolder()) {
+                        hasher.putString(tag((FolderEntry)child, depth - 1, null), UTF_8);
+                    } else {
+                        hasher.putLong(child.getVirtualFile().getLength());
+                    }
+                }
+                if (page.nextCursor != null) {
+                    hasher.putString(page.nextCursor, UTF_8);
+                }
+            }
+            tag = hasher.hash().toString();
+            tags.put(key, tag);
+        }
+        return tag;
+    }
+
+    /**
+     * Builds sub-tree of {@code folder}.
+     *
+     * @param folder
+     *         root of sub-tree
+     * @param depth
+     *         depth of sub-tree
+     * @param cursor
+     *         cursor of first page of children of {@code folder}, may be {@code null}
+     */
+    TreeElement build(FolderEntry folder, int depth, String cursor) throws ServerException {
+        final TreeElement element = newDto(TreeElement.class).withNode(folderConverter.apply(folder))
+                                                             .withEtag(tag(folder, depth, cursor));
+        if (depth == 0) {
+            return element;
+        }
+        final Page page = page(folder, cursor);
+        final List<TreeElement> children = new ArrayList<>(page.children.size());
+        for (VirtualFileEntry child : page.children) {
+            if (child.isFolder()) {
+                children.add(build((FolderEntry)child, depth - 1, null));
+            } else {
+                children.add(newDto(TreeElement.class).withNode(fileConverter.apply((FileEntry)child)));
+            }
+        }
+        return element.withChildren(children).withNextCursor(page.nextCursor);
+    }
+
+    private Page page(FolderEntry folder, String cursor) throws ServerException {
+        final String key = folder.getPath().toString() + '\n' + (cursor == null ? "" : cursor);
+        Page page = pages.get(key);
+        if (page == null) {
+            final List<? extends VirtualFileEntry> all = includeFiles ? folder.getChildFoldersFiles() : folder.getChildFolders();
+            final List<VirtualFileEntry> children = new ArrayList<>();
+            String nextCursor = null;
+            for (VirtualFileEntry child : all) {
+                // Children are sorted: folders first then files, each group by name, cursor points to the last item of previous page.
+                if (cursor != null && compareWithCursor(child, cursor) <= 0) {
+                    continue;
+                }
+                if (maxItems > 0 && children.size() == maxItems) {
+                    nextCursor = cursor(children.get(children.size() - 1));
+                    break;
+                }
+                children.add(child);
+            }
+            page = new Page(children, nextCursor);
+            pages.put(key, page);
+        }
+        return page;
+    }
+
+    private static String key(FolderEntry folder, int depth, String cursor) {
+        return folder.getPath().toString() + '\n' + depth + '\n' + (cursor == null ? "" : cursor);
+    }
+
+    private static String cursor(VirtualFileEntry entry) {
+        return (entry.isFolder() ? FOLDER_CURSOR_PREFIX : FILE_CURSOR_PREFIX) + entry.getName();
+    }
+
+    private static int compareWithCursor(VirtualFileEntry entry, String cursor) {
+        final boolean cursorIsFolder = cursor.startsWith(FOLDER_CURSOR_PREFIX);
+        if (entry.isFolder() != cursorIsFolder) {
+            return entry.isFolder() ? -1 : 1;
+        }
+        return entry.getName().compareTo(cursor.substring(FOLDER_CURSOR_PREFIX.length()));
+    }
+
+    private static class Page {
+        final List<VirtualFileEntry> children;
+        final String                 nextCursor;
+
+        Page(List<VirtualFileEntry> children, String nextCursor) {
+            this.children = children;
+            this.nextCursor = nextCursor;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.project.server.type.ProjectTypeDef;
+import org.eclipse.che.api.project.server.type.ProjectTypeResolution;
+import org.eclipse.che.api.project.server.type.ValueStorageException;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers results of {@link ProjectTypeDef#resolveSources(FolderEntry)}. Result is reused while stamp of folder is not changed and
+ * folder is not invalidated with {@link #invalidate(Path)}. Stamp of folder is calculated over modification date of folder and names,
+ * modification dates and sizes of its direct children, so changes of files that value providers usually read (pom.xml, package.json,
+ * etc) are visible even if file watcher is not running. Changes in deeper levels are caught by invalidation from file watcher.
+ *
+ * @author agent
+ */
+class ProjectTypeResolutionCache {
+    private static final int CACHE_SIZE = 1000;
+
+    /* folder path -> (project type id -> resolution) */
+    private final Cache<Path, Map<String, Entry>> resolutions;
+
+    ProjectTypeResolutionCache() {
+        resolutions = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+    }
+
+    /** Gets resolution of project type for the folder from this cache or resolves and caches it. */
+    ProjectTypeResolution resolve(ProjectTypeDef projectType, FolderEntry folder) throws ServerException, ValueStorageException {
+        return resolve(projectType, folder, stamp(folder));
+    }
+
+    /**
+     * Gets resolution of project type for the folder from this cache or resolves and caches it.
+     *
+     * @param stamp
+     *         current stamp of folder, see {@link #stamp(FolderEntry)}
+     */
+    ProjectTypeResolution resolve(ProjectTypeDef projectType, FolderEntry folder, long stamp) throws ValueStorageException {
+        final Path path = folder.getPath();
+        Map<String, Entry> folderResolutions = resolutions.getIfPresent(path);
+        if (folderResolutions != null) {
+            final Entry entry = folderResolutions.get(projectType.getId());
+            if (entry != null && entry.stamp == stamp) {
+                return entry.resolution;
+            }
+        } else {
+            folderResolutions = new ConcurrentHashMap<>();
+            final Map<String, Entry> existed = resolutions.asMap().putIfAbsent(path, folderResolutions);
+            if (existed != null) {
+                folderResolutions = existed;
+            }
+        }
+        final ProjectTypeResolution resolution = projectType.resolveSources(folder);
+        folderResolutions.put(projectType.getId(), new Entry(resolution, stamp));
+        return resolution;
+    }
+
+    /** Invalidates resolutions of item with specified path and all its parents. */
+    void invalidate(Path path) {
+        for (Path current = path; current != null; current = current.getParent()) {
+            resolutions.invalidate(current);
+        }
+    }
+
+    /** Calculates stamp of folder, may be used for resolving few project types for the same folder. */
+    long stamp(FolderEntry folder) throws ServerException {
+        final VirtualFile virtualFile = folder.getVirtualFile();
+        long stamp = virtualFile.getLastModificationDate();
+        for (VirtualFile child : virtualFile.getChildren()) {
+            stamp = stamp * 31 + child.getName().hashCode();
+            stamp = stamp * 31 + child.getLastModificationDate();
+            if (child.isFile()) {
+                stamp = stamp * 31 + child.getLength();
+            }
+        }
+        return stamp;
+    }
+
+    private static class Entry {
+        final ProjectTypeResolution resolution;
+        final long                  stamp;
+
+        Entry(ProjectTypeResolution resolution, long stamp) {
+            this.resolution = resolution;
+            this.stamp = stamp;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.project.server.type.ValueProviderFactory;
+import org.eclipse.che.api.vfs.Path;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers values of read-only attributes provided with {@link ValueProviderFactory} that declares
+ * {@link ValueProviderFactory#getDependencies() dependencies}. Value is reused while stamp of dependencies is not changed. Stamp is
+ * calculated over modification dates and sizes of dependencies, so there is no need to listen file events and values are updated
+ * even if changes are made when file watcher is not running.
+ *
+ * @author agent
+ */
+class ProvidedValuesCache {
+    /** Stamp of folder that has none of dependencies, values of such folder are not cached. */
+    static final long NO_STAMP = 0;
+
+    private static final int CACHE_SIZE = 1000;
+
+    /* folder path -> (attribute name -> values) */
+    private final Cache<Path, Map<String, Entry>> values;
+
+    ProvidedValuesCache() {
+        values = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+    }
+
+    /**
+     * Gets cached values of attribute.
+     *
+     * @param folder
+     *         project folder
+     * @param attributeName
+     *         name of attribute
+     * @param factory
+     *         factory of value provider, values provided by another factory for attribute with the same name are ignored
+     * @param stamp
+     *         current stamp of dependencies, see {@link #stamp(FolderEntry, List)}
+     * @return cached values or {@code null} if there are no values in cache or dependencies are changed since values were cached
+     */
+    List<String> get(FolderEntry folder, String attributeName, ValueProviderFactory factory, long stamp) {
+        final Map<String, Entry> folderValues = values.getIfPresent(folder.getPath());
+        if (folderValues == null) {
+            return null;
+        }
+        final Entry entry = folderValues.get(attributeName);
+        if (entry == null || entry.factory != factory || entry.stamp != stamp) {
+            return null;
+        }
+        return entry.values;
+    }
+
+    /** Caches values of attribute that are calculated when dependencies of attribute have specified stamp. */
+    void put(FolderEntry folder, String attributeName, ValueProviderFactory factory, long stamp, List<String> attributeValues) {
+        final List<String> copy = attributeValues == null ? ImmutableList.of() : ImmutableList.copyOf(attributeValues);
+        values.asMap()
+              .computeIfAbsent(folder.getPath(), path -> new ConcurrentHashMap<>())
+              .put(attributeName, new Entry(factory, stamp, copy));
+    }
+
+    /** Removes values of attributes of folder with specified path and all its sub-folders. */
+    void invalidate(Path path) {
+        values.asMap().keySet().removeIf(cached -> cached.equals(path) || cached.isChild(path));
+    }
+
+    /**
+     * Calculates stamp of dependencies of provided values.
+     *
+     * @param folder
+     *         project folder
+     * @param dependencies
+     *         paths of dependencies relative to project folder
+     * @return stamp of dependencies or {@link #NO_STAMP} if none of dependencies exists
+     */
+    long stamp(FolderEntry folder, List<String> dependencies) throws ServerException {
+        long stamp = 17;
+        boolean exists = false;
+        for (String dependency : dependencies) {
+            final VirtualFileEntry child = folder.getChild(dependency);
+            if (child == null) {
+                stamp = stamp * 31 - 1;
+            } else {
+                exists = true;
+                stamp = stamp * 31 + child.getModified();
+                if (child.isFile()) {
+                    stamp = stamp * 31 + child.getVirtualFile().getLength();
+                }
+            }
+        }
+        return exists ? stamp : NO_STAMP;
+    }
+
+    private static class Entry {
+        final ValueProviderFactory factory;
+        final long                 stamp;
+        final List<String>         values;
+
+        Entry(ValueProviderFactory factory, long stamp, List<String> values) {
+            this.factory = factory;
+            this.stamp = stamp;
+            this.values = values;
+        }
+    }
+}
@@ -21,8 +21,11 @@ import org.eclipse.che.api.project.server.type.ProjectTypeConstraintException;
 import org.eclipse.che.api.project.server.type.ProjectTypeDef;
 import org.eclipse.che.api.project.server.type.ProjectTypeRegistry;
 import org.eclipse.che.api.project.server.type.ValueProvider;
+import org.eclipse.che.api.project.server.type.ValueProviderFactory;
 import org.eclipse.che.api.project.server.type.ValueStorageException;
 import org.eclipse.che.api.project.server.type.Variable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -30,6 +33,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static org.eclipse.che.api.project.server.ProvidedValuesCache.NO_STAMP;
+
 /**
  * Internal Project implementation.
  * It is supposed that it is object always consistent.
@@ -37,9 +42,13 @@ import java.util.stream.Collectors;
  * @author gazarenkov
  */
 public class RegisteredProject implements ProjectConfig {
+    private static final Logger LOG = LoggerFactory.getLogger(RegisteredProject.class);
+
+    private final List<Problem>                  problems;
+    private final Map<String, ProvidedAttribute> providedAttributes;
+    private final ProvidedValuesCache            providedValues;
 
-    private final List<Problem>      problems;
-    private final Map<String, Value> attributes;
+    private volatile Map<String, Value> attributes;
 
     private final FolderEntry   folder;
     private final ProjectConfig config;
@@ -60,17 +69,22 @@ public class RegisteredProject implements ProjectConfig {
      *         if this project was detected, initialized when "parent" project initialized
      * @param projectTypeRegistry
      *         project type registry
+     * @param providedValues
+     *         cache of values of read-only provided attributes
      */
     RegisteredProject(FolderEntry folder,
                       ProjectConfig config,
                       boolean updated,
                       boolean detected,
-                      ProjectTypeRegistry projectTypeRegistry) throws NotFoundException,
-                                                                      ProjectTypeConstraintException,
-                                                                      ServerException,
-                                                                      ValueStorageException {
+                      ProjectTypeRegistry projectTypeRegistry,
+                      ProvidedValuesCache providedValues) throws NotFoundException,
+                                                                 ProjectTypeConstraintException,
+                                                                 ServerException,
+                                                                 ValueStorageException {
         problems = new ArrayList<>();
         attributes = new HashMap<>();
+        providedAttributes = new HashMap<>();
+        this.providedValues = providedValues;
 
         this.folder = folder;
         this.config = (config == null) ? new NewProjectConfig(folder.getPath()) : config;
@@ -104,6 +118,9 @@ public class RegisteredProject implements ProjectConfig {
      * @throws NotFoundException
      */
     private void initAttributes() throws ValueStorageException, ProjectTypeConstraintException, ServerException, NotFoundException {
+        // single provider and stamp of dependencies per factory, provider may read all its attributes at once
+        final Map<ValueProviderFactory, ValueProvider> providers = new HashMap<>();
+        final Map<ValueProviderFactory, Long> stamps = new HashMap<>();
         // we take only defined attributes, others ignored
         for (Map.Entry<String, Attribute> entry : types.getAttributeDefs().entrySet()) {
             final Attribute definition = entry.getValue();
@@ -120,11 +137,23 @@ public class RegisteredProject implements ProjectConfig {
                 // value provided
                 if (variable.isValueProvided()) {
 
-                    final ValueProvider valueProvider = variable.getValueProviderFactory().newInstance(folder);
+                    final ValueProviderFactory factory = variable.getValueProviderFactory();
+                    ValueProvider valueProvider = providers.get(factory);
+                    if (valueProvider == null) {
+                        valueProvider = factory.newInstance(folder);
+                        providers.put(factory, valueProvider);
+                    }
 
                     if (folder != null) {
 
-                        if (!valueProvider.isSettable() || value.isEmpty()) {
+                        if (!valueProvider.isSettable()) {
+                            // get read-only provided value, it is cached until any of files it depends on is changed
+                            final long stamp = stamp(factory, stamps);
+                            value = new AttributeValue(getProvidedValues(name, factory, valueProvider, stamp));
+                            if (!factory.getDependencies().isEmpty()) {
+                                providedAttributes.put(name, new ProvidedAttribute(factory, stamp));
+                            }
+                        } else if (value.isEmpty()) {
                             // get provided value
                             value = new AttributeValue(valueProvider.getValues(name));
                         } else {
@@ -148,6 +177,71 @@ public class RegisteredProject implements ProjectConfig {
         }
     }
 
+    private List<String> getProvidedValues(String name,
+                                           ValueProviderFactory factory,
+                                           ValueProvider valueProvider,
+                                           long stamp) throws ValueStorageException {
+        if (stamp == NO_STAMP) {
+            return valueProvider.getValues(name);
+        }
+        List<String> values = providedValues.get(folder, name, factory, stamp);
+        if (values == null) {
+            values = valueProvider.getValues(name);
+            providedValues.put(folder, name, factory, stamp, values);
+        }
+        return values;
+    }
+
+    private long stamp(ValueProviderFactory factory, Map<ValueProviderFactory, Long> stamps) throws ServerException {
+        Long stamp = stamps.get(factory);
+        if (stamp == null) {
+            final List<String> dependencies = factory.getDependencies();
+            stamp = dependencies.isEmpty() ? NO_STAMP : providedValues.stamp(folder, dependencies);
+            stamps.put(factory, stamp);
+        }
+        return stamp;
+    }
+
+    /**
+     * Calculates again read-only provided attributes which dependencies are changed since attributes were calculated. Map of
+     * attributes is replaced rather than modified, so maps that are already returned to callers remain unchanged.
+     */
+    private synchronized void refreshProvidedAttributes() {
+        final Map<ValueProviderFactory, ValueProvider> providers = new HashMap<>();
+        final Map<ValueProviderFactory, Long> stamps = new HashMap<>();
+        Map<String, Value> refreshed = null;
+        for (Map.Entry<String, ProvidedAttribute> entry : providedAttributes.entrySet()) {
+            final String name = entry.getKey();
+            final ProvidedAttribute provided = entry.getValue();
+            try {
+                final long stamp = stamp(provided.factory, stamps);
+                if (stamp == provided.stamp) {
+                    continue;
+                }
+                ValueProvider valueProvider = providers.get(provided.factory);
+                if (valueProvider == null) {
+                    valueProvider = provided.factory.newInstance(folder);
+                    providers.put(provided.factory, valueProvider);
+                }
+                final AttributeValue value = new AttributeValue(getProvidedValues(name, provided.factory, valueProvider, stamp));
+                if (refreshed == null) {
+                    refreshed = new HashMap<>(attributes);
+                }
+                if (value.isEmpty()) {
+                    refreshed.remove(name);
+                } else {
+                    refreshed.put(name, value);
+                }
+                provided.stamp = stamp;
+            } catch (ServerException | ValueStorageException e) {
+                LOG.warn("Unable to update value of attribute {} of project {}. {}", name, getPath(), e.getMessage());
+            }
+        }
+        if (refreshed != null) {
+            attributes = refreshed;
+        }
+    }
+
     /**
      * @return primary project type
      */
@@ -173,6 +267,9 @@ public class RegisteredProject implements ProjectConfig {
      * @return attributes as name / Value Map
      */
     public Map<String, Value> getAttributeEntries() {
+        if (!providedAttributes.isEmpty()) {
+            refreshProvidedAttributes();
+        }
         return attributes;
     }
 
@@ -275,6 +372,17 @@ public class RegisteredProject implements ProjectConfig {
         return attrs;
     }
 
+    private static class ProvidedAttribute {
+        final ValueProviderFactory factory;
+
+        long stamp;
+
+        ProvidedAttribute(ValueProviderFactory factory, long stamp) {
+            this.factory = factory;
+            this.stamp = stamp;
+        }
+    }
+
     public class Problem {
         private Problem(int code, String message) {
             this.code = code;
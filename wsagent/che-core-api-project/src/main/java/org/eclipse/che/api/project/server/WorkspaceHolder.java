@@ -15,6 +15,8 @@ import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
 import org.eclipse.che.api.workspace.server.WorkspaceService;
+import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
+import org.eclipse.che.api.workspace.shared.dto.ProjectsUpdateDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceDto;
 
 import javax.inject.Inject;
@@ -22,9 +24,11 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.eclipse.che.api.project.server.DtoConverter.asDto;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
 /**
  * For caching and proxy-ing Workspace Configuration.
@@ -40,10 +44,18 @@ public class WorkspaceHolder extends WorkspaceProjectsSyncer {
 
     private HttpJsonRequestFactory httpJsonRequestFactory;
 
+    public WorkspaceHolder(String apiEndpoint,
+                           String workspaceId,
+                           HttpJsonRequestFactory httpJsonRequestFactory) throws ServerException {
+        this(apiEndpoint, workspaceId, 0, httpJsonRequestFactory);
+    }
+
     @Inject
     public WorkspaceHolder(@Named("api.endpoint") String apiEndpoint,
                            @Named("env.CHE_WORKSPACE_ID") String workspaceId,
+                           @Named("project.workspace_sync_delay_ms") long syncDelay,
                            HttpJsonRequestFactory httpJsonRequestFactory) throws ServerException {
+        super(syncDelay);
 
         this.apiEndpoint = apiEndpoint;
         this.httpJsonRequestFactory = httpJsonRequestFactory;
@@ -75,6 +87,33 @@ public class WorkspaceHolder extends WorkspaceProjectsSyncer {
     }
 
 
+    /**
+     * Adds, updates and removes projects on WS-master side with single request.
+     */
+    @Override
+    protected void updateProjects(List<ProjectConfig> added,
+                                  List<ProjectConfig> updated,
+                                  List<ProjectConfig> removed) throws ServerException {
+        final List<ProjectConfigDto> projects = new ArrayList<>(added.size() + updated.size());
+        added.forEach(project -> projects.add(asDto(project)));
+        updated.forEach(project -> projects.add(asDto(project)));
+        final List<String> removedPaths = new ArrayList<>(removed.size());
+        removed.forEach(project -> removedPaths.add(project.getPath()));
+
+        final String href = UriBuilder.fromUri(apiEndpoint)
+                                      .path(WorkspaceService.class)
+                                      .path(WorkspaceService.class, "updateProjects")
+                                      .build(workspaceId).toString();
+        try {
+            httpJsonRequestFactory.fromUrl(href)
+                                  .usePutMethod()
+                                  .setBody(newDto(ProjectsUpdateDto.class).withProjects(projects).withRemoved(removedPaths))
+                                  .request();
+        } catch (IOException | ApiException e) {
+            throw new ServerException(e.getMessage());
+        }
+    }
+
     /**
      * Add project on WS-master side.
      *
@@ -10,43 +10,85 @@
  *******************************************************************************/
 package org.eclipse.che.api.project.server;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.project.ProjectConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Synchronizer for Project Configurations stored in Workspace Configuration with Agent's state
+ * <p>
+ * Changes are calculated as difference between projects of Workspace Configuration and registered projects keyed by project path and
+ * passed to {@link #updateProjects(List, List, List)} at once, so implementation may send them to Workspace Master with single
+ * request. Frequent synchronizations may be coalesced with {@link #scheduleSync(ProjectRegistry)}.
  *
  * @author gazarenkov
  */
 public abstract class WorkspaceProjectsSyncer {
+    private static final Logger LOG = LoggerFactory.getLogger(WorkspaceProjectsSyncer.class);
+
+    /** Max delay between attempts of delayed synchronization that fails. */
+    private static final long MAX_RETRY_DELAY = TimeUnit.MINUTES.toMillis(5);
+
+    private final long syncDelay;
+
+    private ScheduledExecutorService scheduler;
+    private ProjectRegistry          pendingSync;
+    private int                      failedAttempts;
+    private boolean                  stopped;
+
+    protected WorkspaceProjectsSyncer() {
+        this(0);
+    }
+
+    /**
+     * @param syncDelay
+     *         delay in milliseconds of synchronization requested with {@link #scheduleSync(ProjectRegistry)}, all requests received
+     *         during this delay are coalesced to single synchronization. If delay is not positive, synchronization is performed
+     *         immediately.
+     */
+    protected WorkspaceProjectsSyncer(long syncDelay) {
+        this.syncDelay = syncDelay;
+    }
 
     /**
      * Synchronizes Project Config state on Agent and Master
      * @param projectRegistry project registry
      * @throws ServerException
      */
-    public final void sync(ProjectRegistry projectRegistry) throws ServerException {
+    public final synchronized void sync(ProjectRegistry projectRegistry) throws ServerException {
 
-        List<? extends ProjectConfig> remote = getProjects();
+        final Map<String, ProjectConfig> remote = new HashMap<>();
+        for (ProjectConfig r : getProjects()) {
+            remote.put(r.getPath(), r);
+        }
 
         // check on removed
-        List <ProjectConfig> removed = new ArrayList<>();
-        for(ProjectConfig r  : remote) {
-            if(projectRegistry.getProject(r.getPath()) == null)
+        final List<ProjectConfig> removed = new ArrayList<>();
+        for (ProjectConfig r : remote.values()) {
+            if (projectRegistry.getProject(r.getPath()) == null) {
                 removed.add(r);
+            }
         }
 
-        for(ProjectConfig r : removed)
-            removeProject(r);
-
-
         // update or add
-        for(RegisteredProject project : projectRegistry.getProjects()) {
+        final List<ProjectConfig> added = new ArrayList<>();
+        final List<ProjectConfig> updated = new ArrayList<>();
+        final List<RegisteredProject> changed = new ArrayList<>();
+        for (RegisteredProject project : projectRegistry.getProjects()) {
 
-            if(!project.isSynced() && !project.isDetected()) {
+            if (!project.isSynced() && !project.isDetected()) {
 
                 final ProjectConfig config = new NewProjectConfig(project.getPath(),
                                                                   project.getType(),
@@ -56,24 +98,118 @@ public abstract class WorkspaceProjectsSyncer {
                                                                   project.getPersistableAttributes(),
                                                                   project.getSource());
 
-                boolean found = false;
-                for(ProjectConfig r  : remote) {
-                    if(r.getPath().equals(project.getPath())) {
-                        updateProject(config);
-                        found = true;
-                    }
+                if (remote.containsKey(project.getPath())) {
+                    updated.add(config);
+                } else {
+                    added.add(config);
                 }
+                changed.add(project);
+            }
+        }
 
-                if(!found)
-                    addProject(config);
-
-                project.setSync();
+        if (!removed.isEmpty() || !changed.isEmpty()) {
+            updateProjects(added, updated, removed);
+            changed.forEach(RegisteredProject::setSync);
+        }
+    }
 
+    /**
+     * Requests synchronization of Project Config state on Agent and Master. Synchronization is delayed and all requests received
+     * during the delay are coalesced to single synchronization. Failed delayed synchronization is logged and retried, delay between
+     * attempts is doubled after each failure up to {@link #MAX_RETRY_DELAY}.
+     *
+     * @param projectRegistry
+     *         project registry
+     * @throws ServerException
+     *         if synchronization is not delayed and fails
+     */
+    public void scheduleSync(ProjectRegistry projectRegistry) throws ServerException {
+        if (syncDelay <= 0) {
+            sync(projectRegistry);
+            return;
+        }
+        synchronized (this) {
+            if (stopped) {
+                sync(projectRegistry);
+                return;
             }
+            if (pendingSync != null) {
+                return;
+            }
+            if (scheduler == null) {
+                scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("WorkspaceProjectsSyncer")
+                                                                                                 .setDaemon(true)
+                                                                                                 .build());
+            }
+            pendingSync = projectRegistry;
+            scheduler.schedule(this::syncPending, syncDelay, TimeUnit.MILLISECONDS);
+        }
+    }
 
+    /**
+     * Performs synchronization that is requested with {@link #scheduleSync(ProjectRegistry)} but is not performed yet. If
+     * synchronization fails it is scheduled again.
+     */
+    public void syncPending() {
+        final ProjectRegistry projectRegistry;
+        synchronized (this) {
+            projectRegistry = pendingSync;
+            // changes made after this point are caught by the next synchronization
+            pendingSync = null;
+        }
+        if (projectRegistry == null) {
+            return;
+        }
+        try {
+            sync(projectRegistry);
+            synchronized (this) {
+                failedAttempts = 0;
+            }
+        } catch (ServerException e) {
+            final int attempt;
+            final long retryDelay;
+            synchronized (this) {
+                attempt = ++failedAttempts;
+                retryDelay = stopped ? -1 : retryDelay(attempt);
+                if (retryDelay > 0 && pendingSync == null) {
+                    pendingSync = projectRegistry;
+                    scheduler.schedule(this::syncPending, retryDelay, TimeUnit.MILLISECONDS);
+                }
+            }
+            if (retryDelay > 0) {
+                LOG.warn(String.format("Unable synchronize projects %s of workspace %s, attempt %d failed, next attempt in %d ms. %s",
+                                       unsyncedPaths(projectRegistry), getWorkspaceId(), attempt, retryDelay, e.getMessage()), e);
+            } else {
+                LOG.warn(String.format("Unable synchronize projects %s of workspace %s. %s",
+                                       unsyncedPaths(projectRegistry), getWorkspaceId(), e.getMessage()), e);
+            }
+        }
+    }
 
+    /** Stops retrying of synchronization and performs synchronization that is not performed yet. */
+    @PreDestroy
+    public void stop() {
+        synchronized (this) {
+            stopped = true;
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
         }
+        syncPending();
+    }
 
+    private long retryDelay(int failedAttempts) {
+        return Math.min(syncDelay << Math.min(failedAttempts, 20), MAX_RETRY_DELAY);
+    }
+
+    private static List<String> unsyncedPaths(ProjectRegistry projectRegistry) {
+        final List<String> paths = new ArrayList<>();
+        for (RegisteredProject project : projectRegistry.getProjects()) {
+            if (!project.isSynced() && !project.isDetected()) {
+                paths.add(project.getPath());
+            }
+        }
+        return paths;
     }
 
     /**
@@ -87,6 +223,32 @@ public abstract class WorkspaceProjectsSyncer {
      */
     public abstract String getWorkspaceId();
 
+    /**
+     * Applies all changes of projects to Workspace Config. By default each change is applied separately, implementation should
+     * override this method if Workspace Config may be updated at once.
+     *
+     * @param added
+     *         projects to add
+     * @param updated
+     *         projects to update
+     * @param removed
+     *         projects to remove
+     * @throws ServerException
+     */
+    protected void updateProjects(List<ProjectConfig> added,
+                                  List<ProjectConfig> updated,
+                                  List<ProjectConfig> removed) throws ServerException {
+        for (ProjectConfig project : removed) {
+            removeProject(project);
+        }
+        for (ProjectConfig project : updated) {
+            updateProject(project);
+        }
+        for (ProjectConfig project : added) {
+            addProject(project);
+        }
+    }
+
     /**
      * Adds project to Workspace Config
      * @param project the project config
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.project.server.notification;
 
+import org.eclipse.che.api.core.notification.AsyncDispatchOptions;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.project.shared.dto.event.VfsWatchEvent;
@@ -23,6 +24,8 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
+import static org.eclipse.che.api.core.notification.AsyncDispatchOptions.OverflowPolicy.DROP_OLDEST;
+
 /**
  *
  * Subscribes on VFS Watcher events and broadcasts them with websockets
@@ -54,7 +57,10 @@ public class VfsWatchBroadcaster implements EventSubscriber<VfsWatchEvent> {
 
     @PostConstruct
     private void subscribe() {
-        eventService.subscribe(this);
+        // Sending to websockets is slow. When queue is full the oldest events are dropped, so file watcher never waits for clients.
+        eventService.subscribe(this, VfsWatchEvent.class, AsyncDispatchOptions.builder()
+                                                                              .setOverflowPolicy(DROP_OLDEST)
+                                                                              .build());
     }
 
     @PreDestroy
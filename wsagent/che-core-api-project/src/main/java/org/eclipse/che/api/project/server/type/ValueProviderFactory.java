@@ -12,6 +12,9 @@ package org.eclipse.che.api.project.server.type;
 
 import org.eclipse.che.api.project.server.FolderEntry;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Factory for {@link ValueProvider}.
  *
@@ -25,4 +28,13 @@ public interface ValueProviderFactory {
      * @param projectFolder
      */
     ValueProvider newInstance(FolderEntry projectFolder);
+
+    /**
+     * Gets paths of files, relative to project folder, that values of read-only providers are calculated from, e.g. pom.xml. If at
+     * least one of these files exists, values are cached and calculated again only after any of these files is changed. By default
+     * there are no dependencies and values are calculated each time when project is registered.
+     */
+    default List<String> getDependencies() {
+        return Collections.emptyList();
+    }
 }
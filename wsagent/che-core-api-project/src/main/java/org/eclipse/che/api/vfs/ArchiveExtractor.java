@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.util.NotClosableInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Writes entries of archive to the folder. Archive is decoded by calling thread. If pool of writers is set, content of files that are
+ * not bigger than {@link #IN_MEMORY_MAX_FILE_SIZE} is read in memory and written by the pool while calling thread decodes next
+ * entries. Size of content that is read but not written yet is limited by {@link #MAX_PENDING_BYTES}. Bigger files are written by
+ * calling thread.
+ * <p>
+ * Extraction that fails, e.g. because archive turns out to be a zip bomb, does not leave partially extracted archive behind. Folders
+ * and files created by extractor are removed on {@link #cancel()}. Existing files that were overwritten keep their new content.
+ *
+ * @author agent
+ */
+class ArchiveExtractor {
+    private static final Logger LOG = LoggerFactory.getLogger(ArchiveExtractor.class);
+
+    static final int IN_MEMORY_MAX_FILE_SIZE = 1024 * 1024; // 1M
+    static final int MAX_PENDING_BYTES       = 32 * 1024 * 1024; // 32M
+
+    private final VirtualFile            folder;
+    private final ExecutorService        writers;
+    private final boolean                overwrite;
+    private final int                    stripNumber;
+    private final Semaphore              pendingBytes;
+    private final Map<Path, VirtualFile> folders;
+    private final Map<Path, Future<?>>   pendingWrites;
+    private final List<Path>             created;
+    private final long                   startTime;
+
+    private long    files;
+    private long    bytes;
+    private boolean finished;
+
+    /**
+     * @param folder
+     *         folder to extract archive to
+     * @param writers
+     *         pool for writing content of files, if {@code null} all files are written by calling thread
+     * @param overwrite
+     *         overwrite existing files
+     * @param stripNumber
+     *         strip number leading components from file names on extraction
+     */
+    ArchiveExtractor(VirtualFile folder, ExecutorService writers, boolean overwrite, int stripNumber) {
+        this.folder = folder;
+        this.writers = writers;
+        this.overwrite = overwrite;
+        this.stripNumber = stripNumber;
+        pendingBytes = new Semaphore(MAX_PENDING_BYTES);
+        folders = new HashMap<>();
+        pendingWrites = new HashMap<>();
+        created = new ArrayList<>();
+        startTime = System.currentTimeMillis();
+    }
+
+    /** Creates folder for directory entry of archive. */
+    void folder(String entryName) throws ForbiddenException, ConflictException, ServerException {
+        final Path relativePath = relativePath(entryName);
+        if (relativePath != null) {
+            getOrCreateFolder(relativePath);
+        }
+    }
+
+    /**
+     * Writes file entry of archive.
+     *
+     * @param entryName
+     *         name of entry
+     * @param size
+     *         size of entry or {@code -1} if it is unknown
+     * @param content
+     *         content of entry, stream is not closed and must be read by this method
+     */
+    void file(String entryName, long size, InputStream content)
+            throws IOException, ForbiddenException, ConflictException, ServerException {
+        final Path relativePath = relativePath(entryName);
+        if (relativePath == null) {
+            return;
+        }
+        checkFailedWrites();
+        final VirtualFile parent = relativePath.length() > 1 ? getOrCreateFolder(relativePath.getParent()) : folder;
+        final String fileName = relativePath.getName();
+        // Archive may contain few entries with the same name, the last one wins.
+        awaitWrite(pendingWrites.remove(relativePath));
+
+        final VirtualFile file = parent.getChild(Path.of(fileName));
+        if (file != null && !overwrite) {
+            throw new ConflictException(String.format("File '%s' already exists", file.getPath()));
+        }
+
+        if (file == null) {
+            created.add(relativePath);
+        }
+        files++;
+        if (writers == null || size > IN_MEMORY_MAX_FILE_SIZE) {
+            bytes += write(parent, file, fileName, new NotClosableInputStream(content));
+            return;
+        }
+
+        final byte[] buffer = ByteStreams.toByteArray(ByteStreams.limit(content, IN_MEMORY_MAX_FILE_SIZE + 1));
+        if (buffer.length > IN_MEMORY_MAX_FILE_SIZE) {
+            // Size of entry is not known in advance and entry is too big to keep it in memory.
+            final InputStream rest = new SequenceInputStream(new ByteArrayInputStream(buffer), new NotClosableInputStream(content));
+            bytes += write(parent, file, fileName, rest);
+            return;
+        }
+
+        bytes += buffer.length;
+        acquirePendingBytes(buffer.length);
+        try {
+            pendingWrites.put(relativePath, writers.submit(() -> {
+                try {
+                    write(parent, file, fileName, new ByteArrayInputStream(buffer));
+                } finally {
+                    pendingBytes.release(buffer.length);
+                }
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            pendingBytes.release(buffer.length);
+            throw e;
+        }
+    }
+
+    /** Waits until all files are written and logs throughput of extraction. */
+    void finish() throws IOException, ForbiddenException, ConflictException, ServerException {
+        for (Future<?> write : new ArrayList<>(pendingWrites.values())) {
+            awaitWrite(write);
+        }
+        pendingWrites.clear();
+        finished = true;
+        final long time = Math.max(System.currentTimeMillis() - startTime, 1);
+        LOG.info("Extracted {} files ({} bytes) to {} in {} ms, {} KB/s", files, bytes, folder.getPath(), time, bytes * 1000 / 1024 / time);
+    }
+
+    /**
+     * Cancels pending writes and removes folders and files created by this extractor, must be called if extraction fails. Does nothing
+     * if extraction is {@link #finish() finished} successfully.
+     */
+    void cancel() {
+        if (finished) {
+            return;
+        }
+        for (Future<?> write : pendingWrites.values()) {
+            if (!write.cancel(false)) {
+                awaitCancelledWrite(write);
+            }
+        }
+        pendingWrites.clear();
+        for (int i = created.size() - 1; i >= 0; i--) {
+            final Path relativePath = created.get(i);
+            try {
+                final VirtualFile item = folder.getChild(relativePath);
+                if (item != null) {
+                    item.delete();
+                }
+            } catch (ForbiddenException | ServerException e) {
+                LOG.warn("Unable remove '{}' after failed extraction to {}: {}", relativePath, folder.getPath(), e.getMessage());
+            }
+        }
+        created.clear();
+    }
+
+    private Path relativePath(String entryName) {
+        Path relativePath = Path.of(entryName);
+        if (stripNumber > 0) {
+            if (relativePath.length() <= stripNumber) {
+                return null;
+            }
+            relativePath = relativePath.subPath(stripNumber);
+        }
+        return relativePath;
+    }
+
+    private VirtualFile getOrCreateFolder(Path relativePath) throws ForbiddenException, ConflictException, ServerException {
+        VirtualFile existed = folders.get(relativePath);
+        if (existed == null) {
+            existed = folder.getChild(relativePath);
+            if (existed == null) {
+                // Create folders level by level to know which of them should be removed if extraction fails.
+                final VirtualFile parent = relativePath.length() > 1 ? getOrCreateFolder(relativePath.getParent()) : folder;
+                existed = parent.createFolder(relativePath.getName());
+                created.add(relativePath);
+            }
+            folders.put(relativePath, existed);
+        }
+        return existed;
+    }
+
+    private long write(VirtualFile parent, VirtualFile file, String fileName, InputStream content)
+            throws ForbiddenException, ConflictException, ServerException {
+        if (file == null) {
+            return parent.createFile(fileName, content).getLength();
+        }
+        file.updateContent(content);
+        return file.getLength();
+    }
+
+    private void acquirePendingBytes(int size) throws ServerException {
+        try {
+            pendingBytes.acquire(size);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Interrupted while extracting archive");
+        }
+    }
+
+    private void checkFailedWrites() throws IOException, ForbiddenException, ConflictException, ServerException {
+        final List<Path> done = new ArrayList<>();
+        for (Map.Entry<Path, Future<?>> entry : pendingWrites.entrySet()) {
+            if (entry.getValue().isDone()) {
+                awaitWrite(entry.getValue());
+                done.add(entry.getKey());
+            }
+        }
+        done.forEach(pendingWrites::remove);
+    }
+
+    private void awaitCancelledWrite(Future<?> write) {
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+            // Extraction is failed already.
+        }
+    }
+
+    private void awaitWrite(Future<?> write) throws IOException, ForbiddenException, ConflictException, ServerException {
+        if (write == null) {
+            return;
+        }
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Interrupted while extracting archive");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ForbiddenException) {
+                throw (ForbiddenException)cause;
+            } else if (cause instanceof ConflictException) {
+                throw (ConflictException)cause;
+            } else if (cause instanceof ServerException) {
+                throw (ServerException)cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            throw new ServerException(cause.getMessage(), cause);
+        }
+    }
+}
@@ -10,16 +10,84 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 public class ArchiverFactory {
+    private final int compressionThreads;
+    private final int extractionThreads;
+
+    private volatile ExecutorService compressionPool;
+    private volatile ExecutorService extractionPool;
+
+    public ArchiverFactory() {
+        this(0, 0);
+    }
+
+    /**
+     * @param compressionThreads
+     *         number of threads that compress entries of zip archive in parallel, if less than 2 entries are compressed by thread that
+     *         writes archive
+     * @param extractionThreads
+     *         number of threads that write extracted files in parallel, if less than 2 files are written by thread that reads archive
+     */
+    public ArchiverFactory(int compressionThreads, int extractionThreads) {
+        this.compressionThreads = compressionThreads;
+        this.extractionThreads = extractionThreads;
+    }
+
     public Archiver createArchiver(VirtualFile folder, String archiveType) {
         if (archiveType == null) {
             throw new IllegalArgumentException("Archive type might not be null");
         }
         if ("zip".equals(archiveType.toLowerCase())) {
+            if (compressionThreads > 1 || extractionThreads > 1) {
+                return new ZipArchiver(folder, getCompressionPool(), compressionThreads, getExtractionPool());
+            }
             return new ZipArchiver(folder);
         } else if ("tar".equals(archiveType.toLowerCase())) {
-            return new TarArchiver(folder);
+            return extractionThreads > 1 ? new TarArchiver(folder, getExtractionPool()) : new TarArchiver(folder);
         }
         throw new IllegalArgumentException(String.format("Unsupported archive type %s", archiveType));
     }
+
+    private ExecutorService getCompressionPool() {
+        if (compressionThreads < 2) {
+            return null;
+        }
+        ExecutorService pool = compressionPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = compressionPool;
+                if (pool == null) {
+                    compressionPool = pool = newPool(compressionThreads, "ZipCompressor-%d");
+                }
+            }
+        }
+        return pool;
+    }
+
+    private ExecutorService getExtractionPool() {
+        if (extractionThreads < 2) {
+            return null;
+        }
+        ExecutorService pool = extractionPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = extractionPool;
+                if (pool == null) {
+                    extractionPool = pool = newPool(extractionThreads, "ArchiveExtractor-%d");
+                }
+            }
+        }
+        return pool;
+    }
+
+    private static ExecutorService newPool(int threads, String nameFormat) {
+        return Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat(nameFormat)
+                                                                               .setDaemon(true)
+                                                                               .build());
+    }
 }
@@ -10,9 +10,30 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 /**
  * Advisory file locks. It does not prevent access to the file from other programs.
  * <p/>
+ * Lock of the path conflicts with locks of the same path, its parents and its children obtained by other threads. Exclusive lock
+ * conflicts with any other lock, not exclusive lock conflicts with exclusive locks only. Locks are re-entrant.
+ * <p/>
+ * Lock acquired with {@link PathLock#tryAcquireDetached()} is owned by {@link PathLock} instance instead of thread. Such lock is not
+ * re-entrant, it conflicts with locks of all threads including the thread that acquired it, and may be released by any thread.
+ * <p/>
+ * State of locks is split between stripes selected by hash of path, each stripe is guarded by own lock. Thread locks stripes of the path
+ * and all its parents in order of stripe index, so threads which work with unrelated paths do not contend. Each lock of the path is also
+ * registered in all its parents, that makes checking of locked children as cheap as checking of the path itself. Threads that wait for
+ * conflicting lock are queued on the path which holds such lock and are woken up when this path is released.
+ * <p/>
  * Usage:
  * <pre>
  *      PathLockFactory lockFactory = ...
@@ -35,10 +56,12 @@ package org.eclipse.che.api.vfs;
  */
 public final class PathLockFactory {
     private static final int MAX_RECURSIVE_LOCKS = (1 << 10) - 1;
+    /** Number of stripes, must be power of two. */
+    private static final int STRIPES             = 64;
+
     /** Max number of threads allowed to access file. */
-    private final int maxThreads;
-    // Tail of the "lock table".
-    private final Node tail = new Node(null, 0, null);
+    private final int      maxThreads;
+    private final Stripe[] stripes;
 
     /**
      * @param maxThreads
@@ -50,145 +73,301 @@ public final class PathLockFactory {
             throw new IllegalArgumentException();
         }
         this.maxThreads = maxThreads;
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
     }
 
     public PathLock getLock(Path path, boolean exclusive) {
-        return new PathLock(path, exclusive ? maxThreads : 1);
+        return new PathLock(path, exclusive);
     }
 
-    private synchronized void acquire(Path path, int permits) {
-        while (!tryAcquire(path, permits)) {
+    /* Negative timeout means waiting without timeout. */
+    private void acquire(Path path, boolean exclusive, long timeoutMilliseconds) {
+        final List<Path> paths = selfAndParents(path);
+        final int[] stripeIndexes = stripeIndexes(paths);
+        final Object current = Thread.currentThread();
+        final long endTime = System.nanoTime() + MILLISECONDS.toNanos(timeoutMilliseconds);
+        for (; ; ) {
+            Entry conflict = null;
+            lockStripes(stripeIndexes);
+            try {
+                conflict = findConflict(paths, exclusive, current);
+                if (conflict == null) {
+                    addHold(paths, exclusive, current);
+                    return;
+                }
+                conflict.waiters++;
+            } finally {
+                // Keep lock of stripe with conflicting path, it is released while waiting.
+                unlockStripes(stripeIndexes, conflict == null ? null : conflict.stripe);
+            }
             try {
-                wait();
+                if (timeoutMilliseconds < 0) {
+                    conflict.released.await();
+                } else {
+                    final long waitTime = endTime - System.nanoTime();
+                    if (waitTime <= 0) {
+                        throw new RuntimeException(String.format("Get lock timeout for '%s'. ", path));
+                    }
+                    conflict.released.awaitNanos(waitTime);
+                }
             } catch (InterruptedException e) {
-                notifyAll();
                 throw new RuntimeException(e);
+            } finally {
+                conflict.waiters--;
+                conflict.stripe.removeIfUnused(conflict);
+                conflict.stripe.lock.unlock();
             }
         }
     }
 
-    private synchronized void acquire(Path path, int permits, long timeoutMilliseconds) {
-        final long endTime = System.currentTimeMillis() + timeoutMilliseconds;
-        long waitTime = timeoutMilliseconds;
-        while (!tryAcquire(path, permits)) {
-            try {
-                wait(waitTime);
-            } catch (InterruptedException e) {
-                notifyAll();
-                throw new RuntimeException(e);
-            }
-            long now = System.currentTimeMillis();
-            if (now >= endTime) {
-                throw new RuntimeException(String.format("Get lock timeout for '%s'. ", path));
+    /* Acquires lock on behalf of owner if it is available without waiting. */
+    private boolean tryAcquire(Path path, boolean exclusive, Object owner) {
+        final List<Path> paths = selfAndParents(path);
+        final int[] stripeIndexes = stripeIndexes(paths);
+        lockStripes(stripeIndexes);
+        try {
+            if (findConflict(paths, exclusive, owner) != null) {
+                return false;
             }
-            waitTime = endTime - now;
+            addHold(paths, exclusive, owner);
+            return true;
+        } finally {
+            unlockStripes(stripeIndexes, null);
         }
     }
 
-    private synchronized void release(Path path, int permits) {
-        Node node = tail;
-        while (node != null) {
-            Node prev = node.prev;
-            if (prev == null) {
-                break;
+    private void release(Path path, boolean exclusive, Object current) {
+        final List<Path> paths = selfAndParents(path);
+        final int[] stripeIndexes = stripeIndexes(paths);
+        lockStripes(stripeIndexes);
+        try {
+            final Stripe stripe = stripeOf(path);
+            final Entry entry = stripe.entries.get(path);
+            if (entry == null || !entry.holders.containsKey(current)) {
+                // Lock isn't obtained by owner.
+                return;
             }
-            if (prev.path.equals(path)) {
-                if (prev.threadDeep == 1) {
-                    // If last recursive lock.
-                    prev.permits += permits;
-                    if (prev.permits >= maxThreads) {
-                        // remove
-                        node.prev = prev.prev;
-                        prev.prev = null;
-                    }
-                } else {
-                    --prev.threadDeep;
+            removeHold(entry.holders, current, exclusive);
+            entry.signalWaiters();
+            stripe.removeIfUnused(entry);
+            for (int i = 1; i < paths.size(); i++) {
+                final Stripe parentStripe = stripeOf(paths.get(i));
+                final Entry parentEntry = parentStripe.entries.get(paths.get(i));
+                if (parentEntry != null) {
+                    removeHold(parentEntry.childHolders, current, exclusive);
+                    parentEntry.signalWaiters();
+                    parentStripe.removeIfUnused(parentEntry);
                 }
             }
-            node = node.prev;
+        } finally {
+            unlockStripes(stripeIndexes, null);
         }
-        notifyAll();
-        //System.err.printf(">>>>> release: %s : %d%n", path, permits);
     }
 
-    private boolean tryAcquire(Path path, int permits) {
-        //System.err.printf(">>>>> acquire: %s : %d%n", path, permits);
-        Node node = tail.prev;
-        final Thread current = Thread.currentThread();
-        while (node != null) {
-            if (node.path.equals(path)) {
-                if (node.threadId == current.getId()) {
-                    // Current thread already has direct lock for this path
-                    if (node.threadDeep > MAX_RECURSIVE_LOCKS) {
-                        throw new Error("Max number of recursive locks exceeded. ");
+    /* Returns entry which holds lock that prevents obtaining of requested lock or null if lock may be obtained. */
+    private Entry findConflict(List<Path> paths, boolean exclusive, Object current) {
+        final Entry entry = stripeOf(paths.get(0)).entries.get(paths.get(0));
+        if (entry != null) {
+            if (entry.holders.containsKey(current)) {
+                // Current thread already has direct lock for this path
+                return null;
+            }
+            int sharingThreads = 0;
+            for (Map.Entry<Object, Holds> holder : entry.holders.entrySet()) {
+                if (holder.getKey() != current) {
+                    if (exclusive || holder.getValue().exclusive > 0) {
+                        return entry;
                     }
-                    ++node.threadDeep;
-                    return true;
-                }
-                if (node.permits > permits) {
-                    // Lock already exists and current thread is not owner of this lock,
-                    // but lock is not exclusive and we can "share" it for other thread.
-                    node.permits -= permits; // decrement number of allowed concurrent threads
-                    return true;
-                }
-                // Lock is exclusive or max number of allowed concurrent thread is reached.
-                return false;
-            } else if ((node.path.isChild(path) || path.isChild(node.path)) && node.permits <= permits) {
-                // Found some path which already has lock that prevents us to get required permits.
-                // There is two possibilities:
-                // 1. Parent of the path we try to lock already locked
-                // 2. Child of the path we try to lock already locked
-                // Need to check is such lock obtained by current thread or not.
-                // If such lock obtained by other thread stop here immediately there is no reasons to continue.
-                if (node.threadId != current.getId()) {
-                    return false;
+                    sharingThreads++;
                 }
             }
-            node = node.prev;
+            if (sharingThreads > 0 && sharingThreads >= maxThreads - 1) {
+                // Max number of allowed concurrent thread is reached.
+                return entry;
+            }
+            if (hasConflictingHolders(entry.childHolders, exclusive, current)) {
+                return entry;
+            }
+        }
+        for (int i = 1; i < paths.size(); i++) {
+            final Entry parentEntry = stripeOf(paths.get(i)).entries.get(paths.get(i));
+            if (parentEntry != null && hasConflictingHolders(parentEntry.holders, exclusive, current)) {
+                return parentEntry;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasConflictingHolders(Map<Object, Holds> holders, boolean exclusive, Object current) {
+        for (Map.Entry<Object, Holds> holder : holders.entrySet()) {
+            if (holder.getKey() != current && (exclusive || holder.getValue().exclusive > 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addHold(List<Path> paths, boolean exclusive, Object current) {
+        final Holds holds = stripeOf(paths.get(0)).getOrCreateEntry(paths.get(0)).holders.computeIfAbsent(current, t -> new Holds());
+        if (holds.shared + holds.exclusive > MAX_RECURSIVE_LOCKS) {
+            throw new Error("Max number of recursive locks exceeded. ");
+        }
+        holds.increment(exclusive);
+        for (int i = 1; i < paths.size(); i++) {
+            final Entry parentEntry = stripeOf(paths.get(i)).getOrCreateEntry(paths.get(i));
+            parentEntry.childHolders.computeIfAbsent(current, t -> new Holds()).increment(exclusive);
+        }
+    }
+
+    private void removeHold(Map<Object, Holds> holders, Object current, boolean exclusive) {
+        final Holds holds = holders.get(current);
+        if (holds != null) {
+            holds.decrement(exclusive);
+            if (holds.shared == 0 && holds.exclusive == 0) {
+                holders.remove(current);
+            }
+        }
+    }
+
+    private List<Path> selfAndParents(Path path) {
+        final List<Path> paths = new ArrayList<>(path.length() + 1);
+        for (Path current = path; current != null; current = current.getParent()) {
+            paths.add(current);
+        }
+        return paths;
+    }
+
+    private int[] stripeIndexes(List<Path> paths) {
+        return paths.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+    }
+
+    private int stripeIndex(Path path) {
+        final int hash = path.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private Stripe stripeOf(Path path) {
+        return stripes[stripeIndex(path)];
+    }
+
+    /* Stripes must be always locked in ascending order of indexes to avoid deadlocks. */
+    private void lockStripes(int[] stripeIndexes) {
+        for (int stripeIndex : stripeIndexes) {
+            stripes[stripeIndex].lock.lock();
+        }
+    }
+
+    private void unlockStripes(int[] stripeIndexes, Stripe keepLocked) {
+        for (int stripeIndex : stripeIndexes) {
+            if (stripes[stripeIndex] != keepLocked) {
+                stripes[stripeIndex].lock.unlock();
+            }
         }
-        // If we are here there is no lock for path yet.
-        tail.prev = new Node(path, maxThreads - permits, tail.prev);
-        return true;
     }
 
-    public synchronized void checkClean() {
-        assert tail.prev == null;
+    public void checkClean() {
+        assert IntStream.range(0, STRIPES).allMatch(i -> stripes[i].isEmpty());
     }
 
    /* =============================================== */
 
-    private static class Node {
-        final Path path;
-        final long threadId = Thread.currentThread().getId();
-        int  permits;
-        int  threadDeep;
-        Node prev;
+    private static class Stripe {
+        final ReentrantLock    lock    = new ReentrantLock();
+        final Map<Path, Entry> entries = new HashMap<>();
+
+        Entry getOrCreateEntry(Path path) {
+            return entries.computeIfAbsent(path, p -> new Entry(p, this));
+        }
 
-        Node(Path path, int permits, Node prev) {
+        void removeIfUnused(Entry entry) {
+            if (entry.holders.isEmpty() && entry.childHolders.isEmpty() && entry.waiters == 0) {
+                entries.remove(entry.path);
+            }
+        }
+
+        boolean isEmpty() {
+            lock.lock();
+            try {
+                return entries.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static class Entry {
+        final Path               path;
+        final Stripe             stripe;
+        /** Wait queue of threads which can't get lock because of locks registered in this entry. */
+        final Condition          released;
+        /** Owners (threads or detached locks) that have lock for this path. */
+        final Map<Object, Holds> holders      = new HashMap<>(4);
+        /** Owners (threads or detached locks) that have locks for children of this path. */
+        final Map<Object, Holds> childHolders = new HashMap<>(4);
+        int                      waiters;
+
+        Entry(Path path, Stripe stripe) {
             this.path = path;
-            this.permits = permits;
-            this.prev = prev;
-            threadDeep = 1;
+            this.stripe = stripe;
+            released = stripe.lock.newCondition();
+        }
+
+        void signalWaiters() {
+            if (waiters > 0) {
+                released.signalAll();
+            }
         }
 
         @Override
         public String toString() {
-            return "Node{" +
+            return "Entry{" +
                    "path=" + path +
-                   ", threadId=" + threadId +
-                   ", permits=" + permits +
-                   ", prev=" + prev +
+                   ", holders=" + holders +
+                   ", childHolders=" + childHolders +
+                   ", waiters=" + waiters +
                    '}';
         }
     }
 
+    /** Number of shared and exclusive locks obtained by one owner. */
+    private static class Holds {
+        int shared;
+        int exclusive;
+
+        void increment(boolean exclusiveLock) {
+            if (exclusiveLock) {
+                exclusive++;
+            } else {
+                shared++;
+            }
+        }
+
+        void decrement(boolean exclusiveLock) {
+            if ((exclusiveLock && exclusive > 0) || shared == 0) {
+                exclusive--;
+            } else {
+                shared--;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Holds{shared=" + shared + ", exclusive=" + exclusive + '}';
+        }
+    }
+
     public final class PathLock {
-        private final Path path;
-        private final int  permits;
+        private final Path    path;
+        private final boolean exclusive;
+
+        private volatile Object owner;
 
-        private PathLock(Path path, int permits) {
+        private PathLock(Path path, boolean exclusive) {
             this.path = path;
-            this.permits = permits;
+            this.exclusive = exclusive;
         }
 
         /**
@@ -197,7 +376,8 @@ public final class PathLockFactory {
          * @return this PathLock instance
          */
         public PathLock acquire() {
-            PathLockFactory.this.acquire(path, permits);
+            PathLockFactory.this.acquire(path, exclusive, -1);
+            owner = Thread.currentThread();
             return this;
         }
 
@@ -212,18 +392,40 @@ public final class PathLockFactory {
          *         if waiting timeout reached
          */
         public PathLock acquire(long timeoutMilliseconds) {
-            PathLockFactory.this.acquire(path, permits, timeoutMilliseconds);
+            PathLockFactory.this.acquire(path, exclusive, timeoutMilliseconds);
+            owner = Thread.currentThread();
             return this;
         }
 
-        /** Release file permit. */
+        /**
+         * Acquire permit for file on behalf of this PathLock instance instead of current thread if permit is available without waiting.
+         * Such permit is not re-entrant, it conflicts with permits of all threads including current one. It is used when permit has to
+         * outlive call of method that acquired it, e.g. by stream of file content.
+         *
+         * @return {@code true} if permit is acquired and {@code false} otherwise
+         */
+        public boolean tryAcquireDetached() {
+            if (PathLockFactory.this.tryAcquire(path, exclusive, this)) {
+                owner = this;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Release file permit. Permit is released on behalf of its owner, so this method may be called from any thread, e.g. when
+         * stream that holds detached permit is closed by another thread.
+         */
         public void release() {
-            PathLockFactory.this.release(path, permits);
+            final Object owner = this.owner;
+            if (owner != null) {
+                PathLockFactory.this.release(path, exclusive, owner);
+            }
         }
 
         /** Returns <code>true</code> if this lock is exclusive and <code>false</code> otherwise. */
         public boolean isExclusive() {
-            return permits == PathLockFactory.this.maxThreads;
+            return exclusive;
         }
     }
 }
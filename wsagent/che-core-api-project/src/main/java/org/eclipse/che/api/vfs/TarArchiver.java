@@ -18,15 +18,28 @@ import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
-import org.eclipse.che.api.vfs.util.NotClosableInputStream;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
 
 public class TarArchiver extends Archiver {
+    private final ExecutorService extractionPool;
+
     public TarArchiver(VirtualFile folder) {
+        this(folder, null);
+    }
+
+    /**
+     * @param folder
+     *         folder to compress or to extract archive to
+     * @param extractionPool
+     *         pool for writing of extracted files, if {@code null} all files are written by calling thread
+     */
+    public TarArchiver(VirtualFile folder, ExecutorService extractionPool) {
         super(folder);
+        this.extractionPool = extractionPool;
     }
 
     @Override
@@ -89,49 +102,19 @@ public class TarArchiver extends Archiver {
     @Override
     public void extract(InputStream tarInput, boolean overwrite, int stripNumber)
             throws IOException, ForbiddenException, ConflictException, ServerException {
+        final ArchiveExtractor extractor = new ArchiveExtractor(folder, extractionPool, overwrite, stripNumber);
         try (TarArchiveInputStream tarInputStream = new TarArchiveInputStream(tarInput)) {
-            InputStream notClosableInputStream = new NotClosableInputStream(tarInputStream);
             TarArchiveEntry tarEntry;
             while ((tarEntry = tarInputStream.getNextTarEntry()) != null) {
-                VirtualFile extractFolder = folder;
-
-                Path relativePath = Path.of(tarEntry.getName());
-
-                if (stripNumber > 0) {
-                    if (relativePath.length() <= stripNumber) {
-                        continue;
-                    }
-                    relativePath = relativePath.subPath(stripNumber);
-                }
-
                 if (tarEntry.isDirectory()) {
-                    if (!extractFolder.hasChild(relativePath)) {
-                        extractFolder.createFolder(relativePath.toString());
-                    }
-                    continue;
-                }
-
-                if (relativePath.length() > 1) {
-                    Path neededParentPath = relativePath.getParent();
-                    VirtualFile neededParent = extractFolder.getChild(neededParentPath);
-                    if (neededParent == null) {
-                        neededParent = extractFolder.createFolder(neededParentPath.toString());
-                    }
-                    extractFolder = neededParent;
-                }
-
-                String fileName = relativePath.getName();
-                VirtualFile file = extractFolder.getChild(Path.of(fileName));
-                if (file == null) {
-                    extractFolder.createFile(fileName, notClosableInputStream);
+                    extractor.folder(tarEntry.getName());
                 } else {
-                    if (overwrite) {
-                        file.updateContent(notClosableInputStream);
-                    } else {
-                        throw new ConflictException(String.format("File '%s' already exists", file.getPath()));
-                    }
+                    extractor.file(tarEntry.getName(), tarEntry.getSize(), tarInputStream);
                 }
             }
+            extractor.finish();
+        } finally {
+            extractor.cancel();
         }
     }
 }
@@ -10,24 +10,81 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
-import org.eclipse.che.api.vfs.util.NotClosableInputStream;
-import org.eclipse.che.api.vfs.util.ZipContent;
+import org.eclipse.che.api.core.util.FileCleaner;
+import org.eclipse.che.api.vfs.util.RatioLimitedZipInputStream;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
 
+/**
+ * Zip archiver. Archive is written in output stream while folder is traversed, so caller may send first bytes of archive before the
+ * whole folder is compressed.
+ * <p>
+ * If pool of compression threads is set, files that are not bigger than {@link #PARALLEL_MAX_FILE_SIZE} are compressed by the pool
+ * while entries are written in archive by calling thread in order of traversal. Bigger files are compressed by calling thread. Files
+ * that are already compressed, e.g. jars or images, are stored in archive without compression.
+ * <p>
+ * Archive is extracted while it is read, see {@link ArchiveExtractor}.
+ */
 public class ZipArchiver extends Archiver {
+    /** Max size of file that may be compressed in pool. Such files are compressed in memory. */
+    static final long PARALLEL_MAX_FILE_SIZE = 1024 * 1024; // 1M
+
+    /** Extensions of files that are already compressed. */
+    static final Set<String> COMPRESSED_FILE_EXTENSIONS = ImmutableSet.of("zip", "jar", "war", "ear", "gz", "tgz", "bz2", "xz", "7z",
+                                                                          "rar", "png", "jpg", "jpeg", "gif", "ico", "mp3", "mp4",
+                                                                          "woff", "woff2");
+
+    private final ExecutorService compressionPool;
+    private final int             maxPendingEntries;
+    private final ExecutorService extractionPool;
+
     public ZipArchiver(VirtualFile folder) {
+        this(folder, null, 0, null);
+    }
+
+    /**
+     * @param folder
+     *         folder to compress or to extract archive to
+     * @param compressionPool
+     *         pool for compression of files, if {@code null} all files are compressed by calling thread
+     * @param compressionThreads
+     *         number of threads in {@code compressionPool}, limits number of files that are compressed but not written in archive yet
+     * @param extractionPool
+     *         pool for writing of extracted files, if {@code null} all files are written by calling thread
+     */
+    public ZipArchiver(VirtualFile folder, ExecutorService compressionPool, int compressionThreads, ExecutorService extractionPool) {
         super(folder);
+        this.compressionPool = compressionPool;
+        this.maxPendingEntries = compressionPool == null ? 0 : compressionThreads * 4;
+        this.extractionPool = extractionPool;
     }
 
     @Override
@@ -37,13 +94,17 @@ public class ZipArchiver extends Archiver {
 
     @Override
     public void compress(OutputStream zipOutput, VirtualFileFilter filter) throws IOException, ServerException {
-        try (ZipOutputStream zipOutputStream = new ZipOutputStream(zipOutput)) {
+        final Deque<Future<PreparedEntry>> pending = new ArrayDeque<>();
+        try (ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(zipOutput)) {
             folder.accept(new VirtualFileVisitor() {
                 @Override
                 public void visit(VirtualFile visitedVirtualFile) throws ServerException {
                     if (filter.accept(visitedVirtualFile)) {
                         if (!visitedVirtualFile.equals(folder)) {
-                            addZipEntry(visitedVirtualFile, zipOutputStream);
+                            pending.add(prepareEntry(visitedVirtualFile));
+                            while (pending.size() > maxPendingEntries) {
+                                writeEntry(pending.poll(), zipOutputStream);
+                            }
                         }
                         if (visitedVirtualFile.isFolder()) {
                             for (VirtualFile child : visitedVirtualFile.getChildren()) {
@@ -53,6 +114,13 @@ public class ZipArchiver extends Archiver {
                     }
                 }
             });
+            while (!pending.isEmpty()) {
+                writeEntry(pending.poll(), zipOutputStream);
+            }
+        } finally {
+            for (Future<PreparedEntry> entry : pending) {
+                entry.cancel(true);
+            }
         }
     }
 
@@ -64,19 +132,94 @@ public class ZipArchiver extends Archiver {
         return zipPath.toString();
     }
 
-    private void addZipEntry(VirtualFile virtualFile, ZipOutputStream zipOutputStream) throws ServerException {
+    private boolean isCompressed(VirtualFile virtualFile) {
+        return COMPRESSED_FILE_EXTENSIONS.contains(Files.getFileExtension(virtualFile.getName()).toLowerCase());
+    }
+
+    private Future<PreparedEntry> prepareEntry(VirtualFile virtualFile) throws ServerException {
+        if (compressionPool != null && virtualFile.isFile() && virtualFile.getLength() <= PARALLEL_MAX_FILE_SIZE) {
+            return compressionPool.submit(() -> compressInMemory(virtualFile));
+        }
+        return CompletableFuture.completedFuture(new PreparedEntry(virtualFile, null, null));
+    }
+
+    private PreparedEntry compressInMemory(VirtualFile virtualFile) throws ServerException {
+        final ZipArchiveEntry zipEntry = new ZipArchiveEntry(getZipEntryName(virtualFile));
+        try {
+            final byte[] content;
+            try (InputStream in = virtualFile.getContent()) {
+                content = ByteStreams.toByteArray(in);
+            }
+            final CRC32 crc = new CRC32();
+            crc.update(content);
+            final byte[] raw;
+            if (isCompressed(virtualFile)) {
+                zipEntry.setMethod(ZipEntry.STORED);
+                raw = content;
+            } else {
+                zipEntry.setMethod(ZipEntry.DEFLATED);
+                final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(compressed, deflater)) {
+                    deflaterOut.write(content);
+                } finally {
+                    deflater.end();
+                }
+                raw = compressed.toByteArray();
+            }
+            zipEntry.setSize(content.length);
+            zipEntry.setCompressedSize(raw.length);
+            zipEntry.setCrc(crc.getValue());
+            zipEntry.setTime(virtualFile.getLastModificationDate());
+            return new PreparedEntry(virtualFile, zipEntry, raw);
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
+    private void writeEntry(Future<PreparedEntry> future, ZipArchiveOutputStream zipOutputStream) throws ServerException {
         try {
-            ZipEntry zipEntry = new ZipEntry(getZipEntryName(virtualFile));
-            zipOutputStream.putNextEntry(zipEntry);
+            final PreparedEntry entry = future.get();
+            if (entry.raw != null) {
+                zipOutputStream.addRawArchiveEntry(entry.zipEntry, new ByteArrayInputStream(entry.raw));
+            } else {
+                addZipEntry(entry.virtualFile, zipOutputStream);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Interrupted while compressing folder");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ServerException) {
+                throw (ServerException)cause;
+            }
+            throw new ServerException(cause.getMessage(), cause);
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
+    private void addZipEntry(VirtualFile virtualFile, ZipArchiveOutputStream zipOutputStream) throws ServerException {
+        try {
+            ZipArchiveEntry zipEntry = new ZipArchiveEntry(getZipEntryName(virtualFile));
             if (virtualFile.isFolder()) {
                 zipEntry.setTime(0);
+                zipOutputStream.putArchiveEntry(zipEntry);
             } else {
+                zipEntry.setTime(virtualFile.getLastModificationDate());
+                if (isCompressed(virtualFile)) {
+                    addStoredZipEntry(virtualFile, zipEntry, zipOutputStream);
+                    return;
+                }
+                zipEntry.setMethod(ZipEntry.DEFLATED);
+                zipOutputStream.putArchiveEntry(zipEntry);
                 try (InputStream content = virtualFile.getContent()) {
                     ByteStreams.copy(content, zipOutputStream);
                 }
-                zipEntry.setTime(virtualFile.getLastModificationDate());
             }
-            zipOutputStream.closeEntry();
+            zipOutputStream.closeArchiveEntry();
         } catch (ForbiddenException e) {
             throw new ServerException(e.getServiceError());
         } catch (IOException e) {
@@ -84,53 +227,62 @@ public class ZipArchiver extends Archiver {
         }
     }
 
+    /**
+     * Size and CRC of stored entry must be known before its content is written. Content is read once and spooled to temporary file
+     * while CRC is counted, so size, CRC and data of entry are consistent even if file is updated in the meantime.
+     */
+    private void addStoredZipEntry(VirtualFile virtualFile, ZipArchiveEntry zipEntry, ZipArchiveOutputStream zipOutputStream)
+            throws ForbiddenException, ServerException, IOException {
+        final File spool = File.createTempFile("zip-entry", null);
+        try {
+            final long size;
+            try (CheckedInputStream in = new CheckedInputStream(virtualFile.getContent(), new CRC32());
+                 OutputStream out = new FileOutputStream(spool)) {
+                size = ByteStreams.copy(in, out);
+                zipEntry.setCrc(in.getChecksum().getValue());
+            }
+            zipEntry.setMethod(ZipEntry.STORED);
+            zipEntry.setSize(size);
+            zipOutputStream.putArchiveEntry(zipEntry);
+            Files.copy(spool, zipOutputStream);
+            zipOutputStream.closeArchiveEntry();
+        } finally {
+            if (!spool.delete()) {
+                FileCleaner.addFile(spool);
+            }
+        }
+    }
+
+    private static class PreparedEntry {
+        final VirtualFile     virtualFile;
+        /* Entry with known size and CRC, set only when file was compressed in memory. */
+        final ZipArchiveEntry zipEntry;
+        final byte[]          raw;
+
+        PreparedEntry(VirtualFile virtualFile, ZipArchiveEntry zipEntry, byte[] raw) {
+            this.virtualFile = virtualFile;
+            this.zipEntry = zipEntry;
+            this.raw = raw;
+        }
+    }
+
     @Override
     public void extract(InputStream zipInput, boolean overwrite, int stripNumber)
             throws IOException, ForbiddenException, ConflictException, ServerException {
-        try (ZipInputStream zip = new ZipInputStream(ZipContent.of(zipInput).getContent())) {
-            InputStream notClosableInputStream = new NotClosableInputStream(zip);
+        final ArchiveExtractor extractor = new ArchiveExtractor(folder, extractionPool, overwrite, stripNumber);
+        try (ZipInputStream zip = new RatioLimitedZipInputStream(zipInput)) {
             ZipEntry zipEntry;
             while ((zipEntry = zip.getNextEntry()) != null) {
-                VirtualFile extractFolder = folder;
-
-                Path relativePath = Path.of(zipEntry.getName());
-
-                if (stripNumber > 0) {
-                    if (relativePath.length() <= stripNumber) {
-                        continue;
-                    }
-                    relativePath = relativePath.subPath(stripNumber);
-                }
-
                 if (zipEntry.isDirectory()) {
-                    if (!extractFolder.hasChild(relativePath)) {
-                        extractFolder.createFolder(relativePath.toString());
-                    }
-                    continue;
-                }
-
-                if (relativePath.length() > 1) {
-                    Path neededParentPath = relativePath.getParent();
-                    VirtualFile neededParent = extractFolder.getChild(neededParentPath);
-                    if (neededParent == null) {
-                        neededParent = extractFolder.createFolder(neededParentPath.toString());
-                    }
-                    extractFolder = neededParent;
-                }
-
-                String fileName = relativePath.getName();
-                VirtualFile file = extractFolder.getChild(Path.of(fileName));
-                if (file == null) {
-                    extractFolder.createFile(fileName, notClosableInputStream);
+                    extractor.folder(zipEntry.getName());
                 } else {
-                    if (overwrite) {
-                        file.updateContent(notClosableInputStream);
-                    } else {
-                        throw new ConflictException(String.format("File '%s' already exists", file.getPath()));
-                    }
+                    extractor.file(zipEntry.getName(), zipEntry.getSize(), zip);
                 }
                 zip.closeEntry();
             }
+            extractor.finish();
+        } finally {
+            extractor.cancel();
         }
     }
 }
@@ -15,6 +15,7 @@ import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
 import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileSystemProvider;
+import org.eclipse.che.commons.lang.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,6 +25,8 @@ import java.io.File;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import static com.google.common.collect.Lists.newArrayListWithCapacity;
+
 @Singleton
 public class DefaultFileWatcherNotificationHandler implements FileWatcherNotificationHandler {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultFileWatcherNotificationHandler.class);
@@ -50,12 +53,47 @@ public class DefaultFileWatcherNotificationHandler implements FileWatcherNotific
         }
     }
 
+    @Override
+    public void handleFileWatcherEvents(File watchRoot, List<FileWatcherEvent> events) {
+        final List<Pair<VirtualFile, FileWatcherEventType>> virtualFileEvents = newArrayListWithCapacity(events.size());
+        for (FileWatcherEvent event : events) {
+            VirtualFile virtualFile = convertToVirtualFile(watchRoot, event.getSubPath(), event.isDirectory());
+            if (virtualFile != null) {
+                virtualFileEvents.add(Pair.of(virtualFile, event.getType()));
+            }
+        }
+        if (virtualFileEvents.isEmpty()) {
+            return;
+        }
+        for (FileWatcherNotificationListener virtualFileListener : fileWatcherNotificationListeners) {
+            final List<Pair<VirtualFile, FileWatcherEventType>> accepted = newArrayListWithCapacity(virtualFileEvents.size());
+            for (Pair<VirtualFile, FileWatcherEventType> event : virtualFileEvents) {
+                if (virtualFileListener.shouldBeNotifiedFor(event.first)) {
+                    accepted.add(event);
+                }
+            }
+            if (!accepted.isEmpty()) {
+                virtualFileListener.onFileWatcherEvents(accepted);
+            }
+        }
+    }
+
     public void started(File watchRoot) {
         LOG.debug("Start watching file events on {}", watchRoot);
+        setWatched(true);
     }
 
     public void errorOccurred(File watchRoot, Throwable cause) {
         LOG.warn("Error occurs while watching file events on {}: {}", watchRoot, cause.getMessage());
+        setWatched(false);
+    }
+
+    private void setWatched(boolean watched) {
+        try {
+            ((LocalVirtualFileSystem)virtualFileSystemProvider.getVirtualFileSystem(true)).setWatched(watched);
+        } catch (ServerException e) {
+            LOG.warn(e.getMessage());
+        }
     }
 
     @Override
@@ -72,6 +110,7 @@ public class DefaultFileWatcherNotificationHandler implements FileWatcherNotific
         try {
             LocalVirtualFileSystem virtualFileSystem = (LocalVirtualFileSystem)virtualFileSystemProvider.getVirtualFileSystem(true);
             Path vfsPath = Path.of(subPath);
+            virtualFileSystem.invalidateHashSums(vfsPath);
             VirtualFile virtualFile = virtualFileSystem.getRoot().getChild(vfsPath);
             if (virtualFile == null) {
                 virtualFile = new DeletedLocalVirtualFile(new File(root, subPath), vfsPath, virtualFileSystem, isDir);
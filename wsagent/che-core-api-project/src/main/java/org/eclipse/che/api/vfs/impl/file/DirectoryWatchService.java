@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notifies {@link FileTreeWatcher} about directories which content is changed. Watcher finds out what exactly is changed by itself
+ * with rescanning of changed directories, so implementation doesn't need to report particular events. If some changes are lost, e.g.
+ * because of overflow of event queue, implementation must report all directories that might be affected.
+ *
+ * @author agent
+ */
+interface DirectoryWatchService extends Closeable {
+    /** Starts watching of {@code directory}. Items of directory are not watched recursively. */
+    void register(Path directory) throws IOException;
+
+    /** Stops watching of {@code directory}. Does nothing if directory isn't watched. */
+    void cancel(Path directory);
+
+    /**
+     * Waits until content of any watched directory is changed.
+     *
+     * @throws ClosedWatchServiceException
+     *         if this service is closed
+     */
+    Set<Path> take() throws InterruptedException;
+
+    /**
+     * Waits until content of any watched directory is changed or specified timeout elapsed. Returns empty set in case of timeout.
+     *
+     * @throws ClosedWatchServiceException
+     *         if this service is closed
+     */
+    Set<Path> poll(long timeout, TimeUnit unit) throws InterruptedException;
+}
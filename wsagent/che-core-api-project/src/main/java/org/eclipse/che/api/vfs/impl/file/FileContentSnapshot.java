@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Content of file with its length and modification date read at the moment when snapshot is opened. Content of file is replaced with
+ * rename, so snapshot keeps reading the same content even if file is updated after snapshot is opened. Snapshot must be closed.
+ *
+ * @author agent
+ * @see LocalVirtualFile#openContentSnapshot()
+ */
+public final class FileContentSnapshot implements Closeable {
+    private final FileChannel channel;
+    private final long        length;
+    private final long        lastModificationDate;
+
+    FileContentSnapshot(FileChannel channel, long length, long lastModificationDate) {
+        this.channel = channel;
+        this.length = length;
+        this.lastModificationDate = lastModificationDate;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public long getLastModificationDate() {
+        return lastModificationDate;
+    }
+
+    /**
+     * Transfers at most {@code count} bytes of content, starting from {@code offset}, to the {@code target} channel. Uses
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)} so content is not copied to user space when the target channel
+     * allows it.
+     *
+     * @return number of transferred bytes
+     * @throws IOException
+     *         if an i/o error occurs while reading file or writing to {@code target}
+     */
+    public long transferTo(long offset, long count, WritableByteChannel target) throws IOException {
+        final long end = Math.min(offset + count, length);
+        long position = offset;
+        while (position < end) {
+            final long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+        }
+        return position - offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
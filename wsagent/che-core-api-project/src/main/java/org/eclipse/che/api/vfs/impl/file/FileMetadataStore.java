@@ -0,0 +1,606 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.base.Utf8;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.vfs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.CRC32;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newTreeMap;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Keeps properties and lock tokens of all items of virtual filesystem in a single append-only log file.
+ * <p>
+ * Log consists of records {@code [int length][int crc32][payload]}, payload of each record contains all changes of one batch, so batch
+ * is either applied completely or not applied at all. On opening log is read sequentially and all records are replayed into memory, a
+ * torn or corrupted tail (e.g. after crash of JVM in the middle of write) is cut off. When the log contains much more overwritten and
+ * removed values than live ones it is compacted in background: live values are written in a temporary file that atomically replaces the
+ * log. Store isn't blocked while compaction checks which items still exist, records written meanwhile are appended to the new log.
+ * <p>
+ * Values are stored as they are serialized by {@link FileMetadataSerializer} and {@link FileLockSerializer}. On first opening values are
+ * imported from {@code .vfs/props} and {@code .vfs/locks} folders that were used to keep metadata of each item in separate small file.
+ * Log with imported values replaces empty log atomically, after that these folders are renamed to {@code props.migrated} and
+ * {@code locks.migrated}, they are not removed so metadata may be restored manually if something goes wrong.
+ *
+ * @author agent
+ */
+class FileMetadataStore {
+    private static final Logger LOG = LoggerFactory.getLogger(FileMetadataStore.class);
+
+    enum Kind {
+        PROPERTIES((byte)1),
+        LOCK((byte)2);
+
+        private final byte id;
+
+        Kind(byte id) {
+            this.id = id;
+        }
+
+        static Kind of(byte id) throws IOException {
+            for (Kind kind : values()) {
+                if (kind.id == id) {
+                    return kind;
+                }
+            }
+            throw new IOException(String.format("Unknown kind of metadata %d", id));
+        }
+    }
+
+    private static final byte PUT    = 1;
+    private static final byte REMOVE = 2;
+
+    private static final int RECORD_HEADER_SIZE  = 8;
+    private static final int COMPACTION_MIN_SIZE = 1024 * 1024; // 1M
+
+    private static final String LEGACY_PROPERTIES_DIR    = "props";
+    private static final String LEGACY_PROPERTIES_SUFFIX = "_props";
+    private static final String LEGACY_LOCKS_DIR         = "locks";
+    private static final String LEGACY_LOCK_SUFFIX       = "_lock";
+    private static final String MIGRATED_SUFFIX          = ".migrated";
+
+    private static final ExecutorService COMPACTOR =
+            Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("FileMetadataStoreCompactor")
+                                                                        .setDaemon(true)
+                                                                        .build());
+
+    private final File                                    storageFile;
+    private final File                                    ioRoot;
+    private final String                                  serviceDirName;
+    private final long                                    compactionMinSize;
+    private final Executor                                compactionExecutor;
+    private final Map<Kind, NavigableMap<String, byte[]>> values;
+
+    private FileChannel channel;
+    private long        logSize;
+    private long        liveSize;
+    /* Incremented when log is closed, compaction that was started before is abandoned. */
+    private long        generation;
+    private boolean     compactionScheduled;
+
+    /**
+     * @param storageFile
+     *         log file
+     * @param ioRoot
+     *         root folder of virtual filesystem
+     * @param serviceDirName
+     *         name of service folders that contained metadata files before this store was introduced
+     */
+    FileMetadataStore(File storageFile, File ioRoot, String serviceDirName) {
+        this(storageFile, ioRoot, serviceDirName, COMPACTION_MIN_SIZE, COMPACTOR);
+    }
+
+    /**
+     * @param storageFile
+     *         log file
+     * @param ioRoot
+     *         root folder of virtual filesystem
+     * @param serviceDirName
+     *         name of service folders that contained metadata files before this store was introduced
+     * @param compactionMinSize
+     *         log is never compacted while its size is less than this value
+     * @param compactionExecutor
+     *         executor that runs compaction of log
+     */
+    FileMetadataStore(File storageFile, File ioRoot, String serviceDirName, long compactionMinSize, Executor compactionExecutor) {
+        this.storageFile = storageFile;
+        this.ioRoot = ioRoot;
+        this.serviceDirName = serviceDirName;
+        this.compactionMinSize = compactionMinSize;
+        this.compactionExecutor = compactionExecutor;
+        values = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            values.put(kind, newTreeMap());
+        }
+    }
+
+    /** Gets serialized value of metadata of item with specified path or {@code null} if there is no such metadata. */
+    synchronized byte[] get(Kind kind, Path path) throws IOException {
+        open();
+        return values.get(kind).get(path.toString());
+    }
+
+    /** Sets serialized value of metadata of item with specified path. Metadata is removed if {@code value} is {@code null}. */
+    synchronized void put(Kind kind, Path path, byte[] value) throws IOException {
+        open();
+        final Batch batch = new Batch();
+        if (value == null) {
+            batch.remove(kind, path.toString());
+        } else {
+            batch.put(kind, path.toString(), value);
+        }
+        commit(batch);
+    }
+
+    /** Copies properties of item {@code from} and all items in its sub-tree to item {@code to}. Locks are never copied. */
+    synchronized void copyProperties(Path from, Path to) throws IOException {
+        open();
+        final String fromKey = from.toString();
+        final String toKey = to.toString();
+        final Batch batch = new Batch();
+        for (Map.Entry<String, byte[]> entry : subTree(values.get(Kind.PROPERTIES), fromKey).entrySet()) {
+            batch.put(Kind.PROPERTIES, toKey + entry.getKey().substring(fromKey.length()), entry.getValue());
+        }
+        commit(batch);
+    }
+
+    /** Removes all metadata of item with specified path and all items in its sub-tree. */
+    synchronized void removeAll(Path path) throws IOException {
+        open();
+        final String key = path.toString();
+        final Batch batch = new Batch();
+        for (Kind kind : Kind.values()) {
+            for (String subKey : subTree(values.get(kind), key).keySet()) {
+                batch.remove(kind, subKey);
+            }
+        }
+        commit(batch);
+    }
+
+    /** Closes log file. Store is reopened on next access. */
+    synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                LOG.warn("Unable close metadata store {}: {}", storageFile, e.getMessage());
+            }
+            channel = null;
+            generation++;
+            clear();
+        }
+    }
+
+    private void clear() {
+        for (NavigableMap<String, byte[]> kindValues : values.values()) {
+            kindValues.clear();
+        }
+        logSize = 0;
+        liveSize = 0;
+    }
+
+    private Map<String, byte[]> subTree(NavigableMap<String, byte[]> kindValues, String key) {
+        if ("/".equals(key)) {
+            return kindValues;
+        }
+        // '0' is the next character after '/', so range contains all keys that start with key + '/'.
+        final NavigableMap<String, byte[]> subTree = newTreeMap(kindValues.subMap(key + '/', true, key + '0', false));
+        final byte[] value = kindValues.get(key);
+        if (value != null) {
+            subTree.put(key, value);
+        }
+        return subTree;
+    }
+
+    private void open() throws IOException {
+        if (channel != null) {
+            return;
+        }
+        storageFile.getParentFile().mkdirs();
+        if (!storageFile.exists()) {
+            importLegacyFiles();
+        }
+        channel = FileChannel.open(storageFile.toPath(), CREATE, READ, WRITE);
+        try {
+            replay();
+            if (needsCompaction()) {
+                scheduleCompaction(new Batch());
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            channel = null;
+            clear();
+            throw e;
+        }
+    }
+
+    private void replay() throws IOException {
+        final long size = channel.size();
+        long position = 0;
+        channel.position(0);
+        // Stream isn't closed since it closes the channel.
+        final DataInputStream log = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+        final CRC32 crc = new CRC32();
+        while (size - position >= RECORD_HEADER_SIZE) {
+            final int length = log.readInt();
+            final int checksum = log.readInt();
+            if (length < 0 || length > size - position - RECORD_HEADER_SIZE) {
+                break;
+            }
+            final byte[] payload = new byte[length];
+            log.readFully(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int)crc.getValue() != checksum) {
+                break;
+            }
+            apply(ByteBuffer.wrap(payload));
+            position += RECORD_HEADER_SIZE + length;
+        }
+        if (position < size) {
+            LOG.warn("Metadata store {} has corrupted tail, {} bytes are discarded", storageFile, size - position);
+            channel.truncate(position);
+        }
+        channel.position(position);
+        logSize = position;
+    }
+
+    private void apply(ByteBuffer payload) throws IOException {
+        final int opsNum = payload.getInt();
+        for (int i = 0; i < opsNum; i++) {
+            final byte op = payload.get();
+            final Kind kind = Kind.of(payload.get());
+            final String key = readString(payload);
+            if (op == PUT) {
+                final byte[] value = new byte[payload.getInt()];
+                payload.get(value);
+                doPut(kind, key, value);
+            } else {
+                doRemove(kind, key);
+            }
+        }
+    }
+
+    private void doPut(Kind kind, String key, byte[] value) {
+        final byte[] previous = values.get(kind).put(key, value);
+        if (previous != null) {
+            liveSize -= entrySize(key, previous);
+        }
+        liveSize += entrySize(key, value);
+    }
+
+    private void doRemove(Kind kind, String key) {
+        final byte[] previous = values.get(kind).remove(key);
+        if (previous != null) {
+            liveSize -= entrySize(key, previous);
+        }
+    }
+
+    private void commit(Batch batch) throws IOException {
+        if (batch.ops.isEmpty()) {
+            return;
+        }
+        write(batch.toRecord());
+        for (Op op : batch.ops) {
+            if (op.value == null) {
+                doRemove(op.kind, op.key);
+            } else {
+                doPut(op.kind, op.key, op.value);
+            }
+        }
+        if (needsCompaction()) {
+            scheduleCompaction(batch);
+        }
+    }
+
+    private void write(ByteBuffer record) throws IOException {
+        final long position = logSize;
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            // Do not leave partially written record, next successful write would be appended after it.
+            channel.truncate(position);
+            channel.position(position);
+            throw e;
+        }
+        logSize = channel.position();
+    }
+
+    private boolean needsCompaction() {
+        return logSize > compactionMinSize && logSize > liveSize * 2;
+    }
+
+    /*
+     * Starts compaction of log in background unless it is started already. Values written by the last batch are never dropped by
+     * compaction, their items may be not created yet.
+     */
+    private void scheduleCompaction(Batch lastBatch) {
+        if (compactionScheduled) {
+            return;
+        }
+        final Map<Kind, Set<String>> keptKeys = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            keptKeys.put(kind, lastBatch.keys(kind));
+        }
+        final Map<Kind, NavigableMap<String, byte[]>> snapshot = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            snapshot.put(kind, newTreeMap(values.get(kind)));
+        }
+        final long snapshotLogSize = logSize;
+        final long compactedGeneration = generation;
+        compactionScheduled = true;
+        try {
+            compactionExecutor.execute(() -> {
+                try {
+                    compact(compactedGeneration, snapshot, snapshotLogSize, keptKeys);
+                } catch (IOException | RuntimeException e) {
+                    LOG.warn("Unable compact metadata store {}: {}", storageFile, e.getMessage());
+                } finally {
+                    synchronized (this) {
+                        compactionScheduled = false;
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            compactionScheduled = false;
+            LOG.warn("Unable start compaction of metadata store {}: {}", storageFile, e.getMessage());
+        }
+    }
+
+    /*
+     * Rewrites log with live values only. Metadata of items that do not exist any more, e.g. removed outside of VFS, is dropped. Existence
+     * of items is checked without holding monitor of the store, against snapshot of values taken when compaction was scheduled. Records
+     * that are written after that are appended to the new log, so their values are kept even if they were dropped from snapshot.
+     */
+    private void compact(long compactedGeneration, Map<Kind, NavigableMap<String, byte[]>> snapshot, long snapshotLogSize,
+                         Map<Kind, Set<String>> keptKeys) throws IOException {
+        final Batch batch = new Batch();
+        final Map<Kind, Map<String, byte[]>> dropped = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            final Map<String, byte[]> droppedOfKind = newTreeMap();
+            for (Map.Entry<String, byte[]> entry : snapshot.get(kind).entrySet()) {
+                if (keptKeys.get(kind).contains(entry.getKey()) || toIoFile(entry.getKey()).exists()) {
+                    batch.put(kind, entry.getKey(), entry.getValue());
+                } else {
+                    droppedOfKind.put(entry.getKey(), entry.getValue());
+                }
+            }
+            dropped.put(kind, droppedOfKind);
+        }
+
+        final File tmpFile = new File(storageFile.getParentFile(), storageFile.getName() + ".tmp");
+        try (FileChannel tmpChannel = FileChannel.open(tmpFile.toPath(), CREATE, WRITE)) {
+            tmpChannel.truncate(0);
+            if (!batch.ops.isEmpty()) {
+                final ByteBuffer record = batch.toRecord();
+                while (record.hasRemaining()) {
+                    tmpChannel.write(record);
+                }
+            }
+            synchronized (this) {
+                if (channel == null || generation != compactedGeneration) {
+                    return;
+                }
+                long position = snapshotLogSize;
+                while (position < logSize) {
+                    position += channel.transferTo(position, logSize - position, tmpChannel);
+                }
+                tmpChannel.force(true);
+                channel.close();
+                try {
+                    Files.move(tmpFile.toPath(), storageFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+                } finally {
+                    channel = FileChannel.open(storageFile.toPath(), READ, WRITE);
+                    logSize = channel.size();
+                    channel.position(logSize);
+                }
+                // Values that are changed after snapshot was taken are in appended records.
+                for (Kind kind : Kind.values()) {
+                    for (Map.Entry<String, byte[]> entry : dropped.get(kind).entrySet()) {
+                        if (values.get(kind).get(entry.getKey()) == entry.getValue()) {
+                            doRemove(kind, entry.getKey());
+                        }
+                    }
+                }
+            }
+        } finally {
+            if (tmpFile.exists()) {
+                Files.delete(tmpFile.toPath());
+            }
+        }
+    }
+
+    /*
+     * Writes values imported from legacy metadata files in temporary file that atomically becomes the log, so import is repeated after
+     * crash. Legacy folders are renamed but not removed.
+     */
+    private void importLegacyFiles() throws IOException {
+        final Batch batch = new Batch();
+        final List<java.nio.file.Path> legacyDirs = newArrayList();
+        Files.walkFileTree(ioRoot.toPath(), new SimpleFileVisitor<java.nio.file.Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(java.nio.file.Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!serviceDirName.equals(dir.getFileName().toString())) {
+                    return FileVisitResult.CONTINUE;
+                }
+                final Path parentPath = toVirtualPath(dir.getParent());
+                importLegacyDir(dir.resolve(LEGACY_PROPERTIES_DIR), LEGACY_PROPERTIES_SUFFIX, Kind.PROPERTIES, parentPath, batch,
+                                legacyDirs);
+                importLegacyDir(dir.resolve(LEGACY_LOCKS_DIR), LEGACY_LOCK_SUFFIX, Kind.LOCK, parentPath, batch, legacyDirs);
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(java.nio.file.Path file, IOException e) {
+                LOG.warn("Unable read {}: {}", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (batch.ops.isEmpty()) {
+            return;
+        }
+        final File tmpFile = new File(storageFile.getParentFile(), storageFile.getName() + ".tmp");
+        try (FileChannel tmpChannel = FileChannel.open(tmpFile.toPath(), CREATE, WRITE)) {
+            tmpChannel.truncate(0);
+            final ByteBuffer record = batch.toRecord();
+            while (record.hasRemaining()) {
+                tmpChannel.write(record);
+            }
+            tmpChannel.force(true);
+        }
+        Files.move(tmpFile.toPath(), storageFile.toPath(), ATOMIC_MOVE);
+        LOG.info("Imported {} metadata files in {}", batch.ops.size(), storageFile);
+        for (java.nio.file.Path legacyDir : legacyDirs) {
+            final java.nio.file.Path migratedDir = legacyDir.resolveSibling(legacyDir.getFileName() + MIGRATED_SUFFIX);
+            try {
+                Files.move(legacyDir, migratedDir);
+            } catch (IOException e) {
+                LOG.warn("Unable rename {} to {}: {}", legacyDir, migratedDir, e.getMessage());
+            }
+        }
+    }
+
+    private void importLegacyDir(java.nio.file.Path legacyDir, String suffix, Kind kind, Path parentPath, Batch batch,
+                                 List<java.nio.file.Path> legacyDirs) throws IOException {
+        final File[] legacyFiles = legacyDir.toFile().listFiles((dir, name) -> name.endsWith(suffix));
+        if (legacyFiles == null) {
+            return;
+        }
+        legacyDirs.add(legacyDir);
+        for (File legacyFile : legacyFiles) {
+            final String name = legacyFile.getName().substring(0, legacyFile.getName().length() - suffix.length());
+            // Metadata file of root folder has name that consists of suffix only.
+            final Path path = name.isEmpty() ? parentPath : parentPath.newPath(name);
+            batch.put(kind, path.toString(), Files.readAllBytes(legacyFile.toPath()));
+        }
+    }
+
+    private Path toVirtualPath(java.nio.file.Path ioPath) {
+        Path path = Path.ROOT;
+        for (java.nio.file.Path element : ioRoot.toPath().relativize(ioPath)) {
+            if (!element.toString().isEmpty()) {
+                path = path.newPath(element.toString());
+            }
+        }
+        return path;
+    }
+
+    private File toIoFile(String key) {
+        return new File(ioRoot, key.substring(1).replace('/', File.separatorChar));
+    }
+
+    private static int entrySize(String key, byte[] value) {
+        return 10 + Utf8.encodedLength(key) + value.length;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static class Op {
+        final Kind   kind;
+        final String key;
+        final byte[] value;
+
+        Op(Kind kind, String key, byte[] value) {
+            this.kind = kind;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /** Set of changes that are written in log as single record. */
+    private static class Batch {
+        final List<Op> ops = newArrayList();
+
+        void put(Kind kind, String key, byte[] value) {
+            ops.add(new Op(kind, key, value));
+        }
+
+        void remove(Kind kind, String key) {
+            ops.add(new Op(kind, key, null));
+        }
+
+        Set<String> keys(Kind kind) {
+            return ops.stream().filter(op -> op.kind == kind).map(op -> op.key).collect(toSet());
+        }
+
+        ByteBuffer toRecord() {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream payload = new DataOutputStream(bytes)) {
+                payload.writeInt(ops.size());
+                for (Op op : ops) {
+                    payload.writeByte(op.value == null ? REMOVE : PUT);
+                    payload.writeByte(op.kind.id);
+                    final byte[] key = op.key.getBytes(UTF_8);
+                    payload.writeInt(key.length);
+                    payload.write(key);
+                    if (op.value != null) {
+                        payload.writeInt(op.value.length);
+                        payload.write(op.value);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            final byte[] payloadBytes = bytes.toByteArray();
+            final CRC32 crc = new CRC32();
+            crc.update(payloadBytes);
+            final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadBytes.length);
+            record.putInt(payloadBytes.length);
+            record.putInt((int)crc.getValue());
+            record.put(payloadBytes);
+            record.flip();
+            return record;
+        }
+    }
+}
@@ -23,15 +23,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.DirectoryStream;
-import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
-import java.nio.file.WatchEvent;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
 import java.util.Iterator;
@@ -44,16 +40,16 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newLinkedHashMap;
 import static com.google.common.collect.Sets.newLinkedHashSet;
 import static java.nio.file.FileVisitResult.CONTINUE;
 import static java.nio.file.Files.getLastModifiedTime;
 import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
-import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
-import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
-import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
-import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.Collections.emptySet;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.CREATED;
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.DELETED;
@@ -63,7 +59,15 @@ import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.
 public class FileTreeWatcher {
     private static final Logger LOG = LoggerFactory.getLogger(FileTreeWatcher.class);
 
-    private static final long EVENT_PROCESS_TIMEOUT_SEC = 2;
+    /** Default time that watcher waits for the new events before notifying about already collected ones. */
+    private static final long DEFAULT_COALESCING_WINDOW_MILLIS = 2000;
+    /** Max delay of notification in terms of coalescing window, prevents starvation of listeners while events keep coming. */
+    private static final int  MAX_DELAY_IN_COALESCING_WINDOWS  = 5;
+
+    /** Backend based on {@link java.nio.file.WatchService}, available on all platforms. */
+    public static final String JDK_BACKEND     = "jdk";
+    /** Backend that uses Linux inotify directly, falls back to {@link #JDK_BACKEND} on other platforms. */
+    public static final String INOTIFY_BACKEND = "inotify";
 
     private final File                           watchRoot;
     private final Path                           watchRootPath;
@@ -72,14 +76,27 @@ public class FileTreeWatcher {
     private final FileWatcherNotificationHandler fileWatcherNotificationHandler;
     private final ExecutorService                executor;
     private final AtomicBoolean                  running;
-    private       WatchService                   watchService;
-    private       WatchEvent.Modifier[]          watchEventModifiers;
+    private final FileWatcherEventCoalescer      eventCoalescer;
+    private final long                           coalescingWindowMillis;
+    private final long                           maxDelayMillis;
+    private final String                         backend;
+    private       DirectoryWatchService          watchService;
+
+    public FileTreeWatcher(File watchRoot, Set<PathMatcher> excludePatterns, FileWatcherNotificationHandler fileWatcherNotificationHandler) {
+        this(watchRoot, excludePatterns, fileWatcherNotificationHandler, DEFAULT_COALESCING_WINDOW_MILLIS, JDK_BACKEND);
+    }
 
     @Inject
     public FileTreeWatcher(@Named("che.user.workspaces.storage") File watchRoot,
                            @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns,
-                           FileWatcherNotificationHandler fileWatcherNotificationHandler) {
-        watchEventModifiers = new WatchEvent.Modifier[0];
+                           FileWatcherNotificationHandler fileWatcherNotificationHandler,
+                           @Named("vfs.watcher.event_coalescing_window_ms") long coalescingWindowMillis,
+                           @Named("vfs.watcher.backend") String backend) {
+        checkArgument(coalescingWindowMillis > 0, "Coalescing window must be positive");
+        this.coalescingWindowMillis = coalescingWindowMillis;
+        this.maxDelayMillis = coalescingWindowMillis * MAX_DELAY_IN_COALESCING_WINDOWS;
+        this.backend = backend;
+        eventCoalescer = new FileWatcherEventCoalescer();
         this.watchRoot = toCanonicalFile(watchRoot);
         this.watchRootPath = this.watchRoot.toPath();
         this.excludePatterns = newArrayList(excludePatterns);
@@ -100,29 +117,23 @@ public class FileTreeWatcher {
     }
 
     public void startup() throws IOException {
-        watchService = FileSystems.getDefault().newWatchService();
-        if (isPollingWatchService(watchService)) {
-            watchEventModifiers = new WatchEvent.Modifier[]{createSensitivityWatchEventModifier()};
-        }
+        watchService = createDirectoryWatchService();
         running.set(true);
         walkTreeAndSetupWatches(watchRootPath);
         executor.execute(new WatchEventTask());
         fileWatcherNotificationHandler.started(watchRoot);
     }
 
-    private boolean isPollingWatchService(WatchService watchService) {
-        return "sun.nio.fs.PollingWatchService".equals(watchService.getClass().getName());
-    }
-
-    private WatchEvent.Modifier createSensitivityWatchEventModifier() {
-        try {
-            Class<?> aModifierEnum = Class.forName("com.sun.nio.file.SensitivityWatchEventModifier");
-            Object[] sensitivityEnumConstants = aModifierEnum.getEnumConstants();
-            return (WatchEvent.Modifier)sensitivityEnumConstants[0];
-        } catch (Exception e) {
-            LOG.warn("Can't create 'com.sun.nio.file.SensitivityWatchEventModifier'", e);
+    private DirectoryWatchService createDirectoryWatchService() throws IOException {
+        if (INOTIFY_BACKEND.equals(backend)) {
+            if (InotifyDirectoryWatchService.isSupported()) {
+                return new InotifyDirectoryWatchService();
+            }
+            LOG.warn("inotify isn't available on this system, fall back to '{}' watcher backend", JDK_BACKEND);
+        } else if (!JDK_BACKEND.equals(backend)) {
+            LOG.warn("Unknown watcher backend '{}', fall back to '{}' watcher backend", backend, JDK_BACKEND);
         }
-        return null;
+        return new JdkDirectoryWatchService();
     }
 
     public void shutdown() {
@@ -217,10 +228,8 @@ public class FileTreeWatcher {
 
     private void setupDirectoryWatcher(Path directory) throws IOException {
         if (watchedDirectories.get(directory) == null) {
-            WatchKey watchKey = directory.register(watchService,
-                                                   new WatchEvent.Kind[]{ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY, OVERFLOW},
-                                                   watchEventModifiers);
-            WatchedDirectory watchedDirectory = new WatchedDirectory(directory, watchKey);
+            watchService.register(directory);
+            WatchedDirectory watchedDirectory = new WatchedDirectory(directory);
             try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
                 for (Path entry : entries) {
                     watchedDirectory
@@ -232,33 +241,33 @@ public class FileTreeWatcher {
     }
 
     private void cancelDirectoryWatcher(Path path) {
-        WatchedDirectory watchedDirectory = watchedDirectories.remove(path);
-        if (watchedDirectory != null) {
-            watchedDirectory.getWatchKey().cancel();
+        if (watchedDirectories.remove(path) != null) {
+            watchService.cancel(path);
         }
     }
 
     private class WatchEventTask implements Runnable {
         final Set<PendingEvent> pendingEvents = newLinkedHashSet();
+        long processDeadline;
 
         @Override
         public void run() {
             while (running.get()) {
                 try {
-                    WatchKey watchKey;
+                    Set<Path> changedDirectories;
                     if (pendingEvents.isEmpty()) {
-                        watchKey = watchService.take();
+                        changedDirectories = watchService.take();
+                        processDeadline = System.currentTimeMillis() + maxDelayMillis;
                     } else {
-                        watchKey = watchService.poll(EVENT_PROCESS_TIMEOUT_SEC, SECONDS);
-                        if (watchKey == null) {
+                        final long timeout = Math.min(coalescingWindowMillis, processDeadline - System.currentTimeMillis());
+                        changedDirectories = timeout > 0 ? watchService.poll(timeout, MILLISECONDS) : emptySet();
+                        if (changedDirectories.isEmpty()) {
                             processPendingEvents(pendingEvents);
                             pendingEvents.clear();
                         }
                     }
-                    if (watchKey != null) {
-                        pendingEvents.add(new PendingEvent((Path)watchKey.watchable()));
-                        watchKey.pollEvents();
-                        watchKey.reset();
+                    for (Path changedDirectory : changedDirectories) {
+                        pendingEvents.add(new PendingEvent(changedDirectory));
                     }
                 } catch (InterruptedException | ClosedWatchServiceException e) {
                     running.set(false);
@@ -274,6 +283,9 @@ public class FileTreeWatcher {
         for (PendingEvent pendingEvent : pendingEvents) {
             Path eventDirectoryPath = pendingEvent.getPath();
             WatchedDirectory watchedDirectory = watchedDirectories.get(eventDirectoryPath);
+            if (watchedDirectory == null) {
+                continue;
+            }
             if (Files.exists(eventDirectoryPath)) {
                 final int hitCounter = watchedDirectory.incrementHitCounter();
                 try (DirectoryStream<Path> entries = Files.newDirectoryStream(eventDirectoryPath)) {
@@ -287,7 +299,7 @@ public class FileTreeWatcher {
                                 fireWatchEvent(CREATED, fsItem, directoryItem.isDirectory());
                                 if (directory) {
                                     walkTreeAndFireCreatedEvents(fsItem);
-                                    setupDirectoryWatcher(fsItem);
+                                    walkTreeAndSetupWatches(fsItem);
                                 }
                             } catch (IOException ignored) {
                             }
@@ -318,7 +330,13 @@ public class FileTreeWatcher {
                 for (DirectoryItem directoryItem : watchedDirectory.getItems()) {
                     fireWatchEvent(DELETED, eventDirectoryPath.resolve(directoryItem.getName()), directoryItem.isDirectory());
                 }
-                watchedDirectories.remove(eventDirectoryPath);
+                cancelDirectoryWatcher(eventDirectoryPath);
+            }
+        }
+        if (!eventCoalescer.isEmpty()) {
+            final List<FileWatcherEvent> events = eventCoalescer.drain();
+            if (!events.isEmpty()) {
+                fileWatcherNotificationHandler.handleFileWatcherEvents(watchRoot, events);
             }
         }
     }
@@ -326,7 +344,7 @@ public class FileTreeWatcher {
     private void fireWatchEvent(FileWatcherEventType eventType, Path eventPath, boolean isDirectory) {
         Path relativePath = watchRootPath.relativize(eventPath);
         if (shouldNotify(relativePath)) {
-            fileWatcherNotificationHandler.handleFileWatcherEvent(eventType, watchRoot, relativePath.toString(), isDirectory);
+            eventCoalescer.add(eventType, relativePath, isDirectory);
         }
     }
 
@@ -364,19 +382,13 @@ public class FileTreeWatcher {
     }
 
     static class WatchedDirectory {
-        final Path                path;
-        final WatchKey            watchKey;
-        final List<DirectoryItem> items;
+        final Path                     path;
+        final Map<Path, DirectoryItem> items;
         int hitCounter;
 
-        WatchedDirectory(Path path, WatchKey watchKey) {
+        WatchedDirectory(Path path) {
             this.path = path;
-            this.watchKey = watchKey;
-            items = newArrayList();
-        }
-
-        WatchKey getWatchKey() {
-            return watchKey;
+            items = newLinkedHashMap();
         }
 
         Path getPath() {
@@ -384,21 +396,16 @@ public class FileTreeWatcher {
         }
 
         DirectoryItem getItem(Path name) {
-            for (DirectoryItem item : items) {
-                if (item.getName().equals(name)) {
-                    return item;
-                }
-            }
-            return null;
+            return items.get(name);
         }
 
         void addItem(DirectoryItem item) {
             item.updateHitCounter(this.hitCounter);
-            items.add(item);
+            items.put(item.getName(), item);
         }
 
-        List<DirectoryItem> getItems() {
-            return items;
+        Collection<DirectoryItem> getItems() {
+            return items.values();
         }
 
         int incrementHitCounter() {
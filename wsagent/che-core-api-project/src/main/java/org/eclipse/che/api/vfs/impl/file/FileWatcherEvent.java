@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
+
+import java.util.Objects;
+
+/**
+ * Event detected by {@link FileTreeWatcher}. Path of event is relative to the watch root.
+ *
+ * @author agent
+ */
+public class FileWatcherEvent {
+    private final FileWatcherEventType type;
+    private final String               subPath;
+    private final boolean              directory;
+
+    public FileWatcherEvent(FileWatcherEventType type, String subPath, boolean directory) {
+        this.type = type;
+        this.subPath = subPath;
+        this.directory = directory;
+    }
+
+    public FileWatcherEventType getType() {
+        return type;
+    }
+
+    public String getSubPath() {
+        return subPath;
+    }
+
+    public boolean isDirectory() {
+        return directory;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FileWatcherEvent)) {
+            return false;
+        }
+        FileWatcherEvent other = (FileWatcherEvent)o;
+        return directory == other.directory
+               && type == other.type
+               && Objects.equals(subPath, other.subPath);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 31 * hash + Objects.hashCode(type);
+        hash = 31 * hash + Objects.hashCode(subPath);
+        hash = 31 * hash + (directory ? 1 : 0);
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "FileWatcherEvent{" +
+               "type=" + type +
+               ", subPath='" + subPath + '\'' +
+               ", directory=" + directory +
+               '}';
+    }
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.CREATED;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.DELETED;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
+
+/**
+ * Merges events detected by {@link FileTreeWatcher} within one coalescing window. Sequence of events for the same path is replaced with
+ * single event that describes result of the whole sequence, e.g. file that is created and then modified is reported as created, file
+ * that is created and then deleted is not reported at all. Events for items of deleted directory are dropped since deletion of directory
+ * implies deletion of all its items, so deletion of the whole subtree is reported with single event.
+ * <p/>
+ * Not thread-safe, is expected to be used by watcher thread only.
+ *
+ * @author agent
+ */
+class FileWatcherEventCoalescer {
+    private final Map<Path, CoalescedEvent> events = newLinkedHashMap();
+
+    void add(FileWatcherEventType type, Path subPath, boolean directory) {
+        final CoalescedEvent event = events.get(subPath);
+        if (event == null) {
+            events.put(subPath, new CoalescedEvent(type, directory));
+        } else {
+            event.merge(type, directory);
+        }
+    }
+
+    boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    /** Gets merged events and resets state of this coalescer. */
+    List<FileWatcherEvent> drain() {
+        final Set<Path> deletedDirectories = newHashSet();
+        for (Map.Entry<Path, CoalescedEvent> entry : events.entrySet()) {
+            if (entry.getValue().directory && entry.getValue().isDeleted()) {
+                deletedDirectories.add(entry.getKey());
+            }
+        }
+        final List<FileWatcherEvent> result = newArrayList();
+        for (Map.Entry<Path, CoalescedEvent> entry : events.entrySet()) {
+            final CoalescedEvent event = entry.getValue();
+            if (event.type != null && !isInsideOfAny(entry.getKey(), deletedDirectories)) {
+                result.add(new FileWatcherEvent(event.type, entry.getKey().toString(), event.directory));
+            }
+        }
+        events.clear();
+        return result;
+    }
+
+    private boolean isInsideOfAny(Path path, Set<Path> directories) {
+        if (directories.isEmpty()) {
+            return false;
+        }
+        for (Path parent = path.getParent(); parent != null; parent = parent.getParent()) {
+            if (directories.contains(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class CoalescedEvent {
+        /* null if item was created and then deleted within coalescing window */
+        FileWatcherEventType type;
+        boolean              directory;
+
+        CoalescedEvent(FileWatcherEventType type, boolean directory) {
+            this.type = type;
+            this.directory = directory;
+        }
+
+        boolean isDeleted() {
+            return type == null || type == DELETED;
+        }
+
+        void merge(FileWatcherEventType next, boolean nextDirectory) {
+            if (type == null) {
+                type = next == DELETED ? null : CREATED;
+            } else if (type == CREATED) {
+                if (next == DELETED) {
+                    type = null;
+                }
+            } else if (type == MODIFIED) {
+                if (next == DELETED) {
+                    type = DELETED;
+                }
+            } else if (next != DELETED) {
+                // Deleted and then re-created, e.g. file saved by editor through temporary file. Item that has changed its kind is
+                // reported as created since listeners can't handle file that becomes directory as modification.
+                type = next == CREATED && (directory || nextDirectory) ? CREATED : MODIFIED;
+            }
+            directory = nextDirectory;
+        }
+    }
+}
@@ -13,10 +13,21 @@ package org.eclipse.che.api.vfs.impl.file;
 import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
 
 import java.io.File;
+import java.util.List;
 
 public interface FileWatcherNotificationHandler {
     void handleFileWatcherEvent(FileWatcherEventType eventType, File watchRoot, String subPath, boolean isDir);
 
+    /**
+     * Handles batch of events coalesced by {@link FileTreeWatcher} within one coalescing window. By default every event is passed to
+     * {@link #handleFileWatcherEvent(FileWatcherEventType, File, String, boolean)}.
+     */
+    default void handleFileWatcherEvents(File watchRoot, List<FileWatcherEvent> events) {
+        for (FileWatcherEvent event : events) {
+            handleFileWatcherEvent(event.getType(), watchRoot, event.getSubPath(), event.isDirectory());
+        }
+    }
+
     void started(File watchRoot);
 
     void errorOccurred(File watchRoot, Throwable cause);
@@ -13,6 +13,7 @@ package org.eclipse.che.api.vfs.impl.file;
 import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
+import org.eclipse.che.commons.lang.Pair;
 
 import java.util.Collections;
 import java.util.List;
@@ -45,4 +46,15 @@ public abstract class FileWatcherNotificationListener {
     }
 
     public abstract void onFileWatcherEvent(VirtualFile virtualFile, FileWatcherEventType eventType);
+
+    /**
+     * Is called with all events accepted by this listener within one coalescing window of {@link FileTreeWatcher}. Listeners that are
+     * able to process events in bulk should override this method. By default every event is passed to
+     * {@link #onFileWatcherEvent(VirtualFile, FileWatcherEventType)}.
+     */
+    public void onFileWatcherEvents(List<Pair<VirtualFile, FileWatcherEventType>> events) {
+        for (Pair<VirtualFile, FileWatcherEventType> event : events) {
+            onFileWatcherEvent(event.first, event.second);
+        }
+    }
 }
@@ -0,0 +1,366 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.commons.lang.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.newArrayListWithCapacity;
+import static com.google.common.collect.Maps.newTreeMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.common.hash.Funnels.asOutputStream;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Keeps hash sums of files of {@link LocalVirtualFileSystem} in a tree which mirrors the file system tree (Merkle tree). Each file node
+ * remembers hash sum of file together with its length and modification date, each folder node keeps hash sum over names and hash sums
+ * of its children. Only files which are new or whose length or modification date changed since previous count are re-read, they are
+ * hashed in parallel in {@code ForkJoinPool}.
+ * <p/>
+ * While file tree watcher is running (see {@link #setWatched(boolean)}) folder which is not invalidated with {@link #invalidate(Path)}
+ * since previous count is not visited at all and hash sums of its files are taken from the tree. Otherwise every file is checked with
+ * {@code stat}. The tree is saved on the disk with {@link #save()} and restored on first usage. After restoring all folders are
+ * considered as possibly changed but hash sums of unchanged files are reused.
+ *
+ * @author agent
+ */
+class HashSumsCache {
+    private static final Logger LOG = LoggerFactory.getLogger(HashSumsCache.class);
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final File                 storageFile;
+    private final HashFunction         hashFunction;
+    private final ForkJoinPool         hashingPool;
+    private final Queue<Path>          invalidated;
+    private final DataSerializer<Node> nodeSerializer;
+
+    private volatile boolean watched;
+    /* Increments every time when watching is (re)started. Folder node may be skipped only if it was scanned in current generation. */
+    private volatile int     generation;
+
+    private Node root;
+
+    HashSumsCache(File storageFile, HashFunction hashFunction, ForkJoinPool hashingPool) {
+        this.storageFile = storageFile;
+        this.hashFunction = hashFunction;
+        this.hashingPool = hashingPool;
+        invalidated = new ConcurrentLinkedQueue<>();
+        nodeSerializer = new NodeSerializer();
+        generation = 1;
+    }
+
+    /**
+     * Notifies this cache that item with specified path (and all items in sub-tree if path points to the folder) might be changed.
+     * This method doesn't block, invalidation is applied on next count of hash sums.
+     */
+    void invalidate(Path path) {
+        invalidated.add(path);
+    }
+
+    /**
+     * Sets whether changes in file tree are tracked by file watcher. When watcher stops or fails all folder nodes must be re-scanned
+     * because some changes might be not reported.
+     */
+    void setWatched(boolean watched) {
+        if (watched && !this.watched) {
+            generation++;
+        }
+        this.watched = watched;
+    }
+
+    /**
+     * Counts hash sums of all files in the specified folder. Each {@code Pair} contains hash sum of file represented as HEX String and
+     * path of file that is relative to {@code folder}.
+     *
+     * @see org.eclipse.che.api.vfs.HashSumsCounter
+     */
+    synchronized List<Pair<String, String>> countHashSums(LocalVirtualFile folder) throws ServerException {
+        if (root == null) {
+            root = load();
+        }
+        applyInvalidations();
+
+        final Node folderNode = getOrCreateFolderNode(folder.getPath());
+        final List<Node> changedFiles = newArrayList();
+        scan(folderNode, folder, changedFiles);
+        hashFiles(changedFiles);
+        updateFolderHash(folderNode);
+
+        final List<Pair<String, String>> hashSums = newArrayList();
+        collectHashSums(folderNode, "", hashSums);
+        return hashSums;
+    }
+
+    /** Saves the tree of hash sums on the disk. Nothing is saved if the tree was never loaded. */
+    synchronized void save() {
+        if (root == null) {
+            return;
+        }
+        final File tmpFile = new File(storageFile.getParentFile(), storageFile.getName() + ".tmp");
+        try {
+            tmpFile.getParentFile().mkdirs();
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                dos.writeInt(FORMAT_VERSION);
+                nodeSerializer.write(dos, root);
+            }
+            Files.move(tmpFile.toPath(), storageFile.toPath(), REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOG.warn("Unable save hash sums to {}: {}", storageFile, e.getMessage());
+            tmpFile.delete();
+        }
+    }
+
+    private Node load() {
+        if (storageFile.exists()) {
+            try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(storageFile)))) {
+                if (dis.readInt() == FORMAT_VERSION) {
+                    return nodeSerializer.read(dis);
+                }
+            } catch (IOException e) {
+                LOG.warn("Unable read hash sums from {}: {}", storageFile, e.getMessage());
+            }
+        }
+        return new Node("", true);
+    }
+
+    private void applyInvalidations() {
+        for (Path path = invalidated.poll(); path != null; path = invalidated.poll()) {
+            Node node = root;
+            node.changed = true;
+            for (String name : path.elements()) {
+                node = node.directory ? node.children.get(name) : null;
+                if (node == null) {
+                    break;
+                }
+                node.changed = true;
+            }
+            if (node != null && node.directory) {
+                markFoldersChanged(node);
+            }
+        }
+    }
+
+    /* Files in sub-tree are not re-read unless their length or modification date changed. */
+    private void markFoldersChanged(Node folderNode) {
+        folderNode.changed = true;
+        for (Node child : folderNode.children.values()) {
+            if (child.directory) {
+                markFoldersChanged(child);
+            }
+        }
+    }
+
+    private Node getOrCreateFolderNode(Path path) {
+        Node node = root;
+        for (String name : path.elements()) {
+            Node child = node.children.get(name);
+            if (child == null || !child.directory) {
+                child = new Node(name, true);
+                node.children.put(name, child);
+            }
+            // Merkle hashes of all parents become stale as soon as any sub-tree is re-counted.
+            node.hash = null;
+            node = child;
+        }
+        return node;
+    }
+
+    private void scan(Node folderNode, VirtualFile folder, List<Node> changedFiles) throws ServerException {
+        if (watched && !folderNode.changed && folderNode.generation == generation && folderNode.hash != null) {
+            return;
+        }
+        final Set<String> names = newHashSet();
+        for (VirtualFile child : folder.getChildren()) {
+            final String name = child.getName();
+            names.add(name);
+            Node childNode = folderNode.children.get(name);
+            if (childNode == null || childNode.directory != child.isFolder()) {
+                childNode = new Node(name, child.isFolder());
+                folderNode.children.put(name, childNode);
+            }
+            if (childNode.directory) {
+                scan(childNode, child, changedFiles);
+            } else {
+                final File ioFile = ((LocalVirtualFile)child).toIoFile();
+                final long length = ioFile.length();
+                final long lastModified = ioFile.lastModified();
+                if (childNode.changed || childNode.hash == null || childNode.length != length
+                    || childNode.lastModified != lastModified) {
+                    childNode.length = length;
+                    childNode.lastModified = lastModified;
+                    childNode.hash = null;
+                    childNode.file = child;
+                    changedFiles.add(childNode);
+                }
+            }
+        }
+        folderNode.children.keySet().retainAll(names);
+        folderNode.changed = false;
+        folderNode.generation = generation;
+        folderNode.hash = null;
+    }
+
+    private void hashFiles(List<Node> files) throws ServerException {
+        if (files.isEmpty()) {
+            return;
+        }
+        final List<ForkJoinTask<Void>> tasks = newArrayListWithCapacity(files.size());
+        for (Node file : files) {
+            tasks.add(hashingPool.submit(() -> {
+                hashFile(file);
+                return null;
+            }));
+        }
+        try {
+            for (ForkJoinTask<Void> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Interrupted while counting hash sums");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ServerException) {
+                throw (ServerException)cause;
+            }
+            throw new ServerException(cause.getMessage(), cause);
+        } finally {
+            for (ForkJoinTask<Void> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    private void hashFile(Node file) throws ServerException {
+        try (InputStream in = file.file.getContent()) {
+            final Hasher hasher = hashFunction.newHasher();
+            ByteStreams.copy(in, asOutputStream(hasher));
+            file.hash = hasher.hash().toString();
+            file.changed = false;
+            file.file = null;
+        } catch (IOException e) {
+            throw new ServerException(e);
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        }
+    }
+
+    private String updateFolderHash(Node folderNode) {
+        if (folderNode.hash == null) {
+            final Hasher hasher = hashFunction.newHasher();
+            for (Node child : folderNode.children.values()) {
+                final String childHash = child.directory ? updateFolderHash(child) : child.hash;
+                hasher.putString(child.name, UTF_8).putString(childHash, UTF_8);
+            }
+            folderNode.hash = hasher.hash().toString();
+        }
+        return folderNode.hash;
+    }
+
+    private void collectHashSums(Node folderNode, String relativePath, List<Pair<String, String>> hashSums) {
+        for (Node child : folderNode.children.values()) {
+            final String childPath = relativePath.isEmpty() ? child.name : relativePath + '/' + child.name;
+            if (child.directory) {
+                collectHashSums(child, childPath, hashSums);
+            } else {
+                hashSums.add(Pair.of(child.hash, childPath));
+            }
+        }
+    }
+
+    static class Node {
+        final String            name;
+        final boolean           directory;
+        final Map<String, Node> children;
+        long        length;
+        long        lastModified;
+        int         generation;
+        boolean     changed;
+        VirtualFile file;
+        /* Hash sum of file or Merkle hash of folder. Not volatile, written by hashing threads before ForkJoinTask.get() returns. */
+        String      hash;
+
+        Node(String name, boolean directory) {
+            this.name = name;
+            this.directory = directory;
+            this.children = directory ? newTreeMap() : null;
+        }
+    }
+
+    private static class NodeSerializer implements DataSerializer<Node> {
+        @Override
+        public void write(DataOutput output, Node node) throws IOException {
+            output.writeUTF(node.name);
+            output.writeBoolean(node.directory);
+            if (node.directory) {
+                output.writeInt(node.children.size());
+                for (Node child : node.children.values()) {
+                    write(output, child);
+                }
+            } else {
+                output.writeLong(node.length);
+                output.writeLong(node.lastModified);
+                output.writeUTF(node.hash == null ? "" : node.hash);
+            }
+        }
+
+        @Override
+        public Node read(DataInput input) throws IOException {
+            final Node node = new Node(input.readUTF(), input.readBoolean());
+            if (node.directory) {
+                final int childrenNum = input.readInt();
+                for (int i = 0; i < childrenNum; i++) {
+                    final Node child = read(input);
+                    node.children.put(child.name, child);
+                }
+            } else {
+                node.length = input.readLong();
+                node.lastModified = input.readLong();
+                final String hash = input.readUTF();
+                node.hash = hash.isEmpty() ? null : hash;
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.Structure;
+
+import org.eclipse.che.api.core.util.SystemInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static java.util.Collections.emptySet;
+
+/**
+ * Implementation of {@link DirectoryWatchService} that uses Linux inotify directly. Unlike {@link JdkDirectoryWatchService} it doesn't
+ * keep any objects per watched directory except of mapping between watch descriptor and path, and registers directories with a single
+ * native call without hand-off to the background thread, so watching of large trees is cheaper. Overflow of inotify event queue is
+ * reported as change of all watched directories, watcher rescans them and finds out lost changes without re-registering of watches.
+ * <p/>
+ * Available on Linux only, see {@link #isSupported()}.
+ *
+ * @author agent
+ */
+class InotifyDirectoryWatchService implements DirectoryWatchService {
+    private static final Logger LOG = LoggerFactory.getLogger(InotifyDirectoryWatchService.class);
+
+    private static final CLibrary C_LIBRARY;
+
+    static {
+        CLibrary lib = null;
+        if (SystemInfo.isLinux()) {
+            try {
+                lib = ((CLibrary)Native.loadLibrary("c", CLibrary.class));
+            } catch (Exception | LinkageError e) {
+                LOG.error("Cannot load native library", e);
+            }
+        }
+        C_LIBRARY = lib;
+    }
+
+    // Defined in 'sys/inotify.h', see http://man7.org/linux/man-pages/man7/inotify.7.html
+    interface CLibrary extends Library {
+        int IN_MODIFY      = 0x00000002;
+        int IN_ATTRIB      = 0x00000004;
+        int IN_MOVED_FROM  = 0x00000040;
+        int IN_MOVED_TO    = 0x00000080;
+        int IN_CREATE      = 0x00000100;
+        int IN_DELETE      = 0x00000200;
+        int IN_DELETE_SELF = 0x00000400;
+        int IN_MOVE_SELF   = 0x00000800;
+        int IN_Q_OVERFLOW  = 0x00004000;
+        int IN_IGNORED     = 0x00008000;
+        int IN_ONLYDIR     = 0x01000000;
+        int IN_CLOEXEC     = 0x00080000;
+
+        int POLLIN = 0x0001; // Defined in 'poll.h'
+        int EINTR  = 4;      // Defined in 'errno.h'
+
+        // Defined in 'poll.h', see http://man7.org/linux/man-pages/man2/poll.2.html
+        class PollFd extends Structure {
+            public int   fd;
+            public short events;
+            public short revents;
+
+            @Override
+            protected List getFieldOrder() {
+                return Arrays.asList("fd", "events", "revents");
+            }
+        }
+
+        int inotify_init1(int flags) throws LastErrorException;
+
+        int inotify_add_watch(int fd, String pathname, int mask) throws LastErrorException;
+
+        int inotify_rm_watch(int fd, int wd) throws LastErrorException;
+
+        int poll(PollFd fds, int nfds, int timeout) throws LastErrorException;
+
+        int read(int fd, byte[] buf, int count) throws LastErrorException;
+
+        int close(int fd);
+
+        String strerror(int errno);
+    }
+
+    private static final int WATCH_MASK = CLibrary.IN_CREATE | CLibrary.IN_DELETE | CLibrary.IN_MODIFY | CLibrary.IN_ATTRIB
+                                          | CLibrary.IN_MOVED_FROM | CLibrary.IN_MOVED_TO | CLibrary.IN_DELETE_SELF
+                                          | CLibrary.IN_MOVE_SELF | CLibrary.IN_ONLYDIR;
+
+    /* wd, mask, cookie and length of name, see struct inotify_event */
+    private static final int EVENT_HEADER_SIZE        = 16;
+    private static final int EVENT_BUFFER_SIZE        = 64 * 1024;
+    /* Max time of blocking in native call, service checks whether it is closed or thread is interrupted after that. */
+    private static final int MAX_POLL_INTERVAL_MILLIS = 500;
+
+    /** Checks whether inotify is available on this system. */
+    static boolean isSupported() {
+        return C_LIBRARY != null;
+    }
+
+    private final    int                fd;
+    private final    Map<Integer, Path> directories;
+    private final    Map<Path, Integer> descriptors;
+    private final    CLibrary.PollFd    pollFd;
+    private final    byte[]             buffer;
+    private final    Object             lock;
+    private volatile boolean            closed;
+
+    InotifyDirectoryWatchService() throws IOException {
+        if (C_LIBRARY == null) {
+            throw new IOException("Can't load native library. Not linux system?");
+        }
+        try {
+            fd = C_LIBRARY.inotify_init1(CLibrary.IN_CLOEXEC);
+        } catch (LastErrorException e) {
+            throw new IOException("Can't initialize inotify: " + C_LIBRARY.strerror(e.getErrorCode()));
+        }
+        directories = new ConcurrentHashMap<>();
+        descriptors = new ConcurrentHashMap<>();
+        pollFd = new CLibrary.PollFd();
+        pollFd.fd = fd;
+        pollFd.events = CLibrary.POLLIN;
+        buffer = new byte[EVENT_BUFFER_SIZE];
+        lock = new Object();
+    }
+
+    @Override
+    public void register(Path directory) throws IOException {
+        checkOpen();
+        final int wd;
+        try {
+            wd = C_LIBRARY.inotify_add_watch(fd, directory.toString(), WATCH_MASK);
+        } catch (LastErrorException e) {
+            throw new IOException(String.format("Can't watch directory '%s': %s", directory, C_LIBRARY.strerror(e.getErrorCode())));
+        }
+        // inotify returns the same descriptor for the same inode, e.g. if directory has been moved and registered with new path.
+        final Path previous = directories.put(wd, directory);
+        if (previous != null && !previous.equals(directory)) {
+            descriptors.remove(previous, wd);
+        }
+        descriptors.put(directory, wd);
+    }
+
+    @Override
+    public void cancel(Path directory) {
+        final Integer wd = descriptors.remove(directory);
+        if (wd != null && directories.remove(wd, directory) && !closed) {
+            try {
+                C_LIBRARY.inotify_rm_watch(fd, wd);
+            } catch (LastErrorException ignored) {
+                // Watch is removed by kernel when directory is deleted.
+            }
+        }
+    }
+
+    @Override
+    public Set<Path> take() throws InterruptedException {
+        Set<Path> changed;
+        do {
+            changed = poll(MAX_POLL_INTERVAL_MILLIS);
+        } while (changed.isEmpty());
+        return changed;
+    }
+
+    @Override
+    public Set<Path> poll(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        long remaining = unit.toMillis(timeout);
+        do {
+            final Set<Path> changed = poll((int)Math.min(remaining, MAX_POLL_INTERVAL_MILLIS));
+            if (!changed.isEmpty()) {
+                return changed;
+            }
+            remaining = deadline - System.currentTimeMillis();
+        } while (remaining > 0);
+        return emptySet();
+    }
+
+    private Set<Path> poll(int timeoutMillis) throws InterruptedException {
+        checkOpen();
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        try {
+            if (C_LIBRARY.poll(pollFd, 1, Math.max(timeoutMillis, 0)) <= 0) {
+                return emptySet();
+            }
+        } catch (LastErrorException e) {
+            if (e.getErrorCode() == CLibrary.EINTR) {
+                return emptySet();
+            }
+            throw new IllegalStateException("Can't poll inotify events: " + C_LIBRARY.strerror(e.getErrorCode()));
+        }
+        return readEvents();
+    }
+
+    private Set<Path> readEvents() {
+        synchronized (lock) {
+            checkOpen();
+            final int count;
+            try {
+                count = C_LIBRARY.read(fd, buffer, buffer.length);
+            } catch (LastErrorException e) {
+                if (e.getErrorCode() == CLibrary.EINTR) {
+                    return emptySet();
+                }
+                throw new IllegalStateException("Can't read inotify events: " + C_LIBRARY.strerror(e.getErrorCode()));
+            }
+            final ByteBuffer events = ByteBuffer.wrap(buffer, 0, count).order(ByteOrder.nativeOrder());
+            final Set<Path> changed = newLinkedHashSet();
+            while (events.remaining() >= EVENT_HEADER_SIZE) {
+                final int wd = events.getInt();
+                final int mask = events.getInt();
+                events.getInt(); // cookie
+                final int nameLength = events.getInt();
+                events.position(events.position() + nameLength);
+                if ((mask & CLibrary.IN_Q_OVERFLOW) != 0) {
+                    // Kernel reports overflow of the whole queue with watch descriptor -1, events of any directory might be lost.
+                    LOG.warn("Queue of inotify events overflowed, all watched directories are going to be rescanned");
+                    changed.addAll(descriptors.keySet());
+                    continue;
+                }
+                final Path directory = directories.get(wd);
+                if (directory != null) {
+                    if ((mask & CLibrary.IN_IGNORED) != 0) {
+                        directories.remove(wd, directory);
+                        descriptors.remove(directory, wd);
+                    }
+                    changed.add(directory);
+                }
+            }
+            return changed;
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new ClosedWatchServiceException();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (!closed) {
+                closed = true;
+                directories.clear();
+                descriptors.clear();
+                C_LIBRARY.close(fd);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.Collections.emptySet;
+
+/**
+ * Implementation of {@link DirectoryWatchService} based on {@link WatchService} of default file system. Works on any platform but
+ * requires one {@link WatchKey} per watched directory.
+ *
+ * @author agent
+ */
+class JdkDirectoryWatchService implements DirectoryWatchService {
+    private static final Logger LOG = LoggerFactory.getLogger(JdkDirectoryWatchService.class);
+
+    @SuppressWarnings("unchecked")
+    private static final WatchEvent.Kind<Path>[] WATCH_EVENT_KINDS = new WatchEvent.Kind[]{ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY,
+                                                                                         OVERFLOW};
+
+    private final WatchService          watchService;
+    private final WatchEvent.Modifier[] watchEventModifiers;
+    private final Map<Path, WatchKey>   watchKeys;
+
+    JdkDirectoryWatchService() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        if (isPollingWatchService(watchService)) {
+            watchEventModifiers = new WatchEvent.Modifier[]{createSensitivityWatchEventModifier()};
+        } else {
+            watchEventModifiers = new WatchEvent.Modifier[0];
+        }
+        watchKeys = new ConcurrentHashMap<>();
+    }
+
+    private boolean isPollingWatchService(WatchService watchService) {
+        return "sun.nio.fs.PollingWatchService".equals(watchService.getClass().getName());
+    }
+
+    private WatchEvent.Modifier createSensitivityWatchEventModifier() {
+        try {
+            Class<?> aModifierEnum = Class.forName("com.sun.nio.file.SensitivityWatchEventModifier");
+            Object[] sensitivityEnumConstants = aModifierEnum.getEnumConstants();
+            return (WatchEvent.Modifier)sensitivityEnumConstants[0];
+        } catch (Exception e) {
+            LOG.warn("Can't create 'com.sun.nio.file.SensitivityWatchEventModifier'", e);
+        }
+        return null;
+    }
+
+    @Override
+    public void register(Path directory) throws IOException {
+        watchKeys.put(directory, directory.register(watchService, WATCH_EVENT_KINDS, watchEventModifiers));
+    }
+
+    @Override
+    public void cancel(Path directory) {
+        WatchKey watchKey = watchKeys.remove(directory);
+        if (watchKey != null) {
+            watchKey.cancel();
+        }
+    }
+
+    @Override
+    public Set<Path> take() throws InterruptedException {
+        return drain(watchService.take());
+    }
+
+    @Override
+    public Set<Path> poll(long timeout, TimeUnit unit) throws InterruptedException {
+        WatchKey watchKey = watchService.poll(timeout, unit);
+        if (watchKey == null) {
+            return emptySet();
+        }
+        return drain(watchKey);
+    }
+
+    private Set<Path> drain(WatchKey first) {
+        final Set<Path> changed = newLinkedHashSet();
+        for (WatchKey watchKey = first; watchKey != null; watchKey = watchService.poll()) {
+            changed.add((Path)watchKey.watchable());
+            watchKey.pollEvents();
+            watchKey.reset();
+        }
+        return changed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchKeys.clear();
+        watchService.close();
+    }
+}
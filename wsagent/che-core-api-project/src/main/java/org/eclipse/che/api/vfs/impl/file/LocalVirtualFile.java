@@ -25,6 +25,7 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -107,6 +108,19 @@ public class LocalVirtualFile implements VirtualFile {
         return fileSystem.getContent(this);
     }
 
+    /**
+     * Opens snapshot of content of this file. Length and modification date of snapshot are read under the same lock as content is
+     * opened, so they always describe content that is read from snapshot.
+     *
+     * @throws ForbiddenException
+     *         if this item is not a file
+     * @throws ServerException
+     *         if an i/o error occurs while opening file
+     */
+    public FileContentSnapshot openContentSnapshot() throws ForbiddenException, ServerException {
+        return fileSystem.openContentSnapshot(this);
+    }
+
     @Override
     public byte[] getContentAsBytes() throws ForbiddenException, ServerException {
         if (getLength() > MAX_BUFFER_SIZE) {
@@ -246,6 +260,11 @@ public class LocalVirtualFile implements VirtualFile {
         return fileSystem.zip(this);
     }
 
+    @Override
+    public void zip(OutputStream zipped) throws ForbiddenException, ServerException {
+        fileSystem.zip(this, zipped);
+    }
+
     @Override
     public void unzip(InputStream zipped, boolean overwrite, int stripNumber)
             throws ForbiddenException, ConflictException, ServerException {
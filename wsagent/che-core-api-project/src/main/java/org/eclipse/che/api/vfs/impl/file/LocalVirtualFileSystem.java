@@ -10,10 +10,6 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.impl.file;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
@@ -25,7 +21,6 @@ import org.eclipse.che.api.core.util.FileCleaner;
 import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.Archiver;
 import org.eclipse.che.api.vfs.ArchiverFactory;
-import org.eclipse.che.api.vfs.HashSumsCounter;
 import org.eclipse.che.api.vfs.LockedFileFinder;
 import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.PathLockFactory;
@@ -35,15 +30,15 @@ import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.search.Searcher;
 import org.eclipse.che.api.vfs.search.SearcherProvider;
 import org.eclipse.che.api.vfs.util.DeleteOnCloseFileInputStream;
+import org.eclipse.che.api.vfs.util.NotClosableOutputStream;
 import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.commons.lang.NameGenerator;
 import org.eclipse.che.commons.lang.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
@@ -52,20 +47,23 @@ import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ExecutionException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Lists.newArrayListWithCapacity;
 import static com.google.common.collect.Maps.newLinkedHashMap;
 import static java.util.Collections.emptyList;
-import static java.util.Collections.emptyMap;
+import static java.util.Collections.newSetFromMap;
 import static java.util.Collections.singletonMap;
-import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.eclipse.che.api.vfs.VirtualFileFilters.dotGitFilter;
 import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
 
@@ -82,43 +80,16 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     private static final long WAIT_FOR_FILE_LOCK_TIMEOUT = 60000; // 60 seconds
     private static final int  FILE_LOCK_MAX_THREADS      = 1024;
 
-    private static final String   VFS_SERVICE_DIR        = ".vfs";
-    private static final String   FILE_LOCKS_DIR         = VFS_SERVICE_DIR + File.separatorChar + "locks";
-    private static final String   LOCK_FILE_SUFFIX       = "_lock";
-    private static final FileLock NO_LOCK                = new FileLock("no_lock", 0);
-    private static final String   FILE_PROPERTIES_DIR    = VFS_SERVICE_DIR + File.separatorChar + "props";
-    private static final String   PROPERTIES_FILE_SUFFIX = "_props";
+    /** Lock of file is released if stream of its content isn't read during this time, must be less than half of lock timeout. */
+    static final long CONTENT_STREAM_IDLE_TIMEOUT = 20000; // 20 seconds
 
-    private static final FilenameFilter DOT_VFS_DIR_FILTER = (dir, name) -> !(VFS_SERVICE_DIR.equals(name));
-
-    private static final FilenameFilter VFS_LOCK_FILTER =
-            (dir, name) -> !(dir.getAbsolutePath().endsWith(FILE_LOCKS_DIR) || name.endsWith(LOCK_FILE_SUFFIX));
+    private static final String   VFS_SERVICE_DIR = ".vfs";
+    private static final FileLock NO_LOCK         = new FileLock("no_lock", 0);
+    private static final String   METADATA_FILE   = VFS_SERVICE_DIR + File.separatorChar + "metadata";
+    private static final String   HASH_SUMS_FILE  = VFS_SERVICE_DIR + File.separatorChar + "hashsums";
+    private static final String   TEMP_DIR        = VFS_SERVICE_DIR + File.separatorChar + "tmp";
 
-    private class LockTokenCacheLoader extends CacheLoader<Path, FileLock> {
-        @Override
-        public FileLock load(Path path) throws Exception {
-            final File lockIoFile = getFileLockIoFile(path);
-            if (lockIoFile.exists()) {
-                try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(lockIoFile)))) {
-                    return locksSerializer.read(dis);
-                }
-            }
-            return NO_LOCK;
-        }
-    }
-
-    private class FilePropertiesCacheLoader extends CacheLoader<Path, Map<String, String>> {
-        @Override
-        public Map<String, String> load(Path path) throws Exception {
-            final File metadataIoFile = getMetadataIoFile(path);
-            if (metadataIoFile.exists()) {
-                try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(metadataIoFile)))) {
-                    return ImmutableMap.copyOf(metadataSerializer.read(dis));
-                }
-            }
-            return emptyMap();
-        }
-    }
+    private static final FilenameFilter DOT_VFS_DIR_FILTER = (dir, name) -> !(VFS_SERVICE_DIR.equals(name));
 
     private final File                                            ioRoot;
     private final ArchiverFactory                                 archiverFactory;
@@ -130,11 +101,15 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     private final LocalVirtualFile root;
 
-    private final FileLockSerializer           locksSerializer;
-    private final LoadingCache<Path, FileLock> lockTokensCache;
+    private final FileLockSerializer     locksSerializer;
+    private final FileMetadataSerializer metadataSerializer;
+    private final FileMetadataStore      metadataStore;
+
+    private final ForkJoinPool  hashingPool;
+    private final HashSumsCache hashSumsCache;
 
-    private final FileMetadataSerializer                  metadataSerializer;
-    private final LoadingCache<Path, Map<String, String>> metadataCache;
+    /* Roots of sub-trees that are being extracted from archive, items in these sub-trees are indexed at once after extraction. */
+    private final Set<Path> bulkIndexedRoots;
 
     @SuppressWarnings("unchecked")
     public LocalVirtualFileSystem(File ioRoot,
@@ -150,18 +125,13 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         pathLockFactory = new PathLockFactory(FILE_LOCK_MAX_THREADS);
 
         locksSerializer = new FileLockSerializer();
-        lockTokensCache = CacheBuilder.newBuilder()
-                                      .concurrencyLevel(8)
-                                      .maximumSize(256)
-                                      .expireAfterAccess(10, MINUTES)
-                                      .build(new LockTokenCacheLoader());
-
         metadataSerializer = new FileMetadataSerializer();
-        metadataCache = CacheBuilder.newBuilder()
-                                    .concurrencyLevel(8)
-                                    .maximumSize(256)
-                                    .expireAfterAccess(10, MINUTES)
-                                    .build(new FilePropertiesCacheLoader());
+        metadataStore = new FileMetadataStore(new File(ioRoot, METADATA_FILE), ioRoot, VFS_SERVICE_DIR);
+
+        hashingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        hashSumsCache = new HashSumsCache(new File(ioRoot, HASH_SUMS_FILE), Hashing.md5(), hashingPool);
+
+        bulkIndexedRoots = newSetFromMap(new ConcurrentHashMap<>());
     }
 
     @Override
@@ -176,7 +146,9 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     @Override
     public void close() throws ServerException {
-        cleanUpCaches();
+        metadataStore.close();
+        hashSumsCache.save();
+        hashingPool.shutdown();
         if (searcherProvider != null) {
             Searcher searcher = searcherProvider.getSearcher(this, false);
             if (searcher != null) {
@@ -205,9 +177,17 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         return Objects.hashCode(ioRoot);
     }
 
-    private void cleanUpCaches() {
-        lockTokensCache.invalidateAll();
-        metadataCache.invalidateAll();
+    /**
+     * Notifies cache of hash sums that item with specified path is changed outside of this virtual filesystem, e.g. change is detected by
+     * file watcher.
+     */
+    void invalidateHashSums(Path path) {
+        hashSumsCache.invalidate(path);
+    }
+
+    /** Called when file watcher starts or stops tracking changes in this virtual filesystem. */
+    void setWatched(boolean watched) {
+        hashSumsCache.setWatched(watched);
     }
 
     /** Used in tests. Need this to check state of PathLockFactory. All locks MUST be released at the end of request lifecycle. */
@@ -215,6 +195,10 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         return pathLockFactory;
     }
 
+    FileMetadataStore getMetadataStore() {
+        return metadataStore;
+    }
+
 
     LocalVirtualFile getParent(LocalVirtualFile virtualFile) {
         if (virtualFile.isRoot()) {
@@ -308,6 +292,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             if (content != null) {
                 doUpdateContent(newVirtualFile, content);
             }
+            hashSumsCache.invalidate(newPath);
 
             addInSearcher(newVirtualFile);
 
@@ -330,6 +315,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
                     throw new ConflictException(String.format("Item '%s' already exists", newPath));
                 }
             }
+            hashSumsCache.invalidate(newPath);
 
             return new LocalVirtualFile(newIoFile, newPath, this);
         } else {
@@ -371,17 +357,17 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     private void doCopy(LocalVirtualFile from, LocalVirtualFile to) throws ServerException {
         try {
-            // First copy metadata (properties) for source. If we do in this way and fail cause to any i/o or other error client
-            // will see error and may try to copy again. But if we successfully copy tree (or single file) and then fail to copy
-            // metadata client may not try to copy again because copy destination already exists.
-
-            final File fromMetadataFile = getMetadataIoFile(from.getPath());
-            final File toMetadataFile = getMetadataIoFile(to.getPath());
-            if (fromMetadataFile.exists()) {
-                IoUtil.copy(fromMetadataFile, toMetadataFile, null);
+            // Copy tree (or single file) first, metadata store drops properties of items that don't exist when it is compacted.
+            IoUtil.copy(from.toIoFile(), to.toIoFile(), DOT_VFS_DIR_FILTER);
+            hashSumsCache.invalidate(to.getPath());
+            try {
+                metadataStore.copyProperties(from.getPath(), to.getPath());
+            } catch (IOException e) {
+                // If we fail to copy metadata client may not try to copy again because copy destination already exists.
+                // Remove copied tree, then client will see error and may try to copy again.
+                deleteRecursive(to.toIoFile());
+                throw e;
             }
-
-            IoUtil.copy(from.toIoFile(), to.toIoFile(), VFS_LOCK_FILTER);
         } catch (IOException e) {
             String errorMessage = String.format("Unable copy '%s' to '%s'", from, to);
             LOG.error(errorMessage + "\n" + e.getMessage(), e);
@@ -491,13 +477,24 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     InputStream getContent(LocalVirtualFile virtualFile) throws ForbiddenException, ServerException {
         if (virtualFile.isFile()) {
             final PathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getPath(), false).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
+            final File ioFile = virtualFile.toIoFile();
             File spoolFile = null;
             try {
-                final File ioFile = virtualFile.toIoFile();
-                final long fileLength = ioFile.length();
-                if (fileLength <= MAX_BUFFER_SIZE) {
+                if (ioFile.length() <= MAX_BUFFER_SIZE) {
                     return new ByteArrayInputStream(Files.toByteArray(ioFile));
                 }
+                // Big files are read directly. Stream holds own lock that isn't bound to current thread, so the file can't be updated
+                // by any thread, including current one, until stream is read or closed.
+                final PathLockFactory.PathLock streamLock = pathLockFactory.getLock(virtualFile.getPath(), false);
+                if (streamLock.tryAcquireDetached()) {
+                    try {
+                        return new LockedFileInputStream(ioFile, streamLock, CONTENT_STREAM_IDLE_TIMEOUT);
+                    } catch (IOException e) {
+                        streamLock.release();
+                        throw e;
+                    }
+                }
+                // Current thread holds exclusive lock of the file or its parent.
                 // Copy this file to be able release the file lock before leave this method.
                 spoolFile = File.createTempFile("spool_file", null);
                 Files.copy(ioFile, spoolFile);
@@ -518,17 +515,56 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
 
 
+    FileContentSnapshot openContentSnapshot(LocalVirtualFile virtualFile) throws ForbiddenException, ServerException {
+        if (virtualFile.isFile()) {
+            // Content of file is replaced with rename, see replaceContent(), so opened channel reads the same content even if file
+            // is updated. Lock is needed only for opening the channel and isn't held while content is read from snapshot.
+            final PathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getPath(), false).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
+            try {
+                final File ioFile = virtualFile.toIoFile();
+                // Unlike FileChannel.open(), channel of FileInputStream is closed when stream is garbage collected, so snapshot that
+                // is never read and closed, e.g. when response to HEAD request is sent without entity, doesn't leak file descriptor.
+                final FileChannel channel = new FileInputStream(ioFile).getChannel();
+                try {
+                    return new FileContentSnapshot(channel, channel.size(), ioFile.lastModified());
+                } catch (IOException | RuntimeException e) {
+                    channel.close();
+                    throw e;
+                }
+            } catch (IOException e) {
+                String errorMessage = String.format("Unable get content of '%s'", virtualFile.getPath());
+                LOG.error(errorMessage + "\n" + e.getMessage(), e);
+                throw new ServerException(errorMessage);
+            } finally {
+                lock.release();
+            }
+        } else {
+            throw new ForbiddenException(String.format("Unable get content. Item '%s' is not a file", virtualFile.getPath()));
+        }
+    }
+
+
     void updateContent(LocalVirtualFile virtualFile, InputStream content, String lockToken)
             throws ForbiddenException, ServerException {
         if (virtualFile.isFile()) {
             if (fileIsLockedAndLockTokenIsInvalid(virtualFile, lockToken)) {
                 throw new ForbiddenException(String.format("Unable update content of file '%s'. File is locked", virtualFile.getPath()));
             }
-            final PathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getPath(), true).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
+            // Content is written to temporary file without lock since it may be stream of the same file, e.g. obtained with
+            // getContent(), that holds lock of the file until it is read. Then the file is replaced with the temporary one.
+            final File tempFile = writeToTempFile(virtualFile, content);
             try {
-                doUpdateContent(virtualFile, content);
+                final PathLockFactory.PathLock lock =
+                        pathLockFactory.getLock(virtualFile.getPath(), true).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
+                try {
+                    replaceContent(virtualFile, tempFile);
+                } finally {
+                    lock.release();
+                }
             } finally {
-                lock.release();
+                if (tempFile.exists() && !tempFile.delete()) {
+                    FileCleaner.addFile(tempFile);
+                }
             }
             updateInSearcher(virtualFile);
         } else {
@@ -538,12 +574,60 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
 
     private void doUpdateContent(LocalVirtualFile virtualFile, InputStream content) throws ServerException {
-        try (FileOutputStream fileOut = new FileOutputStream(virtualFile.toIoFile())) {
-            ByteStreams.copy(content, fileOut);
+        final File tempFile = writeToTempFile(virtualFile, content);
+        try {
+            replaceContent(virtualFile, tempFile);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                FileCleaner.addFile(tempFile);
+            }
+        }
+    }
+
+    private File writeToTempFile(LocalVirtualFile virtualFile, InputStream content) throws ServerException {
+        File tempFile = null;
+        try {
+            final File tempDir = new File(ioRoot, TEMP_DIR);
+            if (!(tempDir.isDirectory() || tempDir.mkdirs() || tempDir.isDirectory())) {
+                throw new IOException(String.format("Unable create directory '%s'", tempDir));
+            }
+            tempFile = File.createTempFile("content", null, tempDir);
+            try (FileOutputStream tempOut = new FileOutputStream(tempFile)) {
+                ByteStreams.copy(content, tempOut);
+            }
+            return tempFile;
+        } catch (IOException e) {
+            if (tempFile != null && !tempFile.delete()) {
+                FileCleaner.addFile(tempFile);
+            }
+            String errorMessage = String.format("Unable set content of '%s'", virtualFile.getPath());
+            LOG.error(errorMessage + "\n" + e.getMessage(), e);
+            throw new ServerException(errorMessage);
+        }
+    }
+
+    /**
+     * Replaces content of file with content of {@code tempFile}. File is replaced with atomic rename, so streams that are opened for
+     * this file keep reading its previous content. If rename is not possible, e.g. file is located on other file system, content is
+     * copied in place.
+     */
+    private void replaceContent(LocalVirtualFile virtualFile, File tempFile) throws ServerException {
+        try {
+            final File ioFile = virtualFile.toIoFile().getCanonicalFile();
+            if (ioFile.canExecute()) {
+                tempFile.setExecutable(true);
+            }
+            if (!tempFile.renameTo(ioFile)) {
+                try (FileOutputStream fileOut = new FileOutputStream(ioFile)) {
+                    Files.copy(tempFile, fileOut);
+                }
+            }
         } catch (IOException e) {
             String errorMessage = String.format("Unable set content of '%s'", virtualFile.getPath());
             LOG.error(errorMessage + "\n" + e.getMessage(), e);
             throw new ServerException(errorMessage);
+        } finally {
+            hashSumsCache.invalidate(virtualFile.getPath());
         }
     }
 
@@ -571,24 +655,14 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             throw new ForbiddenException(String.format("Unable delete file '%s'. File is locked", virtualFile.getPath()));
         }
 
-        cleanUpCaches();
-
-        final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-        if (fileLockIoFile.delete()) {
-            if (fileLockIoFile.exists()) {
-                LOG.error("Unable delete lock file {}", fileLockIoFile);
-                throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
-            }
-        }
-
-        final File metadataIoFile = getMetadataIoFile(virtualFile.getPath());
-        if (metadataIoFile.delete()) {
-            if (metadataIoFile.exists()) {
-                LOG.error("Unable delete metadata file {}", metadataIoFile);
-                throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
-            }
+        try {
+            metadataStore.removeAll(virtualFile.getPath());
+        } catch (IOException e) {
+            LOG.error("Unable delete metadata of item {}\n{}", virtualFile.getPath(), e.getMessage(), e);
+            throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
         }
 
+        hashSumsCache.invalidate(virtualFile.getPath());
         if (!deleteRecursive(virtualFile.toIoFile())) {
             LOG.error("Unable delete file {}", virtualFile.toIoFile());
             throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
@@ -608,14 +682,29 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
 
 
+    void zip(LocalVirtualFile folder, OutputStream zipped) throws ForbiddenException, ServerException {
+        if(archiverFactory == null)
+            throw new ServerException("VFS: Could not create zip archiver. Archiver Factory is not properly configured (is null)");
+
+        if (folder.isFolder()) {
+            try {
+                archiverFactory.createArchiver(folder, "zip").compress(new NotClosableOutputStream(zipped), dotGitFilter());
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+        } else {
+            throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder", folder.getPath()));
+        }
+    }
+
+
     void unzip(LocalVirtualFile parent, InputStream zipped, boolean overwrite, int stripNumber)
             throws ForbiddenException, ConflictException, ServerException {
         if(archiverFactory == null)
             throw new ServerException("VFS: Could not create zip archiver. Archiver Factory is not properly configured (is null)");
 
         if (parent.isFolder()) {
-            extract(archiverFactory.createArchiver(parent, "zip"), zipped, overwrite, stripNumber);
-            addInSearcher(parent);
+            extractAndIndex(archiverFactory.createArchiver(parent, "zip"), parent, zipped, overwrite, stripNumber);
         } else {
             throw new ForbiddenException(String.format("Unable import zip content. Item '%s' is not a folder", parent.getPath()));
         }
@@ -639,8 +728,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             throw new ServerException("VFS: Could not create tar archiver. Archiver Factory is not properly configured (is null)");
 
         if (parent.isFolder()) {
-            extract(archiverFactory.createArchiver(parent, "tar"), tarArchive, overwrite, stripNumber);
-            addInSearcher(parent);
+            extractAndIndex(archiverFactory.createArchiver(parent, "tar"), parent, tarArchive, overwrite, stripNumber);
         } else {
             throw new ForbiddenException(String.format("Unable import tar archive. Item '%s' is not a folder", parent.getPath()));
         }
@@ -662,6 +750,23 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         }
     }
 
+    /**
+     * Extracts archive and adds extracted items in searcher at once instead of adding each file separately. Nothing is indexed if
+     * extraction fails, archiver removes items that it has created already.
+     */
+    private void extractAndIndex(Archiver archiver, LocalVirtualFile parent, InputStream compressed, boolean overwrite, int stripNumber)
+            throws ConflictException, ServerException, ForbiddenException {
+        final boolean bulkIndexed = bulkIndexedRoots.add(parent.getPath());
+        try {
+            extract(archiver, compressed, overwrite, stripNumber);
+        } finally {
+            if (bulkIndexed) {
+                bulkIndexedRoots.remove(parent.getPath());
+            }
+        }
+        addInSearcher(parent);
+    }
+
     private void extract(Archiver archiver, InputStream compressed, boolean overwrite, int stripNumber)
             throws ConflictException, ServerException, ForbiddenException {
         try {
@@ -686,24 +791,15 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     private String doLock(LocalVirtualFile virtualFile, long timeout) throws ConflictException, ServerException {
         try {
-            if (NO_LOCK == lockTokensCache.get(virtualFile.getPath())) {
+            if (NO_LOCK == readLock(virtualFile.getPath())) {
                 final FileLock lock = createLock(timeout);
-                final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-                fileLockIoFile.getParentFile().mkdirs();
-                try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileLockIoFile)))) {
-                    locksSerializer.write(dos, lock);
-                }
-                lockTokensCache.put(virtualFile.getPath(), lock);
+                writeLock(virtualFile.getPath(), lock);
                 return lock.getLockToken();
             }
             throw new ConflictException(String.format("Unable lock file '%s'. File already locked", virtualFile.getPath()));
-        } catch (IOException | ExecutionException e) {
+        } catch (IOException e) {
             String errorMessage = String.format("Unable lock file '%s'", virtualFile.getPath());
-            if (e instanceof ExecutionException) {
-                LOG.error(errorMessage + "\n" + e.getCause().getMessage(), e.getCause());
-            } else {
-                LOG.error(errorMessage + "\n" + e.getMessage(), e);
-            }
+            LOG.error(errorMessage + "\n" + e.getMessage(), e);
             throw new ServerException(errorMessage);
         }
     }
@@ -743,13 +839,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     private void doUnlock(LocalVirtualFile virtualFile) throws ForbiddenException, ServerException {
         try {
-            final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-            if (!fileLockIoFile.delete()) {
-                if (fileLockIoFile.exists()) {
-                    throw new IOException(String.format("Unable delete lock file %s", fileLockIoFile));
-                }
-            }
-            lockTokensCache.put(virtualFile.getPath(), NO_LOCK);
+            writeLock(virtualFile.getPath(), NO_LOCK);
         } catch (IOException e) {
             String errorMessage = String.format("Unable unlock file '%s'", virtualFile.getPath());
             LOG.error(errorMessage + "\n" + e.getMessage(), e);
@@ -773,43 +863,44 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         final PathLockFactory.PathLock lockFilePathLock =
                 pathLockFactory.getLock(virtualFile.getPath(), true).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
         try {
-            final FileLock lock;
-            try {
-                lock = lockTokensCache.get(virtualFile.getPath());
-            } catch (ExecutionException e) {
-                String errorMessage = String.format("Unable get lock of file '%s'", virtualFile.getPath());
-                LOG.error(errorMessage + "\n" + e.getCause().getMessage(), e.getCause());
-                throw new ServerException(errorMessage);
-            }
+            final FileLock lock = readLock(virtualFile.getPath());
             if (NO_LOCK == lock) {
                 return lock;
             }
             if (lock.getExpired() < System.currentTimeMillis()) {
-                final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-                if (!fileLockIoFile.delete()) {
-                    if (fileLockIoFile.exists()) {
-                        FileCleaner.addFile(fileLockIoFile);
-                        LOG.warn("Unable delete lock file %s", fileLockIoFile);
-                    }
+                try {
+                    writeLock(virtualFile.getPath(), NO_LOCK);
+                } catch (IOException e) {
+                    LOG.warn("Unable remove expired lock of file {}: {}", virtualFile.getPath(), e.getMessage());
                 }
-                lockTokensCache.put(virtualFile.getPath(), NO_LOCK);
                 return NO_LOCK;
             }
             return lock;
+        } catch (IOException e) {
+            String errorMessage = String.format("Unable get lock of file '%s'", virtualFile.getPath());
+            LOG.error(errorMessage + "\n" + e.getMessage(), e);
+            throw new ServerException(errorMessage);
         } finally {
             lockFilePathLock.release();
         }
     }
 
-    private File getFileLockIoFile(Path virtualFilePath) {
-        final String fileLockFileName = virtualFilePath.getName() + LOCK_FILE_SUFFIX;
-        final Path metadataFilePath;
-        if (virtualFilePath.isRoot()) {
-            metadataFilePath = virtualFilePath.newPath(FILE_LOCKS_DIR, fileLockFileName);
-        } else {
-            metadataFilePath = virtualFilePath.getParent().newPath(FILE_LOCKS_DIR, fileLockFileName);
+    private FileLock readLock(Path virtualFilePath) throws IOException {
+        final byte[] bytes = metadataStore.get(FileMetadataStore.Kind.LOCK, virtualFilePath);
+        if (bytes == null) {
+            return NO_LOCK;
+        }
+        return locksSerializer.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    private void writeLock(Path virtualFilePath, FileLock lock) throws IOException {
+        byte[] bytes = null;
+        if (NO_LOCK != lock) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            locksSerializer.write(new DataOutputStream(out), lock);
+            bytes = out.toByteArray();
         }
-        return new File(ioRoot, toIoPath(metadataFilePath));
+        metadataStore.put(FileMetadataStore.Kind.LOCK, virtualFilePath, bytes);
     }
 
 
@@ -817,10 +908,14 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         final PathLockFactory.PathLock metadataFilePathLock =
                 pathLockFactory.getLock(virtualFile.getPath(), false).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
         try {
-            return newLinkedHashMap(metadataCache.get(virtualFile.getPath()));
-        } catch (ExecutionException e) {
+            final byte[] bytes = metadataStore.get(FileMetadataStore.Kind.PROPERTIES, virtualFile.getPath());
+            if (bytes == null) {
+                return newLinkedHashMap();
+            }
+            return newLinkedHashMap(metadataSerializer.read(new DataInputStream(new ByteArrayInputStream(bytes))));
+        } catch (IOException e) {
             String errorMessage = String.format("Unable read properties of file '%s'", virtualFile.getPath());
-            LOG.error(errorMessage + "\n" + e.getCause().getMessage(), e.getCause());
+            LOG.error(errorMessage + "\n" + e.getMessage(), e);
             throw new ServerException(errorMessage);
         } finally {
             metadataFilePathLock.release();
@@ -858,22 +953,13 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
                 }
             }
 
-            final File metadataIoFile = getMetadataIoFile(virtualFile.getPath());
-            if (properties.isEmpty()) {
-                if (!metadataIoFile.delete()) {
-                    if (metadataIoFile.exists()) {
-                        LOG.error("Unable delete metadata file {}", metadataIoFile);
-                        throw new IOException(String.format("Unable update properties of item '%s'", virtualFile.getPath()));
-                    }
-                }
-            } else {
-                metadataIoFile.getParentFile().mkdirs();
-                try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(metadataIoFile)))) {
-                    metadataSerializer.write(dos, properties);
-                }
+            byte[] bytes = null;
+            if (!properties.isEmpty()) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                metadataSerializer.write(new DataOutputStream(out), properties);
+                bytes = out.toByteArray();
             }
-
-            metadataCache.put(virtualFile.getPath(), properties);
+            metadataStore.put(FileMetadataStore.Kind.PROPERTIES, virtualFile.getPath(), bytes);
 
             if (!virtualFile.toIoFile().setLastModified(System.currentTimeMillis())) {
                 LOG.warn("Unable to set timestamp to '{}'", virtualFile.toIoFile());
@@ -892,23 +978,11 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
 
 
-    private File getMetadataIoFile(Path virtualFilePath) {
-        final String metadataFileName = virtualFilePath.getName() + PROPERTIES_FILE_SUFFIX;
-        final Path metadataFilePath;
-        if (virtualFilePath.isRoot()) {
-            metadataFilePath = virtualFilePath.newPath(FILE_PROPERTIES_DIR, metadataFileName);
-        } else {
-            metadataFilePath = virtualFilePath.getParent().newPath(FILE_PROPERTIES_DIR, metadataFileName);
-        }
-        return new File(ioRoot, toIoPath(metadataFilePath));
-    }
-
-
     List<Pair<String, String>> countMd5Sums(LocalVirtualFile virtualFile) throws ServerException {
         if (virtualFile.isFile()) {
             return emptyList();
         }
-        return new HashSumsCounter(virtualFile, Hashing.md5()).countHashSums();
+        return hashSumsCache.countHashSums(virtualFile);
     }
 
 
@@ -931,7 +1005,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
 
     private void addInSearcher(LocalVirtualFile newVirtualFile) {
-        if (searcherProvider != null) {
+        if (searcherProvider != null && !isBulkIndexed(newVirtualFile.getPath())) {
             try {
                 searcherProvider.getSearcher(this).add(newVirtualFile);
             } catch (ServerException e) {
@@ -941,7 +1015,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
 
     private void updateInSearcher(LocalVirtualFile virtualFile) {
-        if (searcherProvider != null) {
+        if (searcherProvider != null && !isBulkIndexed(virtualFile.getPath())) {
             try {
                 searcherProvider.getSearcher(this).update(virtualFile);
             } catch (ServerException e) {
@@ -950,6 +1024,18 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         }
     }
 
+    private boolean isBulkIndexed(Path path) {
+        if (bulkIndexedRoots.isEmpty()) {
+            return false;
+        }
+        for (Path root : bulkIndexedRoots) {
+            if (path.isChild(root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void deleteInSearcher(Path path, boolean isFile) {
         if (searcherProvider != null) {
             try {
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.vfs.PathLockFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Reads file while holding not exclusive detached {@link PathLockFactory.PathLock} for it, see
+ * {@link PathLockFactory.PathLock#tryAcquireDetached()}, so the file can't be updated by any thread, including the one that opened the
+ * stream, until it is read. Lock is released when end of stream is reached or stream is closed, whichever happens first. Stream may be
+ * closed by any thread.
+ * <p/>
+ * Lock is also released if stream isn't read during idle timeout, so abandoned stream doesn't block updates of the file forever. Reading
+ * of such stream may be continued, it still reads the previous content since update replaces the file with new one instead of
+ * overwriting it in place.
+ *
+ * @author agent
+ */
+class LockedFileInputStream extends FileInputStream {
+    private static final Logger LOG = LoggerFactory.getLogger(LockedFileInputStream.class);
+
+    private static final ScheduledThreadPoolExecutor IDLE_CHECKER;
+
+    static {
+        IDLE_CHECKER = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat("LockedFileInputStreamIdleChecker")
+                                                                                     .setDaemon(true)
+                                                                                     .build());
+        IDLE_CHECKER.setRemoveOnCancelPolicy(true);
+    }
+
+    private final File                     file;
+    private final PathLockFactory.PathLock lock;
+    private final AtomicBoolean            released;
+    private final long                     idleTimeoutNanos;
+    private final ScheduledFuture<?>       idleCheck;
+
+    private volatile long lastAccessTime;
+
+    /**
+     * @param file
+     *         file to read
+     * @param lock
+     *         lock acquired with {@link PathLockFactory.PathLock#tryAcquireDetached()}, caller is responsible for releasing it if file
+     *         can't be opened
+     * @param idleTimeoutMilliseconds
+     *         lock is released if stream isn't read during this time, actual release may happen up to twice later
+     */
+    LockedFileInputStream(File file, PathLockFactory.PathLock lock, long idleTimeoutMilliseconds) throws FileNotFoundException {
+        super(file);
+        this.file = file;
+        this.lock = lock;
+        released = new AtomicBoolean();
+        idleTimeoutNanos = MILLISECONDS.toNanos(idleTimeoutMilliseconds);
+        lastAccessTime = System.nanoTime();
+        idleCheck = IDLE_CHECKER.scheduleWithFixedDelay(this::releaseIfIdle, idleTimeoutMilliseconds, idleTimeoutMilliseconds, MILLISECONDS);
+    }
+
+    @Override
+    public int read() throws IOException {
+        lastAccessTime = System.nanoTime();
+        return releaseAtEnd(super.read());
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        lastAccessTime = System.nanoTime();
+        return releaseAtEnd(super.read(b));
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        lastAccessTime = System.nanoTime();
+        return releaseAtEnd(super.read(b, off, len));
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            releaseLock();
+        }
+    }
+
+    boolean isLockReleased() {
+        return released.get();
+    }
+
+    private int releaseAtEnd(int result) {
+        if (result < 0) {
+            releaseLock();
+        }
+        return result;
+    }
+
+    private void releaseIfIdle() {
+        if (System.nanoTime() - lastAccessTime >= idleTimeoutNanos && releaseLock()) {
+            LOG.warn("Stream of file '{}' isn't read or closed during {} ms, lock of the file is released",
+                     file, NANOSECONDS.toMillis(idleTimeoutNanos));
+        }
+    }
+
+    private boolean releaseLock() {
+        if (released.compareAndSet(false, true)) {
+            idleCheck.cancel(false);
+            lock.release();
+            return true;
+        }
+        return false;
+    }
+}
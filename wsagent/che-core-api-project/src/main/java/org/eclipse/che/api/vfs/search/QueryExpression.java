@@ -12,11 +12,13 @@ package org.eclipse.che.api.vfs.search;
 
 /** Container for parameters of query that executed by Searcher.*/
 public class QueryExpression {
-    private String name;
-    private String path;
-    private String text;
-    private int    skipCount;
-    private int    maxItems;
+    private String  name;
+    private String  path;
+    private String  text;
+    private String  regex;
+    private int     skipCount;
+    private int     maxItems;
+    private boolean includePositions;
 
     /** Optional file path parameter. Only file with the specified path or children are included in result. */
     public String getPath() {
@@ -48,6 +50,20 @@ public class QueryExpression {
         return this;
     }
 
+    /**
+     * Optional regular expression. Only files with content that contains match of this expression are included in result. When regular
+     * expression is set, total hits of search result are counted only among files that have been checked with expression, so it is
+     * lower bound of actual number of matched files.
+     */
+    public String getRegex() {
+        return regex;
+    }
+
+    public QueryExpression setRegex(String regex) {
+        this.regex = regex;
+        return this;
+    }
+
     /** Number of items in search result that should be skipped. This parameter used for paging through large set of search result. */
     public int getSkipCount() {
         return skipCount;
@@ -68,14 +84,29 @@ public class QueryExpression {
         return this;
     }
 
+    /**
+     * Whether line numbers, column ranges and snippets of matched text should be included in each item of search result. Makes sense
+     * only if {@link #getText() text} or {@link #getRegex() regex} is set.
+     */
+    public boolean isIncludePositions() {
+        return includePositions;
+    }
+
+    public QueryExpression setIncludePositions(boolean includePositions) {
+        this.includePositions = includePositions;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "QueryExpression{" +
                "text='" + text + '\'' +
+               ", regex='" + regex + '\'' +
                ", name='" + name + '\'' +
                ", path='" + path + '\'' +
                ", skipCount=" + skipCount +
                ", maxItems=" + maxItems +
+               ", includePositions=" + includePositions +
                '}';
     }
 }
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search;
+
+import java.util.Objects;
+
+/**
+ * Single occurrence of searched text in file.
+ *
+ * @author agent
+ */
+public class SearchOccurrence {
+    private final String phrase;
+    private final int    lineNumber;
+    private final int    startColumn;
+    private final int    endColumn;
+    private final String lineContent;
+
+    public SearchOccurrence(String phrase, int lineNumber, int startColumn, int endColumn, String lineContent) {
+        this.phrase = phrase;
+        this.lineNumber = lineNumber;
+        this.startColumn = startColumn;
+        this.endColumn = endColumn;
+        this.lineContent = lineContent;
+    }
+
+    /** Matched text as it appears in file. */
+    public String getPhrase() {
+        return phrase;
+    }
+
+    /** Number of line that contains matched text, the first line has number 1. */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /** Position of the first character of matched text in line, the first character in line has position 0. */
+    public int getStartColumn() {
+        return startColumn;
+    }
+
+    /** Position of the character next to the last character of matched text in line. */
+    public int getEndColumn() {
+        return endColumn;
+    }
+
+    /** Content of line that contains matched text. Might be trimmed for very long lines, columns are relative to full line. */
+    public String getLineContent() {
+        return lineContent;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof SearchOccurrence) {
+            SearchOccurrence other = (SearchOccurrence)o;
+            return lineNumber == other.lineNumber
+                   && startColumn == other.startColumn
+                   && endColumn == other.endColumn
+                   && Objects.equals(phrase, other.phrase)
+                   && Objects.equals(lineContent, other.lineContent);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(phrase, lineNumber, startColumn, endColumn, lineContent);
+    }
+
+    @Override
+    public String toString() {
+        return "SearchOccurrence{" +
+               "phrase='" + phrase + '\'' +
+               ", lineNumber=" + lineNumber +
+               ", startColumn=" + startColumn +
+               ", endColumn=" + endColumn +
+               '}';
+    }
+}
@@ -27,6 +27,9 @@ import static com.google.common.collect.Sets.newHashSet;
 @Singleton
 public class FSLuceneSearcherProvider extends AbstractLuceneSearcherProvider {
     private final File indexRootDirectory;
+    private final long maxStalenessMillis;
+    private final long refreshIntervalMillis;
+    private final long commitIntervalMillis;
 
     /**
      * @param indexRootDirectory
@@ -35,16 +38,44 @@ public class FSLuceneSearcherProvider extends AbstractLuceneSearcherProvider {
      *         set filter for files that should not be indexed
      * @see LuceneSearcher
      */
+    public FSLuceneSearcherProvider(File indexRootDirectory, Set<PathMatcher> excludePatterns) throws IOException {
+        this(indexRootDirectory, excludePatterns, 0, 0, 0);
+    }
+
+    /**
+     * @param indexRootDirectory
+     *         root directory for creation index
+     * @param excludePatterns
+     *         set filter for files that should not be indexed
+     * @param maxStalenessMillis
+     *         max time in milliseconds during which changes of index may be invisible for search
+     * @param refreshIntervalMillis
+     *         interval in milliseconds of refreshing index in background
+     * @param commitIntervalMillis
+     *         interval in milliseconds of committing index to the index directory
+     * @see LuceneSearcher
+     */
     @Inject
     public FSLuceneSearcherProvider(@Named("vfs.local.fs_index_root_dir") File indexRootDirectory,
-                                    @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns) throws IOException {
+                                    @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns,
+                                    @Named("vfs.index.max_staleness_ms") long maxStalenessMillis,
+                                    @Named("vfs.index.refresh_interval_ms") long refreshIntervalMillis,
+                                    @Named("vfs.index.commit_interval_ms") long commitIntervalMillis) throws IOException {
         super(newHashSet(transform(excludePatterns, VirtualFileFilters::wrap)));
         this.indexRootDirectory = indexRootDirectory;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.commitIntervalMillis = commitIntervalMillis;
         Files.createDirectories(indexRootDirectory.toPath());
     }
 
     @Override
     protected LuceneSearcher createLuceneSearcher(CloseCallback closeCallback) {
-        return new FSLuceneSearcher(indexRootDirectory, fileIndexFilter, closeCallback);
+        return new FSLuceneSearcher(indexRootDirectory,
+                                    fileIndexFilter,
+                                    closeCallback,
+                                    maxStalenessMillis,
+                                    refreshIntervalMillis,
+                                    commitIntervalMillis);
     }
 }
@@ -10,43 +10,64 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.search.impl;
 
+import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.Tokenizer;
 import org.apache.lucene.analysis.core.LowerCaseFilter;
 import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiFields;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PhraseQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.IOUtils;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileFilters;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.search.MediaTypeFilter;
 import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.SearchOccurrence;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.eclipse.che.api.vfs.search.SearchResultEntry;
 import org.eclipse.che.api.vfs.search.Searcher;
+import org.eclipse.che.commons.lang.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,10 +77,30 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Lucene based searcher.
@@ -69,13 +110,42 @@ import static com.google.common.collect.Lists.newArrayList;
 public abstract class LuceneSearcher implements Searcher {
     private static final Logger LOG = LoggerFactory.getLogger(LuceneSearcher.class);
 
-    private static final int RESULT_LIMIT = 1000;
+    private static final int RESULT_LIMIT                 = 1000;
+    private static final int OCCURRENCES_LIMIT            = 100;
+    private static final int OCCURRENCE_LINE_LENGTH_LIMIT = 256;
+
+    private static final String    TRIGRAMS_FIELD      = "trigrams";
+    /** Trigrams are used as filter only, frequencies, positions and norms are not needed. */
+    private static final FieldType TRIGRAMS_FIELD_TYPE = new FieldType();
+
+    static {
+        TRIGRAMS_FIELD_TYPE.setTokenized(true);
+        TRIGRAMS_FIELD_TYPE.setStored(false);
+        TRIGRAMS_FIELD_TYPE.setIndexOptions(IndexOptions.DOCS);
+        TRIGRAMS_FIELD_TYPE.setOmitNorms(true);
+        TRIGRAMS_FIELD_TYPE.freeze();
+    }
+
+    /** Size of RAM buffer of IndexWriter. Bigger buffer reduces number of segments flushed while bulk indexing of the whole tree. */
+    private static final double RAM_BUFFER_SIZE_MB          = 64.0;
+    /** Content of bigger files isn't indexed, such files may be found by name only. */
+    private static final long   MAX_INDEXED_CONTENT_LENGTH  = 10 * 1024 * 1024;
+    private static final int    INDEXING_PROGRESS_INTERVAL  = 10000;
 
     private final List<VirtualFileFilter>                      indexFilters;
     private final AbstractLuceneSearcherProvider.CloseCallback closeCallback;
 
-    private IndexWriter     luceneIndexWriter;
-    private SearcherManager searcherManager;
+    private final long maxStalenessMillis;
+    private final long refreshIntervalMillis;
+    private final long commitIntervalMillis;
+    /* Time of the first change that isn't visible for search yet or 0 if there is no such changes. */
+    private final AtomicLong unrefreshedChangesTime = new AtomicLong();
+
+    private IndexWriter              luceneIndexWriter;
+    private SearcherManager          searcherManager;
+    private ScheduledExecutorService indexMaintenanceExecutor;
+
+    private volatile VirtualFileSystem virtualFileSystem;
 
     private boolean closed = true;
 
@@ -93,7 +163,31 @@ public abstract class LuceneSearcher implements Searcher {
      *         with {@link VirtualFileFilters#createAndFilter} or {@link VirtualFileFilters#createOrFilter} methods
      */
     protected LuceneSearcher(VirtualFileFilter indexFilter, AbstractLuceneSearcherProvider.CloseCallback closeCallback) {
+        this(indexFilter, closeCallback, 0, 0, 0);
+    }
+
+    /**
+     * @param indexFilter
+     *         common filter for files that should not be indexed
+     * @param maxStalenessMillis
+     *         max time in milliseconds during which changes of index may be invisible for search. If there are older changes then search
+     *         waits until the index is refreshed. Zero value means that all changes are visible for search immediately
+     * @param refreshIntervalMillis
+     *         interval in milliseconds of refreshing index in background. All changes made during this interval are made visible for
+     *         search at once. Zero value disables background refreshing
+     * @param commitIntervalMillis
+     *         interval in milliseconds of committing changes of index to the storage. Zero value disables periodic commits, changes are
+     *         committed when searcher is closed
+     */
+    protected LuceneSearcher(VirtualFileFilter indexFilter,
+                             AbstractLuceneSearcherProvider.CloseCallback closeCallback,
+                             long maxStalenessMillis,
+                             long refreshIntervalMillis,
+                             long commitIntervalMillis) {
         this.closeCallback = closeCallback;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.commitIntervalMillis = commitIntervalMillis;
         indexFilters = new CopyOnWriteArrayList<>();
         indexFilters.add(indexFilter);
     }
@@ -119,6 +213,25 @@ public abstract class LuceneSearcher implements Searcher {
         };
     }
 
+    /**
+     * Analyzer for splitting content of files in lower-case trigrams. Trigram index is used for narrowing set of files that should be
+     * checked with regular expression.
+     */
+    protected Analyzer makeTrigramAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new NGramTokenizer(TrigramExtractor.TRIGRAM_LENGTH, TrigramExtractor.TRIGRAM_LENGTH);
+                TokenStream filter = new LowerCaseFilter(tokenizer);
+                return new TokenStreamComponents(tokenizer, filter);
+            }
+        };
+    }
+
+    private Analyzer makeIndexAnalyzer() {
+        return new PerFieldAnalyzerWrapper(makeAnalyzer(), singletonMap(TRIGRAMS_FIELD, makeTrigramAnalyzer()));
+    }
+
     protected abstract Directory makeDirectory() throws ServerException;
 
     /**
@@ -130,16 +243,18 @@ public abstract class LuceneSearcher implements Searcher {
      *         if any virtual filesystem error occurs
      */
     public void init(VirtualFileSystem virtualFileSystem) throws ServerException {
+        this.virtualFileSystem = virtualFileSystem;
         doInit();
-        addTree(virtualFileSystem.getRoot());
+        syncIndex(virtualFileSystem.getRoot());
     }
 
     public void initAsynchronously(ExecutorService executor, VirtualFileSystem virtualFileSystem) throws ServerException {
+        this.virtualFileSystem = virtualFileSystem;
         doInit();
         if (!executor.isShutdown()) {
             executor.execute(() -> {
                 try {
-                    LuceneSearcher.this.addTree(virtualFileSystem.getRoot());
+                    LuceneSearcher.this.syncIndex(virtualFileSystem.getRoot());
                 } catch (ServerException e) {
                     LOG.error(e.getMessage());
                 }
@@ -149,8 +264,26 @@ public abstract class LuceneSearcher implements Searcher {
 
     protected final synchronized void doInit() throws ServerException {
         try {
-            luceneIndexWriter = new IndexWriter(makeDirectory(), new IndexWriterConfig(makeAnalyzer()));
+            luceneIndexWriter = new IndexWriter(makeDirectory(),
+                                                new IndexWriterConfig(makeIndexAnalyzer()).setRAMBufferSizeMB(RAM_BUFFER_SIZE_MB));
             searcherManager = new SearcherManager(luceneIndexWriter, true, new SearcherFactory());
+            unrefreshedChangesTime.set(0);
+            if (refreshIntervalMillis > 0 || commitIntervalMillis > 0) {
+                final ThreadFactory threadFactory = new ThreadFactoryBuilder().setDaemon(true)
+                                                                              .setNameFormat("LuceneSearcherMaintenanceThread")
+                                                                              .build();
+                indexMaintenanceExecutor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+                final IndexWriter indexWriter = luceneIndexWriter;
+                final SearcherManager mySearcherManager = searcherManager;
+                if (refreshIntervalMillis > 0) {
+                    indexMaintenanceExecutor.scheduleWithFixedDelay(() -> refreshIfChanged(mySearcherManager),
+                                                                    refreshIntervalMillis, refreshIntervalMillis, MILLISECONDS);
+                }
+                if (commitIntervalMillis > 0) {
+                    indexMaintenanceExecutor.scheduleWithFixedDelay(() -> commitIfChanged(indexWriter),
+                                                                    commitIntervalMillis, commitIntervalMillis, MILLISECONDS);
+                }
+            }
             closed = false;
         } catch (IOException e) {
             throw new ServerException(e);
@@ -159,6 +292,18 @@ public abstract class LuceneSearcher implements Searcher {
 
     public final synchronized void close() {
         if (!closed) {
+            if (indexMaintenanceExecutor != null) {
+                // Don't interrupt maintenance tasks, interruption of IO operations closes files of index.
+                indexMaintenanceExecutor.shutdown();
+                try {
+                    if (!indexMaintenanceExecutor.awaitTermination(5, SECONDS)) {
+                        LOG.warn("Unable terminate index maintenance Executor");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                indexMaintenanceExecutor = null;
+            }
             try {
                 IOUtils.close(getIndexWriter(), getIndexWriter().getDirectory(), searcherManager);
                 afterClose();
@@ -184,16 +329,56 @@ public abstract class LuceneSearcher implements Searcher {
         return luceneIndexWriter;
     }
 
+    /** Remembers that index has changes which aren't visible for search yet. Must be called after each change of index. */
+    private void indexChanged() {
+        unrefreshedChangesTime.compareAndSet(0, System.currentTimeMillis());
+    }
+
+    /** Makes changes of index visible for search if they are older than max staleness. */
+    private void refreshIfStale() throws IOException {
+        final long changesTime = unrefreshedChangesTime.get();
+        if (changesTime != 0 && System.currentTimeMillis() - changesTime >= maxStalenessMillis
+            && unrefreshedChangesTime.compareAndSet(changesTime, 0)) {
+            searcherManager.maybeRefreshBlocking();
+        }
+    }
+
+    private void refreshIfChanged(SearcherManager searcherManager) {
+        try {
+            if (unrefreshedChangesTime.getAndSet(0) != 0) {
+                searcherManager.maybeRefreshBlocking();
+            }
+        } catch (AlreadyClosedException ignored) {
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+        }
+    }
+
+    private void commitIfChanged(IndexWriter indexWriter) {
+        try {
+            if (indexWriter.hasUncommittedChanges()) {
+                indexWriter.commit();
+            }
+        } catch (AlreadyClosedException ignored) {
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+        }
+    }
+
     @Override
     public SearchResult search(QueryExpression query) throws ServerException {
         IndexSearcher luceneSearcher = null;
         try {
             final long startTime = System.currentTimeMillis();
-            searcherManager.maybeRefresh();
+            refreshIfStale();
             luceneSearcher = searcherManager.acquire();
 
             Query luceneQuery = createLuceneQuery(query);
 
+            if (query.getRegex() != null) {
+                return searchWithRegex(luceneSearcher, luceneQuery, query, startTime);
+            }
+
             ScoreDoc after = null;
             final int numSkipDocs = Math.max(0, query.getSkipCount());
             if (numSkipDocs > 0) {
@@ -204,11 +389,18 @@ public abstract class LuceneSearcher implements Searcher {
             TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, numDocs);
             final int totalHitsNum = topDocs.totalHits;
 
+            final List<Predicate<String>> termMatchers = query.isIncludePositions() && query.getText() != null
+                                                         ? createTermMatchers(luceneQuery) : null;
+
             List<SearchResultEntry> results = newArrayList();
             for (int i = 0; i < topDocs.scoreDocs.length; i++) {
                 ScoreDoc scoreDoc = topDocs.scoreDocs[i];
                 String filePath = luceneSearcher.doc(scoreDoc.doc).getField("path").stringValue();
-                results.add(new SearchResultEntry(filePath));
+                if (termMatchers == null) {
+                    results.add(new SearchResultEntry(filePath));
+                } else {
+                    results.add(new SearchResultEntry(filePath, findOccurrences(filePath, termMatchers)));
+                }
             }
 
             final long elapsedTimeMillis = System.currentTimeMillis() - startTime;
@@ -236,11 +428,66 @@ public abstract class LuceneSearcher implements Searcher {
         }
     }
 
+    /**
+     * Checks files found by trigram query with regular expression. Skip count and max items of query are applied to files that are
+     * matched by regular expression. Total hits is number of matched files that have been checked for retrieving of the requested page.
+     */
+    private SearchResult searchWithRegex(IndexSearcher luceneSearcher, Query luceneQuery, QueryExpression query, long startTime)
+            throws IOException, ServerException {
+        final Pattern pattern = compileRegex(query.getRegex());
+        final int numSkipHits = Math.max(0, query.getSkipCount());
+        final int numHits = query.getMaxItems() > 0 ? Math.min(query.getMaxItems(), RESULT_LIMIT) : RESULT_LIMIT;
+
+        final List<SearchResultEntry> results = newArrayList();
+        int matchedHitsNum = 0;
+        boolean hasMoreToRetrieve = false;
+        ScoreDoc after = null;
+        TopDocs topDocs;
+        do {
+            topDocs = luceneSearcher.searchAfter(after, luceneQuery, RESULT_LIMIT);
+            for (int i = 0; i < topDocs.scoreDocs.length && !hasMoreToRetrieve; i++) {
+                after = topDocs.scoreDocs[i];
+                final String filePath = luceneSearcher.doc(after.doc).getField("path").stringValue();
+                final String content = readContent(filePath);
+                if (content == null) {
+                    continue;
+                }
+                final Matcher matcher = pattern.matcher(content);
+                if (!matcher.find() || matchedHitsNum++ < numSkipHits) {
+                    continue;
+                }
+                if (results.size() == numHits) {
+                    hasMoreToRetrieve = true;
+                } else if (query.isIncludePositions()) {
+                    results.add(new SearchResultEntry(filePath, findOccurrences(content, matcher)));
+                } else {
+                    results.add(new SearchResultEntry(filePath));
+                }
+            }
+        } while (!hasMoreToRetrieve && topDocs.scoreDocs.length == RESULT_LIMIT);
+
+        return SearchResult.aSearchResult()
+                           .withResults(results)
+                           .withTotalHits(matchedHitsNum)
+                           .withNextPageQueryExpression(hasMoreToRetrieve ? createNextPageQuery(query, numSkipHits + results.size()) : null)
+                           .withElapsedTimeMillis(System.currentTimeMillis() - startTime)
+                           .build();
+    }
+
+    private Pattern compileRegex(String regex) throws ServerException {
+        try {
+            return Pattern.compile(regex, Pattern.MULTILINE);
+        } catch (PatternSyntaxException e) {
+            throw new ServerException(e.getMessage());
+        }
+    }
+
     private Query createLuceneQuery(QueryExpression query) throws ServerException {
         final BooleanQuery luceneQuery = new BooleanQuery();
         final String name = query.getName();
         final String path = query.getPath();
         final String text = query.getText();
+        final String regex = query.getRegex();
         if (path != null) {
             luceneQuery.add(new PrefixQuery(new Term("path", path)), BooleanClause.Occur.MUST);
         }
@@ -255,9 +502,141 @@ public abstract class LuceneSearcher implements Searcher {
                 throw new ServerException(e.getMessage());
             }
         }
+        if (regex != null) {
+            compileRegex(regex);
+            for (String trigram : TrigramExtractor.extractTrigrams(regex)) {
+                luceneQuery.add(new TermQuery(new Term(TRIGRAMS_FIELD, trigram)), BooleanClause.Occur.MUST);
+            }
+            if (luceneQuery.clauses().isEmpty()) {
+                luceneQuery.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+            }
+        }
         return luceneQuery;
     }
 
+    /**
+     * Creates matchers for terms of text query. Each matcher checks a single token produced by analyzer from the content of file.
+     * Negated clauses are ignored.
+     */
+    private List<Predicate<String>> createTermMatchers(Query luceneQuery) {
+        final List<Predicate<String>> matchers = newArrayList();
+        collectTermMatchers(luceneQuery, matchers);
+        return matchers;
+    }
+
+    private void collectTermMatchers(Query luceneQuery, List<Predicate<String>> matchers) {
+        if (luceneQuery instanceof BooleanQuery) {
+            for (BooleanClause clause : ((BooleanQuery)luceneQuery).clauses()) {
+                if (clause.getOccur() != BooleanClause.Occur.MUST_NOT) {
+                    collectTermMatchers(clause.getQuery(), matchers);
+                }
+            }
+        } else if (luceneQuery instanceof TermQuery) {
+            addTermMatcher(((TermQuery)luceneQuery).getTerm(), matchers);
+        } else if (luceneQuery instanceof PhraseQuery) {
+            for (Term term : ((PhraseQuery)luceneQuery).getTerms()) {
+                addTermMatcher(term, matchers);
+            }
+        } else if (luceneQuery instanceof PrefixQuery) {
+            final Term prefix = ((PrefixQuery)luceneQuery).getPrefix();
+            if ("text".equals(prefix.field())) {
+                final String prefixText = prefix.text();
+                matchers.add(token -> token.startsWith(prefixText));
+            }
+        } else if (luceneQuery instanceof WildcardQuery) {
+            final Term wildcard = ((WildcardQuery)luceneQuery).getTerm();
+            if ("text".equals(wildcard.field())) {
+                final Pattern pattern = Pattern.compile(wildcardToRegex(wildcard.text()));
+                matchers.add(token -> pattern.matcher(token).matches());
+            }
+        }
+    }
+
+    private void addTermMatcher(Term term, List<Predicate<String>> matchers) {
+        if ("text".equals(term.field())) {
+            final String termText = term.text();
+            matchers.add(termText::equals);
+        }
+    }
+
+    private String wildcardToRegex(String wildcard) {
+        final StringBuilder regex = new StringBuilder();
+        for (char c : wildcard.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                if (!Character.isLetterOrDigit(c)) {
+                    regex.append('\\');
+                }
+                regex.append(c);
+            }
+        }
+        return regex.toString();
+    }
+
+    /**
+     * Finds occurrences of matched terms in file. Content of file is analyzed with the same analyzer that is used for indexing so offsets
+     * of tokens are exactly the same as offsets of terms in index.
+     */
+    private List<SearchOccurrence> findOccurrences(String filePath, List<Predicate<String>> termMatchers) throws ServerException {
+        if (termMatchers.isEmpty()) {
+            return emptyList();
+        }
+        final String content = readContent(filePath);
+        if (content == null) {
+            return emptyList();
+        }
+
+        final List<SearchOccurrence> occurrences = newArrayList();
+        final OccurrenceLocator locator = new OccurrenceLocator(content);
+        try (TokenStream tokenStream = makeAnalyzer().tokenStream("text", content)) {
+            final CharTermAttribute termAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+            final OffsetAttribute offsetAttribute = tokenStream.addAttribute(OffsetAttribute.class);
+            tokenStream.reset();
+            while (occurrences.size() < OCCURRENCES_LIMIT && tokenStream.incrementToken()) {
+                final String token = termAttribute.toString();
+                if (termMatchers.stream().anyMatch(matcher -> matcher.test(token))) {
+                    occurrences.add(locator.locate(offsetAttribute.startOffset(), offsetAttribute.endOffset()));
+                }
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+        return occurrences;
+    }
+
+    /** Finds occurrences of regular expression in file. Matcher must be already positioned at the first match. */
+    private List<SearchOccurrence> findOccurrences(String content, Matcher matcher) {
+        final List<SearchOccurrence> occurrences = newArrayList();
+        final OccurrenceLocator locator = new OccurrenceLocator(content);
+        do {
+            occurrences.add(locator.locate(matcher.start(), matcher.end()));
+        } while (occurrences.size() < OCCURRENCES_LIMIT && matcher.find());
+        return occurrences;
+    }
+
+    /** Reads content of file from virtual filesystem. Returns {@code null} if file doesn't exist. */
+    private String readContent(String filePath) throws ServerException {
+        final VirtualFileSystem myVirtualFileSystem = virtualFileSystem;
+        if (myVirtualFileSystem == null) {
+            return null;
+        }
+        final VirtualFile virtualFile = myVirtualFileSystem.getRoot().getChild(Path.of(filePath));
+        if (virtualFile == null || !virtualFile.isFile()) {
+            return null;
+        }
+        try (Reader reader = new BufferedReader(new InputStreamReader(virtualFile.getContent(), UTF_8))) {
+            return CharStreams.toString(reader);
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        }
+    }
+
     private ScoreDoc skipScoreDocs(IndexSearcher luceneSearcher, Query luceneQuery, int numSkipDocs) throws IOException {
         final int readFrameSize = Math.min(numSkipDocs, RESULT_LIMIT);
         ScoreDoc scoreDoc = null;
@@ -284,7 +663,9 @@ public abstract class LuceneSearcher implements Searcher {
                                     .setName(originalQuery.getName())
                                     .setPath(originalQuery.getPath())
                                     .setSkipCount(newSkipCount)
-                                    .setMaxItems(originalQuery.getMaxItems());
+                                    .setMaxItems(originalQuery.getMaxItems())
+                                    .setRegex(originalQuery.getRegex())
+                                    .setIncludePositions(originalQuery.isIncludePositions());
     }
 
     @Override
@@ -322,13 +703,171 @@ public abstract class LuceneSearcher implements Searcher {
         LOG.debug("Indexed {} files from {}, time: {} ms", indexedFiles, tree.getPath(), (end - start));
     }
 
+    /**
+     * Adds all files of the tree to index. Folders are traversed and documents are created by {@code parallelism} threads which feed
+     * the shared IndexWriter concurrently, each thread fills own buffer of IndexWriter. Files that can't be read are skipped. This
+     * method is intended for initial indexing of big trees, for small trees {@link #addTree(VirtualFile)} is cheaper.
+     */
+    protected void addTreeInParallel(VirtualFile tree, int parallelism) throws ServerException {
+        addTreeInParallel(tree, parallelism, null);
+    }
+
+    /**
+     * Brings index in sync with the tree. Index might be not empty if it was committed before previous closing of searcher. Files that
+     * were not modified since they had been indexed are not indexed again, documents of files that don't exist anymore are removed.
+     */
+    private void syncIndex(VirtualFile tree) throws ServerException {
+        final Map<String, Pair<Long, Long>> indexedFiles = getIndexedFiles();
+        addTreeInParallel(tree, Runtime.getRuntime().availableProcessors(), indexedFiles);
+        if (!indexedFiles.isEmpty()) {
+            try {
+                getIndexWriter().deleteDocuments(indexedFiles.keySet()
+                                                             .stream()
+                                                             .map(path -> new Term("path", path))
+                                                             .toArray(Term[]::new));
+                indexChanged();
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Gets paths of all files in index mapped to modification date and length of files at the moment of indexing. */
+    private Map<String, Pair<Long, Long>> getIndexedFiles() throws ServerException {
+        final Map<String, Pair<Long, Long>> indexedFiles = new ConcurrentHashMap<>();
+        IndexSearcher luceneSearcher = null;
+        try {
+            luceneSearcher = searcherManager.acquire();
+            final IndexReader reader = luceneSearcher.getIndexReader();
+            final Bits liveDocs = MultiFields.getLiveDocs(reader);
+            final Set<String> fieldsToLoad = newHashSet("path", "modified", "length");
+            for (int i = 0, maxDoc = reader.maxDoc(); i < maxDoc; i++) {
+                if (liveDocs == null || liveDocs.get(i)) {
+                    final Document doc = reader.document(i, fieldsToLoad);
+                    final IndexableField modified = doc.getField("modified");
+                    final IndexableField length = doc.getField("length");
+                    if (modified != null && length != null) {
+                        indexedFiles.put(doc.get("path"), Pair.of(modified.numericValue().longValue(), length.numericValue().longValue()));
+                    } else {
+                        indexedFiles.put(doc.get("path"), Pair.of(-1L, -1L));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } finally {
+            try {
+                searcherManager.release(luceneSearcher);
+            } catch (IOException e) {
+                LOG.error(e.getMessage());
+            }
+        }
+        return indexedFiles;
+    }
+
+    /*
+     * If indexedFiles isn't null then files with the same modification date as in this map aren't indexed again. Each visited file is
+     * removed from the map, so after indexing the map contains files that don't exist anymore.
+     */
+    private void addTreeInParallel(VirtualFile tree, int parallelism, Map<String, Pair<Long, Long>> indexedFiles) throws ServerException {
+        final long start = System.currentTimeMillis();
+        final IndexingProgress progress = new IndexingProgress(tree, indexedFiles);
+        final ForkJoinPool indexingPool = new ForkJoinPool(parallelism);
+        try {
+            indexingPool.invoke(new IndexFolderTask(tree, progress));
+        } finally {
+            indexingPool.shutdownNow();
+        }
+        final long end = System.currentTimeMillis();
+        LOG.info("Indexed {} files from {}, skipped {} files, time: {} ms",
+                 progress.indexedFiles.get(), tree.getPath(), progress.skippedFiles.get(), (end - start));
+    }
+
+    private class IndexFolderTask extends RecursiveAction {
+        final VirtualFile      folder;
+        final IndexingProgress progress;
+
+        IndexFolderTask(VirtualFile folder, IndexingProgress progress) {
+            this.folder = folder;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            final List<IndexFolderTask> subTasks = newArrayList();
+            try {
+                if (folder.exists()) {
+                    for (VirtualFile child : folder.getChildren()) {
+                        if (child.isFolder()) {
+                            final IndexFolderTask subTask = new IndexFolderTask(child, progress);
+                            subTask.fork();
+                            subTasks.add(subTask);
+                        } else {
+                            indexFile(child);
+                        }
+                    }
+                }
+            } catch (ServerException e) {
+                LOG.warn("Unable index content of folder {}. {}", folder.getPath(), e.getMessage());
+            }
+            for (IndexFolderTask subTask : subTasks) {
+                subTask.join();
+            }
+        }
+
+        private void indexFile(VirtualFile file) {
+            try {
+                if (progress.isUpToDate(file)) {
+                    return;
+                }
+                addFile(file);
+                progress.fileIndexed();
+            } catch (ServerException e) {
+                LOG.warn("Unable index file {}. {}", file.getPath(), e.getMessage());
+                progress.skippedFiles.incrementAndGet();
+            }
+        }
+    }
+
+    private static class IndexingProgress {
+        final VirtualFile                   tree;
+        final Map<String, Pair<Long, Long>> alreadyIndexedFiles;
+        final AtomicInteger                 indexedFiles = new AtomicInteger();
+        final AtomicInteger                 skippedFiles = new AtomicInteger();
+
+        IndexingProgress(VirtualFile tree, Map<String, Pair<Long, Long>> alreadyIndexedFiles) {
+            this.tree = tree;
+            this.alreadyIndexedFiles = alreadyIndexedFiles;
+        }
+
+        boolean isUpToDate(VirtualFile file) throws ServerException {
+            if (alreadyIndexedFiles == null) {
+                return false;
+            }
+            final Pair<Long, Long> indexed = alreadyIndexedFiles.remove(file.getPath().toString());
+            final long modificationDate = file.getLastModificationDate();
+            return indexed != null
+                   && modificationDate != -1
+                   && indexed.first == modificationDate
+                   && indexed.second == file.getLength();
+        }
+
+        void fileIndexed() {
+            final int indexed = indexedFiles.incrementAndGet();
+            if (indexed % INDEXING_PROGRESS_INTERVAL == 0) {
+                LOG.info("Indexed {} files from {}", indexed, tree.getPath());
+            }
+        }
+    }
+
     protected void addFile(VirtualFile virtualFile) throws ServerException {
         if (virtualFile.exists()) {
             try (Reader fContentReader = shouldIndexContent(virtualFile)
-                                         ? new BufferedReader(new InputStreamReader(virtualFile.getContent()))
+                                         ? new BufferedReader(new InputStreamReader(virtualFile.getContent(), UTF_8))
                                          : null) {
                 getIndexWriter()
                         .updateDocument(new Term("path", virtualFile.getPath().toString()), createDocument(virtualFile, fContentReader));
+                indexChanged();
             } catch (OutOfMemoryError oome) {
                 close();
                 throw oome;
@@ -350,6 +889,7 @@ public abstract class LuceneSearcher implements Searcher {
                 Term term = new Term("path", path + "/");
                 getIndexWriter().deleteDocuments(new PrefixQuery(term));
             }
+            indexChanged();
         } catch (OutOfMemoryError oome) {
             close();
             throw oome;
@@ -365,9 +905,10 @@ public abstract class LuceneSearcher implements Searcher {
 
     protected void doUpdate(Term deleteTerm, VirtualFile virtualFile) throws ServerException {
         try (Reader fContentReader = shouldIndexContent(virtualFile)
-                                     ? new BufferedReader(new InputStreamReader(virtualFile.getContent()))
+                                     ? new BufferedReader(new InputStreamReader(virtualFile.getContent(), UTF_8))
                                      : null) {
             getIndexWriter().updateDocument(deleteTerm, createDocument(virtualFile, fContentReader));
+            indexChanged();
         } catch (OutOfMemoryError oome) {
             close();
             throw oome;
@@ -382,13 +923,61 @@ public abstract class LuceneSearcher implements Searcher {
         final Document doc = new Document();
         doc.add(new StringField("path", virtualFile.getPath().toString(), Field.Store.YES));
         doc.add(new StringField("name", virtualFile.getName(), Field.Store.YES));
+        doc.add(new StoredField("modified", virtualFile.getLastModificationDate()));
+        doc.add(new StoredField("length", virtualFile.getLength()));
         if (reader != null) {
-            doc.add(new TextField("text", reader));
+            final String content;
+            try {
+                content = CharStreams.toString(reader);
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+            doc.add(new TextField("text", content, Field.Store.NO));
+            doc.add(new Field(TRIGRAMS_FIELD, content, TRIGRAMS_FIELD_TYPE));
         }
         return doc;
     }
 
-    private boolean shouldIndexContent(VirtualFile virtualFile) {
+    /** Converts offsets of matched text to line based positions. Offsets passed to {@link #locate(int, int)} must not decrease. */
+    private static class OccurrenceLocator {
+        final String content;
+        int lineNumber;
+        int lineStart;
+
+        OccurrenceLocator(String content) {
+            this.content = content;
+            lineNumber = 1;
+        }
+
+        SearchOccurrence locate(int startOffset, int endOffset) {
+            for (int newLine = content.indexOf('\n', lineStart); newLine >= 0 && newLine < startOffset;
+                 newLine = content.indexOf('\n', lineStart)) {
+                lineNumber++;
+                lineStart = newLine + 1;
+            }
+            return new SearchOccurrence(content.substring(startOffset, endOffset),
+                                        lineNumber,
+                                        startOffset - lineStart,
+                                        endOffset - lineStart,
+                                        getLine());
+        }
+
+        String getLine() {
+            int lineEnd = content.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = content.length();
+            }
+            if (lineEnd > lineStart && content.charAt(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            return content.substring(lineStart, Math.min(lineEnd, lineStart + OCCURRENCE_LINE_LENGTH_LIMIT));
+        }
+    }
+
+    private boolean shouldIndexContent(VirtualFile virtualFile) throws ServerException {
+        if (virtualFile.getLength() > MAX_INDEXED_CONTENT_LENGTH) {
+            return false;
+        }
         for (VirtualFileFilter indexFilter : indexFilters) {
             if (!indexFilter.accept(virtualFile)) {
                 return false;
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newLinkedHashSet;
+
+/**
+ * Extracts trigrams which must be present in any text matched by regular expression. Trigrams are used for narrowing set of files that
+ * should be checked with regular expression. Extraction is conservative: only literal sequences that are mandatory for a match are
+ * taken into account, groups, character classes and optional characters interrupt literal sequence. If expression contains top-level
+ * alternation then no trigrams are extracted, since none of them is mandatory.
+ *
+ * @author agent
+ */
+class TrigramExtractor {
+    static final int TRIGRAM_LENGTH = 3;
+
+    /* Whitespaces are ignored in expressions with embedded COMMENTS flag, so literal sequences can't be extracted reliably. */
+    private static final Pattern COMMENTS_FLAG = Pattern.compile("\\(\\?[a-zA-Z-]*x");
+
+    private TrigramExtractor() {
+    }
+
+    /**
+     * Gets lower-case trigrams that must be present in text matched by {@code regex}. Returns empty set if there is no such trigrams.
+     * Trigrams are built the same way as they are indexed by {@code NGramTokenizer} and {@code LowerCaseFilter}: trigram consists of
+     * three code points and each code point is lower-cased separately, without locale and context sensitive rules of
+     * {@link String#toLowerCase()}.
+     */
+    static Set<String> extractTrigrams(String regex) {
+        final Set<String> trigrams = newLinkedHashSet();
+        for (String literal : extractLiterals(regex)) {
+            final int[] codePoints = literal.codePoints().map(Character::toLowerCase).toArray();
+            for (int i = 0; i + TRIGRAM_LENGTH <= codePoints.length; i++) {
+                trigrams.add(new String(codePoints, i, TRIGRAM_LENGTH));
+            }
+        }
+        return trigrams;
+    }
+
+    /** Gets literal sequences that must be present in text matched by {@code regex}. */
+    static List<String> extractLiterals(String regex) {
+        final List<String> literals = newArrayList();
+        if (COMMENTS_FLAG.matcher(regex).find()) {
+            return literals;
+        }
+        final StringBuilder literal = new StringBuilder();
+        final int length = regex.length();
+        int i = 0;
+        while (i < length) {
+            final char c = regex.charAt(i);
+            switch (c) {
+                case '|':
+                    return newArrayList();
+                case '\\':
+                    if (i + 1 < length && !Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                        literal.append(regex.charAt(i + 1));
+                        i += 2;
+                    } else {
+                        // \d, \w, \Q...\E, \xhh, back-references etc.
+                        flushLiteral(literal, literals);
+                        if (i + 1 < length && regex.charAt(i + 1) == 'Q') {
+                            final int end = regex.indexOf("\\E", i + 2);
+                            literal.append(end < 0 ? regex.substring(i + 2) : regex.substring(i + 2, end));
+                            i = end < 0 ? length : end + 2;
+                        } else {
+                            i = skipEscape(regex, i);
+                        }
+                    }
+                    break;
+                case '(':
+                    flushLiteral(literal, literals);
+                    i = skipGroup(regex, i, '(', ')');
+                    if (i < 0) {
+                        return newArrayList();
+                    }
+                    break;
+                case '[':
+                    flushLiteral(literal, literals);
+                    i = skipCharacterClass(regex, i);
+                    break;
+                case '?':
+                case '*':
+                case '{':
+                    // Previous character is optional.
+                    if (literal.length() > 0) {
+                        literal.setLength(literal.offsetByCodePoints(literal.length(), -1));
+                    }
+                    flushLiteral(literal, literals);
+                    i = c == '{' ? skipGroup(regex, i, '{', '}') : i + 1;
+                    if (i < 0) {
+                        return newArrayList();
+                    }
+                    break;
+                case '+':
+                case '.':
+                case '^':
+                case '$':
+                    flushLiteral(literal, literals);
+                    i++;
+                    break;
+                default:
+                    literal.append(c);
+                    i++;
+            }
+        }
+        flushLiteral(literal, literals);
+        return literals;
+    }
+
+    private static void flushLiteral(StringBuilder literal, List<String> literals) {
+        if (literal.length() > 0) {
+            literals.add(literal.toString());
+            literal.setLength(0);
+        }
+    }
+
+    /* Returns index next to escape sequence that starts with backslash at start index, including operands of escape. */
+    private static int skipEscape(String regex, int start) {
+        final int length = regex.length();
+        if (start + 1 >= length) {
+            return length;
+        }
+        final char c = regex.charAt(start + 1);
+        int i = start + 2;
+        switch (c) {
+            case 'x':
+                // \xhh or \x{h...h}
+                return i < length && regex.charAt(i) == '{' ? skipTo(regex, i, '}') : Math.min(i + 2, length);
+            case 'u':
+                // \uhhhh
+                return Math.min(i + 4, length);
+            case '0':
+                // \0n, \0nn or \0mnn
+                for (int n = 0; n < 3 && i < length && regex.charAt(i) >= '0' && regex.charAt(i) <= '7'; n++) {
+                    i++;
+                }
+                return i;
+            case 'c':
+                // \cX
+                return Math.min(i + 1, length);
+            case 'k':
+                // \k<name>
+                return i < length && regex.charAt(i) == '<' ? skipTo(regex, i, '>') : i;
+            case 'p':
+            case 'P':
+                // \pL or \p{Lu}
+                return i < length && regex.charAt(i) == '{' ? skipTo(regex, i, '}') : Math.min(i + 1, length);
+            default:
+                if (c >= '1' && c <= '9') {
+                    // back-reference \n
+                    while (i < length && Character.isDigit(regex.charAt(i))) {
+                        i++;
+                    }
+                }
+                return i;
+        }
+    }
+
+    /* Returns index next to the first occurrence of end character after start index or length of regex if it is not found. */
+    private static int skipTo(String regex, int start, char end) {
+        final int index = regex.indexOf(end, start);
+        return index < 0 ? regex.length() : index + 1;
+    }
+
+    /* Returns index next to the closing bracket or -1 if closing bracket is not found. */
+    private static int skipGroup(String regex, int start, char open, char close) {
+        int depth = 0;
+        for (int i = start, length = regex.length(); i < length; i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[' && open == '(') {
+                i = skipCharacterClass(regex, i) - 1;
+            } else if (c == open) {
+                depth++;
+            } else if (c == close && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipCharacterClass(String regex, int start) {
+        final int length = regex.length();
+        int i = start + 1;
+        if (i < length && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < length && regex.charAt(i) == ']') {
+            i++;
+        }
+        int depth = 1;
+        for (; i < length; i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+}
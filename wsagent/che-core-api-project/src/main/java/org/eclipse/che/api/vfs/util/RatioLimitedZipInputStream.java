@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.util;
+
+import org.apache.commons.io.input.CountingInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipInputStream;
+
+import static org.eclipse.che.api.vfs.util.ZipContent.ZIP_RATIO;
+import static org.eclipse.che.api.vfs.util.ZipContent.ZIP_THRESHOLD;
+
+/**
+ * ZipInputStream that checks compression ratio while archive is read. Unlike {@link ZipContent} it does not need to read whole
+ * archive before its entries may be used, zip bomb is detected when ratio of uncompressed and compressed data becomes suspicious.
+ *
+ * @author agent
+ */
+public final class RatioLimitedZipInputStream extends ZipInputStream {
+    private final CountingInputStream compressedDataCounter;
+
+    private long uncompressedBytes;
+
+    public RatioLimitedZipInputStream(InputStream in) {
+        this(new CountingInputStream(in));
+    }
+
+    private RatioLimitedZipInputStream(CountingInputStream compressedDataCounter) {
+        super(compressedDataCounter);
+        this.compressedDataCounter = compressedDataCounter;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int bytes = super.read(b, off, len);
+        if (bytes > 0) {
+            uncompressedBytes += bytes;
+            if (uncompressedBytes > ZIP_THRESHOLD && uncompressedBytes > (ZIP_RATIO * compressedDataCounter.getByteCount())) {
+                throw new IOException("Zip bomb detected");
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.vfs.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author agent
+ */
+public class ProjectPathTrieTest {
+    private ProjectPathTrie   trie;
+    private RegisteredProject project;
+    private RegisteredProject module;
+    private RegisteredProject other;
+
+    @Before
+    public void setUp() {
+        trie = new ProjectPathTrie();
+        project = mock(RegisteredProject.class);
+        module = mock(RegisteredProject.class);
+        other = mock(RegisteredProject.class);
+        trie.put(Path.of("/project"), project);
+        trie.put(Path.of("/project/a/module"), module);
+        trie.put(Path.of("/projectX"), other);
+    }
+
+    @Test
+    public void findsNearestOwnerOfPath() {
+        assertSame(project, trie.getOwner(Path.of("/project")));
+        assertSame(project, trie.getOwner(Path.of("/project/a/b")));
+        assertSame(module, trie.getOwner(Path.of("/project/a/module/src/Main.java")));
+        assertSame(other, trie.getOwner(Path.of("/projectX/a")));
+        assertNull(trie.getOwner(Path.of("/unknown/a")));
+    }
+
+    @Test
+    public void findsAllProjectsUnderPath() {
+        assertEquals(asList(module), trie.getDescendants(Path.of("/project")));
+        assertTrue(trie.getDescendants(Path.of("/project/a/module")).isEmpty());
+        assertEquals(3, trie.getDescendants(Path.ROOT).size());
+    }
+
+    @Test
+    public void removesProjectAndKeepsProjectsUnderIt() {
+        assertSame(project, trie.remove(Path.of("/project")));
+
+        assertNull(trie.get(Path.of("/project")));
+        assertNull(trie.getOwner(Path.of("/project/a")));
+        assertSame(module, trie.getOwner(Path.of("/project/a/module")));
+    }
+}
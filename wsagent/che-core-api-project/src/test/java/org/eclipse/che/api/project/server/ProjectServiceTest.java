@@ -84,6 +84,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.nio.file.PathMatcher;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -121,6 +122,7 @@ import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertEqualsNoOrder;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 
 /**
  * @author andrew00x
@@ -828,6 +830,56 @@ public class ProjectServiceTest {
         assertEquals(new String(writer.getBody()), myContent);
     }
 
+    @Test
+    public void testGetFileContentRange() throws Exception {
+        String myContent = "to be or not to be";
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", myContent.getBytes());
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", singletonList("bytes=3-7"));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", headers, null, writer, null);
+        assertEquals(response.getStatus(), 206, "Error: " + response.getEntity());
+        assertEquals(response.getHttpHeaders().getFirst("Content-Range"), "bytes 3-7/" + myContent.length());
+        assertEquals(new String(writer.getBody()), "be or");
+    }
+
+    @Test
+    public void testGetFileContentIgnoresRangeIfIfRangeIsMalformed() throws Exception {
+        String myContent = "to be or not to be";
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", myContent.getBytes());
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", singletonList("bytes=3-7"));
+        headers.put("If-Range", singletonList("W/xyz"));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", headers, null, writer, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        assertEquals(new String(writer.getBody()), myContent);
+    }
+
+    @Test
+    public void testGetFileContentNotModified() throws Exception {
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", "to be or not to be".getBytes());
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", null, null, new ByteArrayContainerResponseWriter(),
+                                                      null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        Object entityTag = response.getHttpHeaders().getFirst("ETag");
+
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("If-None-Match", singletonList(entityTag.toString()));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        response = launcher.service(GET,
+                                    "http://localhost:8080/api/project/file/my_project/test.txt",
+                                    "http://localhost:8080/api", headers, null, writer, null);
+        assertEquals(response.getStatus(), 304);
+        assertNull(response.getEntity());
+    }
+
     @Test
     public void testUpdateFileContent() throws Exception {
         String myContent = "<test>hello</test>";
@@ -1642,6 +1694,85 @@ public class ProjectServiceTest {
     }
 
 
+    @Test
+    public void testGetTreePageByPage() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        FolderEntry a = myProject.getBaseFolder().createFolder("a");
+        a.createFolder("b");
+        a.createFolder("c");
+        a.createFile("test.txt", "test".getBytes());
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/tree/my_project/a?includeFiles=true&maxItems=2",
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        TreeElement tree = (TreeElement)response.getEntity();
+        assertEquals(tree.getChildren().size(), 2);
+        assertEquals(tree.getChildren().get(0).getNode().getName(), "b");
+        assertEquals(tree.getChildren().get(1).getNode().getName(), "c");
+        assertNotNull(tree.getNextCursor());
+
+        response = launcher.service(GET,
+                                    "http://localhost:8080/api/project/tree/my_project/a?includeFiles=true&maxItems=2&cursor=" +
+                                    URLEncoder.encode(tree.getNextCursor(), "UTF-8"),
+                                    "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        tree = (TreeElement)response.getEntity();
+        assertEquals(tree.getChildren().size(), 1);
+        assertEquals(tree.getChildren().get(0).getNode().getName(), "test.txt");
+        assertNull(tree.getNextCursor());
+    }
+
+    @Test
+    public void testGetTreeNotModified() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        FolderEntry a = myProject.getBaseFolder().createFolder("a");
+        a.createFolder("b/c");
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/tree/my_project/a?depth=2",
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        Object entityTag = response.getHttpHeaders().getFirst("ETag");
+        assertNotNull(entityTag);
+
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("If-None-Match", singletonList(entityTag.toString()));
+        response = launcher.service(GET,
+                                    "http://localhost:8080/api/project/tree/my_project/a?depth=2",
+                                    "http://localhost:8080/api", headers, null, null);
+        assertEquals(response.getStatus(), 304);
+
+        a.createFolder("x");
+        response = launcher.service(GET,
+                                    "http://localhost:8080/api/project/tree/my_project/a?depth=2",
+                                    "http://localhost:8080/api", headers, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetTreesSkipsNotModifiedTrees() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        myProject.getBaseFolder().createFolder("a/b");
+        myProject.getBaseFolder().createFolder("x/y");
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/trees?path=my_project/a&path=my_project/x",
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<TreeElement> trees = (List<TreeElement>)response.getEntity();
+        assertEquals(trees.size(), 2);
+        String aTag = trees.get(0).getEtag();
+
+        myProject.getBaseFolder().getChildFolder("x").createFolder("z");
+        response = launcher.service(GET,
+                                    "http://localhost:8080/api/project/trees?path=my_project/a&path=my_project/x&etag=" + aTag +
+                                    "&etag=" + trees.get(1).getEtag(),
+                                    "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        trees = (List<TreeElement>)response.getEntity();
+        assertEquals(trees.size(), 1);
+        assertEquals(trees.get(0).getNode().getName(), "x");
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testSearchByName() throws Exception {
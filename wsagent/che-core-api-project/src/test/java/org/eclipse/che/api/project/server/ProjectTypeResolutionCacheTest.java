@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.project.server.type.ProjectTypeDef;
+import org.eclipse.che.api.project.server.type.ProjectTypeResolution;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ */
+public class ProjectTypeResolutionCacheTest {
+    private ProjectTypeResolutionCache cache;
+    private ProjectTypeDef             projectType;
+    private FolderEntry                folder;
+    private VirtualFile                pom;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new ProjectTypeResolutionCache();
+
+        pom = mock(VirtualFile.class);
+        when(pom.getName()).thenReturn("pom.xml");
+        when(pom.isFile()).thenReturn(true);
+        when(pom.getLastModificationDate()).thenReturn(1L);
+        VirtualFile virtualFolder = mock(VirtualFile.class);
+        when(virtualFolder.getChildren()).thenReturn(singletonList(pom));
+        folder = mock(FolderEntry.class);
+        when(folder.getPath()).thenReturn(Path.of("/project/module"));
+        when(folder.getVirtualFile()).thenReturn(virtualFolder);
+
+        projectType = mock(ProjectTypeDef.class);
+        when(projectType.getId()).thenReturn("maven");
+        when(projectType.resolveSources(folder)).thenReturn(new ProjectTypeDef.DefaultResolution("maven", new HashMap<>(), true));
+    }
+
+    @Test
+    public void reusesResolutionWhileFolderIsNotChanged() throws Exception {
+        ProjectTypeResolution resolution = cache.resolve(projectType, folder);
+
+        assertSame(resolution, cache.resolve(projectType, folder));
+        verify(projectType, times(1)).resolveSources(folder);
+    }
+
+    @Test
+    public void resolvesAgainWhenFileInFolderIsModified() throws Exception {
+        cache.resolve(projectType, folder);
+        when(pom.getLastModificationDate()).thenReturn(2L);
+
+        cache.resolve(projectType, folder);
+        verify(projectType, times(2)).resolveSources(folder);
+    }
+
+    @Test
+    public void resolvesAgainWhenItemUnderFolderIsInvalidated() throws Exception {
+        cache.resolve(projectType, folder);
+        cache.invalidate(Path.of("/project/module/src/main/java/Foo.java"));
+
+        cache.resolve(projectType, folder);
+        verify(projectType, times(2)).resolveSources(folder);
+    }
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.project.server.type.ValueProviderFactory;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.api.project.server.ProvidedValuesCache.NO_STAMP;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ */
+public class ProvidedValuesCacheTest {
+    private static final List<String> DEPENDENCIES = asList("pom.xml", ".git/HEAD");
+
+    private ProvidedValuesCache  cache;
+    private ValueProviderFactory factory;
+    private FolderEntry          folder;
+    private FileEntry            pom;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new ProvidedValuesCache();
+        factory = mock(ValueProviderFactory.class);
+
+        pom = mock(FileEntry.class);
+        when(pom.isFile()).thenReturn(true);
+        when(pom.getModified()).thenReturn(1L);
+        VirtualFile virtualPom = mock(VirtualFile.class);
+        when(virtualPom.getLength()).thenReturn(100L);
+        when(pom.getVirtualFile()).thenReturn(virtualPom);
+        folder = mock(FolderEntry.class);
+        when(folder.getPath()).thenReturn(Path.of("/project"));
+        when(folder.getChild("pom.xml")).thenReturn(pom);
+    }
+
+    @Test
+    public void returnsValuesWhileDependenciesAreNotChanged() throws Exception {
+        final long stamp = cache.stamp(folder, DEPENDENCIES);
+        cache.put(folder, "artifactId", factory, stamp, singletonList("my-artifact"));
+
+        assertEquals(singletonList("my-artifact"), cache.get(folder, "artifactId", factory, cache.stamp(folder, DEPENDENCIES)));
+    }
+
+    @Test
+    public void changesStampWhenDependencyIsModified() throws Exception {
+        final long stamp = cache.stamp(folder, DEPENDENCIES);
+        cache.put(folder, "artifactId", factory, stamp, singletonList("my-artifact"));
+        when(pom.getModified()).thenReturn(2L);
+
+        final long newStamp = cache.stamp(folder, DEPENDENCIES);
+        assertNotEquals(stamp, newStamp);
+        assertNull(cache.get(folder, "artifactId", factory, newStamp));
+    }
+
+    @Test
+    public void doesNotReturnValuesCachedForAnotherFactory() throws Exception {
+        final long stamp = cache.stamp(folder, DEPENDENCIES);
+        cache.put(folder, "source.folder", factory, stamp, singletonList("src/main/java"));
+
+        assertNull(cache.get(folder, "source.folder", mock(ValueProviderFactory.class), stamp));
+    }
+
+    @Test
+    public void returnsNoStampWhenNoneOfDependenciesExists() throws Exception {
+        when(folder.getChild("pom.xml")).thenReturn(null);
+
+        assertEquals(NO_STAMP, cache.stamp(folder, DEPENDENCIES));
+    }
+
+    @Test
+    public void removesValuesOfFolderAndSubFolders() throws Exception {
+        final long stamp = cache.stamp(folder, DEPENDENCIES);
+        cache.put(folder, "artifactId", factory, stamp, singletonList("my-artifact"));
+        cache.invalidate(Path.of("/project"));
+
+        assertNull(cache.get(folder, "artifactId", factory, stamp));
+    }
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.model.project.ProjectConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ */
+public class WorkspaceProjectsSyncerTest {
+    private ProjectRegistry   projectRegistry;
+    private RecordingSyncer   syncer;
+    private RegisteredProject existing;
+    private RegisteredProject created;
+
+    @Before
+    public void setUp() throws Exception {
+        projectRegistry = mock(ProjectRegistry.class);
+        existing = mockProject("/existing");
+        created = mockProject("/created");
+        final RegisteredProject synced = mockProject("/synced");
+        when(synced.isSynced()).thenReturn(true);
+        final RegisteredProject detected = mockProject("/existing/module");
+        when(detected.isDetected()).thenReturn(true);
+        when(projectRegistry.getProjects()).thenReturn(asList(existing, created, synced, detected));
+        when(projectRegistry.getProject("/existing")).thenReturn(existing);
+        when(projectRegistry.getProject("/synced")).thenReturn(synced);
+
+        syncer = new RecordingSyncer(asList(new NewProjectConfig("/existing", "existing", "blank", null),
+                                            new NewProjectConfig("/synced", "synced", "blank", null),
+                                            new NewProjectConfig("/removed", "removed", "blank", null)));
+    }
+
+    @Test
+    public void sendsAllChangesAtOnce() throws Exception {
+        syncer.sync(projectRegistry);
+
+        assertEquals(1, syncer.batches);
+        assertEquals(asList("/created"), syncer.added);
+        assertEquals(asList("/existing"), syncer.updated);
+        assertEquals(asList("/removed"), syncer.removed);
+        verify(existing).setSync();
+        verify(created).setSync();
+    }
+
+    @Test
+    public void doesNotSendAnythingWhenThereAreNoChanges() throws Exception {
+        when(projectRegistry.getProjects()).thenReturn(emptyList());
+        syncer = new RecordingSyncer(emptyList());
+
+        syncer.sync(projectRegistry);
+
+        assertEquals(0, syncer.batches);
+    }
+
+    @Test
+    public void retriesDelayedSyncAfterFailure() throws Exception {
+        syncer = new RecordingSyncer(syncer.projects, 10);
+        syncer.failures = 2;
+
+        try {
+            syncer.scheduleSync(projectRegistry);
+
+            verify(created, timeout(5000)).setSync();
+            assertEquals(3, syncer.batches);
+            assertEquals(asList("/created"), syncer.added);
+        } finally {
+            syncer.stop();
+        }
+    }
+
+    private RegisteredProject mockProject(String path) {
+        final RegisteredProject project = mock(RegisteredProject.class);
+        when(project.getPath()).thenReturn(path);
+        when(project.getType()).thenReturn("blank");
+        when(project.getPersistableAttributes()).thenReturn(emptyMap());
+        return project;
+    }
+
+    private static class RecordingSyncer extends WorkspaceProjectsSyncer {
+        final List<? extends ProjectConfig> projects;
+        final List<String>                  added   = new ArrayList<>();
+        final List<String>                  updated = new ArrayList<>();
+        final List<String>                  removed = new ArrayList<>();
+
+        volatile int batches;
+        volatile int failures;
+
+        RecordingSyncer(List<? extends ProjectConfig> projects) {
+            this(projects, 0);
+        }
+
+        RecordingSyncer(List<? extends ProjectConfig> projects, long syncDelay) {
+            super(syncDelay);
+            this.projects = projects;
+        }
+
+        @Override
+        public List<? extends ProjectConfig> getProjects() {
+            return projects;
+        }
+
+        @Override
+        public String getWorkspaceId() {
+            return "ws";
+        }
+
+        @Override
+        protected void updateProjects(List<ProjectConfig> added, List<ProjectConfig> updated, List<ProjectConfig> removed)
+                throws ServerException {
+            batches++;
+            if (failures > 0) {
+                failures--;
+                throw new ServerException("Workspace master is not available");
+            }
+            added.forEach(project -> this.added.add(project.getPath()));
+            updated.forEach(project -> this.updated.add(project.getPath()));
+            removed.forEach(project -> this.removed.add(project.getPath()));
+        }
+
+        @Override
+        protected void addProject(ProjectConfig project) {
+        }
+
+        @Override
+        protected void updateProject(ProjectConfig project) {
+        }
+
+        @Override
+        protected void removeProject(ProjectConfig project) {
+        }
+    }
+}
@@ -214,6 +214,45 @@ public class PathLockFactoryTest extends TestCase {
         }
     }
 
+    public void testChildLockPreventsExclusiveLockOfParent() throws Exception {
+        final PathLockFactory.PathLock childLock = pathLockFactory.getLock(path, false).acquire();
+        final AtomicBoolean acquired = new AtomicBoolean(false);
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    pathLockFactory.getLock(path.getParent().getParent(), true).acquire(100);
+                    acquired.set(true);
+                } catch (RuntimeException ignored) {
+                    // Timeout is expected
+                }
+            }
+        };
+        t.start();
+        t.join();
+        childLock.release();
+        assertFalse(acquired.get());
+        pathLockFactory.checkClean();
+    }
+
+    public void testExclusiveLocksOfSiblingsDoNotConflict() throws Exception {
+        final PathLockFactory.PathLock lock = pathLockFactory.getLock(path, true).acquire();
+        final AtomicBoolean acquired = new AtomicBoolean(false);
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                PathLockFactory.PathLock siblingLock = pathLockFactory.getLock(path.getParent().newPath("d"), true).acquire(100);
+                acquired.set(true);
+                siblingLock.release();
+            }
+        };
+        t.start();
+        t.join();
+        lock.release();
+        assertTrue(acquired.get());
+        pathLockFactory.checkClean();
+    }
+
     public void testLockSameThread() throws Exception {
         final AtomicInteger acquired = new AtomicInteger(0);
         final CountDownLatch waiter = new CountDownLatch(1);
@@ -236,4 +275,35 @@ public class PathLockFactoryTest extends TestCase {
         waiter.await();
         assertEquals(2, acquired.get());
     }
+
+    public void testDetachedLockConflictsWithLocksOfSameThread() throws Exception {
+        final PathLockFactory.PathLock detachedLock = pathLockFactory.getLock(path, false);
+        assertTrue(detachedLock.tryAcquireDetached());
+        try {
+            pathLockFactory.getLock(path.getParent(), true).acquire(100);
+            fail("Detached lock must not be re-entrant for thread that acquired it");
+        } catch (RuntimeException expected) {
+        }
+        // Not exclusive locks still may be shared.
+        pathLockFactory.getLock(path, false).acquire(100).release();
+        detachedLock.release();
+        pathLockFactory.checkClean();
+    }
+
+    public void testDetachedLockIsNotAcquiredIfSameThreadHasConflictingLock() throws Exception {
+        final PathLockFactory.PathLock lock = pathLockFactory.getLock(path.getParent(), true).acquire();
+        assertFalse(pathLockFactory.getLock(path, false).tryAcquireDetached());
+        lock.release();
+        pathLockFactory.checkClean();
+    }
+
+    public void testDetachedLockIsReleasedByAnotherThread() throws Exception {
+        final PathLockFactory.PathLock detachedLock = pathLockFactory.getLock(path, false);
+        assertTrue(detachedLock.tryAcquireDetached());
+        Thread t = new Thread(detachedLock::release);
+        t.start();
+        t.join();
+        pathLockFactory.getLock(path, true).acquire(100).release();
+        pathLockFactory.checkClean();
+    }
 }
@@ -34,6 +34,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -105,6 +107,43 @@ public class ZipArchiverTest {
         assertThatZipArchiveContainsAllEntries(new ByteArrayInputStream(compressedFolder.toByteArray()), entries);
     }
 
+    @Test
+    public void compressesFolderToArchiveInParallel() throws Exception {
+        VirtualFile folder = createFileTreeForArchiving();
+        ByteArrayOutputStream compressedFolder = new ByteArrayOutputStream();
+        Map<String, String> entries = getFileTreeAsList(folder).stream()
+                                                               .collect(toMap(f -> getZipEntryName(folder, f),
+                                                                              this::readContentUnchecked));
+
+        ExecutorService compressionPool = Executors.newFixedThreadPool(2);
+        try {
+            new ZipArchiver(folder, compressionPool, 2).compress(compressedFolder);
+        } finally {
+            compressionPool.shutdownNow();
+        }
+        assertThatZipArchiveContainsAllEntries(new ByteArrayInputStream(compressedFolder.toByteArray()), entries);
+    }
+
+    @Test
+    public void storesAlreadyCompressedFilesWithoutCompression() throws Exception {
+        VirtualFile folder = createFileTreeForArchiving();
+        folder.createFile("lib.jar", TEST_CONTENT);
+        ByteArrayOutputStream compressedFolder = new ByteArrayOutputStream();
+
+        new ZipArchiver(folder).compress(compressedFolder);
+
+        Map<String, Integer> methods = newHashMap();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(compressedFolder.toByteArray()))) {
+            ZipEntry zipEntry;
+            while ((zipEntry = zip.getNextEntry()) != null) {
+                methods.put(zipEntry.getName(), zipEntry.getMethod());
+                zip.closeEntry();
+            }
+        }
+        assertEquals(ZipEntry.STORED, (int)methods.get("lib.jar"));
+        assertEquals(ZipEntry.DEFLATED, (int)methods.get("a/_a.txt"));
+    }
+
     @Test
     public void extractsArchiveToFolder() throws Exception {
         byte[] archive = createTestZipArchive();
@@ -118,6 +157,24 @@ public class ZipArchiverTest {
         assertEquals(readArchiveEntries(new ByteArrayInputStream(archive)), entries);
     }
 
+    @Test
+    public void extractsArchiveToFolderInParallel() throws Exception {
+        byte[] archive = createTestZipArchive();
+        VirtualFile folder = vfsRoot.createFolder("folder");
+        ExecutorService extractionPool = Executors.newFixedThreadPool(2);
+        try {
+            new ZipArchiver(folder, null, 0, extractionPool).extract(new ByteArrayInputStream(archive), false, 0);
+        } finally {
+            extractionPool.shutdownNow();
+        }
+
+        Map<String, String> entries = getFileTreeAsList(folder).stream()
+                                                               .collect(toMap(f -> getZipEntryName(folder, f),
+                                                                              this::readContentUnchecked));
+
+        assertEquals(readArchiveEntries(new ByteArrayInputStream(archive)), entries);
+    }
+
     @Test
     public void extractsArchiveToFolderAndSkipsRootFolderFromArchive() throws Exception {
         byte[] archive = createTestZipArchive();
@@ -185,6 +242,22 @@ public class ZipArchiverTest {
         }
     }
 
+    @Test
+    public void removesExtractedItemsWhenZipBombIsDetected() throws Exception {
+        byte[] archive = createTestZipBomb();
+        VirtualFile folder = vfsRoot.createFolder("folder");
+        VirtualFile existedFile = folder.createFolder("arc").createFile("existed.txt", "xxx");
+
+        try {
+            new ZipArchiver(folder).extract(new ByteArrayInputStream(archive), false, 0);
+            thrown.expect(IOException.class);
+        } catch (IOException expected) {
+            List<VirtualFile> items = getFileTreeAsList(folder);
+            assertEquals(newArrayList(folder.getChild(Path.of("arc")), existedFile), items);
+            assertEquals("xxx", existedFile.getContentAsString());
+        }
+    }
+
     private Map<String, String> readArchiveEntries(InputStream archive) throws Exception {
         Map<String, String> entries = newHashMap();
         try (ZipInputStream zip = new ZipInputStream(archive)) {
@@ -247,6 +320,26 @@ public class ZipArchiverTest {
         return byteOut.toByteArray();
     }
 
+    private byte[] createTestZipBomb() throws IOException {
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        ZipOutputStream zipOut = new ZipOutputStream(byteOut);
+        zipOut.putNextEntry(new ZipEntry("arc/"));
+        zipOut.putNextEntry(new ZipEntry("arc/a/"));
+        zipOut.putNextEntry(new ZipEntry("arc/a/_a.txt"));
+        zipOut.write(TEST_CONTENT_BYTES);
+        zipOut.putNextEntry(new ZipEntry("arc/b/c/_c.txt"));
+        zipOut.write(TEST_CONTENT_BYTES);
+
+        zipOut.putNextEntry(new ZipEntry("arc/bomb/bomb.txt"));
+        byte[] zeros = new byte[64 * 1024];
+        for (int i = 0; i < 256; i++) {
+            zipOut.write(zeros);
+        }
+
+        zipOut.close();
+        return byteOut.toByteArray();
+    }
+
     private List<VirtualFile> getFileTreeAsList(VirtualFile rootOfTree) throws Exception {
         List<VirtualFile> list = newArrayList();
 
@@ -14,11 +14,13 @@ import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileSystemProvider;
 import org.eclipse.che.commons.lang.NameGenerator;
+import org.eclipse.che.commons.lang.Pair;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
 
+import static com.google.common.collect.Lists.newArrayList;
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.CREATED;
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.DELETED;
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
@@ -91,4 +93,19 @@ public class DefaultFileWatcherNotificationHandlerTest {
         verify(notificationListener).shouldBeNotifiedFor(virtualFile);
         verify(notificationListener).onFileWatcherEvent(virtualFile, MODIFIED);
     }
+
+    @Test
+    public void notifiesFileWatcherNotificationListenersWithBatchOfEvents() throws Exception {
+        notificationHandler.handleFileWatcherEvents(testDirectory, newArrayList(new FileWatcherEvent(MODIFIED, "/a/b/c", false)));
+
+        verify(notificationListener).shouldBeNotifiedFor(virtualFile);
+        verify(notificationListener).onFileWatcherEvents(eq(newArrayList(Pair.of(virtualFile, MODIFIED))));
+    }
+
+    @Test
+    public void invalidatesHashSumsWhenPathIsModified() throws Exception {
+        notificationHandler.handleFileWatcherEvent(MODIFIED, testDirectory, "/a/b/c", true);
+
+        verify(virtualFileSystem).invalidateHashSums(virtualFilePath);
+    }
 }
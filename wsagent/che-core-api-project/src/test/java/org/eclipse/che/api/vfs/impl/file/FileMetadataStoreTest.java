@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.io.Files;
+
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.eclipse.che.api.vfs.impl.file.FileMetadataStore.Kind.LOCK;
+import static org.eclipse.che.api.vfs.impl.file.FileMetadataStore.Kind.PROPERTIES;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class FileMetadataStoreTest {
+    private File              testDirectory;
+    private File              storageFile;
+    private FileMetadataStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        File targetDir = new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath()).getParentFile();
+        testDirectory = new File(targetDir, NameGenerator.generate("metadata-", 4));
+        assertTrue(testDirectory.mkdir());
+        storageFile = new File(testDirectory, ".vfs/metadata");
+        store = new FileMetadataStore(storageFile, testDirectory, ".vfs");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        store.close();
+        IoUtil.deleteRecursive(testDirectory);
+    }
+
+    @Test
+    public void restoresValuesFromLogAfterReopening() throws Exception {
+        store.put(PROPERTIES, Path.of("/a"), new byte[]{1});
+        store.put(LOCK, Path.of("/a"), new byte[]{2});
+        store.put(PROPERTIES, Path.of("/a"), new byte[]{3});
+        store.put(LOCK, Path.of("/a"), null);
+        store.close();
+
+        assertArrayEquals(new byte[]{3}, store.get(PROPERTIES, Path.of("/a")));
+        assertNull(store.get(LOCK, Path.of("/a")));
+    }
+
+    @Test
+    public void discardsTornTailOfLog() throws Exception {
+        store.put(PROPERTIES, Path.of("/a"), new byte[]{1});
+        store.close();
+        long validLength = storageFile.length();
+        try (RandomAccessFile log = new RandomAccessFile(storageFile, "rw")) {
+            log.seek(validLength);
+            // Header of record that claims more bytes than written.
+            log.writeInt(100);
+            log.writeInt(0);
+            log.write(new byte[]{1, 2, 3});
+        }
+
+        assertArrayEquals(new byte[]{1}, store.get(PROPERTIES, Path.of("/a")));
+        assertEquals(validLength, storageFile.length());
+
+        store.put(PROPERTIES, Path.of("/b"), new byte[]{2});
+        store.close();
+        assertArrayEquals(new byte[]{2}, store.get(PROPERTIES, Path.of("/b")));
+    }
+
+    @Test
+    public void removesMetadataOfWholeSubTree() throws Exception {
+        store.put(PROPERTIES, Path.of("/a"), new byte[]{1});
+        store.put(PROPERTIES, Path.of("/a/b/c"), new byte[]{2});
+        store.put(LOCK, Path.of("/a/b/c"), new byte[]{3});
+        store.put(PROPERTIES, Path.of("/ab"), new byte[]{4});
+
+        store.removeAll(Path.of("/a"));
+
+        assertNull(store.get(PROPERTIES, Path.of("/a")));
+        assertNull(store.get(PROPERTIES, Path.of("/a/b/c")));
+        assertNull(store.get(LOCK, Path.of("/a/b/c")));
+        assertArrayEquals(new byte[]{4}, store.get(PROPERTIES, Path.of("/ab")));
+    }
+
+    @Test
+    public void copiesPropertiesButNotLocksOfSubTree() throws Exception {
+        store.put(PROPERTIES, Path.of("/a"), new byte[]{1});
+        store.put(PROPERTIES, Path.of("/a/b"), new byte[]{2});
+        store.put(LOCK, Path.of("/a/b"), new byte[]{3});
+
+        store.copyProperties(Path.of("/a"), Path.of("/x/y"));
+
+        assertArrayEquals(new byte[]{1}, store.get(PROPERTIES, Path.of("/x/y")));
+        assertArrayEquals(new byte[]{2}, store.get(PROPERTIES, Path.of("/x/y/b")));
+        assertNull(store.get(LOCK, Path.of("/x/y/b")));
+    }
+
+    @Test
+    public void importsLegacyMetadataFiles() throws Exception {
+        File propsDir = new File(testDirectory, "a/.vfs/props");
+        File locksDir = new File(testDirectory, "a/.vfs/locks");
+        File rootPropsDir = new File(testDirectory, ".vfs/props");
+        assertTrue(propsDir.mkdirs() && locksDir.mkdirs() && rootPropsDir.mkdirs());
+        Files.write(new byte[]{1}, new File(propsDir, "file_props"));
+        Files.write(new byte[]{2}, new File(locksDir, "file_lock"));
+        Files.write(new byte[]{3}, new File(rootPropsDir, "_props"));
+        Files.write(new byte[]{4}, new File(rootPropsDir, "a_props"));
+
+        assertArrayEquals(new byte[]{1}, store.get(PROPERTIES, Path.of("/a/file")));
+        assertArrayEquals(new byte[]{2}, store.get(LOCK, Path.of("/a/file")));
+        assertArrayEquals(new byte[]{3}, store.get(PROPERTIES, Path.ROOT));
+        assertArrayEquals(new byte[]{4}, store.get(PROPERTIES, Path.of("/a")));
+        assertFalse(propsDir.exists());
+        assertFalse(locksDir.exists());
+        assertFalse(rootPropsDir.exists());
+        assertArrayEquals(new byte[]{1}, Files.toByteArray(new File(testDirectory, "a/.vfs/props.migrated/file_props")));
+        assertArrayEquals(new byte[]{2}, Files.toByteArray(new File(testDirectory, "a/.vfs/locks.migrated/file_lock")));
+        assertArrayEquals(new byte[]{3}, Files.toByteArray(new File(testDirectory, ".vfs/props.migrated/_props")));
+    }
+
+    @Test
+    public void keepsCopiedPropertiesIfLogIsCompactedBeforeTargetIsCreated() throws Exception {
+        assertTrue(new File(testDirectory, "a").mkdir());
+        store.put(PROPERTIES, Path.of("/a"), new byte[]{1});
+        // Properties of item that doesn't exist on disk, they are garbage for compaction.
+        store.put(PROPERTIES, Path.of("/x"), new byte[1000]);
+        store.put(PROPERTIES, Path.of("/x"), null);
+        store.close();
+
+        // Next commit makes log bigger than min size of compaction.
+        store = new FileMetadataStore(storageFile, testDirectory, ".vfs", storageFile.length(), Runnable::run);
+        store.copyProperties(Path.of("/a"), Path.of("/b"));
+        assertTrue(storageFile.length() < 1000);
+
+        assertArrayEquals(new byte[]{1}, store.get(PROPERTIES, Path.of("/b")));
+        store.close();
+        assertArrayEquals(new byte[]{1}, store.get(PROPERTIES, Path.of("/b")));
+    }
+
+    @Test
+    public void doesNotCompactLogWithLiveValuesOfNonAsciiPaths() throws Exception {
+        String name = "\u0444\u0430\u0439\u043b\u0444\u0430\u0439\u043b\u0444\u0430\u0439\u043b";
+        assertTrue(new File(testDirectory, name).mkdir());
+        store = new FileMetadataStore(storageFile, testDirectory, ".vfs", 0, Runnable::run);
+        store.put(PROPERTIES, Path.of("/" + name), new byte[]{1});
+        long length = storageFile.length();
+
+        store.put(LOCK, Path.of("/" + name), new byte[]{2});
+
+        // Both records have the same size, log isn't compacted because nothing is overwritten.
+        assertEquals(length * 2, storageFile.length());
+    }
+
+    @Test
+    public void keepsValuesWrittenWhileLogIsCompacted() throws Exception {
+        assertTrue(new File(testDirectory, "a").mkdir());
+        List<Runnable> compactions = new ArrayList<>();
+        store = new FileMetadataStore(storageFile, testDirectory, ".vfs", 0, compactions::add);
+        store.put(PROPERTIES, Path.of("/x"), new byte[]{3});
+        store.put(PROPERTIES, Path.of("/a"), new byte[]{1});
+        store.put(PROPERTIES, Path.of("/a"), new byte[]{2});
+        assertEquals(1, compactions.size());
+
+        // Written after compaction is scheduled, '/x' doesn't exist but is updated after snapshot of values was taken.
+        store.put(PROPERTIES, Path.of("/x"), new byte[]{4});
+        store.put(LOCK, Path.of("/a"), new byte[]{5});
+        compactions.get(0).run();
+
+        assertArrayEquals(new byte[]{2}, store.get(PROPERTIES, Path.of("/a")));
+        assertArrayEquals(new byte[]{4}, store.get(PROPERTIES, Path.of("/x")));
+        assertArrayEquals(new byte[]{5}, store.get(LOCK, Path.of("/a")));
+        store.close();
+        assertArrayEquals(new byte[]{2}, store.get(PROPERTIES, Path.of("/a")));
+        assertArrayEquals(new byte[]{4}, store.get(PROPERTIES, Path.of("/x")));
+        assertArrayEquals(new byte[]{5}, store.get(LOCK, Path.of("/a")));
+    }
+
+    @Test
+    public void dropsValuesOfRemovedItemsOnCompaction() throws Exception {
+        assertTrue(new File(testDirectory, "a").mkdir());
+        List<Runnable> compactions = new ArrayList<>();
+        store = new FileMetadataStore(storageFile, testDirectory, ".vfs", 0, compactions::add);
+        store.put(PROPERTIES, Path.of("/x"), new byte[]{1});
+        store.put(PROPERTIES, Path.of("/a"), new byte[]{2});
+        store.put(PROPERTIES, Path.of("/a"), new byte[]{3});
+        assertEquals(1, compactions.size());
+
+        compactions.get(0).run();
+
+        assertNull(store.get(PROPERTIES, Path.of("/x")));
+        assertArrayEquals(new byte[]{3}, store.get(PROPERTIES, Path.of("/a")));
+    }
+}
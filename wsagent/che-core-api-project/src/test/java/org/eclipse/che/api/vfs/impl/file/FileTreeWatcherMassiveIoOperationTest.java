@@ -33,8 +33,8 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -97,9 +97,11 @@ public class FileTreeWatcherMassiveIoOperationTest {
         verify(notificationListener, never()).handleFileWatcherEvent(eq(CREATED), eq(testDirectory), anyString(), anyBoolean());
         verify(notificationListener, never()).handleFileWatcherEvent(eq(MODIFIED), eq(testDirectory), anyString(), anyBoolean());
 
+        // Deletion of the whole subtree is reported with single event for its root.
+        List<String> topLevelFilesAndDirs = allFilesAndDirs.stream().filter(path -> !path.contains(File.separator)).collect(Collectors.toList());
         ArgumentCaptor<String> deletedEvents = ArgumentCaptor.forClass(String.class);
-        verify(notificationListener, times(allFilesAndDirs.size())).handleFileWatcherEvent(eq(DELETED), eq(testDirectory), deletedEvents.capture(), anyBoolean());
-        assertThatCollectionsContainsSameItemsOrFailWithDiff(deletedEvents.getAllValues(), allFilesAndDirs);
+        verify(notificationListener, times(topLevelFilesAndDirs.size())).handleFileWatcherEvent(eq(DELETED), eq(testDirectory), deletedEvents.capture(), anyBoolean());
+        assertThatCollectionsContainsSameItemsOrFailWithDiff(deletedEvents.getAllValues(), topLevelFilesAndDirs);
     }
 
     @Test
@@ -207,7 +209,7 @@ public class FileTreeWatcherMassiveIoOperationTest {
     }
 
     private FileWatcherNotificationHandler aNotificationListener() {
-        return mock(FileWatcherNotificationHandler.class);
+        return spy(new NotificationHandlerStub());
     }
 
     private void assertThatCollectionsContainsSameItemsOrFailWithDiff(Collection<String> actual, Collection<String> expected) {
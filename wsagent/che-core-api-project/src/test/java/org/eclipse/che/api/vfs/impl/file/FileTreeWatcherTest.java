@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.impl.file;
 
+import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
 import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.commons.lang.NameGenerator;
 import org.junit.After;
@@ -34,8 +35,8 @@ import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -163,9 +164,8 @@ public class FileTreeWatcherTest {
     @Test
     public void watchesDelete() throws Exception {
         fileWatcherTestTree.createDirectory("", "watched");
-        String deletedDir1 = fileWatcherTestTree.createDirectory("watched");
-        String deletedFile1 = fileWatcherTestTree.createFile("watched");
-        Set<String> deleted = newHashSet("watched", deletedDir1, deletedFile1);
+        fileWatcherTestTree.createDirectory("watched");
+        fileWatcherTestTree.createFile("watched");
 
         FileWatcherNotificationHandler notificationHandler = aNotificationHandler();
         fileWatcher = new FileTreeWatcher(testDirectory, newHashSet(), notificationHandler);
@@ -181,9 +181,28 @@ public class FileTreeWatcherTest {
         verify(notificationHandler, never()).handleFileWatcherEvent(eq(CREATED), eq(testDirectory), anyString(), anyBoolean());
         verify(notificationHandler, never()).handleFileWatcherEvent(eq(MODIFIED), eq(testDirectory), anyString(), anyBoolean());
 
-        ArgumentCaptor<String> deletedEvents = ArgumentCaptor.forClass(String.class);
-        verify(notificationHandler, times(3)).handleFileWatcherEvent(eq(DELETED), eq(testDirectory), deletedEvents.capture(), anyBoolean());
-        assertEquals(deleted, newHashSet(deletedEvents.getAllValues()));
+        verify(notificationHandler).handleFileWatcherEvent(eq(DELETED), eq(testDirectory), eq("watched"), eq(true));
+        verify(notificationHandler).handleFileWatcherEvent(any(FileWatcherEventType.class), eq(testDirectory), anyString(), anyBoolean());
+    }
+
+    @Test
+    public void coalescesEventsOfTheSamePath() throws Exception {
+        FileWatcherNotificationHandler notificationHandler = aNotificationHandler();
+        fileWatcher = new FileTreeWatcher(testDirectory, newHashSet(), notificationHandler);
+        fileWatcher.startup();
+
+        Thread.sleep(500);
+
+        String file = fileWatcherTestTree.createFile("");
+        fileWatcherTestTree.updateFile(file);
+        String deleted = fileWatcherTestTree.createFile("");
+        fileWatcherTestTree.delete(deleted);
+
+        Thread.sleep(5000);
+
+        verify(notificationHandler, never()).errorOccurred(eq(testDirectory), any(Throwable.class));
+        verify(notificationHandler).handleFileWatcherEvent(eq(CREATED), eq(testDirectory), eq(file), eq(false));
+        verify(notificationHandler).handleFileWatcherEvent(any(FileWatcherEventType.class), eq(testDirectory), anyString(), anyBoolean());
     }
 
     @Test
@@ -269,6 +288,6 @@ public class FileTreeWatcherTest {
     }
 
     private FileWatcherNotificationHandler aNotificationHandler() {
-        return mock(FileWatcherNotificationHandler.class);
+        return spy(new NotificationHandlerStub());
     }
 }
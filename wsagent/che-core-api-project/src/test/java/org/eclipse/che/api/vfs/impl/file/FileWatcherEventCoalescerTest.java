@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.CREATED;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.DELETED;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class FileWatcherEventCoalescerTest {
+    private FileWatcherEventCoalescer coalescer;
+
+    @Before
+    public void setUp() throws Exception {
+        coalescer = new FileWatcherEventCoalescer();
+    }
+
+    @Test
+    public void mergesCreationAndModificationOfFileIntoCreation() throws Exception {
+        coalescer.add(CREATED, path("a/file"), false);
+        coalescer.add(MODIFIED, path("a/file"), false);
+        coalescer.add(MODIFIED, path("a/file"), false);
+
+        assertEquals(newArrayList(new FileWatcherEvent(CREATED, "a/file", false)), coalescer.drain());
+    }
+
+    @Test
+    public void dropsEventsOfFileThatIsCreatedAndDeleted() throws Exception {
+        coalescer.add(CREATED, path("a/file"), false);
+        coalescer.add(MODIFIED, path("a/file"), false);
+        coalescer.add(DELETED, path("a/file"), false);
+
+        assertTrue(coalescer.drain().isEmpty());
+    }
+
+    @Test
+    public void mergesModificationAndDeletionOfFileIntoDeletion() throws Exception {
+        coalescer.add(MODIFIED, path("a/file"), false);
+        coalescer.add(DELETED, path("a/file"), false);
+
+        assertEquals(newArrayList(new FileWatcherEvent(DELETED, "a/file", false)), coalescer.drain());
+    }
+
+    @Test
+    public void mergesDeletionAndCreationOfFileIntoModification() throws Exception {
+        coalescer.add(DELETED, path("a/file"), false);
+        coalescer.add(CREATED, path("a/file"), false);
+
+        assertEquals(newArrayList(new FileWatcherEvent(MODIFIED, "a/file", false)), coalescer.drain());
+    }
+
+    @Test
+    public void reportsCreationWhenFileIsReplacedWithDirectory() throws Exception {
+        coalescer.add(DELETED, path("a/b"), false);
+        coalescer.add(CREATED, path("a/b"), true);
+
+        assertEquals(newArrayList(new FileWatcherEvent(CREATED, "a/b", true)), coalescer.drain());
+    }
+
+    @Test
+    public void collapsesDeletionOfSubtreeIntoDeletionOfItsRoot() throws Exception {
+        coalescer.add(MODIFIED, path("a/b/file1"), false);
+        coalescer.add(DELETED, path("a/b/c/file2"), false);
+        coalescer.add(DELETED, path("a/b/c"), true);
+        coalescer.add(DELETED, path("a/b/file1"), false);
+        coalescer.add(DELETED, path("a/b"), true);
+        coalescer.add(MODIFIED, path("a/file3"), false);
+
+        assertEquals(newHashSet(new FileWatcherEvent(DELETED, "a/b", true), new FileWatcherEvent(MODIFIED, "a/file3", false)),
+                     newHashSet(coalescer.drain()));
+    }
+
+    @Test
+    public void dropsEventsOfItemsOfDirectoryThatIsCreatedAndDeleted() throws Exception {
+        coalescer.add(CREATED, path("a"), true);
+        coalescer.add(CREATED, path("a/file"), false);
+        coalescer.add(DELETED, path("a"), true);
+
+        assertTrue(coalescer.drain().isEmpty());
+    }
+
+    @Test
+    public void isEmptyAfterDraining() throws Exception {
+        coalescer.add(CREATED, path("a/file"), false);
+        coalescer.drain();
+
+        assertTrue(coalescer.isEmpty());
+        assertTrue(coalescer.drain().isEmpty());
+    }
+
+    private Path path(String path) {
+        return Paths.get(path);
+    }
+}
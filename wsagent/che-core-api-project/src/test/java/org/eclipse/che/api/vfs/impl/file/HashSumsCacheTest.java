@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
+
+import org.eclipse.che.api.core.util.FileCleaner;
+import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
+import org.eclipse.che.api.vfs.ArchiverFactory;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.eclipse.che.commons.lang.Pair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author agent
+ */
+public class HashSumsCacheTest {
+    private File                   testDirectory;
+    private File                   storageFile;
+    private LocalVirtualFileSystem fileSystem;
+    private ForkJoinPool           hashingPool;
+
+    @Before
+    public void setUp() throws Exception {
+        File targetDir = new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath()).getParentFile();
+        testDirectory = new File(targetDir, NameGenerator.generate("hash-sums-", 4));
+        assertTrue(testDirectory.mkdir());
+        storageFile = new File(testDirectory, ".vfs/hashsums");
+        fileSystem = new LocalVirtualFileSystem(testDirectory,
+                                                mock(ArchiverFactory.class),
+                                                null,
+                                                mock(AbstractVirtualFileSystemProvider.CloseCallback.class));
+        hashingPool = new ForkJoinPool(2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        hashingPool.shutdownNow();
+        IoUtil.deleteRecursive(testDirectory);
+        FileCleaner.stop();
+    }
+
+    @Test
+    public void countsHashSumsOfAllFilesInFolder() throws Exception {
+        VirtualFile folder = fileSystem.getRoot().createFolder("a");
+        VirtualFile file1 = folder.createFile("file1", "aaa");
+        VirtualFile file2 = folder.createFolder("b").createFile("file2", "bbb");
+
+        HashSumsCache cache = new HashSumsCache(storageFile, Hashing.md5(), hashingPool);
+
+        assertEquals(newHashSet(Pair.of(md5(file1), "file1"), Pair.of(md5(file2), "b/file2")),
+                     newHashSet(cache.countHashSums((LocalVirtualFile)folder)));
+    }
+
+    @Test
+    public void skipsNotInvalidatedFoldersWhenWatched() throws Exception {
+        VirtualFile folder = fileSystem.getRoot().createFolder("a");
+        VirtualFile file = folder.createFile("file", "aaa");
+        HashSumsCache cache = new HashSumsCache(storageFile, Hashing.md5(), hashingPool);
+        cache.setWatched(true);
+        String hashSum = md5(file);
+        cache.countHashSums((LocalVirtualFile)folder);
+
+        // Change file directly without notifying the cache, cached hash sum is expected.
+        Files.write("changed".getBytes(), ((LocalVirtualFile)file).toIoFile());
+        assertEquals(newHashSet(Pair.of(hashSum, "file")), newHashSet(cache.countHashSums((LocalVirtualFile)folder)));
+
+        cache.invalidate(Path.of("/a/file"));
+        assertEquals(newHashSet(Pair.of(md5(file), "file")), newHashSet(cache.countHashSums((LocalVirtualFile)folder)));
+    }
+
+    @Test
+    public void detectsChangedFilesByLengthWhenNotWatched() throws Exception {
+        VirtualFile folder = fileSystem.getRoot().createFolder("a");
+        VirtualFile file = folder.createFile("file", "aaa");
+        HashSumsCache cache = new HashSumsCache(storageFile, Hashing.md5(), hashingPool);
+        cache.countHashSums((LocalVirtualFile)folder);
+
+        Files.write("changed".getBytes(), ((LocalVirtualFile)file).toIoFile());
+
+        assertEquals(newHashSet(Pair.of(md5(file), "file")), newHashSet(cache.countHashSums((LocalVirtualFile)folder)));
+    }
+
+    @Test
+    public void restoresSavedHashSums() throws Exception {
+        VirtualFile folder = fileSystem.getRoot().createFolder("a");
+        VirtualFile file = folder.createFile("file", "aaa");
+        HashSumsCache cache = new HashSumsCache(storageFile, Hashing.md5(), hashingPool);
+        cache.countHashSums((LocalVirtualFile)folder);
+        cache.save();
+
+        assertTrue(storageFile.exists());
+        HashSumsCache restored = new HashSumsCache(storageFile, Hashing.md5(), hashingPool);
+        assertEquals(newHashSet(Pair.of(md5(file), "file")), newHashSet(restored.countHashSums((LocalVirtualFile)folder)));
+    }
+
+    private String md5(VirtualFile file) throws Exception {
+        return ByteSource.wrap(file.getContentAsBytes()).hash(Hashing.md5()).toString();
+    }
+}
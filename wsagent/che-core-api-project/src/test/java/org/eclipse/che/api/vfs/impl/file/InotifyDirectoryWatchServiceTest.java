@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * @author agent
+ */
+public class InotifyDirectoryWatchServiceTest {
+    private Path                         testDirectory;
+    private InotifyDirectoryWatchService watchService;
+
+    @Before
+    public void setUp() throws Exception {
+        assumeTrue(InotifyDirectoryWatchService.isSupported());
+        File targetDir = new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath()).getParentFile();
+        File directory = new File(targetDir, NameGenerator.generate("inotify-", 4));
+        assertTrue(directory.mkdir());
+        testDirectory = directory.toPath();
+        watchService = new InotifyDirectoryWatchService();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (testDirectory != null) {
+            IoUtil.deleteRecursive(testDirectory.toFile());
+        }
+    }
+
+    @Test
+    public void reportsDirectoryWhichContentIsChanged() throws Exception {
+        Path watched = Files.createDirectory(testDirectory.resolve("watched"));
+        Files.createDirectory(testDirectory.resolve("not-watched"));
+        watchService.register(watched);
+
+        Files.createFile(testDirectory.resolve("not-watched").resolve("file"));
+        Files.createFile(watched.resolve("file"));
+
+        assertEquals(newHashSet(watched), watchService.poll(1000, MILLISECONDS));
+    }
+
+    @Test
+    public void reportsDeletedDirectory() throws Exception {
+        Path watched = Files.createDirectory(testDirectory.resolve("watched"));
+        watchService.register(testDirectory);
+        watchService.register(watched);
+
+        Files.delete(watched);
+
+        assertEquals(newHashSet(testDirectory, watched), watchService.poll(1000, MILLISECONDS));
+    }
+
+    @Test
+    public void doesNotReportDirectoryAfterCancelingOfWatch() throws Exception {
+        Path watched = Files.createDirectory(testDirectory.resolve("watched"));
+        watchService.register(watched);
+        watchService.cancel(watched);
+
+        Files.createFile(watched.resolve("file"));
+
+        assertTrue(watchService.poll(500, MILLISECONDS).isEmpty());
+    }
+
+    @Test
+    public void tracksDirectoryRegisteredAfterMove() throws Exception {
+        Path watched = Files.createDirectory(testDirectory.resolve("watched"));
+        watchService.register(watched);
+        Path moved = Files.move(watched, testDirectory.resolve("moved"));
+        watchService.register(moved);
+        watchService.cancel(watched);
+        watchService.poll(500, MILLISECONDS);
+
+        Files.createFile(moved.resolve("file"));
+
+        assertEquals(newHashSet(moved), watchService.poll(1000, MILLISECONDS));
+    }
+
+    @Test(expected = ClosedWatchServiceException.class)
+    public void failsToPollWhenClosed() throws Exception {
+        watchService.close();
+        watchService.poll(100, MILLISECONDS);
+    }
+}
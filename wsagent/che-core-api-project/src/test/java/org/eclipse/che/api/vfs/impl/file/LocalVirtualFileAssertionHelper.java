@@ -17,15 +17,21 @@ import org.eclipse.che.api.vfs.Path;
 import java.io.File;
 import java.io.IOException;
 
+import static org.eclipse.che.api.vfs.impl.file.FileMetadataStore.Kind.LOCK;
+import static org.eclipse.che.api.vfs.impl.file.FileMetadataStore.Kind.PROPERTIES;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class LocalVirtualFileAssertionHelper {
-    private final File testDirectory;
+    private final File                   testDirectory;
+    private final LocalVirtualFileSystem fileSystem;
 
-    public LocalVirtualFileAssertionHelper(File testDirectory) {
+    public LocalVirtualFileAssertionHelper(File testDirectory, LocalVirtualFileSystem fileSystem) {
         this.testDirectory = testDirectory;
+        this.fileSystem = fileSystem;
     }
 
     public void assertThatIoFileExists(Path virtualFilePath) {
@@ -48,29 +54,26 @@ public class LocalVirtualFileAssertionHelper {
     }
 
 
-    public void assertThatMetadataIoFileDoesNotExist(Path virtualFilePath) {
-        File metadataIoFile = getMetadataIoFile(virtualFilePath);
-        assertFalse(metadataIoFile.exists());
+    public void assertThatMetadataIoFileDoesNotExist(Path virtualFilePath) throws IOException {
+        assertNull(getMetadata(PROPERTIES, virtualFilePath));
     }
 
     public void assertThatMetadataIoFilesHaveSameContent(Path fileOne, Path fileTwo) throws IOException {
-        assertArrayEquals(String.format("Same content expected for files %s and %s", fileOne, fileTwo),
-                          Files.toByteArray(getMetadataIoFile(fileOne)), Files.toByteArray(getMetadataIoFile(fileTwo)));
+        assertArrayEquals(String.format("Same properties expected for files %s and %s", fileOne, fileTwo),
+                          getMetadata(PROPERTIES, fileOne), getMetadata(PROPERTIES, fileTwo));
     }
 
     public void assertThatMetadataIoFileHasContent(Path virtualFilePath, byte[] bytes) throws IOException {
-        assertArrayEquals(bytes, Files.toByteArray(getMetadataIoFile(virtualFilePath)));
+        assertArrayEquals(bytes, getMetadata(PROPERTIES, virtualFilePath));
     }
 
 
-    public void assertThatLockIoFileExists(Path virtualFilePath) {
-        File ioFile = getLockIoFile(virtualFilePath);
-        assertTrue(ioFile.exists());
+    public void assertThatLockIoFileExists(Path virtualFilePath) throws IOException {
+        assertNotNull(getMetadata(LOCK, virtualFilePath));
     }
 
-    public void assertThatLockIoFileDoesNotExist(Path virtualFilePath) {
-        File lockIoFile = getLockIoFile(virtualFilePath);
-        assertFalse(lockIoFile.exists());
+    public void assertThatLockIoFileDoesNotExist(Path virtualFilePath) throws IOException {
+        assertNull(getMetadata(LOCK, virtualFilePath));
     }
 
 
@@ -78,24 +81,18 @@ public class LocalVirtualFileAssertionHelper {
         return new File(testDirectory, toIoPath(virtualFilePath));
     }
 
-    private File getMetadataIoFile(Path virtualFilePath) {
-        Path metadataFilePath;
-        if (virtualFilePath.isRoot()) {
-            metadataFilePath = virtualFilePath.newPath(".vfs", "props", virtualFilePath.getName() + "_props");
-        } else {
-            metadataFilePath = virtualFilePath.getParent().newPath(".vfs", "props", virtualFilePath.getName() + "_props");
-        }
-        return new File(testDirectory, toIoPath(metadataFilePath));
-    }
-
-    private File getLockIoFile(Path virtualFilePath) {
-        Path lockFilePath;
-        if (virtualFilePath.isRoot()) {
-            lockFilePath = virtualFilePath.newPath(".vfs", "locks", virtualFilePath.getName() + "_lock");
-        } else {
-            lockFilePath = virtualFilePath.getParent().newPath(".vfs", "locks", virtualFilePath.getName() + "_lock");
+    /*
+     * Reads metadata from the log file of store, all changes are written in the log before VFS operation returns. Store of VFS is closed
+     * first, it is reopened on next access.
+     */
+    private byte[] getMetadata(FileMetadataStore.Kind kind, Path virtualFilePath) throws IOException {
+        fileSystem.getMetadataStore().close();
+        FileMetadataStore metadataStore = new FileMetadataStore(new File(testDirectory, ".vfs/metadata"), testDirectory, ".vfs");
+        try {
+            return metadataStore.get(kind, virtualFilePath);
+        } finally {
+            metadataStore.close();
         }
-        return new File(testDirectory, toIoPath(lockFilePath));
     }
 
     private String toIoPath(Path vfsPath) {
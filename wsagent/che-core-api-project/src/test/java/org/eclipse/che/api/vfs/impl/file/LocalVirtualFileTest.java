@@ -23,6 +23,7 @@ import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.Archiver;
 import org.eclipse.che.api.vfs.ArchiverFactory;
 import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.PathLockFactory;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileVisitor;
@@ -45,15 +46,21 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -85,7 +92,6 @@ public class LocalVirtualFileTest {
         File targetDir = new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath()).getParentFile();
         testDirectory = new File(targetDir, NameGenerator.generate("fs-", 4));
         assertTrue(testDirectory.mkdir());
-        assertionHelper = new LocalVirtualFileAssertionHelper(testDirectory);
 
         archiverFactory = mock(ArchiverFactory.class);
         SearcherProvider searcherProvider = mock(SearcherProvider.class);
@@ -96,6 +102,7 @@ public class LocalVirtualFileTest {
         searcher = mock(Searcher.class);
         when(searcherProvider.getSearcher(eq(fileSystem), eq(true))).thenReturn(searcher);
         when(searcherProvider.getSearcher(eq(fileSystem))).thenReturn(searcher);
+        assertionHelper = new LocalVirtualFileAssertionHelper(testDirectory, fileSystem);
     }
 
     @After
@@ -305,6 +312,23 @@ public class LocalVirtualFileTest {
         assertEquals(expected, newHashSet(folder.countMd5Sums()));
     }
 
+    @Test
+    public void recountsMd5SumsOfUpdatedAndCreatedFiles() throws Exception {
+        VirtualFile root = getRoot();
+        VirtualFile folder = root.createFolder(generateFolderName());
+        VirtualFile file1 = folder.createFile(generateFileName(), DEFAULT_CONTENT);
+        VirtualFile file2 = folder.createFile(generateFileName(), "xxx");
+        folder.countMd5Sums();
+
+        file1.updateContent("updated");
+        file2.delete();
+        VirtualFile file3 = folder.createFolder(generateFolderName()).createFile(generateFileName(), "yyy");
+        Set<Pair<String, String>> expected = newHashSet(Pair.of(countMd5Sum(file1), file1.getPath().subPath(folder.getPath()).toString()),
+                                                        Pair.of(countMd5Sum(file3), file3.getPath().subPath(folder.getPath()).toString()));
+
+        assertEquals(expected, newHashSet(folder.countMd5Sums()));
+    }
+
     @Test
     public void returnsEmptyListWhenCountMd5SumsOnFile() throws Exception {
         VirtualFile root = getRoot();
@@ -399,6 +423,127 @@ public class LocalVirtualFileTest {
         assertEquals(DEFAULT_CONTENT, new String(bytes));
     }
 
+    @Test
+    public void readsBigFileContentDirectlyAndReleasesLockWhenStreamIsClosed() throws Exception {
+        VirtualFile root = getRoot();
+        byte[] bigContent = new byte[LocalVirtualFileSystem.MAX_BUFFER_SIZE + 1];
+        Arrays.fill(bigContent, (byte)'a');
+        VirtualFile file = root.createFile(generateFileName(), bigContent);
+
+        InputStream content = file.getContent();
+        assertTrue(content instanceof LockedFileInputStream);
+        byte[] head = new byte[DEFAULT_CONTENT_BYTES.length];
+        ByteStreams.readFully(content, head);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Closed by another thread, lock isn't bound to thread that opened the stream.
+            executor.submit(() -> {
+                content.close();
+                return null;
+            }).get(5, SECONDS);
+            executor.submit(() -> file.updateContent(DEFAULT_CONTENT)).get(5, SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertionHelper.assertThatIoFileHasContent(file.getPath(), DEFAULT_CONTENT_BYTES);
+    }
+
+    @Test
+    public void readsBigFileContentFromCopyIfCurrentThreadHoldsExclusiveLockOfFile() throws Exception {
+        VirtualFile root = getRoot();
+        byte[] bigContent = new byte[LocalVirtualFileSystem.MAX_BUFFER_SIZE + 1];
+        Arrays.fill(bigContent, (byte)'a');
+        VirtualFile file = root.createFile(generateFileName(), bigContent);
+
+        PathLockFactory.PathLock lock = fileSystem.getPathLockFactory().getLock(file.getPath(), true).acquire();
+        try (InputStream content = file.getContent()) {
+            assertFalse(content instanceof LockedFileInputStream);
+            assertArrayEquals(bigContent, ByteStreams.toByteArray(content));
+        } finally {
+            lock.release();
+        }
+    }
+
+    @Test
+    public void releasesLockOfBigFileIfStreamIsNotReadDuringIdleTimeout() throws Exception {
+        VirtualFile root = getRoot();
+        byte[] bigContent = new byte[LocalVirtualFileSystem.MAX_BUFFER_SIZE + 1];
+        VirtualFile file = root.createFile(generateFileName(), bigContent);
+        PathLockFactory.PathLock lock = new PathLockFactory(10).getLock(file.getPath(), false);
+        assertTrue(lock.tryAcquireDetached());
+
+        try (LockedFileInputStream content = new LockedFileInputStream(new File(testDirectory, file.getPath().toString()), lock, 50)) {
+            long endTime = System.currentTimeMillis() + 5000;
+            while (!content.isLockReleased() && System.currentTimeMillis() < endTime) {
+                Thread.sleep(10);
+            }
+            assertTrue(content.isLockReleased());
+        }
+    }
+
+    @Test
+    public void updatesBigFileWithItsOwnContent() throws Exception {
+        VirtualFile root = getRoot();
+        byte[] bigContent = new byte[LocalVirtualFileSystem.MAX_BUFFER_SIZE * 2];
+        for (int i = 0; i < bigContent.length; i++) {
+            bigContent[i] = (byte)i;
+        }
+        VirtualFile file = root.createFile(generateFileName(), bigContent);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> file.updateContent(file.getContent())).get(5, SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (InputStream content = file.getContent()) {
+            assertArrayEquals(bigContent, ByteStreams.toByteArray(content));
+        }
+        assertionHelper.assertThatIoFileHasContent(file.getPath(), bigContent);
+    }
+
+    @Test
+    public void streamKeepsReadingPreviousContentOfBigFileIfFileIsUpdatedAfterIdleTimeout() throws Exception {
+        VirtualFile root = getRoot();
+        byte[] bigContent = new byte[LocalVirtualFileSystem.MAX_BUFFER_SIZE + 1];
+        Arrays.fill(bigContent, (byte)'a');
+        VirtualFile file = root.createFile(generateFileName(), bigContent);
+        PathLockFactory.PathLock lock = fileSystem.getPathLockFactory().getLock(file.getPath(), false);
+        assertTrue(lock.tryAcquireDetached());
+
+        try (LockedFileInputStream content = new LockedFileInputStream(new File(testDirectory, file.getPath().toString()), lock, 50)) {
+            byte[] head = new byte[10];
+            ByteStreams.readFully(content, head);
+            long endTime = System.currentTimeMillis() + 5000;
+            while (!content.isLockReleased() && System.currentTimeMillis() < endTime) {
+                Thread.sleep(10);
+            }
+
+            file.updateContent(DEFAULT_CONTENT);
+
+            byte[] tail = ByteStreams.toByteArray(content);
+            assertEquals(bigContent.length - head.length, tail.length);
+        }
+        assertionHelper.assertThatIoFileHasContent(file.getPath(), DEFAULT_CONTENT_BYTES);
+    }
+
+    @Test
+    public void contentSnapshotKeepsLengthAndContentOfFileIfFileIsUpdated() throws Exception {
+        VirtualFile root = getRoot();
+        LocalVirtualFile file = (LocalVirtualFile)root.createFile(generateFileName(), DEFAULT_CONTENT);
+
+        ByteArrayOutputStream transferred = new ByteArrayOutputStream();
+        try (FileContentSnapshot snapshot = file.openContentSnapshot()) {
+            file.updateContent("updated " + DEFAULT_CONTENT);
+
+            assertEquals(DEFAULT_CONTENT_BYTES.length, snapshot.getLength());
+            assertEquals(DEFAULT_CONTENT_BYTES.length, snapshot.transferTo(0, Long.MAX_VALUE, Channels.newChannel(transferred)));
+        }
+        assertArrayEquals(DEFAULT_CONTENT_BYTES, transferred.toByteArray());
+        assertEquals("updated " + DEFAULT_CONTENT, file.getContentAsString());
+    }
+
     @Test
     public void getsContentAsBytes() throws Exception {
         VirtualFile root = getRoot();
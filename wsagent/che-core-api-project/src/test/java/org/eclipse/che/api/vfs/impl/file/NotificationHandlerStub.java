@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Does nothing, is expected to be spied in tests. Batches of events are passed to
+ * {@link #handleFileWatcherEvent(FileWatcherEventType, File, String, boolean)} explicitly since spies don't call default methods of
+ * interfaces.
+ *
+ * @author agent
+ */
+class NotificationHandlerStub implements FileWatcherNotificationHandler {
+    @Override
+    public void handleFileWatcherEvent(FileWatcherEventType eventType, File watchRoot, String subPath, boolean isDir) {
+    }
+
+    @Override
+    public void handleFileWatcherEvents(File watchRoot, List<FileWatcherEvent> events) {
+        for (FileWatcherEvent event : events) {
+            handleFileWatcherEvent(event.getType(), watchRoot, event.getSubPath(), event.isDirectory());
+        }
+    }
+
+    @Override
+    public void started(File watchRoot) {
+    }
+
+    @Override
+    public void errorOccurred(File watchRoot, Throwable cause) {
+    }
+
+    @Override
+    public boolean addNotificationListener(FileWatcherNotificationListener fileWatcherNotificationListener) {
+        return false;
+    }
+
+    @Override
+    public boolean removeNotificationListener(FileWatcherNotificationListener fileWatcherNotificationListener) {
+        return false;
+    }
+}
@@ -224,6 +224,37 @@ public class FSLuceneSearcherTest {
         verify(closeCallback).onClose();
     }
 
+    @Test
+    public void reusesIndexCommittedBeforeClosingOfSearcher() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[2]);
+        VirtualFile updated = folder.createFile("yyy.txt", TEST_CONTENT[2]);
+        VirtualFile deleted = folder.createFile("zzz.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+        searcher.close();
+
+        updated.updateContent(TEST_CONTENT[1]);
+        deleted.delete();
+        searcher = new FSLuceneSearcher(indexDirectory, filter, closeCallback);
+        searcher.init(virtualFileSystem);
+
+        assertEquals(newArrayList("/folder/xxx.txt"), searcher.search(new QueryExpression().setText("be")).getFilePaths());
+        assertEquals(newArrayList("/folder/yyy.txt"), searcher.search(new QueryExpression().setText("should")).getFilePaths());
+    }
+
+    @Test
+    public void hidesChangesFromSearchUntilMaxStalenessIsExceeded() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        searcher = new FSLuceneSearcher(indexDirectory, filter, closeCallback, 60000, 0, 0);
+        searcher.init(virtualFileSystem);
+        VirtualFile file = virtualFileSystem.getRoot().createFolder("aaa").createFile("aaa.txt", TEST_CONTENT[1]);
+
+        searcher.add(file);
+
+        assertTrue(searcher.search(new QueryExpression().setText("should")).getFilePaths().isEmpty());
+    }
+
     @Test
     public void excludesFilesFromIndexWithFilter() throws Exception {
         VirtualFileSystem virtualFileSystem = virtualFileSystem();
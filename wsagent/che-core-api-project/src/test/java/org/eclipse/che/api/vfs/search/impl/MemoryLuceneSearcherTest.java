@@ -18,16 +18,19 @@ import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.impl.memory.MemoryVirtualFileSystem;
 import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.SearchOccurrence;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentMatcher;
 
+import java.io.ByteArrayInputStream;
 import java.util.Collections;
 import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -284,6 +287,116 @@ public class MemoryLuceneSearcherTest {
         assertTrue(Collections.disjoint(firstPage.getFilePaths(), lastPage.getFilePaths()));
     }
 
+    @Test
+    public void includesPositionsOfMatchedTextInSearchResult() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[0] + "\n" + TEST_CONTENT[3]);
+        folder.createFile("zzz.txt", TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("mission").setIncludePositions(true));
+
+        assertEquals(1, result.getResults().size());
+        assertEquals(newArrayList(new SearchOccurrence("mission", 2, 47, 54, TEST_CONTENT[3])),
+                     result.getResults().get(0).getOccurrences());
+    }
+
+    @Test
+    public void doesNotIncludePositionsOfMatchedTextInSearchResultByDefault() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFolder("folder").createFile("xxx.txt", TEST_CONTENT[3]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("mission"));
+
+        assertEquals(1, result.getResults().size());
+        assertTrue(result.getResults().get(0).getOccurrences().isEmpty());
+    }
+
+    @Test
+    public void searchesByRegularExpression() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[0]);
+        folder.createFile("yyy.txt", TEST_CONTENT[3]);
+        folder.createFile("zzz.txt", "early in the morning");
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = searcher.search(new QueryExpression().setRegex("early \\d+")).getFilePaths();
+        assertEquals(newArrayList("/folder/yyy.txt"), paths);
+
+        paths = searcher.search(new QueryExpression().setRegex("space.*milestones")).getFilePaths();
+        assertEquals(newArrayList("/folder/xxx.txt"), paths);
+    }
+
+    @Test
+    public void searchesByRegularExpressionWithNonAsciiLiterals() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        String content = "ΟΔΟΣ İSTANBUL \uD801\uDC00\uD801\uDC01X";
+        folder.createFile("xxx.txt", new ByteArrayInputStream(content.getBytes(UTF_8)));
+        folder.createFile("yyy.txt", TEST_CONTENT[0]);
+        searcher.init(virtualFileSystem);
+
+        assertEquals(newArrayList("/folder/xxx.txt"), searcher.search(new QueryExpression().setRegex("ΟΔΟΣ")).getFilePaths());
+        assertEquals(newArrayList("/folder/xxx.txt"), searcher.search(new QueryExpression().setRegex("İSTANBUL")).getFilePaths());
+        assertEquals(newArrayList("/folder/xxx.txt"),
+                     searcher.search(new QueryExpression().setRegex("\uD801\uDC00\uD801\uDC01X")).getFilePaths());
+    }
+
+    @Test
+    public void includesPositionsOfMatchedRegularExpressionInSearchResult() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFolder("folder").createFile("xxx.txt", TEST_CONTENT[1] + "\n" + TEST_CONTENT[3]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setRegex("early \\d+").setIncludePositions(true));
+
+        assertEquals(1, result.getResults().size());
+        assertEquals(newArrayList(new SearchOccurrence("early 1961", 2, 3, 13, TEST_CONTENT[3])),
+                     result.getResults().get(0).getOccurrences());
+    }
+
+    @Test
+    public void pagesThroughFilesMatchedByRegularExpression() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[3]);
+        folder.createFile("yyy.txt", TEST_CONTENT[3]);
+        folder.createFile("zzz.txt", TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setRegex("mission m.de").setMaxItems(1));
+
+        assertEquals(1, result.getResults().size());
+        assertTrue(result.getNextPageQueryExpression().isPresent());
+        SearchResult nextPage = searcher.search(result.getNextPageQueryExpression().get());
+        assertEquals(1, nextPage.getResults().size());
+        assertFalse(nextPage.getNextPageQueryExpression().isPresent());
+        assertFalse(result.getFilePaths().equals(nextPage.getFilePaths()));
+    }
+
+    @Test
+    public void indexesAllFilesOfTreeInParallel() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        List<String> expectedPaths = newArrayList();
+        for (int i = 0; i < 10; i++) {
+            VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder" + i).createFolder("sub");
+            for (int j = 0; j < 10; j++) {
+                expectedPaths.add(folder.createFile("file" + j, TEST_CONTENT[j % TEST_CONTENT.length]).getPath().toString());
+            }
+        }
+        searcher.doInit();
+        searcher.addTreeInParallel(virtualFileSystem.getRoot(), 4);
+
+        List<String> paths = searcher.search(new QueryExpression().setName("file*")).getFilePaths();
+        Collections.sort(expectedPaths);
+        Collections.sort(paths);
+        assertEquals(expectedPaths, paths);
+        assertEquals(20, searcher.search(new QueryExpression().setText("to be")).getTotalHits());
+    }
+
     private VirtualFileSystem virtualFileSystem() throws Exception {
         return new MemoryVirtualFileSystem(mock(ArchiverFactory.class), null);
     }
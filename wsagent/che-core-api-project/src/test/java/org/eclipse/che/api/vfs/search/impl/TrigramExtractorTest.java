@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.junit.Test;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class TrigramExtractorTest {
+    @Test
+    public void extractsLowerCaseTrigramsOfLiteral() {
+        assertEquals(newHashSet("hel", "ell", "llo"), TrigramExtractor.extractTrigrams("HeLLo"));
+    }
+
+    @Test
+    public void lowerCasesEachCodePointSeparately() {
+        // Final sigma is not used, as LowerCaseFilter does not use it when indexing content.
+        assertEquals(newHashSet("οδο", "δοσ"), TrigramExtractor.extractTrigrams("ΟΔΟΣ"));
+        // Dotted capital I is lower-cased to single 'i' without combining dot.
+        assertEquals(newHashSet("ist", "sta"), TrigramExtractor.extractTrigrams("İSTA"));
+    }
+
+    @Test
+    public void buildsTrigramsOfCodePoints() {
+        // DESERET CAPITAL LETTER LONG I and LONG E are lower-cased to DESERET SMALL LETTER LONG I and LONG E.
+        assertEquals(newHashSet("\uD801\uDC28\uD801\uDC29x"), TrigramExtractor.extractTrigrams("\uD801\uDC00\uD801\uDC01X"));
+        assertEquals(newArrayList("ab", "c"), TrigramExtractor.extractLiterals("ab\uD801\uDC00?c"));
+    }
+
+    @Test
+    public void splitsLiteralsByMetaCharacters() {
+        assertEquals(newArrayList("foo", "bar", "baz"), TrigramExtractor.extractLiterals("^foo.bar\\d+baz$"));
+    }
+
+    @Test
+    public void dropsOptionalCharacters() {
+        assertEquals(newArrayList("colo", "r"), TrigramExtractor.extractLiterals("colou?r"));
+        assertEquals(newArrayList("ab", "c"), TrigramExtractor.extractLiterals("abx{2,3}c"));
+    }
+
+    @Test
+    public void keepsEscapedMetaCharactersInLiteral() {
+        assertEquals(newArrayList("a.b(c)"), TrigramExtractor.extractLiterals("a\\.b\\(c\\)"));
+        assertEquals(newArrayList("x", "a.*b"), TrigramExtractor.extractLiterals("x\\Qa.*b\\E"));
+    }
+
+    @Test
+    public void skipsGroupsAndCharacterClasses() {
+        assertEquals(newArrayList("foo", "bar"), TrigramExtractor.extractLiterals("foo(x|y)bar"));
+        assertEquals(newArrayList("foo", "bar"), TrigramExtractor.extractLiterals("foo[a-z\\]]bar"));
+    }
+
+    @Test
+    public void extractsNothingFromTopLevelAlternation() {
+        assertTrue(TrigramExtractor.extractTrigrams("foobar|bazqux").isEmpty());
+    }
+
+    @Test
+    public void extractsNothingFromExpressionWithCommentsFlag() {
+        assertTrue(TrigramExtractor.extractTrigrams("(?x) foo bar").isEmpty());
+    }
+
+    @Test
+    public void doesNotTakeOperandsOfEscapesAsLiteral() {
+        assertEquals(newArrayList("bc"), TrigramExtractor.extractLiterals("\\x41bc"));
+        assertEquals(newArrayList("bc"), TrigramExtractor.extractLiterals("\\x{41}bc"));
+        assertEquals(newArrayList("bc"), TrigramExtractor.extractLiterals("\\u0041bc"));
+        assertEquals(newArrayList("bc"), TrigramExtractor.extractLiterals("\\0101bc"));
+        assertEquals(newArrayList("bc"), TrigramExtractor.extractLiterals("\\cAbc"));
+        assertEquals(newArrayList("bc"), TrigramExtractor.extractLiterals("(?<name>x)\\k<name>bc"));
+        assertEquals(newArrayList("bc"), TrigramExtractor.extractLiterals("\\p{Lu}bc"));
+        assertEquals(newArrayList("bc"), TrigramExtractor.extractLiterals("(a)\\1bc"));
+        assertTrue(TrigramExtractor.extractTrigrams("\\x41bc").isEmpty());
+    }
+}
@@ -19,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Vitaly Parfonov
@@ -27,6 +28,9 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class ProjectTemplateRegistry {
 
     private final Map<List<String>, List<ProjectTemplateDescriptor>> templates = new ConcurrentHashMap<>();
+    /* Start time of registry is part of revision, so revisions of different runs of server don't match. */
+    private final String                                             startTime = Long.toHexString(System.currentTimeMillis());
+    private final AtomicLong                                         revision  = new AtomicLong();
 
     public void register(List<String> tags, ProjectTemplateDescriptor template) {
         List<ProjectTemplateDescriptor> templateList = templates.get(tags);
@@ -34,6 +38,7 @@ public class ProjectTemplateRegistry {
             templates.put(tags, templateList = new CopyOnWriteArrayList<>());
         }
         templateList.add(template);
+        revision.incrementAndGet();
     }
 
     public void register(List<String> tags, List<ProjectTemplateDescriptor> templates) {
@@ -43,6 +48,12 @@ public class ProjectTemplateRegistry {
         } else {
             templateList.addAll(templates);
         }
+        revision.incrementAndGet();
+    }
+
+    /** Gets revision of this registry. Revision is changed each time when templates are registered. */
+    public String getRevision() {
+        return startTime + '-' + revision.get();
     }
 
     public List<ProjectTemplateDescriptor> getTemplates(List<String> tags) {
@@ -39,6 +39,7 @@ public class ProjectTemplateService extends Service {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public List<ProjectTemplateDescriptor> getProjectTemplates(@QueryParam("tag") List<String> tags) {
+        checkNotModified(templateRegistry.getRevision());
         return templateRegistry.getTemplates(tags);
     }
 
@@ -46,6 +47,7 @@ public class ProjectTemplateService extends Service {
     @Path("/all")
     @Produces(MediaType.APPLICATION_JSON)
     public List<ProjectTemplateDescriptor> getProjectTemplates() {
+        checkNotModified(templateRegistry.getRevision());
         return templateRegistry.getAllTemplates();
     }
 }
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+
+import java.util.List;
+
+/**
+ * Batch of changes of workspace projects.
+ *
+ * @author agent
+ */
+@DTO
+public interface ProjectsUpdateDto {
+
+    /** Projects to add to workspace. Projects that have the same path as existing projects replace them. */
+    List<ProjectConfigDto> getProjects();
+
+    void setProjects(List<ProjectConfigDto> projects);
+
+    ProjectsUpdateDto withProjects(List<ProjectConfigDto> projects);
+
+    /** Paths of projects to remove from workspace. */
+    List<String> getRemoved();
+
+    void setRemoved(List<String> removed);
+
+    ProjectsUpdateDto withRemoved(List<String> removed);
+}
@@ -39,6 +39,7 @@ import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceRuntimeImpl;
 import org.eclipse.che.api.workspace.shared.dto.EnvironmentDto;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
+import org.eclipse.che.api.workspace.shared.dto.ProjectsUpdateDto;
 import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceDto;
@@ -618,6 +619,33 @@ public class WorkspaceServiceTest {
         verify(wsManager).updateWorkspace(any(), any());
     }
 
+    @Test
+    public void shouldUpdateProjectsAtOnce() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace(createConfigDto());
+        when(wsManager.getWorkspace(workspace.getId())).thenReturn(workspace);
+        when(wsManager.updateWorkspace(any(), any())).thenReturn(workspace);
+        final ProjectConfig firstProject = workspace.getConfig().getProjects().iterator().next();
+        final ProjectConfigDto newProject = createProjectDto().withPath("/new-project").withName("new-project");
+        final ProjectsUpdateDto update = newDto(ProjectsUpdateDto.class).withProjects(singletonList(newProject))
+                                                                        .withRemoved(singletonList(firstProject.getPath()));
+
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .contentType("application/json")
+                                         .body(update)
+                                         .when()
+                                         .put(SECURE_PATH + "/workspace/" + workspace.getId() + "/projects");
+
+        assertEquals(response.getStatusCode(), 200);
+        assertEquals(workspace.getConfig()
+                              .getProjects()
+                              .stream()
+                              .map(ProjectConfig::getPath)
+                              .collect(toList()), singletonList("/new-project"));
+        verify(validator).validateConfig(workspace.getConfig());
+        verify(wsManager).updateWorkspace(any(), any());
+    }
+
     @Test
     public void testWorkspaceLinks() throws Exception {
         // given